@@ -0,0 +1,46 @@
+-- Migración del registro de cambios del catálogo para la sincronización
+-- incremental de los terminales (GET /api/catalogo/cambios).
+-- La aplicación agrega una fila por cada producto, tipo de producto, combo o
+-- precio guardado o eliminado, en la misma transacción que el cambio. La carga
+-- inicial registra las filas existentes como guardadas para que un terminal que
+-- sincroniza desde la versión 0 reciba el catálogo completo.
+
+CREATE TABLE IF NOT EXISTS public.catalogo_cambio (
+    version bigint NOT NULL,
+    entidad character varying(20) NOT NULL,
+    id_entidad bigint NOT NULL,
+    operacion character(1) NOT NULL,
+    fecha timestamp without time zone DEFAULT now() NOT NULL,
+    CONSTRAINT pk_catalogo_cambio PRIMARY KEY (version)
+);
+
+ALTER TABLE public.catalogo_cambio OWNER TO postgres;
+
+CREATE SEQUENCE IF NOT EXISTS public.catalogo_cambio_version_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+ALTER SEQUENCE public.catalogo_cambio_version_seq OWNER TO postgres;
+
+BEGIN;
+
+LOCK TABLE public.catalogo_cambio IN EXCLUSIVE MODE;
+
+INSERT INTO public.catalogo_cambio (version, entidad, id_entidad, operacion)
+SELECT nextval('public.catalogo_cambio_version_seq'), c.entidad, c.id_entidad, 'G'
+FROM (
+    SELECT 'tipo_producto' AS entidad, id_tipo_producto::bigint AS id_entidad, 1 AS orden FROM public.tipo_producto
+    UNION ALL
+    SELECT 'producto', id_producto, 2 FROM public.producto
+    UNION ALL
+    SELECT 'producto_precio', id_producto_precio, 3 FROM public.producto_precio
+    UNION ALL
+    SELECT 'combo', id_combo, 4 FROM public.combo
+) c
+WHERE NOT EXISTS (SELECT 1 FROM public.catalogo_cambio)
+ORDER BY c.orden, c.id_entidad;
+
+COMMIT;
@@ -0,0 +1,20 @@
+-- Migración de las claves de idempotencia de POST /api/ordenes y POST /api/pagos
+-- (encabezado Idempotency-Key). La aplicación reserva la clave con estado 0
+-- antes de crear la orden o el pago y guarda después el código y el cuerpo de la
+-- respuesta, que repite a los reintentos. Las claves se eliminan pasadas
+-- tipicos.idempotencia.horasRetencion horas (24 por defecto).
+
+CREATE TABLE IF NOT EXISTS public.idempotencia_clave (
+    clave character varying(160) NOT NULL,
+    huella character varying(44) NOT NULL,
+    estado smallint NOT NULL,
+    cuerpo text,
+    fecha timestamp without time zone DEFAULT now() NOT NULL,
+    CONSTRAINT pk_idempotencia_clave PRIMARY KEY (clave)
+);
+
+ALTER TABLE public.idempotencia_clave OWNER TO postgres;
+
+-- Para la purga por antigüedad
+CREATE INDEX IF NOT EXISTS idx_idempotencia_clave_fecha
+    ON public.idempotencia_clave USING btree (fecha);
@@ -0,0 +1,42 @@
+-- Migración de la bandeja de salida de órdenes y pagos (GET /api/salida/eventos).
+-- La aplicación inserta un evento sin posición en la misma transacción que crea,
+-- modifica o elimina una orden o un pago. Un proceso de fondo numera los eventos
+-- confirmados en orden de ID y los entrega a los destinos configurados; en
+-- salida_cursor guarda la última posición entregada a cada destino.
+
+CREATE TABLE IF NOT EXISTS public.salida_evento (
+    id_evento bigint NOT NULL,
+    posicion bigint,
+    agregado character varying(10) NOT NULL,
+    id_agregado bigint NOT NULL,
+    tipo character varying(30) NOT NULL,
+    datos text NOT NULL,
+    fecha timestamp without time zone DEFAULT now() NOT NULL,
+    CONSTRAINT pk_salida_evento PRIMARY KEY (id_evento),
+    CONSTRAINT uq_salida_evento_posicion UNIQUE (posicion)
+);
+
+ALTER TABLE public.salida_evento OWNER TO postgres;
+
+-- Para reservar IDs por bloques, ver migracion_secuencias_pooled.sql
+CREATE SEQUENCE IF NOT EXISTS public.salida_evento_id_evento_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+ALTER SEQUENCE public.salida_evento_id_evento_seq OWNER TO postgres;
+
+-- Solo contiene los eventos que esperan posición, por lo que se mantiene pequeño
+CREATE INDEX IF NOT EXISTS idx_salida_evento_pendiente
+    ON public.salida_evento USING btree (id_evento) WHERE (posicion IS NULL);
+
+CREATE TABLE IF NOT EXISTS public.salida_cursor (
+    destino character varying(50) NOT NULL,
+    posicion bigint NOT NULL,
+    actualizado timestamp without time zone DEFAULT now() NOT NULL,
+    CONSTRAINT pk_salida_cursor PRIMARY KEY (destino)
+);
+
+ALTER TABLE public.salida_cursor OWNER TO postgres;
@@ -0,0 +1,22 @@
+-- Migración de secuencias para la asignación opcional de IDs por bloques
+-- (-Dtipicos.ids.bloque=50, ver config/SecuenciasAgrupadas). Con el modo activo la
+-- aplicación reserva 50 IDs por cada nextval, por lo que cada secuencia debe
+-- incrementar de 50 en 50 y su próximo valor debe dejar libre el bloque completo
+-- por encima del ID máximo ya usado. Ejecutarla antes de activar el modo; sin él,
+-- la aplicación sigue funcionando con las secuencias migradas.
+
+ALTER SEQUENCE public.orden_id_orden_seq INCREMENT BY 50;
+ALTER SEQUENCE public.pago_id_pago_seq INCREMENT BY 50;
+ALTER SEQUENCE public.pago_detalle_id_pago_detalle_seq INCREMENT BY 50;
+ALTER SEQUENCE public.producto_id_producto_seq INCREMENT BY 50;
+ALTER SEQUENCE public.producto_precio_id_producto_precio_seq INCREMENT BY 50;
+ALTER SEQUENCE public.tipo_producto_id_tipo_producto_seq INCREMENT BY 50;
+ALTER SEQUENCE public.salida_evento_id_evento_seq INCREMENT BY 50;
+
+SELECT pg_catalog.setval('public.orden_id_orden_seq', (SELECT COALESCE(MAX(id_orden), 0) + 50 FROM public.orden), false);
+SELECT pg_catalog.setval('public.pago_id_pago_seq', (SELECT COALESCE(MAX(id_pago), 0) + 50 FROM public.pago), false);
+SELECT pg_catalog.setval('public.pago_detalle_id_pago_detalle_seq', (SELECT COALESCE(MAX(id_pago_detalle), 0) + 50 FROM public.pago_detalle), false);
+SELECT pg_catalog.setval('public.producto_id_producto_seq', (SELECT COALESCE(MAX(id_producto), 0) + 50 FROM public.producto), false);
+SELECT pg_catalog.setval('public.producto_precio_id_producto_precio_seq', (SELECT COALESCE(MAX(id_producto_precio), 0) + 50 FROM public.producto_precio), false);
+SELECT pg_catalog.setval('public.tipo_producto_id_tipo_producto_seq', (SELECT COALESCE(MAX(id_tipo_producto), 0) + 50 FROM public.tipo_producto), false);
+SELECT pg_catalog.setval('public.salida_evento_id_evento_seq', (SELECT COALESCE(MAX(id_evento), 0) + 50 FROM public.salida_evento), false);
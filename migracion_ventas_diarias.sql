@@ -0,0 +1,33 @@
+-- Migración de los contadores de venta por fecha, sucursal y producto.
+-- La aplicación los actualiza con incrementos en la misma transacción que
+-- modifica cada orden; esta carga inicial los calcula desde las órdenes
+-- existentes no anuladas. Las órdenes sin sucursal se agrupan con sucursal ''.
+
+CREATE TABLE IF NOT EXISTS public.venta_producto_diaria (
+    fecha date NOT NULL,
+    sucursal character varying(5) NOT NULL,
+    id_producto bigint NOT NULL,
+    cantidad bigint DEFAULT 0 NOT NULL,
+    total numeric(14,2) DEFAULT 0 NOT NULL,
+    lineas bigint DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_venta_producto_diaria PRIMARY KEY (fecha, sucursal, id_producto)
+);
+
+ALTER TABLE public.venta_producto_diaria OWNER TO postgres;
+
+BEGIN;
+
+LOCK TABLE public.venta_producto_diaria IN EXCLUSIVE MODE;
+
+DELETE FROM public.venta_producto_diaria;
+
+INSERT INTO public.venta_producto_diaria (fecha, sucursal, id_producto, cantidad, total, lineas)
+SELECT o.fecha, COALESCE(o.sucursal, ''), pp.id_producto,
+       SUM(d.cantidad), COALESCE(SUM(d.cantidad * d.precio), 0), COUNT(*)
+FROM public.orden o
+JOIN public.orden_detalle d ON d.id_orden = o.id_orden
+JOIN public.producto_precio pp ON pp.id_producto_precio = d.id_producto_precio
+WHERE o.fecha IS NOT NULL AND o.anulada IS NOT TRUE AND pp.id_producto IS NOT NULL
+GROUP BY o.fecha, COALESCE(o.sucursal, ''), pp.id_producto;
+
+COMMIT;
@@ -0,0 +1,191 @@
+package sv.edu.ues.fmocc.tpi135.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.event.Event;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.testcontainers.containers.PostgreSQLContainer;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResultadoLoteDTO;
+import sv.edu.ues.fmocc.tpi135.entity.Producto;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+import sv.edu.ues.fmocc.tpi135.repository.EventoSalidaRepositoryImpl;
+import sv.edu.ues.fmocc.tpi135.repository.LectorPreciosConfirmados;
+import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepositoryImpl;
+import sv.edu.ues.fmocc.tpi135.repository.OrdenRepositoryImpl;
+import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepositoryImpl;
+import sv.edu.ues.fmocc.tpi135.repository.VentaProductoDiariaRepositoryImpl;
+import sv.edu.ues.fmocc.tpi135.service.OrdenServiceImpl;
+import sv.edu.ues.fmocc.tpi135.service.SalidaServiceImpl;
+
+/**
+ * Costo por orden de OrdenServiceImpl.crearOrdenesEnLote contra PostgreSQL, con
+ * JPA (unidad TipicosPUTest) y los repositorios reales. Compara la asignación
+ * de IDs de uno en uno con la de bloques (tipicos.ids.bloque, ver
+ * SecuenciasAgrupadas) y el envío de los INSERT uno por uno con el envío en
+ * lotes JDBC (eclipselink.jdbc.batch-writing).
+ *
+ * Requiere Docker (Testcontainers):
+ *   mvn -P benchmark test-compile exec:exec -Djmh.filtro=InsercionOrden
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InsercionOrdenBenchmark {
+
+    private static final int ORDENES_POR_LOTE = 100;
+    private static final int DETALLES_POR_ORDEN = 4;
+
+    @Param({"1", "50"})
+    public int bloqueIds;
+
+    @Param({"None", "JDBC"})
+    public String escrituraEnLote;
+
+    private PostgreSQLContainer<?> postgres;
+    private EntityManagerFactory emf;
+    private EntityManager em;
+    private OrdenServiceImpl ordenService;
+    private final List<Long> idsPrecio = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:14")
+                .withDatabaseName("tipicos_bench")
+                .withUsername("postgres")
+                .withPassword("1234");
+        postgres.start();
+
+        // SecuenciasAgrupadas lee el tamaño de bloque al crear la unidad de persistencia
+        System.setProperty("tipicos.ids.bloque", String.valueOf(bloqueIds));
+        Map<String, String> propiedades = new HashMap<>();
+        // reWriteBatchedInserts igual que en el pool de la aplicación
+        propiedades.put("javax.persistence.jdbc.url", postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        propiedades.put("javax.persistence.jdbc.user", postgres.getUsername());
+        propiedades.put("javax.persistence.jdbc.password", postgres.getPassword());
+        propiedades.put("eclipselink.logging.level", "WARNING");
+        propiedades.put("eclipselink.jdbc.batch-writing", escrituraEnLote);
+        propiedades.put("eclipselink.jdbc.batch-writing.size", "100");
+        propiedades.put("eclipselink.session.customizer", "sv.edu.ues.fmocc.tpi135.config.SecuenciasAgrupadas");
+        emf = Persistence.createEntityManagerFactory("TipicosPUTest", propiedades);
+        em = emf.createEntityManager();
+
+        em.getTransaction().begin();
+        // Las secuencias deben incrementar en el tamaño del bloque reservado
+        em.createNativeQuery("ALTER SEQUENCE orden_id_orden_seq INCREMENT BY " + bloqueIds).executeUpdate();
+        em.createNativeQuery("ALTER SEQUENCE salida_evento_id_evento_seq INCREMENT BY " + bloqueIds).executeUpdate();
+        Producto producto = new Producto();
+        producto.setNombre("Pupusa");
+        producto.setActivo(true);
+        em.persist(producto);
+        em.flush();
+        for (int i = 0; i < DETALLES_POR_ORDEN; i++) {
+            ProductoPrecio precio = new ProductoPrecio(null, producto.getIdProducto(), new Date(0), null, new BigDecimal("1.25"));
+            em.persist(precio);
+            em.flush();
+            idsPrecio.add(precio.getIdProductoPrecio());
+        }
+        em.getTransaction().commit();
+        em.clear();
+
+        ordenService = crearServicio(em);
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.clearProperty("tipicos.ids.bloque");
+        if (em != null) {
+            em.close();
+        }
+        if (emf != null) {
+            emf.close();
+        }
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ORDENES_POR_LOTE)
+    public List<ResultadoLoteDTO<OrdenDTO>> crearOrdenesEnLote() {
+        List<OrdenDTO> lote = new ArrayList<>(ORDENES_POR_LOTE);
+        for (int i = 0; i < ORDENES_POR_LOTE; i++) {
+            OrdenDTO orden = new OrdenDTO(null, new Date(), "S001", null);
+            List<OrdenDetalleDTO> detalles = new ArrayList<>(DETALLES_POR_ORDEN);
+            for (Long idPrecio : idsPrecio) {
+                OrdenDetalleDTO detalle = new OrdenDetalleDTO();
+                detalle.setIdProductoPrecio(idPrecio);
+                detalle.setCantidad(2);
+                detalles.add(detalle);
+            }
+            orden.setDetalles(detalles);
+            lote.add(orden);
+        }
+
+        em.getTransaction().begin();
+        try {
+            List<ResultadoLoteDTO<OrdenDTO>> resultados = ordenService.crearOrdenesEnLote(lote);
+            em.getTransaction().commit();
+            return resultados;
+        } finally {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            em.clear();
+        }
+    }
+
+    /**
+     * OrdenServiceImpl con los repositorios JPA sobre un mismo EntityManager; los
+     * eventos para cocina se descartan porque no escriben en la base de datos
+     */
+    private static OrdenServiceImpl crearServicio(EntityManager em) {
+        OrdenRepositoryImpl ordenRepository = new OrdenRepositoryImpl();
+        OrdenDetalleRepositoryImpl ordenDetalleRepository = new OrdenDetalleRepositoryImpl();
+        ProductoPrecioRepositoryImpl productoPrecioRepository = new ProductoPrecioRepositoryImpl();
+        VentaProductoDiariaRepositoryImpl ventaProductoDiariaRepository = new VentaProductoDiariaRepositoryImpl();
+        EventoSalidaRepositoryImpl eventoSalidaRepository = new EventoSalidaRepositoryImpl();
+        LectorPreciosConfirmados lectorPrecios = new LectorPreciosConfirmados();
+        for (Object repositorio : List.of(ordenRepository, ordenDetalleRepository, productoPrecioRepository,
+                ventaProductoDiariaRepository, eventoSalidaRepository, lectorPrecios)) {
+            RepositoriosEnMemoria.inyectar(repositorio, "em", em);
+        }
+        RepositoriosEnMemoria.inyectar(productoPrecioRepository, "lectorPrecios", lectorPrecios);
+        SalidaServiceImpl salidaService = new SalidaServiceImpl();
+        RepositoriosEnMemoria.inyectar(salidaService, "eventoSalidaRepository", eventoSalidaRepository);
+
+        OrdenServiceImpl servicio = new OrdenServiceImpl();
+        RepositoriosEnMemoria.inyectar(servicio, "ordenRepository", ordenRepository);
+        RepositoriosEnMemoria.inyectar(servicio, "ordenDetalleRepository", ordenDetalleRepository);
+        RepositoriosEnMemoria.inyectar(servicio, "productoPrecioRepository", productoPrecioRepository);
+        RepositoriosEnMemoria.inyectar(servicio, "ventaProductoDiariaRepository", ventaProductoDiariaRepository);
+        RepositoriosEnMemoria.inyectar(servicio, "salidaService", salidaService);
+        RepositoriosEnMemoria.inyectar(servicio, "eventosOrden",
+                RepositoriosEnMemoria.proxy(Event.class, Map.of("fire", args -> null)));
+        return servicio;
+    }
+}
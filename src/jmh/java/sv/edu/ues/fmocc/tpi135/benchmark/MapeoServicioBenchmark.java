@@ -0,0 +1,68 @@
+package sv.edu.ues.fmocc.tpi135.benchmark;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
+import sv.edu.ues.fmocc.tpi135.service.OrdenServiceImpl;
+import sv.edu.ues.fmocc.tpi135.service.PagoServiceImpl;
+
+/**
+ * Costo de convertir entidades a DTOs en OrdenServiceImpl y PagoServiceImpl,
+ * sin base de datos. Los métodos "porId" recorren mapToDTO (una búsqueda de
+ * precio por detalle); los "listar" recorren mapToDTOs con
+ * RepositoriosEnMemoria.ORDENES_POR_LISTADO elementos y búsquedas en bloque.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoServicioBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int detalles;
+
+    private OrdenServiceImpl ordenService;
+    private PagoServiceImpl pagoService;
+
+    @Setup
+    public void setUp() {
+        RepositoriosEnMemoria repositorios = new RepositoriosEnMemoria(detalles);
+        ordenService = repositorios.ordenService();
+        pagoService = repositorios.pagoService();
+    }
+
+    @Benchmark
+    public Optional<OrdenDTO> ordenPorId() {
+        return ordenService.obtenerOrdenPorId(1L);
+    }
+
+    @Benchmark
+    public List<OrdenDTO> listarOrdenes() {
+        return ordenService.listarOrdenes();
+    }
+
+    @Benchmark
+    public Optional<PagoDTO> pagoPorId() {
+        return pagoService.obtenerPagoPorId(1L);
+    }
+
+    @Benchmark
+    public List<PagoDTO> listarPagos() {
+        return pagoService.listarPagos();
+    }
+}
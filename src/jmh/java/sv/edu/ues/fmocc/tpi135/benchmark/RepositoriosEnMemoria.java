@@ -0,0 +1,176 @@
+package sv.edu.ues.fmocc.tpi135.benchmark;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import javax.enterprise.event.Event;
+import sv.edu.ues.fmocc.tpi135.entity.Orden;
+import sv.edu.ues.fmocc.tpi135.entity.OrdenDetalle;
+import sv.edu.ues.fmocc.tpi135.entity.Pago;
+import sv.edu.ues.fmocc.tpi135.entity.PagoDetalle;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepository;
+import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
+import sv.edu.ues.fmocc.tpi135.repository.PagoDetalleRepository;
+import sv.edu.ues.fmocc.tpi135.repository.PagoRepository;
+import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+import sv.edu.ues.fmocc.tpi135.repository.VentaProductoDiariaRepository;
+import sv.edu.ues.fmocc.tpi135.service.OrdenServiceImpl;
+import sv.edu.ues.fmocc.tpi135.service.PagoServiceImpl;
+import sv.edu.ues.fmocc.tpi135.service.SalidaService;
+
+/**
+ * Datos y repositorios en memoria para medir la capa de servicio sin base de datos.
+ * Los repositorios son proxies que responden solo los métodos que usan los
+ * mapeos de órdenes y pagos; cualquier otro lanza UnsupportedOperationException
+ * para que un cambio en el servicio no quede medido contra un stub silencioso.
+ * Las órdenes creadas reciben un ID nuevo pero no se guardan, de modo que varios
+ * hilos pueden crear órdenes mientras otros leen los datos generados.
+ */
+public final class RepositoriosEnMemoria {
+
+    static final int ORDENES_POR_LISTADO = 20;
+
+    private final Map<Long, Orden> ordenes = new HashMap<>();
+    private final Map<Long, List<OrdenDetalle>> detallesPorOrden = new HashMap<>();
+    private final Map<Long, ProductoPrecio> precios = new HashMap<>();
+    private final Map<Long, Pago> pagos = new HashMap<>();
+    private final Map<Long, List<PagoDetalle>> detallesPorPago = new HashMap<>();
+    private final AtomicLong siguienteId = new AtomicLong(ORDENES_POR_LISTADO);
+
+    /**
+     * Genera órdenes 1..ORDENES_POR_LISTADO, cada una con un pago del mismo ID,
+     * y la cantidad indicada de detalles por orden y por pago
+     * @param detalles Detalles por orden y por pago
+     */
+    public RepositoriosEnMemoria(int detalles) {
+        Date fecha = new Date();
+        for (long p = 1; p <= detalles; p++) {
+            precios.put(p, new ProductoPrecio(p, p, fecha, null, new BigDecimal("1.25")));
+        }
+        for (long id = 1; id <= ORDENES_POR_LISTADO; id++) {
+            ordenes.put(id, new Orden(id, fecha, "S001", false));
+            pagos.put(id, new Pago(id, id, fecha, "EFECTIVO", "REF-" + id));
+
+            List<OrdenDetalle> lineas = new ArrayList<>(detalles);
+            List<PagoDetalle> montos = new ArrayList<>(detalles);
+            for (long p = 1; p <= detalles; p++) {
+                lineas.add(new OrdenDetalle(id, p, 2, new BigDecimal("1.25"), "sin cebolla"));
+                montos.add(new PagoDetalle(id * 1000 + p, id, new BigDecimal("2.50"), null));
+            }
+            detallesPorOrden.put(id, lineas);
+            detallesPorPago.put(id, montos);
+        }
+    }
+
+    /**
+     * Crea un OrdenServiceImpl conectado a los repositorios en memoria; los
+     * contadores de venta, la bandeja de salida y los eventos descartan lo que reciben
+     */
+    public OrdenServiceImpl ordenService() {
+        OrdenServiceImpl servicio = new OrdenServiceImpl();
+        inyectar(servicio, "ordenRepository", ordenRepository());
+        inyectar(servicio, "ordenDetalleRepository", proxy(OrdenDetalleRepository.class, Map.of(
+                "crear", args -> args[0],
+                "buscarPorIdOrden", args -> detallesPorOrden.getOrDefault((Long) args[0], List.of()),
+                "buscarPorIdsOrden", args -> buscarTodos(detallesPorOrden, (Collection<?>) args[0]))));
+        inyectar(servicio, "productoPrecioRepository", proxy(ProductoPrecioRepository.class, Map.of(
+                "encontrarPorId", args -> Optional.ofNullable(precios.get((Long) args[0])),
+                "buscarPorIds", args -> buscarCada(precios, (Collection<?>) args[0]),
+                "buscarIdsProducto", args -> buscarIdsProducto((Collection<?>) args[0]))));
+        inyectar(servicio, "ventaProductoDiariaRepository", proxy(VentaProductoDiariaRepository.class, Map.of(
+                "aplicarIncrementos", args -> null)));
+        inyectar(servicio, "salidaService", proxy(SalidaService.class, Map.of(
+                "registrar", args -> null)));
+        inyectar(servicio, "eventosOrden", proxy(Event.class, Map.of(
+                "fire", args -> null)));
+        return servicio;
+    }
+
+    /**
+     * Crea un PagoServiceImpl conectado a los repositorios en memoria
+     */
+    PagoServiceImpl pagoService() {
+        PagoServiceImpl servicio = new PagoServiceImpl();
+        inyectar(servicio, "pagoRepository", proxy(PagoRepository.class, Map.of(
+                "encontrarPorId", args -> Optional.ofNullable(pagos.get((Long) args[0])),
+                "listarTodos", args -> new ArrayList<>(pagos.values()))));
+        inyectar(servicio, "pagoDetalleRepository", proxy(PagoDetalleRepository.class, Map.of(
+                "buscarPorIdPago", args -> detallesPorPago.getOrDefault((Long) args[0], List.of()),
+                "buscarPorIdsPago", args -> buscarTodos(detallesPorPago, (Collection<?>) args[0]))));
+        inyectar(servicio, "ordenRepository", ordenRepository());
+        return servicio;
+    }
+
+    private OrdenRepository ordenRepository() {
+        return proxy(OrdenRepository.class, Map.of(
+                "crear", args -> {
+                    Orden orden = (Orden) args[0];
+                    orden.setIdOrden(siguienteId.incrementAndGet());
+                    return orden;
+                },
+                "encontrarPorId", args -> Optional.ofNullable(ordenes.get((Long) args[0])),
+                "buscarPorIds", args -> buscarCada(ordenes, (Collection<?>) args[0]),
+                "listarTodas", args -> new ArrayList<>(ordenes.values())));
+    }
+
+    private Map<Long, Long> buscarIdsProducto(Collection<?> idsPrecio) {
+        Map<Long, Long> resultado = new HashMap<>();
+        for (Object id : idsPrecio) {
+            ProductoPrecio precio = precios.get((Long) id);
+            if (precio != null) {
+                resultado.put(precio.getIdProductoPrecio(), precio.getIdProducto());
+            }
+        }
+        return resultado;
+    }
+
+    private static <V> List<V> buscarCada(Map<Long, V> origen, Collection<?> ids) {
+        List<V> resultado = new ArrayList<>(ids.size());
+        for (Object id : ids) {
+            V valor = origen.get((Long) id);
+            if (valor != null) {
+                resultado.add(valor);
+            }
+        }
+        return resultado;
+    }
+
+    private static <V> List<V> buscarTodos(Map<Long, List<V>> origen, Collection<?> ids) {
+        List<V> resultado = new ArrayList<>();
+        for (Object id : ids) {
+            resultado.addAll(origen.getOrDefault((Long) id, List.of()));
+        }
+        return resultado;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T proxy(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+        return (T) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (instancia, metodo, args) -> {
+            Function<Object[], Object> respuesta = metodos.get(metodo.getName());
+            if (respuesta == null) {
+                throw new UnsupportedOperationException(tipo.getSimpleName() + "." + metodo.getName());
+            }
+            return respuesta.apply(args);
+        });
+    }
+
+    static void inyectar(Object destino, String campo, Object valor) {
+        try {
+            Field field = destino.getClass().getDeclaredField(campo);
+            field.setAccessible(true);
+            field.set(destino, valor);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo inyectar " + campo, e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package sv.edu.ues.fmocc.tpi135.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ProductoPrecioDTO;
+
+/**
+ * Costo de Jackson al escribir una OrdenDTO completa (como la devuelve
+ * GET /api/ordenes/{id}) y al leer el cuerpo de POST /api/ordenes, que solo
+ * trae fecha, sucursal y las líneas con idProductoPrecio, cantidad y precio.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionJsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int detalles;
+
+    private ObjectWriter escritor;
+    private ObjectReader lector;
+    private OrdenDTO orden;
+    private byte[] cuerpoCreacion;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        escritor = mapper.writerFor(OrdenDTO.class);
+        lector = mapper.readerFor(OrdenDTO.class);
+
+        Date fecha = new Date();
+        orden = new OrdenDTO(1L, fecha, "S001", false);
+        List<OrdenDetalleDTO> lineas = new ArrayList<>(detalles);
+        for (long p = 1; p <= detalles; p++) {
+            OrdenDetalleDTO detalle = new OrdenDetalleDTO(1L, p, 2, new BigDecimal("1.25"), "sin cebolla");
+            detalle.setProductoPrecio(new ProductoPrecioDTO(p, p, fecha, null, new BigDecimal("1.25")));
+            lineas.add(detalle);
+        }
+        orden.setDetalles(lineas);
+
+        OrdenDTO creacion = new OrdenDTO(null, fecha, "S001", null);
+        List<OrdenDetalleDTO> lineasCreacion = new ArrayList<>(detalles);
+        for (long p = 1; p <= detalles; p++) {
+            lineasCreacion.add(new OrdenDetalleDTO(null, p, 2, new BigDecimal("1.25"), null));
+        }
+        creacion.setDetalles(lineasCreacion);
+        cuerpoCreacion = escritor.writeValueAsBytes(creacion);
+    }
+
+    @Benchmark
+    public byte[] serializarOrden() throws IOException {
+        return escritor.writeValueAsBytes(orden);
+    }
+
+    @Benchmark
+    public OrdenDTO deserializarCreacion() throws IOException {
+        return lector.readValue(cuerpoCreacion);
+    }
+}
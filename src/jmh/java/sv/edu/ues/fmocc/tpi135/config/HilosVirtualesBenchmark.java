@@ -0,0 +1,186 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import javax.interceptor.InvocationContext;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sv.edu.ues.fmocc.tpi135.benchmark.RepositoriosEnMemoria;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.service.OrdenServiceImpl;
+
+/**
+ * Tiempo en atender una ráfaga de creaciones de órdenes con el compartimento de
+ * escrituras tal como lo arma Compartimentos: 16 hilos de plataforma con 64 de
+ * cola, o EjecutorVirtual con 256 tareas simultáneas y 256 de espera. Cada
+ * solicitud llama a OrdenServiceImpl.crearOrden (con RepositoriosEnMemoria)
+ * a través de PermisosBaseDatos, como lo hace InterceptorConexiones, ocupa el
+ * permiso durante jdbcMs y luego espera esperaExternaMs fuera de la base de
+ * datos (p. ej. un servicio de pagos). Los permisos solo limitan en el modo
+ * virtual, igual que en el servidor.
+ *
+ * Las solicitudes que no caben en la cola se rechazan con 503 como en el
+ * servidor; JMH informa cuántas en el contador "rechazadas".
+ *
+ * El modo "virtual" requiere JDK 21 o superior: el perfil hilos-virtuales lo
+ * agrega a los parámetros (jmh.modos) y sin él solo se mide "plataforma".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HilosVirtualesBenchmark {
+
+    private static final int CONEXIONES = 32;
+
+    @Param({"plataforma", "virtual"})
+    public String modo;
+
+    @Param({"64", "512"})
+    public int solicitudes;
+
+    @Param({"0", "20"})
+    public int esperaExternaMs;
+
+    @Param({"2"})
+    public int jdbcMs;
+
+    private OrdenServiceImpl ordenService;
+    private PermisosBaseDatos permisos;
+    private Compartimento escrituras;
+
+    /**
+     * Respuestas de cada ráfaga, informadas por JMH junto al tiempo
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Respuestas {
+
+        public long creadas;
+        public long rechazadas;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            creadas = 0;
+            rechazadas = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        ordenService = new RepositoriosEnMemoria(10).ordenService();
+        boolean virtual = "virtual".equals(modo);
+        if (virtual && !HilosVirtuales.disponibles()) {
+            throw new IllegalStateException("Hilos virtuales no disponibles: ejecute con JDK 21 y el perfil hilos-virtuales");
+        }
+        permisos = new PermisosBaseDatos(virtual, CONEXIONES);
+        if (virtual) {
+            escrituras = new Compartimento(Compartimentos.ESCRITURAS, 256, 5_000,
+                    new EjecutorVirtual(256, 256, HilosVirtuales.fabrica().get(), UnaryOperator.identity()));
+        } else {
+            escrituras = Compartimentos.crear(Compartimentos.ESCRITURAS, 16, 64, 5_000, Executors.defaultThreadFactory());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (escrituras != null) {
+            escrituras.detener();
+        }
+    }
+
+    @Benchmark
+    public void rafaga(Respuestas respuestas) throws InterruptedException {
+        CountDownLatch terminadas = new CountDownLatch(solicitudes);
+        int[] estados = new int[solicitudes];
+        for (int i = 0; i < solicitudes; i++) {
+            int indice = i;
+            escrituras.atender(respuesta(terminadas, estados, indice), this::crearOrden);
+        }
+        terminadas.await();
+        for (int estado : estados) {
+            if (estado == Response.Status.CREATED.getStatusCode()) {
+                respuestas.creadas++;
+            } else {
+                respuestas.rechazadas++;
+            }
+        }
+    }
+
+    private Response crearOrden() {
+        OrdenDetalleDTO detalle = new OrdenDetalleDTO();
+        detalle.setIdProductoPrecio(1L);
+        detalle.setCantidad(2);
+        detalle.setPrecio(new BigDecimal("1.25"));
+        OrdenDTO orden = new OrdenDTO(null, new Date(), "S001", null);
+        orden.setDetalles(List.of(detalle));
+        try {
+            OrdenDTO creada = (OrdenDTO) permisos.ejecutar(invocacion(() -> {
+                OrdenDTO resultado = ordenService.crearOrden(orden);
+                dormir(jdbcMs);
+                return resultado;
+            }));
+            dormir(esperaExternaMs);
+            return Response.status(Response.Status.CREATED).entity(creada).build();
+        } catch (Exception e) {
+            return Response.serverError().build();
+        }
+    }
+
+    /**
+     * Respuesta suspendida que registra el estado con que se reanuda
+     */
+    private static AsyncResponse respuesta(CountDownLatch terminadas, int[] estados, int indice) {
+        return RepositoriosEnMemoria.proxy(AsyncResponse.class, Map.of(
+                "setTimeoutHandler", args -> null,
+                "setTimeout", args -> true,
+                "resume", args -> {
+                    estados[indice] = args[0] instanceof Response ? ((Response) args[0]).getStatus() : 500;
+                    terminadas.countDown();
+                    return true;
+                }));
+    }
+
+    /**
+     * Invocación interceptada cuyo proceed ejecuta el cuerpo del método transaccional
+     */
+    private static InvocationContext invocacion(Supplier<Object> cuerpo) {
+        return RepositoriosEnMemoria.proxy(InvocationContext.class, Map.of(
+                "proceed", args -> cuerpo.get()));
+    }
+
+    private static void dormir(int milisegundos) {
+        if (milisegundos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
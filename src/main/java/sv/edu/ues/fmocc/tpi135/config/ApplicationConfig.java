@@ -17,7 +17,19 @@ public class ApplicationConfig extends Application {
         resources.add(TipoProductoController.class);
         resources.add(ComboController.class);
         resources.add(OrdenController.class);
+        resources.add(EventoOrdenController.class);
         resources.add(PagoController.class);
+        resources.add(VentaController.class);
+        resources.add(ConciliacionController.class);
+        resources.add(CatalogoController.class);
+        resources.add(SalidaController.class);
+        resources.add(MetricasController.class);
+        // Filtros
+        resources.add(FiltroSentencias.class);
+        resources.add(FiltroMetricas.class);
+        resources.add(FiltroLimiteSucursal.class);
+        resources.add(FiltroAdmision.class);
+        resources.add(OyenteAdmision.class);
         // Agregar más controladores según sea necesario
         return resources;
     }
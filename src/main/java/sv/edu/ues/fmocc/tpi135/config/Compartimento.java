@@ -0,0 +1,232 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+/**
+ * Grupo de hilos acotado para atender un tipo de solicitud sin ocupar los hilos
+ * del contenedor. Cada compartimento tiene su propia cantidad de hilos, su cola
+ * de espera y su plazo, de modo que una ráfaga en un compartimento no agota los
+ * hilos de los demás.
+ *
+ * Si la cola está llena, la solicitud se rechaza de inmediato con 503; si espera
+ * en la cola más que el plazo, se responde 503 y la tarea ya no se ejecuta. Una
+ * tarea que empezó a ejecutarse siempre termina, para que una escritura no se
+ * confirme después de haber respondido un error al cliente.
+ *
+ * Las tareas se ejecutan en un grupo fijo de hilos de plataforma o, en el modo
+ * de hilos virtuales, en un hilo virtual por tarea con la misma cantidad de
+ * tareas simultáneas y de espera.
+ */
+public final class Compartimento {
+
+    private static final int PENDIENTE = 0;
+    private static final int EJECUTANDO = 1;
+    private static final int VENCIDA = 2;
+
+    private final String nombre;
+    private final int capacidadCola;
+    private final long plazoMilisegundos;
+    private final EjecutorCompartimento ejecutor;
+    private final String segundosReintento;
+
+    private final LongAdder aceptadas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder vencidas = new LongAdder();
+    private final LongAdder completadas = new LongAdder();
+
+    /**
+     * @param nombre Nombre del compartimento en las métricas
+     * @param hilos Cantidad de hilos
+     * @param capacidadCola Solicitudes que pueden esperar un hilo libre
+     * @param plazoMilisegundos Espera máxima en la cola
+     * @param fabricaHilos Fábrica de los hilos; en el servidor debe ser administrada
+     */
+    Compartimento(String nombre, int hilos, int capacidadCola, long plazoMilisegundos, ThreadFactory fabricaHilos) {
+        this(nombre, capacidadCola, plazoMilisegundos, new EjecutorPlataforma(hilos, capacidadCola, fabricaHilos));
+    }
+
+    /**
+     * @param nombre Nombre del compartimento en las métricas
+     * @param capacidadCola Solicitudes que pueden esperar, la misma que usa el ejecutor
+     * @param plazoMilisegundos Espera máxima en la cola
+     * @param ejecutor Ejecutor de las tareas
+     */
+    Compartimento(String nombre, int capacidadCola, long plazoMilisegundos, EjecutorCompartimento ejecutor) {
+        this.nombre = nombre;
+        this.capacidadCola = capacidadCola;
+        this.plazoMilisegundos = plazoMilisegundos;
+        this.segundosReintento = Long.toString(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(plazoMilisegundos)));
+        this.ejecutor = ejecutor;
+    }
+
+    /**
+     * Atiende una solicitud suspendida: ejecuta la tarea en un hilo del
+     * compartimento y reanuda la respuesta con su resultado. Las excepciones de la
+     * tarea se entregan a la respuesta para que JAX-RS las trate como en un
+     * método síncrono.
+     * @param respuesta Respuesta suspendida del método de recurso
+     * @param tarea Cuerpo del método de recurso
+     */
+    public void atender(AsyncResponse respuesta, Supplier<Response> tarea) {
+        Tarea pendiente = new Tarea(respuesta, tarea, ContadorSentencias.desprender());
+        respuesta.setTimeoutHandler(pendiente);
+        respuesta.setTimeout(plazoMilisegundos, TimeUnit.MILLISECONDS);
+        try {
+            ejecutor.execute(pendiente);
+            aceptadas.increment();
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            // La respuesta se filtra en este hilo, que vuelve a contar sus sentencias
+            ContadorSentencias.adoptar(pendiente.conteo);
+            respuesta.resume(saturado());
+        }
+    }
+
+    /**
+     * Detiene los hilos sin esperar las tareas en cola
+     */
+    void detener() {
+        ejecutor.detener();
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Solicitudes esperando un hilo libre
+     */
+    public int getEnCola() {
+        return ejecutor.enCola();
+    }
+
+    public int getCapacidadCola() {
+        return capacidadCola;
+    }
+
+    /**
+     * Tareas en ejecución
+     */
+    public int getActivos() {
+        return ejecutor.activos();
+    }
+
+    /**
+     * Tareas que pueden ejecutarse a la vez
+     */
+    public int getHilos() {
+        return ejecutor.hilos();
+    }
+
+    public long getPlazoMilisegundos() {
+        return plazoMilisegundos;
+    }
+
+    public long getAceptadas() {
+        return aceptadas.sum();
+    }
+
+    /**
+     * Solicitudes rechazadas porque la cola estaba llena
+     */
+    public long getRechazadas() {
+        return rechazadas.sum();
+    }
+
+    /**
+     * Solicitudes que superaron el plazo esperando en la cola
+     */
+    public long getVencidas() {
+        return vencidas.sum();
+    }
+
+    public long getCompletadas() {
+        return completadas.sum();
+    }
+
+    /**
+     * Estado actual y contadores acumulados
+     * @return Mapa nombre de la métrica → valor
+     */
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("hilos", getHilos());
+        resultado.put("activos", getActivos());
+        resultado.put("enCola", getEnCola());
+        resultado.put("capacidadCola", capacidadCola);
+        resultado.put("plazoMilisegundos", plazoMilisegundos);
+        resultado.put("aceptadas", getAceptadas());
+        resultado.put("rechazadas", getRechazadas());
+        resultado.put("vencidas", getVencidas());
+        resultado.put("completadas", getCompletadas());
+        return resultado;
+    }
+
+    private Response saturado() {
+        return Response.status(Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, segundosReintento)
+                .entity("El servicio está saturado (" + nombre + "), intente de nuevo más tarde")
+                .build();
+    }
+
+    /**
+     * Solicitud en espera o en ejecución. El estado decide quién responde: el
+     * hilo del compartimento si la toma antes del plazo, o el manejador del
+     * plazo si sigue en la cola.
+     */
+    private final class Tarea implements Runnable, TimeoutHandler {
+
+        private final AsyncResponse respuesta;
+        private final Supplier<Response> tarea;
+        private final Map<String, int[]> conteo;
+        private final AtomicInteger estado = new AtomicInteger(PENDIENTE);
+
+        Tarea(AsyncResponse respuesta, Supplier<Response> tarea, Map<String, int[]> conteo) {
+            this.respuesta = respuesta;
+            this.tarea = tarea;
+            this.conteo = conteo;
+        }
+
+        @Override
+        public void run() {
+            if (!estado.compareAndSet(PENDIENTE, EJECUTANDO)) {
+                return;
+            }
+            // Las sentencias de la tarea se cuentan en este hilo y los filtros de
+            // respuesta corren aquí al reanudar
+            ContadorSentencias.adoptar(conteo);
+            try {
+                respuesta.resume(tarea.get());
+            } catch (RuntimeException e) {
+                respuesta.resume(e);
+            } finally {
+                ContadorSentencias.finalizar();
+                completadas.increment();
+            }
+        }
+
+        @Override
+        public void handleTimeout(AsyncResponse asyncResponse) {
+            if (estado.compareAndSet(PENDIENTE, VENCIDA)) {
+                vencidas.increment();
+                ejecutor.retirar(this);
+                asyncResponse.resume(saturado());
+            } else {
+                // Ya se está ejecutando; se espera a que termine
+                asyncResponse.setTimeout(plazoMilisegundos, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+}
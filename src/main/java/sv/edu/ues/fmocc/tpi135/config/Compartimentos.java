@@ -0,0 +1,132 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ContextService;
+import javax.enterprise.concurrent.ManagedThreadFactory;
+import javax.enterprise.context.ApplicationScoped;
+
+/**
+ * Compartimentos de la API: las escrituras de órdenes y pagos, sus lecturas y
+ * reportes, y la sincronización del catálogo tienen hilos separados, para que
+ * una ráfaga de lecturas pesadas no impida registrar órdenes.
+ *
+ * El tamaño de cada uno se configura con las propiedades del sistema
+ * tipicos.compartimento.NOMBRE.hilos, .cola y .plazoMilisegundos.
+ *
+ * Con tipicos.hilosVirtuales=true (compilación con JDK 21) cada solicitud se
+ * atiende en un hilo virtual; los valores por defecto son entonces más altos
+ * porque una solicitud en espera de la base de datos no ocupa un hilo de
+ * plataforma, y PermisosBaseDatos limita el acceso a la base de datos al tamaño
+ * del pool de conexiones.
+ */
+@ApplicationScoped
+public class Compartimentos {
+
+    public static final String ESCRITURAS = "escrituras";
+    public static final String LECTURAS = "lecturas";
+    public static final String CATALOGO = "catalogo";
+
+    @Resource
+    private ManagedThreadFactory fabricaHilos;
+
+    @Resource
+    private ContextService contexto;
+
+    private Compartimento escrituras;
+    private Compartimento lecturas;
+    private Compartimento catalogo;
+
+    private static final Logger LOGGER = Logger.getLogger(Compartimentos.class.getName());
+
+    @PostConstruct
+    void iniciar() {
+        if (HilosVirtuales.activos()) {
+            LOGGER.info("Compartimentos con hilos virtuales");
+            escrituras = crearVirtual(ESCRITURAS, 256, 256, 5_000);
+            lecturas = crearVirtual(LECTURAS, 128, 128, 15_000);
+            catalogo = crearVirtual(CATALOGO, 64, 256, 5_000);
+        } else {
+            escrituras = crear(ESCRITURAS, 16, 64, 5_000, fabricaHilos);
+            lecturas = crear(LECTURAS, 8, 32, 15_000, fabricaHilos);
+            catalogo = crear(CATALOGO, 4, 64, 5_000, fabricaHilos);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        for (Compartimento compartimento : todos()) {
+            compartimento.detener();
+        }
+    }
+
+    /**
+     * Creación, modificación, anulación y eliminación de órdenes y pagos
+     */
+    public Compartimento escrituras() {
+        return escrituras;
+    }
+
+    /**
+     * Consultas, listados, exportaciones y resúmenes de órdenes y pagos
+     */
+    public Compartimento lecturas() {
+        return lecturas;
+    }
+
+    /**
+     * Sincronización incremental del catálogo con los terminales
+     */
+    public Compartimento catalogo() {
+        return catalogo;
+    }
+
+    public List<Compartimento> todos() {
+        return List.of(escrituras, lecturas, catalogo);
+    }
+
+    /**
+     * Estado y contadores de cada compartimento y, en el modo de hilos virtuales,
+     * de los permisos de base de datos (baseDatos)
+     * @return Mapa nombre del compartimento → métricas
+     */
+    public Map<String, Map<String, Object>> estadisticas() {
+        Map<String, Map<String, Object>> resultado = new TreeMap<>();
+        for (Compartimento compartimento : todos()) {
+            resultado.put(compartimento.getNombre(), compartimento.estadisticas());
+        }
+        PermisosBaseDatos permisos = PermisosBaseDatos.instancia();
+        if (permisos.isActivo()) {
+            resultado.put("baseDatos", permisos.estadisticas());
+        }
+        return resultado;
+    }
+
+    static Compartimento crear(String nombre, int hilos, int cola, long plazoMilisegundos, ThreadFactory fabrica) {
+        String prefijo = "tipicos.compartimento." + nombre + ".";
+        return new Compartimento(nombre,
+                Integer.getInteger(prefijo + "hilos", hilos),
+                Integer.getInteger(prefijo + "cola", cola),
+                Long.getLong(prefijo + "plazoMilisegundos", plazoMilisegundos),
+                fabrica);
+    }
+
+    private Compartimento crearVirtual(String nombre, int hilos, int cola, long plazoMilisegundos) {
+        String prefijo = "tipicos.compartimento." + nombre + ".";
+        int simultaneas = Integer.getInteger(prefijo + "hilos", hilos);
+        int capacidadCola = Integer.getInteger(prefijo + "cola", cola);
+        // Los hilos virtuales no son administrados: cada tarea lleva el contexto
+        // del contenedor (JNDI, seguridad, cargador de clases) del hilo que la envía
+        EjecutorVirtual ejecutor = new EjecutorVirtual(simultaneas, capacidadCola,
+                HilosVirtuales.fabrica().orElseThrow(),
+                tarea -> contexto.createContextualProxy(tarea, Runnable.class));
+        return new Compartimento(nombre, capacidadCola,
+                Long.getLong(prefijo + "plazoMilisegundos", plazoMilisegundos), ejecutor);
+    }
+}
@@ -0,0 +1,132 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cuenta las sentencias enviadas a la base de datos durante la solicitud HTTP
+ * que atiende el hilo actual, agrupadas por forma (el SQL con sus parámetros sin
+ * reemplazar). OyenteSentencias registra cada sentencia que ejecuta EclipseLink;
+ * FiltroSentencias abre y cierra el conteo; fuera de una solicitud registrar no
+ * hace nada.
+ */
+public final class ContadorSentencias {
+
+    /**
+     * Repeticiones de una misma forma a partir de las cuales se reporta un
+     * posible N+1. Se configura con -Dtipicos.sentencias.umbralRepeticiones=N
+     */
+    public static final int UMBRAL_REPETICIONES = Integer.getInteger("tipicos.sentencias.umbralRepeticiones", 10);
+
+    private static final ThreadLocal<Map<String, int[]>> SOLICITUD = new ThreadLocal<>();
+
+    private ContadorSentencias() {
+    }
+
+    /**
+     * Inicia el conteo para la solicitud del hilo actual
+     */
+    public static void iniciar() {
+        SOLICITUD.set(new HashMap<>());
+    }
+
+    /**
+     * Quita el conteo de la solicitud del hilo actual para continuarlo en otro
+     * hilo con adoptar, cuando la solicitud se atiende de forma asíncrona
+     * @return Conteo en curso o null si no se había iniciado
+     */
+    static Map<String, int[]> desprender() {
+        Map<String, int[]> porForma = SOLICITUD.get();
+        SOLICITUD.remove();
+        return porForma;
+    }
+
+    /**
+     * Continúa en el hilo actual un conteo obtenido con desprender
+     */
+    static void adoptar(Map<String, int[]> porForma) {
+        if (porForma != null) {
+            SOLICITUD.set(porForma);
+        } else {
+            SOLICITUD.remove();
+        }
+    }
+
+    /**
+     * Registra una sentencia en la solicitud actual
+     * @param forma SQL de la sentencia sin parámetros, p. ej. "SELECT ... WHERE (ID_ORDEN = ?)"
+     */
+    public static void registrar(String forma) {
+        registrar(forma, false);
+    }
+
+    /**
+     * Registra una sentencia en la solicitud actual
+     * @param forma SQL de la sentencia sin parámetros
+     * @param enLote true si la sentencia se envía en un lote JDBC junto con las
+     *               demás de su forma; cuenta en el total pero no como repetición
+     */
+    public static void registrar(String forma, boolean enLote) {
+        Map<String, int[]> porForma = SOLICITUD.get();
+        if (porForma != null) {
+            int[] veces = porForma.computeIfAbsent(forma, k -> new int[2]);
+            veces[0]++;
+            if (enLote) {
+                veces[1]++;
+            }
+        }
+    }
+
+    /**
+     * Termina el conteo de la solicitud del hilo actual
+     * @return Resumen de la solicitud o null si no se había iniciado
+     */
+    public static Resumen finalizar() {
+        Map<String, int[]> porForma = SOLICITUD.get();
+        if (porForma == null) {
+            return null;
+        }
+        SOLICITUD.remove();
+
+        int total = 0;
+        Map<String, Integer> repetidas = null;
+        for (Map.Entry<String, int[]> entrada : porForma.entrySet()) {
+            int veces = entrada.getValue()[0];
+            total += veces;
+            if (veces - entrada.getValue()[1] > UMBRAL_REPETICIONES) {
+                if (repetidas == null) {
+                    repetidas = new TreeMap<>();
+                }
+                repetidas.put(entrada.getKey(), veces);
+            }
+        }
+        return new Resumen(total, repetidas != null ? repetidas : Collections.emptyMap());
+    }
+
+    /**
+     * Sentencias emitidas en una solicitud
+     */
+    public static final class Resumen {
+
+        private final int total;
+        private final Map<String, Integer> repetidas;
+
+        Resumen(int total, Map<String, Integer> repetidas) {
+            this.total = total;
+            this.repetidas = repetidas;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * Formas que se repitieron más de UMBRAL_REPETICIONES veces, con su cantidad
+         */
+        public Map<String, Integer> getRepetidas() {
+            return repetidas;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Ejecutor de las tareas de un Compartimento, con hilos de plataforma o virtuales
+ */
+interface EjecutorCompartimento extends Executor {
+
+    /**
+     * Ejecuta la tarea o la deja en espera
+     * @throws RejectedExecutionException si la espera está llena o el ejecutor se detuvo
+     */
+    @Override
+    void execute(Runnable tarea);
+
+    /**
+     * Tareas esperando un hilo o un permiso
+     */
+    int enCola();
+
+    /**
+     * Tareas en ejecución
+     */
+    int activos();
+
+    /**
+     * Tareas que pueden ejecutarse a la vez
+     */
+    int hilos();
+
+    /**
+     * Quita de la espera una tarea que ya no debe ejecutarse, si es posible
+     */
+    void retirar(Runnable tarea);
+
+    void detener();
+}
@@ -0,0 +1,50 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grupo fijo de hilos de plataforma con una cola acotada
+ */
+final class EjecutorPlataforma implements EjecutorCompartimento {
+
+    private final ThreadPoolExecutor ejecutor;
+
+    EjecutorPlataforma(int hilos, int capacidadCola, ThreadFactory fabricaHilos) {
+        this.ejecutor = new ThreadPoolExecutor(hilos, hilos, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), fabricaHilos, new ThreadPoolExecutor.AbortPolicy());
+        this.ejecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public void execute(Runnable tarea) {
+        ejecutor.execute(tarea);
+    }
+
+    @Override
+    public int enCola() {
+        return ejecutor.getQueue().size();
+    }
+
+    @Override
+    public int activos() {
+        return ejecutor.getActiveCount();
+    }
+
+    @Override
+    public int hilos() {
+        return ejecutor.getMaximumPoolSize();
+    }
+
+    @Override
+    public void retirar(Runnable tarea) {
+        ejecutor.remove(tarea);
+    }
+
+    @Override
+    public void detener() {
+        ejecutor.shutdownNow();
+    }
+}
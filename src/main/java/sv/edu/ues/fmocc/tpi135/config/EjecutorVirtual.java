@@ -0,0 +1,98 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Un hilo virtual por tarea. Un semáforo limita las tareas en ejecución y las
+ * demás esperan un permiso estacionadas en su propio hilo, que no ocupa un hilo
+ * de plataforma. Las tareas vencidas salen de la espera al obtener el permiso,
+ * sin ejecutar su cuerpo.
+ */
+final class EjecutorVirtual implements EjecutorCompartimento {
+
+    private final ThreadFactory fabricaHilos;
+    private final UnaryOperator<Runnable> contextualizar;
+    private final int hilos;
+    private final int capacidadCola;
+    private final Semaphore enEjecucion;
+    private final AtomicInteger admitidas = new AtomicInteger();
+    private volatile boolean detenido;
+
+    /**
+     * @param hilos Tareas que pueden ejecutarse a la vez
+     * @param capacidadCola Tareas que pueden esperar un permiso
+     * @param fabricaHilos Fábrica de hilos virtuales
+     * @param contextualizar Agrega a la tarea el contexto del contenedor del hilo
+     *                       que la envía, porque los hilos virtuales no son administrados
+     */
+    EjecutorVirtual(int hilos, int capacidadCola, ThreadFactory fabricaHilos, UnaryOperator<Runnable> contextualizar) {
+        this.hilos = hilos;
+        this.capacidadCola = capacidadCola;
+        this.fabricaHilos = fabricaHilos;
+        this.contextualizar = contextualizar;
+        this.enEjecucion = new Semaphore(hilos);
+    }
+
+    @Override
+    public void execute(Runnable tarea) {
+        if (detenido) {
+            throw new RejectedExecutionException("El ejecutor está detenido");
+        }
+        if (admitidas.incrementAndGet() > hilos + capacidadCola) {
+            admitidas.decrementAndGet();
+            throw new RejectedExecutionException("La espera está llena");
+        }
+        Runnable contextual = contextualizar.apply(tarea);
+        try {
+            fabricaHilos.newThread(() -> ejecutar(contextual)).start();
+        } catch (RuntimeException e) {
+            admitidas.decrementAndGet();
+            throw new RejectedExecutionException(e);
+        }
+    }
+
+    private void ejecutar(Runnable tarea) {
+        try {
+            enEjecucion.acquire();
+        } catch (InterruptedException e) {
+            admitidas.decrementAndGet();
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            tarea.run();
+        } finally {
+            enEjecucion.release();
+            admitidas.decrementAndGet();
+        }
+    }
+
+    @Override
+    public int enCola() {
+        return Math.max(0, admitidas.get() - activos());
+    }
+
+    @Override
+    public int activos() {
+        return hilos - enEjecucion.availablePermits();
+    }
+
+    @Override
+    public int hilos() {
+        return hilos;
+    }
+
+    @Override
+    public void retirar(Runnable tarea) {
+        // El hilo de la tarea sigue esperando su permiso; al obtenerlo no la ejecuta
+    }
+
+    @Override
+    public void detener() {
+        detenido = true;
+    }
+}
@@ -0,0 +1,182 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Escribe las métricas de la API en el formato de texto de Prometheus (0.0.4).
+ * Las latencias se publican en segundos, como recomienda Prometheus.
+ */
+public final class ExportadorPrometheus {
+
+    public static final String TIPO_CONTENIDO = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] CUANTILES = {0.5, 0.9, 0.99};
+
+    private ExportadorPrometheus() {
+    }
+
+    /**
+     * Genera el texto con todas las métricas registradas hasta el momento
+     */
+    public static String exportar() {
+        return exportar(Collections.emptyList());
+    }
+
+    /**
+     * Genera el texto con todas las métricas registradas hasta el momento y el
+     * estado de los compartimentos indicados
+     */
+    public static String exportar(Collection<Compartimento> compartimentos) {
+        StringBuilder salida = new StringBuilder(8192);
+        List<MetricasEndpoint> endpoints = new ArrayList<>(FiltroMetricas.endpoints());
+        endpoints.sort(Comparator.comparing(MetricasEndpoint::getEndpoint));
+
+        encabezado(salida, "tipicos_http_duracion_segundos", "histogram",
+                "Duración de las solicitudes por endpoint, incluida la escritura del cuerpo");
+        for (MetricasEndpoint metricas : endpoints) {
+            escribirHistograma(salida, "tipicos_http_duracion_segundos", metricas.getEndpoint(),
+                    metricas.getLatencia(), 1_000_000.0);
+        }
+
+        encabezado(salida, "tipicos_http_duracion_percentil_segundos", "gauge",
+                "Percentiles estimados de la duración de las solicitudes por endpoint");
+        for (MetricasEndpoint metricas : endpoints) {
+            for (double cuantil : CUANTILES) {
+                muestra(salida, "tipicos_http_duracion_percentil_segundos", metricas.getEndpoint(),
+                        "quantile", String.valueOf(cuantil), metricas.getLatencia().percentil(cuantil) / 1_000_000.0);
+            }
+        }
+
+        encabezado(salida, "tipicos_http_duracion_maxima_segundos", "gauge",
+                "Duración máxima observada por endpoint");
+        for (MetricasEndpoint metricas : endpoints) {
+            muestra(salida, "tipicos_http_duracion_maxima_segundos", metricas.getEndpoint(), null, null,
+                    metricas.getLatencia().getMaximo() / 1_000_000.0);
+        }
+
+        encabezado(salida, "tipicos_http_respuestas_total", "counter",
+                "Respuestas por endpoint y código de estado");
+        for (MetricasEndpoint metricas : endpoints) {
+            for (int estado : metricas.estados()) {
+                muestra(salida, "tipicos_http_respuestas_total", metricas.getEndpoint(),
+                        "estado", String.valueOf(estado), metricas.respuestas(estado));
+            }
+        }
+
+        encabezado(salida, "tipicos_http_bytes_solicitud_total", "counter",
+                "Bytes recibidos en el cuerpo de las solicitudes por endpoint");
+        for (MetricasEndpoint metricas : endpoints) {
+            muestra(salida, "tipicos_http_bytes_solicitud_total", metricas.getEndpoint(), null, null,
+                    metricas.getBytesSolicitud());
+        }
+
+        encabezado(salida, "tipicos_http_bytes_respuesta_total", "counter",
+                "Bytes enviados en el cuerpo de las respuestas por endpoint");
+        for (MetricasEndpoint metricas : endpoints) {
+            muestra(salida, "tipicos_http_bytes_respuesta_total", metricas.getEndpoint(), null, null,
+                    metricas.getBytesRespuesta());
+        }
+
+        encabezado(salida, "tipicos_http_sentencias_sql", "histogram",
+                "Sentencias de base de datos emitidas por solicitud, por endpoint");
+        for (Map.Entry<String, Histograma> entrada : new TreeMap<>(FiltroSentencias.histogramas()).entrySet()) {
+            escribirHistograma(salida, "tipicos_http_sentencias_sql", entrada.getKey(), entrada.getValue(), 1.0);
+        }
+
+        if (!compartimentos.isEmpty()) {
+            escribirCompartimentos(salida, compartimentos);
+        }
+
+        return salida.toString();
+    }
+
+    private static void escribirHistograma(StringBuilder salida, String nombre, String endpoint,
+                                           Histograma histograma, double divisor) {
+        long[] limites = histograma.getLimites();
+        long[] acumulados = histograma.acumulados();
+        for (int i = 0; i < limites.length; i++) {
+            muestra(salida, nombre + "_bucket", endpoint, "le", formatear(limites[i] / divisor), acumulados[i]);
+        }
+        muestra(salida, nombre + "_bucket", endpoint, "le", "+Inf", acumulados[limites.length]);
+        muestra(salida, nombre + "_sum", endpoint, null, null, histograma.getSuma() / divisor);
+        muestra(salida, nombre + "_count", endpoint, null, null, acumulados[limites.length]);
+    }
+
+    private static void escribirCompartimentos(StringBuilder salida, Collection<Compartimento> compartimentos) {
+        encabezado(salida, "tipicos_compartimento_en_cola", "gauge",
+                "Solicitudes esperando un hilo libre por compartimento");
+        for (Compartimento compartimento : compartimentos) {
+            muestraCompartimento(salida, "tipicos_compartimento_en_cola", compartimento, compartimento.getEnCola());
+        }
+
+        encabezado(salida, "tipicos_compartimento_activos", "gauge",
+                "Hilos ejecutando una solicitud por compartimento");
+        for (Compartimento compartimento : compartimentos) {
+            muestraCompartimento(salida, "tipicos_compartimento_activos", compartimento, compartimento.getActivos());
+        }
+
+        encabezado(salida, "tipicos_compartimento_rechazadas_total", "counter",
+                "Solicitudes rechazadas con la cola llena por compartimento");
+        for (Compartimento compartimento : compartimentos) {
+            muestraCompartimento(salida, "tipicos_compartimento_rechazadas_total", compartimento,
+                    compartimento.getRechazadas());
+        }
+
+        encabezado(salida, "tipicos_compartimento_vencidas_total", "counter",
+                "Solicitudes que superaron el plazo en la cola por compartimento");
+        for (Compartimento compartimento : compartimentos) {
+            muestraCompartimento(salida, "tipicos_compartimento_vencidas_total", compartimento,
+                    compartimento.getVencidas());
+        }
+    }
+
+    private static void muestraCompartimento(StringBuilder salida, String nombre, Compartimento compartimento,
+                                             double valor) {
+        salida.append(nombre).append("{compartimento=\"");
+        escapar(salida, compartimento.getNombre());
+        salida.append("\"} ").append(formatear(valor)).append('\n');
+    }
+
+    private static void encabezado(StringBuilder salida, String nombre, String tipo, String ayuda) {
+        salida.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        salida.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+    }
+
+    private static void muestra(StringBuilder salida, String nombre, String endpoint,
+                                String etiqueta, String valorEtiqueta, double valor) {
+        salida.append(nombre).append("{endpoint=\"");
+        escapar(salida, endpoint);
+        salida.append('"');
+        if (etiqueta != null) {
+            salida.append(',').append(etiqueta).append("=\"");
+            escapar(salida, valorEtiqueta);
+            salida.append('"');
+        }
+        salida.append("} ").append(formatear(valor)).append('\n');
+    }
+
+    private static String formatear(double valor) {
+        return valor == Math.rint(valor) && Math.abs(valor) < 1e15
+                ? Long.toString((long) valor)
+                : Double.toString(valor);
+    }
+
+    private static void escapar(StringBuilder salida, String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '\\' || c == '"') {
+                salida.append('\\').append(c);
+            } else if (c == '\n') {
+                salida.append("\\n");
+            } else {
+                salida.append(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Control de admisión: limita las solicitudes en curso de cada clase de
+ * endpoints (catálogo, órdenes, pagos y reportes) con un LimiteAdaptativo y
+ * rechaza el exceso de inmediato con 503 y Retry-After, antes de que ocupe
+ * hilos o conexiones. Cuando PostgreSQL se vuelve lento, la latencia sube, los
+ * límites bajan y se rechaza primero el trabajo no prioritario: POST /ordenes y
+ * POST /pagos pueden ocupar todo el límite de su clase, los listados y reportes
+ * solo una fracción.
+ *
+ * La latencia se mide desde este filtro hasta el filtro de respuesta (o el fin
+ * de la solicitud si termina con una excepción, ver OyenteAdmision), por lo que
+ * en los métodos asíncronos incluye la espera en el compartimento. Los límites
+ * se configuran con las propiedades del sistema tipicos.admision.CLASE.inicial,
+ * .minimo, .maximo y .pisoMilisegundos. Los flujos de eventos y las métricas no
+ * se limitan.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION + 100)
+public class FiltroAdmision implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String CATALOGO = "catalogo";
+    public static final String ORDENES = "ordenes";
+    public static final String PAGOS = "pagos";
+    public static final String REPORTES = "reportes";
+
+    private static final Map<String, LimiteAdaptativo> LIMITES = limites();
+
+    private static final Map<Method, Clasificacion> CLASIFICACIONES = new ConcurrentHashMap<>();
+
+    private static final Clasificacion SIN_CONTROL = new Clasificacion(null, false);
+
+    static final String PROPIEDAD_OCUPACION = FiltroAdmision.class.getName() + ".ocupacion";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Method metodo = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (metodo == null) {
+            return;
+        }
+        Clasificacion clasificacion = CLASIFICACIONES.computeIfAbsent(metodo,
+                m -> clasificar(FiltroSentencias.endpoint(requestContext.getMethod(), resourceInfo)));
+        LimiteAdaptativo limite = clasificacion.limite;
+        if (limite == null) {
+            return;
+        }
+        if (!limite.adquirir(clasificacion.prioritaria)) {
+            requestContext.abortWith(Response.status(Status.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(limite.segundosReintento()))
+                    .entity("El servicio está saturado (" + limite.getNombre() + "), intente de nuevo más tarde")
+                    .build());
+            return;
+        }
+        requestContext.setProperty(PROPIEDAD_OCUPACION, new Ocupacion(limite, System.nanoTime()));
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        liberar(requestContext.getProperty(PROPIEDAD_OCUPACION));
+    }
+
+    /**
+     * Devuelve el lugar ocupado por una solicitud, si aún no se devolvió. Lo
+     * llaman el filtro de respuesta y OyenteAdmision al terminar la solicitud,
+     * porque Jersey no ejecuta los filtros de respuesta cuando una excepción no
+     * tiene un ExceptionMapper
+     * @param propiedad Valor de la propiedad PROPIEDAD_OCUPACION de la solicitud
+     */
+    static void liberar(Object propiedad) {
+        if (propiedad instanceof Ocupacion) {
+            ((Ocupacion) propiedad).liberar();
+        }
+    }
+
+    /**
+     * Estado de los límites de cada clase de endpoints
+     * @return Mapa clase → métricas
+     */
+    public static Map<String, Map<String, Object>> estadisticas() {
+        Map<String, Map<String, Object>> resultado = new TreeMap<>();
+        for (LimiteAdaptativo limite : LIMITES.values()) {
+            resultado.put(limite.getNombre(), limite.estadisticas());
+        }
+        return resultado;
+    }
+
+    static LimiteAdaptativo limite(String clase) {
+        return LIMITES.get(clase);
+    }
+
+    /**
+     * Clase y prioridad de un endpoint a partir de su verbo y plantilla de ruta
+     */
+    static Clasificacion clasificar(String endpoint) {
+        int espacio = endpoint.indexOf(' ');
+        String verbo = endpoint.substring(0, espacio);
+        String ruta = endpoint.substring(espacio + 1);
+
+        if (ruta.startsWith("/ordenes/eventos")) {
+            return SIN_CONTROL;
+        }
+        if (ruta.startsWith("/ordenes/exportar") || ruta.startsWith("/ordenes/resumen")
+                || ruta.startsWith("/ventas") || ruta.startsWith("/conciliacion") || ruta.startsWith("/salida")) {
+            return new Clasificacion(LIMITES.get(REPORTES), false);
+        }
+        if (ruta.startsWith("/ordenes")) {
+            return new Clasificacion(LIMITES.get(ORDENES), "POST".equals(verbo) && "/ordenes".equals(ruta));
+        }
+        if (ruta.startsWith("/pagos")) {
+            return new Clasificacion(LIMITES.get(PAGOS), "POST".equals(verbo) && "/pagos".equals(ruta));
+        }
+        if (ruta.startsWith("/productos") || ruta.startsWith("/tipos-productos")
+                || ruta.startsWith("/combos") || ruta.startsWith("/catalogo")) {
+            return new Clasificacion(LIMITES.get(CATALOGO), false);
+        }
+        return SIN_CONTROL;
+    }
+
+    private static Map<String, LimiteAdaptativo> limites() {
+        Map<String, LimiteAdaptativo> limites = new LinkedHashMap<>();
+        limites.put(ORDENES, crear(ORDENES, 64, 8, 256, 250));
+        limites.put(PAGOS, crear(PAGOS, 64, 8, 256, 250));
+        limites.put(CATALOGO, crear(CATALOGO, 128, 8, 512, 250));
+        limites.put(REPORTES, crear(REPORTES, 16, 2, 64, 2_000));
+        return limites;
+    }
+
+    private static LimiteAdaptativo crear(String nombre, int inicial, int minimo, int maximo, long pisoMilisegundos) {
+        String prefijo = "tipicos.admision." + nombre + ".";
+        return new LimiteAdaptativo(nombre,
+                Integer.getInteger(prefijo + "inicial", inicial),
+                Integer.getInteger(prefijo + "minimo", minimo),
+                Integer.getInteger(prefijo + "maximo", maximo),
+                Long.getLong(prefijo + "pisoMilisegundos", pisoMilisegundos));
+    }
+
+    /**
+     * Lugar ocupado por una solicitud admitida; se devuelve una sola vez
+     */
+    private static final class Ocupacion {
+
+        private final LimiteAdaptativo limite;
+        private final long inicio;
+        private final AtomicBoolean liberada = new AtomicBoolean();
+
+        Ocupacion(LimiteAdaptativo limite, long inicio) {
+            this.limite = limite;
+            this.inicio = inicio;
+        }
+
+        void liberar() {
+            if (liberada.compareAndSet(false, true)) {
+                long ahora = System.nanoTime();
+                limite.liberar(ahora - inicio, ahora);
+            }
+        }
+    }
+
+    /**
+     * Límite que aplica a un método de recurso y si sus solicitudes son prioritarias
+     */
+    static final class Clasificacion {
+
+        final LimiteAdaptativo limite;
+        final boolean prioritaria;
+
+        Clasificacion(LimiteAdaptativo limite, boolean prioritaria) {
+            this.limite = limite;
+            this.prioritaria = prioritaria;
+        }
+    }
+}
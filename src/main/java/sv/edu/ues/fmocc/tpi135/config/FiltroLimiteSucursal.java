@@ -0,0 +1,160 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Priority;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.ext.Provider;
+import sv.edu.ues.fmocc.tpi135.controller.OrdenController;
+import sv.edu.ues.fmocc.tpi135.controller.PagoController;
+
+/**
+ * Limita las escrituras de órdenes y pagos por sucursal con una cubeta de tokens
+ * (LimitadorSucursal), para que un terminal que reintenta en bucle no degrade a
+ * las demás sucursales. Se aplica antes del control de admisión y de cualquier
+ * acceso a la base de datos; el exceso se rechaza con 429 y Retry-After.
+ *
+ * La clave es el encabezado X-Sucursal si viene; si no, en las órdenes el campo
+ * sucursal del cuerpo (el primero, en los lotes). Los pagos no llevan sucursal
+ * y, como las órdenes sin ella, usan como clave la dirección del cliente.
+ *
+ * Se configura con las propiedades del sistema tipicos.limiteSucursal.rafaga,
+ * .porSegundo, .maximoClaves y .ociosoSegundos.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION)
+public class FiltroLimiteSucursal implements ContainerRequestFilter {
+
+    public static final String ENCABEZADO = "X-Sucursal";
+
+    private static final int LONGITUD_MAXIMA_CLAVE = 64;
+
+    private static final JsonFactory FABRICA_JSON = new JsonFactory();
+
+    private static final LimitadorSucursal LIMITADOR = new LimitadorSucursal(
+            Integer.getInteger("tipicos.limiteSucursal.rafaga", 20),
+            Integer.getInteger("tipicos.limiteSucursal.porSegundo", 10),
+            Integer.getInteger("tipicos.limiteSucursal.maximoClaves", 10_000),
+            Long.getLong("tipicos.limiteSucursal.ociosoSegundos", 300),
+            System.nanoTime());
+
+    private static final Map<Method, Escritura> ESCRITURAS = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Context
+    private HttpServletRequest solicitudServlet;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        Method metodo = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (metodo == null) {
+            return;
+        }
+        Escritura escritura = ESCRITURAS.computeIfAbsent(metodo,
+                m -> escritura(resourceInfo.getResourceClass(), requestContext.getMethod()));
+        if (escritura == Escritura.NINGUNA) {
+            return;
+        }
+
+        String clave = clave(requestContext, escritura);
+        long espera = LIMITADOR.consumir(clave, System.nanoTime());
+        if (espera > 0) {
+            long segundos = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(espera + 999_999_999));
+            requestContext.abortWith(Response.status(Status.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(segundos))
+                    .entity("Demasiadas solicitudes de " + clave + ", intente de nuevo más tarde")
+                    .build());
+        }
+    }
+
+    /**
+     * Solicitudes admitidas y rechazadas en total y por clave
+     */
+    public static Map<String, Object> estadisticas() {
+        return LIMITADOR.estadisticas();
+    }
+
+    private String clave(ContainerRequestContext requestContext, Escritura escritura) throws IOException {
+        String sucursal = requestContext.getHeaderString(ENCABEZADO);
+        if ((sucursal == null || sucursal.isBlank()) && escritura == Escritura.ORDEN && requestContext.hasEntity()) {
+            sucursal = sucursalDelCuerpo(requestContext);
+        }
+        if (sucursal != null && !sucursal.isBlank()) {
+            return "sucursal:" + recortar(sucursal.trim());
+        }
+        return "cliente:" + recortar(cliente(requestContext));
+    }
+
+    /**
+     * Busca el primer campo "sucursal" del cuerpo JSON y deja el cuerpo intacto para el recurso
+     */
+    static String sucursalDelCuerpo(ContainerRequestContext requestContext) throws IOException {
+        byte[] cuerpo;
+        try (InputStream entrada = requestContext.getEntityStream()) {
+            cuerpo = entrada.readAllBytes();
+        }
+        requestContext.setEntityStream(new ByteArrayInputStream(cuerpo));
+
+        try (JsonParser parser = FABRICA_JSON.createParser(cuerpo)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && "sucursal".equals(parser.getCurrentName())) {
+                    return parser.nextToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+            }
+        } catch (IOException e) {
+            // Cuerpo inválido: el recurso responderá el error; la clave es el cliente
+        }
+        return null;
+    }
+
+    private String cliente(ContainerRequestContext requestContext) {
+        String reenviado = requestContext.getHeaderString("X-Forwarded-For");
+        if (reenviado != null && !reenviado.isBlank()) {
+            int coma = reenviado.indexOf(',');
+            return (coma >= 0 ? reenviado.substring(0, coma) : reenviado).trim();
+        }
+        String direccion = solicitudServlet != null ? solicitudServlet.getRemoteAddr() : null;
+        return direccion != null ? direccion : "desconocido";
+    }
+
+    private static String recortar(String valor) {
+        return valor.length() > LONGITUD_MAXIMA_CLAVE ? valor.substring(0, LONGITUD_MAXIMA_CLAVE) : valor;
+    }
+
+    private static Escritura escritura(Class<?> recurso, String verbo) {
+        if (HttpMethod.GET.equals(verbo) || HttpMethod.HEAD.equals(verbo) || HttpMethod.OPTIONS.equals(verbo)) {
+            return Escritura.NINGUNA;
+        }
+        if (OrdenController.class.equals(recurso)) {
+            return Escritura.ORDEN;
+        }
+        if (PagoController.class.equals(recurso)) {
+            return Escritura.PAGO;
+        }
+        return Escritura.NINGUNA;
+    }
+
+    private enum Escritura {
+        ORDEN, PAGO, NINGUNA
+    }
+}
@@ -0,0 +1,216 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import sv.edu.ues.fmocc.tpi135.controller.ComboController;
+import sv.edu.ues.fmocc.tpi135.controller.OrdenController;
+import sv.edu.ues.fmocc.tpi135.controller.PagoController;
+import sv.edu.ues.fmocc.tpi135.controller.ProductoController;
+import sv.edu.ues.fmocc.tpi135.controller.TipoProductoController;
+
+/**
+ * Mide la latencia, el código de estado y los bytes de cada solicitud a los
+ * controladores de negocio, por método de recurso.
+ *
+ * La medición se guarda en un objeto por hilo que se reutiliza entre
+ * solicitudes, de modo que registrar una solicitud no reserva memoria una vez
+ * que cada endpoint fue visitado. Si la respuesta tiene cuerpo, la medición se
+ * cierra al terminar de escribirlo, por lo que incluye la serialización.
+ *
+ * Los métodos con una respuesta suspendida (@Suspended) se reanudan en otro
+ * hilo; para ellos la medición se crea por solicitud y viaja como propiedad de
+ * la solicitud, e incluye la espera en la cola del compartimento.
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 1)
+public class FiltroMetricas implements ContainerRequestFilter, ContainerResponseFilter, WriterInterceptor {
+
+    private static final Set<Class<?>> CONTROLADORES = Set.of(
+            OrdenController.class,
+            PagoController.class,
+            ProductoController.class,
+            TipoProductoController.class,
+            ComboController.class);
+
+    private static final Map<Method, MetricasEndpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<Medicion> MEDICION = ThreadLocal.withInitial(Medicion::new);
+
+    private static final String PROPIEDAD_MEDICION = FiltroMetricas.class.getName() + ".medicion";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        Medicion medicion = MEDICION.get();
+        medicion.reiniciar();
+
+        MetricasEndpoint metricas = metricas(requestContext.getMethod(), resourceInfo);
+        if (metricas == null) {
+            return;
+        }
+        metricas.registrarBytesSolicitud(requestContext.getLength());
+        if (metricas.isAsincrono()) {
+            medicion = new Medicion();
+            requestContext.setProperty(PROPIEDAD_MEDICION, medicion);
+        }
+        medicion.solicitud = requestContext;
+        medicion.metricas = metricas;
+        medicion.inicio = System.nanoTime();
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        Medicion medicion = medicion(requestContext.getProperty(PROPIEDAD_MEDICION));
+        if (medicion.solicitud != requestContext) {
+            return;
+        }
+        medicion.estado = responseContext.getStatus();
+        if (responseContext.hasEntity()) {
+            medicion.pendienteEscritura = true;
+        } else {
+            medicion.cerrar(0);
+        }
+    }
+
+    @Override
+    public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+        Medicion medicion = medicion(context.getProperty(PROPIEDAD_MEDICION));
+        if (!medicion.pendienteEscritura) {
+            context.proceed();
+            return;
+        }
+
+        OutputStream original = context.getOutputStream();
+        ContadorBytes contador = medicion.contador;
+        contador.delegado = original;
+        contador.bytes = 0;
+        context.setOutputStream(contador);
+        try {
+            context.proceed();
+        } finally {
+            context.setOutputStream(original);
+            contador.delegado = null;
+            medicion.cerrar(contador.bytes);
+        }
+    }
+
+    /**
+     * Métricas de todos los endpoints que recibieron al menos una solicitud
+     */
+    static Collection<MetricasEndpoint> endpoints() {
+        return Collections.unmodifiableCollection(ENDPOINTS.values());
+    }
+
+    private static MetricasEndpoint metricas(String verbo, ResourceInfo resourceInfo) {
+        Method metodo = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (metodo == null) {
+            return null;
+        }
+        MetricasEndpoint metricas = ENDPOINTS.get(metodo);
+        if (metricas == null && CONTROLADORES.contains(resourceInfo.getResourceClass())) {
+            metricas = ENDPOINTS.computeIfAbsent(metodo,
+                    m -> new MetricasEndpoint(FiltroSentencias.endpoint(verbo, resourceInfo), suspendeRespuesta(m)));
+        }
+        return metricas;
+    }
+
+    /**
+     * Medición de la solicitud: la guardada en la solicitud si es asíncrona, o la del hilo
+     */
+    private static Medicion medicion(Object propiedad) {
+        return propiedad instanceof Medicion ? (Medicion) propiedad : MEDICION.get();
+    }
+
+    private static boolean suspendeRespuesta(Method metodo) {
+        for (Annotation[] anotaciones : metodo.getParameterAnnotations()) {
+            for (Annotation anotacion : anotaciones) {
+                if (anotacion instanceof Suspended) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estado de la solicitud en curso en el hilo actual, o de una solicitud asíncrona
+     */
+    private static final class Medicion {
+
+        private final ContadorBytes contador = new ContadorBytes();
+        private ContainerRequestContext solicitud;
+        private MetricasEndpoint metricas;
+        private long inicio;
+        private int estado;
+        private boolean pendienteEscritura;
+
+        void cerrar(long bytes) {
+            if (metricas != null) {
+                metricas.registrar(estado, (System.nanoTime() - inicio) / 1_000, bytes);
+            }
+            reiniciar();
+        }
+
+        void reiniciar() {
+            solicitud = null;
+            metricas = null;
+            pendienteEscritura = false;
+        }
+    }
+
+    /**
+     * Flujo que cuenta los bytes escritos antes de pasarlos al flujo original
+     */
+    private static final class ContadorBytes extends OutputStream {
+
+        private OutputStream delegado;
+        private long bytes;
+
+        @Override
+        public void write(int b) throws IOException {
+            delegado.write(b);
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegado.write(b, off, len);
+            bytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (delegado != null) {
+                delegado.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegado != null) {
+                delegado.close();
+            }
+        }
+    }
+}
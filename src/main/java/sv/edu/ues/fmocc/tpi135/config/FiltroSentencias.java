@@ -0,0 +1,121 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.Priority;
+import javax.ws.rs.Path;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
+
+/**
+ * Cuenta las sentencias SQL emitidas por cada solicitud REST (OyenteSentencias).
+ * Devuelve el total en el encabezado X-Sentencias-SQL, lo acumula en un
+ * histograma por endpoint y registra una advertencia cuando una misma forma de
+ * sentencia se repite más de ContadorSentencias.UMBRAL_REPETICIONES veces.
+ *
+ * Las respuestas de tipo StreamingOutput escriben el cuerpo después de este
+ * filtro, por lo que las sentencias emitidas durante la escritura no se cuentan.
+ */
+@Provider
+@Priority(Priorities.USER)
+public class FiltroSentencias implements ContainerRequestFilter, ContainerResponseFilter {
+
+    public static final String ENCABEZADO = "X-Sentencias-SQL";
+
+    private static final Logger LOGGER = Logger.getLogger(FiltroSentencias.class.getName());
+
+    private static final long[] LIMITES = {0, 1, 2, 3, 5, 10, 20, 50, 100};
+
+    private static final Map<String, Histograma> HISTOGRAMAS = new ConcurrentHashMap<>();
+
+    private static final Map<Method, String> PLANTILLAS = new ConcurrentHashMap<>();
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        ContadorSentencias.iniciar();
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+        ContadorSentencias.Resumen resumen = ContadorSentencias.finalizar();
+        if (resumen == null) {
+            return;
+        }
+
+        String endpoint = endpoint(requestContext.getMethod(), resourceInfo);
+        responseContext.getHeaders().putSingle(ENCABEZADO, resumen.getTotal());
+        HISTOGRAMAS.computeIfAbsent(endpoint, k -> new Histograma(LIMITES)).registrar(resumen.getTotal());
+
+        resumen.getRepetidas().forEach((forma, veces) -> LOGGER.log(Level.WARNING,
+                "Posible N+1 en {0}: {1} se ejecutó {2} veces en una solicitud (umbral {3})",
+                new Object[]{endpoint, forma, veces, ContadorSentencias.UMBRAL_REPETICIONES}));
+    }
+
+    /**
+     * Histogramas de sentencias por solicitud, por endpoint
+     * @return Mapa endpoint → resumen del histograma
+     */
+    public static Map<String, Map<String, Object>> estadisticas() {
+        Map<String, Map<String, Object>> resultado = new TreeMap<>();
+        HISTOGRAMAS.forEach((endpoint, histograma) -> resultado.put(endpoint, histograma.resumen()));
+        return resultado;
+    }
+
+    /**
+     * Histogramas de sentencias por endpoint, para exportarlos en otros formatos
+     */
+    static Map<String, Histograma> histogramas() {
+        return Collections.unmodifiableMap(HISTOGRAMAS);
+    }
+
+    /**
+     * Identifica el endpoint por verbo y plantilla de ruta, p. ej. "GET /ordenes/{id}",
+     * para no abrir una serie distinta por cada ID solicitado
+     */
+    static String endpoint(String verbo, ResourceInfo resourceInfo) {
+        Method metodo = resourceInfo != null ? resourceInfo.getResourceMethod() : null;
+        if (metodo == null) {
+            return verbo + " (sin recurso)";
+        }
+        return PLANTILLAS.computeIfAbsent(metodo, m -> verbo + " " + plantilla(resourceInfo.getResourceClass(), m));
+    }
+
+    private static String plantilla(Class<?> clase, Method metodo) {
+        StringBuilder ruta = new StringBuilder();
+        agregarSegmento(ruta, clase != null ? clase.getAnnotation(Path.class) : null);
+        agregarSegmento(ruta, metodo.getAnnotation(Path.class));
+        return ruta.length() > 0 ? ruta.toString() : "/";
+    }
+
+    private static void agregarSegmento(StringBuilder ruta, Path path) {
+        if (path == null) {
+            return;
+        }
+        String valor = path.value();
+        int inicio = 0;
+        int fin = valor.length();
+        while (inicio < fin && valor.charAt(inicio) == '/') {
+            inicio++;
+        }
+        while (fin > inicio && valor.charAt(fin - 1) == '/') {
+            fin--;
+        }
+        if (inicio < fin) {
+            ruta.append('/').append(valor, inicio, fin);
+        }
+    }
+}
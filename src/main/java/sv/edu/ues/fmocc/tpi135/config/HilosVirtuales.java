@@ -0,0 +1,65 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Modo de ejecución con hilos virtuales. Se activa con la propiedad del sistema
+ * tipicos.hilosVirtuales=true y requiere compilar con JDK 21 o superior, donde el
+ * perfil hilos-virtuales agrega FabricaHilosVirtuales (src/main/java21). Con una
+ * compilación para Java 11 la clase no existe y la aplicación sigue con hilos de
+ * plataforma.
+ */
+public final class HilosVirtuales {
+
+    static final String PROPIEDAD = "tipicos.hilosVirtuales";
+
+    private static final String IMPLEMENTACION = "sv.edu.ues.fmocc.tpi135.config.FabricaHilosVirtuales";
+
+    private static final Logger LOGGER = Logger.getLogger(HilosVirtuales.class.getName());
+
+    private static final ThreadFactory FABRICA = cargar();
+
+    private static final boolean ACTIVOS = Boolean.getBoolean(PROPIEDAD) && disponibles();
+
+    private HilosVirtuales() {
+    }
+
+    /**
+     * Indica si el modo está encendido y la compilación incluye hilos virtuales
+     */
+    public static boolean activos() {
+        return ACTIVOS;
+    }
+
+    /**
+     * Indica si la compilación y la JVM permiten crear hilos virtuales
+     */
+    public static boolean disponibles() {
+        return FABRICA != null;
+    }
+
+    /**
+     * Fábrica de hilos virtuales, sin importar si el modo está encendido
+     * @return Fábrica, o vacío si la compilación o la JVM no los permiten
+     */
+    public static Optional<ThreadFactory> fabrica() {
+        return Optional.ofNullable(FABRICA);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ThreadFactory cargar() {
+        try {
+            Class<?> clase = Class.forName(IMPLEMENTACION);
+            return ((Supplier<ThreadFactory>) clase.getDeclaredConstructor().newInstance()).get();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOGGER.log(Level.WARNING, "No se pudieron crear hilos virtuales en esta JVM", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de cubetas fijas. Registrar un valor no bloquea ni reserva memoria:
+ * busca la cubeta en un arreglo de límites e incrementa un LongAdder.
+ */
+public final class Histograma {
+
+    private final long[] limites;
+    private final LongAdder[] cubetas;
+    private final LongAdder suma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, Long.MIN_VALUE);
+
+    /**
+     * @param limites Límites superiores inclusivos de cada cubeta, en orden
+     *                ascendente; se agrega una cubeta final sin límite
+     */
+    public Histograma(long... limites) {
+        for (int i = 1; i < limites.length; i++) {
+            if (limites[i] <= limites[i - 1]) {
+                throw new IllegalArgumentException("Los límites del histograma deben ser ascendentes");
+            }
+        }
+        this.limites = Arrays.copyOf(limites, limites.length);
+        this.cubetas = new LongAdder[limites.length + 1];
+        for (int i = 0; i < cubetas.length; i++) {
+            cubetas[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra una observación
+     * @param valor Valor observado
+     */
+    public void registrar(long valor) {
+        int posicion = Arrays.binarySearch(limites, valor);
+        cubetas[posicion >= 0 ? posicion : -posicion - 1].increment();
+        suma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    /**
+     * Cantidad total de observaciones
+     */
+    public long getConteo() {
+        long total = 0;
+        for (LongAdder cubeta : cubetas) {
+            total += cubeta.sum();
+        }
+        return total;
+    }
+
+    /**
+     * Suma de todos los valores observados
+     */
+    public long getSuma() {
+        return suma.sum();
+    }
+
+    /**
+     * Mayor valor observado, o 0 si no hay observaciones
+     */
+    public long getMaximo() {
+        long valor = maximo.get();
+        return valor == Long.MIN_VALUE ? 0 : valor;
+    }
+
+    /**
+     * Estima un percentil interpolando linealmente dentro de la cubeta que lo
+     * contiene; nunca devuelve más que el máximo observado
+     * @param cuantil Valor entre 0 y 1, p. ej. 0.99
+     * @return Valor estimado, o 0 si no hay observaciones
+     */
+    public double percentil(double cuantil) {
+        long[] acumulados = acumulados();
+        long total = acumulados[acumulados.length - 1];
+        if (total == 0) {
+            return 0;
+        }
+        long max = getMaximo();
+        double rango = Math.max(1, Math.ceil(cuantil * total));
+        for (int i = 0; i < limites.length; i++) {
+            if (acumulados[i] >= rango) {
+                long anterior = i > 0 ? acumulados[i - 1] : 0;
+                double inferior = i > 0 ? limites[i - 1] : Math.min(0, limites[0]);
+                double estimado = inferior + (limites[i] - inferior) * (rango - anterior) / (acumulados[i] - anterior);
+                return Math.min(estimado, max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Límites superiores de las cubetas, sin la cubeta final
+     */
+    public long[] getLimites() {
+        return Arrays.copyOf(limites, limites.length);
+    }
+
+    /**
+     * Conteos acumulados por cubeta: la posición i incluye todas las
+     * observaciones &lt;= limites[i]; la última posición es el total
+     */
+    public long[] acumulados() {
+        long[] resultado = new long[cubetas.length];
+        long acumulado = 0;
+        for (int i = 0; i < cubetas.length; i++) {
+            acumulado += cubetas[i].sum();
+            resultado[i] = acumulado;
+        }
+        return resultado;
+    }
+
+    /**
+     * Representación para respuestas JSON
+     * @return Mapa con conteo, suma y conteos acumulados por límite ("+Inf" para el total)
+     */
+    public Map<String, Object> resumen() {
+        long[] acumulados = acumulados();
+        Map<String, Long> porLimite = new LinkedHashMap<>();
+        for (int i = 0; i < limites.length; i++) {
+            porLimite.put(String.valueOf(limites[i]), acumulados[i]);
+        }
+        porLimite.put("+Inf", acumulados[limites.length]);
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("conteo", acumulados[limites.length]);
+        resultado.put("suma", getSuma());
+        resultado.put("cubetas", porLimite);
+        return resultado;
+    }
+}
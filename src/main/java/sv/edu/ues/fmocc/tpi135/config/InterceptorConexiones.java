@@ -0,0 +1,23 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import javax.annotation.Priority;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+import javax.transaction.Transactional;
+
+/**
+ * Toma un permiso de base de datos antes de que el interceptor de transacciones
+ * inicie la transacción, para conservarlo hasta la confirmación. Sin efecto
+ * fuera del modo de hilos virtuales (PermisosBaseDatos).
+ */
+@Transactional
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class InterceptorConexiones {
+
+    @AroundInvoke
+    public Object ejecutar(InvocationContext contexto) throws Exception {
+        return PermisosBaseDatos.instancia().ejecutar(contexto);
+    }
+}
@@ -0,0 +1,23 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import javax.annotation.Priority;
+import javax.interceptor.AroundInvoke;
+import javax.interceptor.Interceptor;
+import javax.interceptor.InvocationContext;
+
+/**
+ * En el modo de hilos virtuales hace que cada llamada a un método de
+ * repositorio marcado con RequierePermisoBaseDatos ocupe un permiso de base de
+ * datos si el hilo no tiene uno (PermisosBaseDatos). Complementa a
+ * InterceptorConexiones, que hace lo mismo con los métodos transaccionales.
+ */
+@RequierePermisoBaseDatos
+@Interceptor
+@Priority(Interceptor.Priority.LIBRARY_BEFORE)
+public class InterceptorPermisoBaseDatos {
+
+    @AroundInvoke
+    public Object ejecutar(InvocationContext contexto) throws Exception {
+        return PermisosBaseDatos.instancia().ejecutar(contexto);
+    }
+}
@@ -0,0 +1,162 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cubetas de tokens por clave (sucursal o cliente) sin bloqueos. Cada cubeta
+ * guarda solo el instante en que volvería a estar llena si no recibe más
+ * solicitudes (algoritmo GCRA, equivalente a una cubeta de tokens): consumir un
+ * token es una única comparación e intercambio, y una cubeta que dejó de usarse
+ * durante más de la ráfaga completa está llena y equivale a una nueva.
+ *
+ * Por eso las claves ociosas se pueden descartar sin perder estado. El barrido
+ * se hace al llegar al máximo de claves y, como mucho, una vez por período de
+ * ociosidad; si aun así no hay lugar, las claves nuevas comparten una cubeta de
+ * desbordamiento, de modo que la memoria queda acotada.
+ */
+final class LimitadorSucursal {
+
+    static final String DESBORDAMIENTO = "(desbordamiento)";
+
+    private final long intervaloNanos;
+    private final long capacidadNanos;
+    private final int maximoClaves;
+    private final long ociosoNanos;
+
+    private final Map<String, Cubeta> cubetas = new ConcurrentHashMap<>();
+    private final Cubeta desbordamiento;
+    private final AtomicLong ultimoBarrido = new AtomicLong();
+    private final LongAdder admitidas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+
+    /**
+     * @param rafaga Solicitudes seguidas que admite una cubeta llena
+     * @param porSegundo Solicitudes por segundo sostenidas
+     * @param maximoClaves Cubetas que se conservan a la vez
+     * @param ociosoSegundos Tiempo sin uso tras el que una cubeta se puede descartar
+     * @param ahoraNanos Instante actual según System.nanoTime
+     */
+    LimitadorSucursal(int rafaga, double porSegundo, int maximoClaves, long ociosoSegundos, long ahoraNanos) {
+        if (rafaga < 1 || porSegundo <= 0 || maximoClaves < 1) {
+            throw new IllegalArgumentException("La ráfaga, la tasa y el máximo de claves deben ser positivos");
+        }
+        this.intervaloNanos = Math.max(1, (long) (1_000_000_000.0 / porSegundo));
+        this.capacidadNanos = rafaga * intervaloNanos;
+        this.maximoClaves = maximoClaves;
+        this.ociosoNanos = Math.max(TimeUnit.SECONDS.toNanos(ociosoSegundos), capacidadNanos);
+        this.ultimoBarrido.set(ahoraNanos);
+        this.desbordamiento = new Cubeta(ahoraNanos);
+    }
+
+    /**
+     * Consume un token de la cubeta de la clave
+     * @param clave Sucursal o cliente
+     * @param ahoraNanos Instante actual según System.nanoTime
+     * @return 0 si se admitió, o los nanosegundos hasta que haya un token
+     */
+    long consumir(String clave, long ahoraNanos) {
+        Cubeta cubeta = cubeta(clave, ahoraNanos);
+        while (true) {
+            long llena = cubeta.llena.get();
+            long siguiente = (llena - ahoraNanos > 0 ? llena : ahoraNanos) + intervaloNanos;
+            long exceso = siguiente - ahoraNanos - capacidadNanos;
+            if (exceso > 0) {
+                cubeta.rechazadas.increment();
+                rechazadas.increment();
+                return exceso;
+            }
+            if (cubeta.llena.compareAndSet(llena, siguiente)) {
+                cubeta.admitidas.increment();
+                admitidas.increment();
+                return 0;
+            }
+        }
+    }
+
+    private Cubeta cubeta(String clave, long ahoraNanos) {
+        Cubeta cubeta = cubetas.get(clave);
+        if (cubeta != null) {
+            return cubeta;
+        }
+        long ultimo = ultimoBarrido.get();
+        if ((cubetas.size() >= maximoClaves || ahoraNanos - ultimo >= ociosoNanos)
+                && ultimoBarrido.compareAndSet(ultimo, ahoraNanos)) {
+            barrer(ahoraNanos);
+        }
+        if (cubetas.size() >= maximoClaves) {
+            return desbordamiento;
+        }
+        return cubetas.computeIfAbsent(clave, c -> new Cubeta(ahoraNanos));
+    }
+
+    /**
+     * Descarta las cubetas llenas que no se usan desde hace más del período de ociosidad
+     */
+    void barrer(long ahoraNanos) {
+        for (Map.Entry<String, Cubeta> entrada : cubetas.entrySet()) {
+            if (ahoraNanos - entrada.getValue().llena.get() >= ociosoNanos
+                    && cubetas.remove(entrada.getKey(), entrada.getValue())) {
+                descartadas.increment();
+            }
+        }
+    }
+
+    int getClaves() {
+        return cubetas.size();
+    }
+
+    /**
+     * Totales y solicitudes por clave; las claves con rechazos van primero
+     * @return Mapa nombre de la métrica → valor
+     */
+    Map<String, Object> estadisticas() {
+        List<Map.Entry<String, Cubeta>> entradas = new ArrayList<>(cubetas.entrySet());
+        if (desbordamiento.admitidas.sum() + desbordamiento.rechazadas.sum() > 0) {
+            entradas.add(Map.entry(DESBORDAMIENTO, desbordamiento));
+        }
+        entradas.sort(Comparator.comparingLong((Map.Entry<String, Cubeta> e) -> e.getValue().rechazadas.sum())
+                .reversed().thenComparing(Map.Entry::getKey));
+
+        Map<String, Object> porClave = new LinkedHashMap<>();
+        for (Map.Entry<String, Cubeta> entrada : entradas) {
+            Map<String, Object> cubeta = new LinkedHashMap<>();
+            cubeta.put("admitidas", entrada.getValue().admitidas.sum());
+            cubeta.put("rechazadas", entrada.getValue().rechazadas.sum());
+            porClave.put(entrada.getKey(), cubeta);
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("rafaga", capacidadNanos / intervaloNanos);
+        resultado.put("porSegundo", 1_000_000_000.0 / intervaloNanos);
+        resultado.put("claves", cubetas.size());
+        resultado.put("maximoClaves", maximoClaves);
+        resultado.put("admitidas", admitidas.sum());
+        resultado.put("rechazadas", rechazadas.sum());
+        resultado.put("descartadas", descartadas.sum());
+        resultado.put("porClave", porClave);
+        return resultado;
+    }
+
+    private static final class Cubeta {
+
+        /**
+         * Instante en que la cubeta quedaría llena de nuevo si no recibe más solicitudes
+         */
+        private final AtomicLong llena;
+        private final LongAdder admitidas = new LongAdder();
+        private final LongAdder rechazadas = new LongAdder();
+
+        Cubeta(long ahoraNanos) {
+            this.llena = new AtomicLong(ahoraNanos);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de solicitudes en curso de una clase de endpoints que se ajusta con la
+ * latencia observada (AIMD). Compara una media móvil rápida de la latencia con
+ * una lenta que hace de referencia: si la rápida supera la referencia por el
+ * factor de tolerancia y el piso absoluto, la base de datos o los compartimentos
+ * se están saturando y el límite se reduce multiplicativamente (como máximo una
+ * vez por período de enfriamiento); si no, y el límite se está usando, crece en
+ * una unidad por cada "límite" solicitudes completadas.
+ *
+ * Las solicitudes prioritarias pueden ocupar todo el límite; las demás solo la
+ * fracción configurada, de modo que al reducirse el límite se rechazan primero.
+ */
+final class LimiteAdaptativo {
+
+    private static final double ALFA_RAPIDA = 0.2;
+    private static final double ALFA_REFERENCIA = 0.01;
+    private static final double TOLERANCIA = 2.0;
+    private static final double REDUCCION = 0.8;
+    private static final double FRACCION_NO_PRIORITARIA = 0.75;
+    private static final long ENFRIAMIENTO_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String nombre;
+    private final int minimo;
+    private final int maximo;
+    private final long pisoNanos;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+    private volatile double limite;
+
+    // Protegidos por this
+    private double latenciaRapida = -1;
+    private double latenciaReferencia = -1;
+    private long ultimaReduccion;
+    private boolean reducido;
+
+    private final LongAdder admitidas = new LongAdder();
+    private final LongAdder rechazadasPrioritarias = new LongAdder();
+    private final LongAdder rechazadasNoPrioritarias = new LongAdder();
+    private final LongAdder reducciones = new LongAdder();
+
+    /**
+     * @param nombre Nombre de la clase de endpoints en las métricas
+     * @param inicial Límite inicial
+     * @param minimo Límite mínimo, para seguir midiendo la latencia con carga
+     * @param maximo Límite máximo
+     * @param pisoMilisegundos Latencia por debajo de la cual nunca se reduce el límite
+     */
+    LimiteAdaptativo(String nombre, int inicial, int minimo, int maximo, long pisoMilisegundos) {
+        this.nombre = nombre;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.pisoNanos = TimeUnit.MILLISECONDS.toNanos(pisoMilisegundos);
+        this.limite = Math.max(minimo, Math.min(maximo, inicial));
+    }
+
+    /**
+     * Ocupa un lugar si la solicitud cabe en el límite
+     * @param prioritaria Si puede ocupar todo el límite
+     * @return true si se admitió; en ese caso debe llamarse a liberar
+     */
+    boolean adquirir(boolean prioritaria) {
+        int tope = prioritaria ? (int) limite : Math.max(1, (int) (limite * FRACCION_NO_PRIORITARIA));
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= tope) {
+                (prioritaria ? rechazadasPrioritarias : rechazadasNoPrioritarias).increment();
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                admitidas.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar de una solicitud admitida y ajusta el límite con su latencia
+     * @param latenciaNanos Duración de la solicitud
+     * @param ahoraNanos Instante actual según System.nanoTime
+     */
+    void liberar(long latenciaNanos, long ahoraNanos) {
+        int restantes = enCurso.decrementAndGet();
+        ajustar(latenciaNanos, ahoraNanos, restantes + 1);
+    }
+
+    private synchronized void ajustar(long latenciaNanos, long ahoraNanos, int ocupados) {
+        if (latenciaReferencia < 0) {
+            latenciaRapida = latenciaNanos;
+            latenciaReferencia = latenciaNanos;
+            return;
+        }
+        latenciaRapida += ALFA_RAPIDA * (latenciaNanos - latenciaRapida);
+        latenciaReferencia += ALFA_REFERENCIA * (latenciaNanos - latenciaReferencia);
+
+        double actual = limite;
+        if (latenciaRapida > Math.max(latenciaReferencia * TOLERANCIA, pisoNanos)) {
+            if (!reducido || ahoraNanos - ultimaReduccion >= ENFRIAMIENTO_NANOS) {
+                limite = Math.max(minimo, actual * REDUCCION);
+                ultimaReduccion = ahoraNanos;
+                reducido = true;
+                reducciones.increment();
+            }
+        } else if (ocupados * 2 >= actual) {
+            limite = Math.min(maximo, actual + 1.0 / actual);
+        }
+    }
+
+    /**
+     * Segundos sugeridos al cliente antes de reintentar: la latencia reciente, al
+     * menos un segundo y a lo más treinta
+     */
+    synchronized long segundosReintento() {
+        long segundos = (long) Math.ceil(Math.max(latenciaRapida, 0) / 1_000_000_000.0);
+        return Math.max(1, Math.min(30, segundos));
+    }
+
+    String getNombre() {
+        return nombre;
+    }
+
+    int getLimite() {
+        return (int) limite;
+    }
+
+    int getEnCurso() {
+        return enCurso.get();
+    }
+
+    /**
+     * Estado actual y contadores acumulados
+     * @return Mapa nombre de la métrica → valor
+     */
+    synchronized Map<String, Object> estadisticas() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("limite", getLimite());
+        resultado.put("enCurso", getEnCurso());
+        resultado.put("latenciaRecienteMilisegundos", Math.max(latenciaRapida, 0) / 1_000_000.0);
+        resultado.put("latenciaReferenciaMilisegundos", Math.max(latenciaReferencia, 0) / 1_000_000.0);
+        resultado.put("admitidas", admitidas.sum());
+        resultado.put("rechazadasPrioritarias", rechazadasPrioritarias.sum());
+        resultado.put("rechazadasNoPrioritarias", rechazadasNoPrioritarias.sum());
+        resultado.put("reducciones", reducciones.sum());
+        return resultado;
+    }
+}
@@ -0,0 +1,121 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas acumuladas de un método de recurso: latencia, respuestas por código
+ * de estado y bytes recibidos y enviados. Todas las actualizaciones son sin
+ * bloqueo; el contador de un código de estado se crea la primera vez que aparece.
+ */
+final class MetricasEndpoint {
+
+    /**
+     * Límites de las cubetas de latencia en microsegundos, de 100 µs a 80 s con
+     * diez cubetas por década para que los percentiles tengan un error acotado
+     */
+    static final long[] LIMITES_LATENCIA_MICROS = limitesLatencia();
+
+    private static final int MAXIMO_ESTADO = 600;
+
+    private final String endpoint;
+    private final boolean asincrono;
+    private final Histograma latencia = new Histograma(LIMITES_LATENCIA_MICROS);
+    private final AtomicReferenceArray<LongAdder> porEstado = new AtomicReferenceArray<>(MAXIMO_ESTADO);
+    private final LongAdder bytesSolicitud = new LongAdder();
+    private final LongAdder bytesRespuesta = new LongAdder();
+
+    /**
+     * @param endpoint Verbo y plantilla de ruta
+     * @param asincrono Indica si el método suspende la respuesta y la reanuda en otro hilo
+     */
+    MetricasEndpoint(String endpoint, boolean asincrono) {
+        this.endpoint = endpoint;
+        this.asincrono = asincrono;
+    }
+
+    /**
+     * Registra una solicitud terminada
+     * @param estado Código de estado HTTP de la respuesta
+     * @param micros Duración en microsegundos
+     * @param bytesEnviados Bytes escritos en el cuerpo de la respuesta
+     */
+    void registrar(int estado, long micros, long bytesEnviados) {
+        latencia.registrar(micros);
+        if (estado >= 0 && estado < MAXIMO_ESTADO) {
+            LongAdder contador = porEstado.get(estado);
+            if (contador == null) {
+                porEstado.compareAndSet(estado, null, new LongAdder());
+                contador = porEstado.get(estado);
+            }
+            contador.increment();
+        }
+        if (bytesEnviados > 0) {
+            bytesRespuesta.add(bytesEnviados);
+        }
+    }
+
+    /**
+     * Suma los bytes del cuerpo de una solicitud
+     */
+    void registrarBytesSolicitud(long bytes) {
+        if (bytes > 0) {
+            bytesSolicitud.add(bytes);
+        }
+    }
+
+    String getEndpoint() {
+        return endpoint;
+    }
+
+    boolean isAsincrono() {
+        return asincrono;
+    }
+
+    Histograma getLatencia() {
+        return latencia;
+    }
+
+    /**
+     * Respuestas enviadas con el código de estado indicado
+     */
+    long respuestas(int estado) {
+        LongAdder contador = porEstado.get(estado);
+        return contador != null ? contador.sum() : 0;
+    }
+
+    /**
+     * Códigos de estado con al menos una respuesta, en orden ascendente
+     */
+    int[] estados() {
+        int cantidad = 0;
+        int[] estados = new int[MAXIMO_ESTADO];
+        for (int i = 0; i < MAXIMO_ESTADO; i++) {
+            if (porEstado.get(i) != null) {
+                estados[cantidad++] = i;
+            }
+        }
+        return Arrays.copyOf(estados, cantidad);
+    }
+
+    long getBytesSolicitud() {
+        return bytesSolicitud.sum();
+    }
+
+    long getBytesRespuesta() {
+        return bytesRespuesta.sum();
+    }
+
+    private static long[] limitesLatencia() {
+        long[] mantisas = {100, 125, 160, 200, 250, 320, 400, 500, 640, 800};
+        long[] limites = new long[mantisas.length * 6];
+        int cantidad = 0;
+        for (long escala = 1; escala <= 100_000; escala *= 10) {
+            for (long mantisa : mantisas) {
+                limites[cantidad++] = mantisa * escala;
+            }
+        }
+        return limites;
+    }
+}
@@ -0,0 +1,37 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import javax.ws.rs.ext.Provider;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.monitoring.ApplicationEvent;
+import org.glassfish.jersey.server.monitoring.ApplicationEventListener;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+
+/**
+ * Devuelve el lugar de control de admisión cuando termina cada solicitud,
+ * también las que terminan con una excepción sin ExceptionMapper, en las que
+ * Jersey no ejecuta el filtro de respuesta de FiltroAdmision.
+ */
+@Provider
+public class OyenteAdmision implements ApplicationEventListener {
+
+    private static final RequestEventListener AL_TERMINAR = OyenteAdmision::alTerminar;
+
+    @Override
+    public void onEvent(ApplicationEvent evento) {
+    }
+
+    @Override
+    public RequestEventListener onRequest(RequestEvent evento) {
+        return AL_TERMINAR;
+    }
+
+    static void alTerminar(RequestEvent evento) {
+        if (evento.getType() == RequestEvent.Type.FINISHED) {
+            ContainerRequest solicitud = evento.getContainerRequest();
+            if (solicitud != null) {
+                FiltroAdmision.liberar(solicitud.getProperty(FiltroAdmision.PROPIEDAD_OCUPACION));
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import org.eclipse.persistence.internal.databaseaccess.DatabaseCall;
+import org.eclipse.persistence.queries.Call;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+
+/**
+ * Registra en ContadorSentencias cada sentencia SQL que EclipseLink ejecuta, con
+ * su SQL como forma. Las consultas que se responden desde la caché de
+ * EclipseLink no llegan a la base de datos y no se cuentan; las escrituras que
+ * viajan en un lote JDBC cuentan cada una, pero no como repetición.
+ *
+ * Se registra en persistence.xml con eclipselink.session-event-listener y se
+ * ejecuta en el hilo que lanza la consulta, el de la solicitud.
+ */
+public class OyenteSentencias extends SessionEventAdapter {
+
+    @Override
+    public void postExecuteCall(SessionEvent evento) {
+        Call llamada = evento.getCall();
+        if (llamada != null) {
+            ContadorSentencias.registrar(forma(llamada), enLote(llamada, evento.getSession()));
+        }
+    }
+
+    static String forma(Call llamada) {
+        if (llamada instanceof DatabaseCall) {
+            String sql = ((DatabaseCall) llamada).getSQLString();
+            if (sql != null) {
+                return sql;
+            }
+        }
+        return llamada.getClass().getSimpleName();
+    }
+
+    private static boolean enLote(Call llamada, Session session) {
+        if (!(llamada instanceof DatabaseCall) || !((DatabaseCall) llamada).isExecuteUpdate() || session == null) {
+            return false;
+        }
+        return ((DatabaseCall) llamada).isBatchExecutionSupported()
+                && session.getDatasourceLogin() instanceof DatabaseLogin
+                && ((DatabaseLogin) session.getDatasourceLogin()).shouldUseBatchWriting();
+    }
+}
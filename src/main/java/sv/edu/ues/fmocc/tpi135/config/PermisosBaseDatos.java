@@ -0,0 +1,94 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.interceptor.InvocationContext;
+
+/**
+ * Limita los hilos que usan la base de datos a la vez al tamaño del pool de
+ * conexiones (propiedad tipicos.bd.conexiones, 32 por defecto, como el pool de
+ * GlassFish). Solo está activo en el modo de hilos virtuales: con cientos de
+ * hilos virtuales, el exceso espera aquí estacionado en lugar de bloquearse
+ * dentro del pool, donde el tiempo de espera termina en una excepción.
+ *
+ * El permiso es reentrante por hilo: se toma en la transacción o en la llamada
+ * al repositorio más externa y se conserva hasta que termina, de modo que un
+ * hilo nunca espera un segundo permiso mientras ocupa una conexión.
+ */
+public final class PermisosBaseDatos {
+
+    private static final PermisosBaseDatos INSTANCIA =
+            new PermisosBaseDatos(HilosVirtuales.activos(), Integer.getInteger("tipicos.bd.conexiones", 32));
+
+    private final boolean activo;
+    private final int conexiones;
+    private final Semaphore permisos;
+    private final ThreadLocal<int[]> profundidad = ThreadLocal.withInitial(() -> new int[1]);
+    private final LongAdder esperas = new LongAdder();
+    private final AtomicInteger esperando = new AtomicInteger();
+
+    PermisosBaseDatos(boolean activo, int conexiones) {
+        this.activo = activo;
+        this.conexiones = conexiones;
+        this.permisos = new Semaphore(conexiones, true);
+    }
+
+    static PermisosBaseDatos instancia() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Continúa la invocación con un permiso de base de datos, tomándolo si el
+     * hilo aún no tiene uno
+     */
+    Object ejecutar(InvocationContext contexto) throws Exception {
+        if (!activo) {
+            return contexto.proceed();
+        }
+        int[] nivel = profundidad.get();
+        if (nivel[0] == 0) {
+            adquirir();
+        }
+        nivel[0]++;
+        try {
+            return contexto.proceed();
+        } finally {
+            if (--nivel[0] == 0) {
+                permisos.release();
+            }
+        }
+    }
+
+    private void adquirir() throws InterruptedException {
+        if (permisos.tryAcquire()) {
+            return;
+        }
+        esperas.increment();
+        esperando.incrementAndGet();
+        try {
+            permisos.acquire();
+        } finally {
+            esperando.decrementAndGet();
+        }
+    }
+
+    public boolean isActivo() {
+        return activo;
+    }
+
+    /**
+     * Permisos ocupados y espera acumulada
+     * @return Mapa nombre de la métrica → valor
+     */
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("conexiones", conexiones);
+        resultado.put("enUso", conexiones - permisos.availablePermits());
+        resultado.put("esperando", esperando.get());
+        resultado.put("esperas", esperas.sum());
+        return resultado;
+    }
+}
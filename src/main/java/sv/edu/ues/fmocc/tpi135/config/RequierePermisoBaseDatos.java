@@ -0,0 +1,19 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import javax.interceptor.InterceptorBinding;
+
+/**
+ * Marca los métodos de repositorio que consultan la base de datos para que
+ * InterceptorPermisoBaseDatos les reserve un permiso de PermisosBaseDatos en el
+ * modo de hilos virtuales. Los métodos que se responden desde memoria no deben
+ * llevarla.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface RequierePermisoBaseDatos {
+}
@@ -0,0 +1,47 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.eclipse.persistence.config.SessionCustomizer;
+import org.eclipse.persistence.sequencing.Sequence;
+import org.eclipse.persistence.sessions.DatasourceLogin;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * Asignación opcional de IDs por bloques. Las entidades toman su ID de la
+ * secuencia de su tabla de uno en uno (allocationSize = 1), compatible con las
+ * secuencias que incrementan de 1 en 1. Con la propiedad del sistema
+ * tipicos.ids.bloque=n (n &gt; 1) cada nextval reserva n IDs, de modo que una
+ * carga por lote consulta la secuencia una vez cada n inserciones.
+ *
+ * El modo requiere que las secuencias incrementen de n en n
+ * (migracion_secuencias_pooled.sql para n = 50); se registra en persistence.xml
+ * con eclipselink.session.customizer.
+ */
+public class SecuenciasAgrupadas implements SessionCustomizer {
+
+    static final String PROPIEDAD = "tipicos.ids.bloque";
+
+    private static final Logger LOGGER = Logger.getLogger(SecuenciasAgrupadas.class.getName());
+
+    @Override
+    public void customize(Session session) {
+        int bloque = Integer.getInteger(PROPIEDAD, 1);
+        if (bloque <= 1) {
+            return;
+        }
+        Map<?, ?> secuencias = ((DatasourceLogin) session.getDatasourceLogin()).getSequences();
+        if (secuencias == null) {
+            return;
+        }
+        for (Object valor : secuencias.values()) {
+            Sequence secuencia = (Sequence) valor;
+            // Las columnas IDENTITY obtienen el ID después del INSERT y no usan bloques
+            if (!secuencia.shouldAcquireValueAfterInsert()) {
+                secuencia.setPreallocationSize(bloque);
+                LOGGER.log(Level.CONFIG, "Secuencia {0}: bloques de {1} IDs", new Object[]{secuencia.getName(), bloque});
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.Response.Status;
+import sv.edu.ues.fmocc.tpi135.config.Compartimentos;
+import sv.edu.ues.fmocc.tpi135.dto.CambiosCatalogoDTO;
+import sv.edu.ues.fmocc.tpi135.service.CacheCatalogo;
+import sv.edu.ues.fmocc.tpi135.service.InstantaneaMenu;
+import sv.edu.ues.fmocc.tpi135.service.MenuService;
+import sv.edu.ues.fmocc.tpi135.service.SincronizacionCatalogoService;
+
+/**
+ * Controlador REST con operaciones generales sobre el catálogo del menú
+ */
+@Path("/catalogo")
+@Produces(MediaType.APPLICATION_JSON)
+public class CatalogoController {
+    
+    @Inject
+    private SincronizacionCatalogoService sincronizacionCatalogoService;
+    
+    @Inject
+    private MenuService menuService;
+    
+    @Inject
+    private Compartimentos compartimentos;
+    
+    @Context
+    private Request request;
+    
+    /**
+     * Obtiene los contadores de aciertos, fallos y desalojos de las cachés del catálogo
+     * @return Respuesta con las estadísticas por caché
+     */
+    @GET
+    @Path("/cache")
+    public Response obtenerEstadisticasCache() {
+        return Response.ok(CacheCatalogo.estadisticas()).build();
+    }
+    
+    /**
+     * Obtiene los cambios del catálogo en el compartimento del catálogo
+     * @param respuesta Respuesta suspendida
+     * @param desde Última versión aplicada por el terminal (0 para la carga inicial)
+     * @param limite Cantidad máxima de cambios a leer (por defecto 500)
+     */
+    @GET
+    @Path("/cambios")
+    public void buscarCambios(
+            @Suspended AsyncResponse respuesta,
+            @QueryParam("desde") @DefaultValue("0") long desde,
+            @QueryParam("limite") @DefaultValue("500") int limite) {
+        compartimentos.catalogo().atender(respuesta, () -> buscarCambios(desde, limite));
+    }
+    
+    /**
+     * Obtiene los cambios del catálogo posteriores a la versión indicada, para que
+     * los terminales actualicen su copia sin descargarla completa
+     * @param desde Última versión aplicada por el terminal (0 para la carga inicial)
+     * @param limite Cantidad máxima de cambios a leer (por defecto 500)
+     * @return Respuesta con las filas creadas, modificadas y eliminadas, o 400 si los
+     *         parámetros no son válidos
+     */
+    public Response buscarCambios(long desde, int limite) {
+        try {
+            CambiosCatalogoDTO cambios = sincronizacionCatalogoService.buscarCambios(desde, limite);
+            return Response.ok(cambios).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * Obtiene el menú para los clientes (tipos de producto, productos, combos y
+     * precios vigentes). Se entrega precalculado y ya serializado, comprimido con
+     * gzip si el cliente lo acepta.
+     * @param aceptaCodificacion Valor del encabezado Accept-Encoding
+     * @return Respuesta con el menú, o 304 si el cliente ya tiene esta versión
+     */
+    @GET
+    @Path("/menu")
+    public Response obtenerMenu(@HeaderParam(HttpHeaders.ACCEPT_ENCODING) String aceptaCodificacion) {
+        InstantaneaMenu menu = menuService.obtenerMenu();
+        Response noModificado = RespuestaCondicional.noModificado(request, menu.getMarca());
+        if (noModificado != null) {
+            return noModificado;
+        }
+        
+        boolean gzip = menu.getJsonGzip() != null && aceptaGzip(aceptaCodificacion);
+        ResponseBuilder builder = RespuestaCondicional.construir(gzip ? menu.getJsonGzip() : menu.getJson(), menu.getMarca())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.build();
+    }
+    
+    /**
+     * Indica si Accept-Encoding incluye gzip sin rechazarlo con q=0
+     */
+    static boolean aceptaGzip(String aceptaCodificacion) {
+        if (aceptaCodificacion == null) {
+            return false;
+        }
+        for (String codificacion : aceptaCodificacion.split(",")) {
+            String[] partes = codificacion.split(";");
+            String nombre = partes[0].trim();
+            if (!nombre.equalsIgnoreCase("gzip") && !nombre.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim().replace(" ", "");
+                if (parametro.matches("[qQ]=0(\\.0{0,3})?")) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
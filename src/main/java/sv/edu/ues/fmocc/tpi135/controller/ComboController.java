@@ -11,11 +11,14 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import sv.edu.ues.fmocc.tpi135.dto.ComboDTO;
 import sv.edu.ues.fmocc.tpi135.service.ComboService;
+import sv.edu.ues.fmocc.tpi135.service.VersionCatalogo;
 
 /**
  * Controlador REST para operaciones CRUD de combos
@@ -28,6 +31,9 @@ public class ComboController {
     @Inject
     private ComboService comboService;
     
+    @Context
+    private Request request;
+    
     /**
      * Crea un nuevo combo
      * @param comboDTO DTO con los datos del combo a crear
@@ -77,13 +83,20 @@ public class ComboController {
     /**
      * Obtiene un combo por su ID
      * @param id ID del combo a buscar
-     * @return Respuesta con el combo encontrado o 404 si no existe
+     * @return Respuesta con el combo encontrado o 404 si no existe,
+     *         o 304 si el cliente ya tiene la versión vigente del catálogo
      */
     @GET
     @Path("/{id}")
     public Response obtenerComboPorId(@PathParam("id") Long id) {
+        VersionCatalogo.Marca version = VersionCatalogo.COMBOS.actual();
+        Response noModificado = RespuestaCondicional.noModificado(request, version);
+        if (noModificado != null) {
+            return noModificado;
+        }
+        
         return comboService.obtenerComboPorId(id)
-                .map(combo -> Response.ok(combo).build())
+                .map(combo -> RespuestaCondicional.ok(combo, version))
                 .orElse(Response.status(Status.NOT_FOUND)
                         .entity("Combo no encontrado con ID: " + id)
                         .build());
@@ -93,13 +106,21 @@ public class ComboController {
      * Lista todos los combos o filtra por nombre o estado
      * @param nombre Filtro opcional por nombre
      * @param activo Filtro opcional por estado activo/inactivo
-     * @return Lista de combos que cumplen con los filtros
+     * @return Lista de combos que cumplen con los filtros,
+     *         o 304 si el cliente ya tiene la versión vigente del catálogo
      */
     @GET
     public Response listarCombos(
             @QueryParam("nombre") String nombre,
             @QueryParam("activo") Boolean activo) {
         
+        // La versión se lee antes de cargar los datos
+        VersionCatalogo.Marca version = VersionCatalogo.COMBOS.actual();
+        Response noModificado = RespuestaCondicional.noModificado(request, version);
+        if (noModificado != null) {
+            return noModificado;
+        }
+        
         List<ComboDTO> combos;
         
         if (nombre != null && !nombre.trim().isEmpty()) {
@@ -113,7 +134,7 @@ public class ComboController {
             combos = comboService.listarCombos();
         }
         
-        return Response.ok(combos).build();
+        return RespuestaCondicional.ok(combos, version);
     }
     
     /**
@@ -0,0 +1,104 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Date;
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenConciliacionDTO;
+import sv.edu.ues.fmocc.tpi135.service.ConciliacionService;
+
+/**
+ * Controlador REST para conciliar el total de las órdenes con sus pagos
+ */
+@Path("/conciliacion")
+@Produces(MediaType.APPLICATION_JSON)
+public class ConciliacionController {
+    
+    /**
+     * Cantidad de líneas escritas entre cada vaciado del flujo de salida
+     */
+    private static final int LINEAS_POR_FLUSH = 200;
+    
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writer();
+    
+    @Inject
+    private ConciliacionService conciliacionService;
+    
+    /**
+     * Cuenta las órdenes de un rango por estado de conciliación
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Respuesta con los conteos por estado o 400 si el rango no es válido
+     */
+    @GET
+    @Path("/resumen")
+    public Response resumir(
+            @QueryParam("desde") Date desde,
+            @QueryParam("hasta") Date hasta) {
+        try {
+            ResumenConciliacionDTO resumen = conciliacionService.resumir(desde, hasta);
+            return Response.ok(resumen).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * Exporta las órdenes sin pago, con pago parcial o con excedente como JSON
+     * delimitado por saltos de línea, a medida que se leen de la base de datos
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Respuesta con el flujo de diferencias o 400 si el rango no es válido
+     */
+    @GET
+    @Path("/diferencias")
+    @Produces(OrdenController.APPLICATION_NDJSON)
+    public Response exportarDiferencias(
+            @QueryParam("desde") Date desde,
+            @QueryParam("hasta") Date hasta) {
+        
+        // Se valida antes de empezar a escribir, cuando todavía se puede responder 400
+        try {
+            conciliacionService.validarRango(desde, hasta);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity(e.getMessage())
+                    .build();
+        }
+        
+        StreamingOutput flujo = salida -> {
+            long[] lineas = {0};
+            try {
+                conciliacionService.exportarDiferencias(desde, hasta, diferencia -> {
+                    try {
+                        salida.write(ESCRITOR_JSON.writeValueAsBytes(diferencia));
+                        salida.write('\n');
+                        if (++lineas[0] % LINEAS_POR_FLUSH == 0) {
+                            salida.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            salida.flush();
+        };
+        
+        return Response.ok(flujo, OrdenController.APPLICATION_NDJSON).build();
+    }
+}
@@ -0,0 +1,377 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import sv.edu.ues.fmocc.tpi135.dto.EventoOrdenDTO;
+
+/**
+ * Reparte por Server-Sent Events los cambios de órdenes a los suscriptores de
+ * cada sucursal. Los eventos llegan después de confirmarse la transacción que
+ * los originó y se serializan una sola vez para todos los suscriptores.
+ *
+ * Cada suscriptor tiene una cola acotada que se vacía en un hilo del ejecutor
+ * administrado, de modo que un cliente lento no detiene la publicación ni a
+ * los demás clientes. Si su cola se llena, se descartan sus eventos pendientes
+ * y se le envía un evento "resincronizar" para que recargue las órdenes con
+ * GET /api/ordenes?sucursal=X; luego sigue recibiendo eventos normalmente.
+ *
+ * Los datos de cada evento son el EventoOrdenDTO en JSON.
+ *
+ * Cada sucursal retiene sus últimos eventos para reenviarlos a un cliente que
+ * se reconecta con Last-Event-ID; si el cliente perdió más de lo retenido, o
+ * el identificador es de antes de un reinicio, también recibe "resincronizar".
+ */
+@ApplicationScoped
+public class DifusorOrdenes {
+
+    /**
+     * Eventos pendientes por suscriptor antes de considerarlo lento
+     */
+    static final int CAPACIDAD_COLA = 256;
+
+    /**
+     * Eventos retenidos por sucursal para las reconexiones
+     */
+    static final int EVENTOS_RETENIDOS = 512;
+
+    /**
+     * Intervalo de los comentarios que mantienen viva la conexión y detectan
+     * clientes desconectados
+     */
+    static final long SEGUNDOS_LATIDO = 20;
+
+    static final String RESINCRONIZAR = "resincronizar";
+
+    private static final Logger LOGGER = Logger.getLogger(DifusorOrdenes.class.getName());
+
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writer();
+
+    /**
+     * Instante de arranque, como prefijo de los IDs de evento para reconocer los
+     * de una ejecución anterior
+     */
+    private static final String ARRANQUE = Long.toString(System.currentTimeMillis(), 36);
+
+    private static final Publicacion LATIDO = new Publicacion(0, null, null);
+
+    private final Map<String, Canal> canales = new ConcurrentHashMap<>();
+
+    private final LongAdder enviados = new LongAdder();
+
+    private final LongAdder resincronizaciones = new LongAdder();
+
+    @Resource
+    private ManagedExecutorService ejecutor;
+
+    @Resource
+    private ManagedScheduledExecutorService planificador;
+
+    private ScheduledFuture<?> latido;
+
+    @PostConstruct
+    void iniciar() {
+        latido = planificador.scheduleAtFixedRate(this::enviarLatidos, SEGUNDOS_LATIDO, SEGUNDOS_LATIDO, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void detener() {
+        if (latido != null) {
+            latido.cancel(false);
+        }
+        for (Canal canal : canales.values()) {
+            for (Suscriptor suscriptor : canal.suscriptores) {
+                suscriptor.cerrar();
+            }
+        }
+    }
+
+    /**
+     * Registra un suscriptor para los eventos de una sucursal. El cliente debe
+     * abrir el flujo antes de cargar las órdenes, para no perder las que se
+     * creen entre ambas operaciones.
+     * @param sucursal Código de la sucursal
+     * @param ultimoEvento Valor de Last-Event-ID al reconectarse, o null
+     */
+    public void suscribir(String sucursal, String ultimoEvento, SseEventSink sink, Sse sse) {
+        Canal canal = canales.computeIfAbsent(sucursal, Canal::new);
+        Suscriptor suscriptor = new Suscriptor(canal, sink, sse);
+        canal.agregar(suscriptor, ultimoEvento);
+        suscriptor.programar();
+    }
+
+    /**
+     * Publica un cambio confirmado en la sucursal de la orden y, si la orden se
+     * movió, también en la anterior para que la retire de su pantalla
+     */
+    void alConfirmarOrden(@Observes(during = TransactionPhase.AFTER_SUCCESS) EventoOrdenDTO evento) {
+        publicar(evento);
+    }
+
+    void publicar(EventoOrdenDTO evento) {
+        String sucursal = evento.getOrden() != null ? evento.getOrden().getSucursal() : null;
+        String anterior = evento.getSucursalAnterior();
+        if (sucursal == null && anterior == null) {
+            return;
+        }
+
+        String datos;
+        try {
+            datos = ESCRITOR_JSON.writeValueAsString(evento);
+        } catch (JsonProcessingException e) {
+            LOGGER.log(Level.WARNING, "No se pudo serializar el evento " + evento, e);
+            return;
+        }
+        if (sucursal != null) {
+            canales.computeIfAbsent(sucursal, Canal::new).publicar(evento.getTipo(), datos);
+        }
+        if (anterior != null && !anterior.equals(sucursal)) {
+            canales.computeIfAbsent(anterior, Canal::new).publicar(evento.getTipo(), datos);
+        }
+    }
+
+    /**
+     * Contadores del flujo de eventos
+     * @return Suscriptores conectados, eventos enviados y resincronizaciones
+     */
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        Map<String, Integer> porSucursal = new LinkedHashMap<>();
+        int total = 0;
+        for (Canal canal : canales.values()) {
+            porSucursal.put(canal.sucursal, canal.suscriptores.size());
+            total += canal.suscriptores.size();
+        }
+        resultado.put("suscriptores", total);
+        resultado.put("suscriptoresPorSucursal", porSucursal);
+        resultado.put("eventosEnviados", enviados.sum());
+        resultado.put("resincronizaciones", resincronizaciones.sum());
+        return resultado;
+    }
+
+    private void enviarLatidos() {
+        for (Canal canal : canales.values()) {
+            for (Suscriptor suscriptor : canal.suscriptores) {
+                if (suscriptor.sink.isClosed()) {
+                    suscriptor.cerrar();
+                } else if (suscriptor.cola.offer(LATIDO)) {
+                    // Si la cola está llena el cliente ya tiene eventos pendientes
+                    suscriptor.programar();
+                }
+            }
+        }
+    }
+
+    /**
+     * Evento ya serializado; el ID es correlativo dentro de su sucursal
+     */
+    private static final class Publicacion {
+
+        private final long id;
+        private final String nombre;
+        private final String datos;
+
+        Publicacion(long id, String nombre, String datos) {
+            this.id = id;
+            this.nombre = nombre;
+            this.datos = datos;
+        }
+    }
+
+    /**
+     * Suscriptores y eventos recientes de una sucursal
+     */
+    private final class Canal {
+
+        private final String sucursal;
+        private final Set<Suscriptor> suscriptores = new CopyOnWriteArraySet<>();
+        private final ArrayDeque<Publicacion> recientes = new ArrayDeque<>(EVENTOS_RETENIDOS);
+        private final String datosResincronizar;
+        private long ultimoId;
+
+        Canal(String sucursal) {
+            this.sucursal = sucursal;
+            String datos;
+            try {
+                datos = ESCRITOR_JSON.writeValueAsString(Map.of("sucursal", sucursal));
+            } catch (JsonProcessingException e) {
+                datos = "{}";
+            }
+            this.datosResincronizar = datos;
+        }
+
+        synchronized void publicar(String nombre, String datos) {
+            Publicacion publicacion = new Publicacion(++ultimoId, nombre, datos);
+            if (recientes.size() == EVENTOS_RETENIDOS) {
+                recientes.removeFirst();
+            }
+            recientes.addLast(publicacion);
+            for (Suscriptor suscriptor : suscriptores) {
+                suscriptor.encolar(publicacion);
+                suscriptor.programar();
+            }
+        }
+
+        /**
+         * Agrega el suscriptor y le encola lo que perdió desde ultimoEvento; se
+         * hace con el canal bloqueado para no duplicar ni saltar eventos
+         */
+        synchronized void agregar(Suscriptor suscriptor, String ultimoEvento) {
+            if (ultimoEvento != null && !ultimoEvento.isEmpty()) {
+                long ultimo = idRecibido(ultimoEvento);
+                Publicacion primera = recientes.peekFirst();
+                if (ultimo < 0 || ultimo > ultimoId || (ultimo < ultimoId && (primera == null || primera.id > ultimo + 1))) {
+                    suscriptor.resincronizar(ultimoId);
+                } else {
+                    for (Publicacion publicacion : recientes) {
+                        if (publicacion.id > ultimo) {
+                            suscriptor.encolar(publicacion);
+                        }
+                    }
+                }
+            }
+            suscriptores.add(suscriptor);
+        }
+
+        void quitar(Suscriptor suscriptor) {
+            suscriptores.remove(suscriptor);
+        }
+
+        /**
+         * ID correlativo contenido en un Last-Event-ID, o -1 si no es de esta ejecución
+         */
+        private long idRecibido(String ultimoEvento) {
+            String prefijo = ARRANQUE + "-";
+            if (!ultimoEvento.startsWith(prefijo)) {
+                return -1;
+            }
+            try {
+                return Long.parseLong(ultimoEvento.substring(prefijo.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Conexión de un cliente con su cola de eventos pendientes
+     */
+    private final class Suscriptor {
+
+        private final Canal canal;
+        private final SseEventSink sink;
+        private final Sse sse;
+        private final ArrayBlockingQueue<Publicacion> cola = new ArrayBlockingQueue<>(CAPACIDAD_COLA);
+        private final AtomicBoolean programado = new AtomicBoolean();
+
+        Suscriptor(Canal canal, SseEventSink sink, Sse sse) {
+            this.canal = canal;
+            this.sink = sink;
+            this.sse = sse;
+        }
+
+        void encolar(Publicacion publicacion) {
+            if (!cola.offer(publicacion)) {
+                // Cliente lento: sus eventos pendientes se reemplazan por una resincronización
+                resincronizar(publicacion.id);
+            }
+        }
+
+        /**
+         * Reemplaza los eventos pendientes por uno que indica recargar las órdenes;
+         * lleva el ID del último evento para que la reconexión continúe desde ahí
+         */
+        void resincronizar(long id) {
+            cola.clear();
+            cola.offer(new Publicacion(id, RESINCRONIZAR, canal.datosResincronizar));
+            resincronizaciones.increment();
+        }
+
+        void programar() {
+            if (cola.isEmpty() || !programado.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                ejecutor.execute(this::vaciar);
+            } catch (RejectedExecutionException e) {
+                programado.set(false);
+                LOGGER.log(Level.WARNING, "No se pudo programar el envío de eventos; se cierra la conexión", e);
+                cerrar();
+            }
+        }
+
+        private void vaciar() {
+            try {
+                Publicacion publicacion;
+                while ((publicacion = cola.poll()) != null) {
+                    if (sink.isClosed()) {
+                        cerrar();
+                        return;
+                    }
+                    sink.send(construir(publicacion)).whenComplete((resultado, error) -> {
+                        if (error != null) {
+                            cerrar();
+                        }
+                    });
+                    if (publicacion != LATIDO) {
+                        enviados.increment();
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Error al enviar eventos; se cierra la conexión", e);
+                cerrar();
+                return;
+            } finally {
+                programado.set(false);
+            }
+            // Un evento pudo llegar entre el último poll y la liberación de la marca
+            programar();
+        }
+
+        private OutboundSseEvent construir(Publicacion publicacion) {
+            if (publicacion == LATIDO) {
+                return sse.newEventBuilder().comment("latido").build();
+            }
+            return sse.newEventBuilder()
+                    .id(ARRANQUE + "-" + publicacion.id)
+                    .name(publicacion.nombre)
+                    .data(String.class, publicacion.datos)
+                    .build();
+        }
+
+        void cerrar() {
+            canal.quitar(this);
+            cola.clear();
+            try {
+                sink.close();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.FINE, "Error al cerrar la conexión de eventos", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import javax.inject.Inject;
+import javax.ws.rs.BadRequestException;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+/**
+ * Controlador REST con el flujo de eventos de órdenes para las pantallas de
+ * cocina. Está separado de OrdenController para que las conexiones de larga
+ * duración no entren en las métricas de latencia de los endpoints de órdenes.
+ */
+@Path("/ordenes/eventos")
+public class EventoOrdenController {
+    
+    @Inject
+    private DifusorOrdenes difusorOrdenes;
+    
+    /**
+     * Abre un flujo Server-Sent Events con las órdenes creadas, actualizadas,
+     * anuladas y eliminadas de una sucursal. Al reconectarse, el navegador envía
+     * Last-Event-ID y recibe los eventos que perdió; si no es posible, recibe un
+     * evento "resincronizar" y debe recargar las órdenes.
+     * @param sucursal Código de la sucursal
+     * @param ultimoEvento ID del último evento recibido
+     */
+    @GET
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    public void suscribir(
+            @QueryParam("sucursal") String sucursal,
+            @HeaderParam(HttpHeaders.LAST_EVENT_ID_HEADER) String ultimoEvento,
+            @Context SseEventSink sink,
+            @Context Sse sse) {
+        if (sucursal == null || sucursal.trim().isEmpty()) {
+            throw new BadRequestException("La sucursal es obligatoria");
+        }
+        difusorOrdenes.suscribir(sucursal.trim(), ultimoEvento, sink, sse);
+    }
+    
+    /**
+     * Obtiene los suscriptores conectados y los contadores de eventos enviados
+     * y de resincronizaciones por clientes lentos
+     * @return Respuesta con las estadísticas del flujo
+     */
+    @GET
+    @Path("/estadisticas")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response obtenerEstadisticas() {
+        return Response.ok(difusorOrdenes.estadisticas()).build();
+    }
+}
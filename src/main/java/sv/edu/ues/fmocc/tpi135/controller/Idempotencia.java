@@ -0,0 +1,265 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import sv.edu.ues.fmocc.tpi135.dto.RespuestaIdempotenteDTO;
+import sv.edu.ues.fmocc.tpi135.service.IdempotenciaService;
+
+/**
+ * Creación idempotente de órdenes y pagos con el encabezado Idempotency-Key. Los
+ * terminales que reintentan un POST con la misma clave reciben la respuesta
+ * original (con el encabezado Idempotent-Replayed) sin que la orden o el pago se
+ * creen de nuevo.
+ *
+ * Las respuestas recientes se guardan en memoria (tipicos.idempotencia.recientes
+ * claves, 10000 por defecto) delante de la tabla idempotencia_clave. Las
+ * solicitudes simultáneas con la misma clave se agrupan: solo una ejecuta y las
+ * demás esperan su respuesta. Entre instancias, la reserva de la clave en la
+ * tabla garantiza que solo una ejecute; las demás reciben 409 mientras tanto.
+ *
+ * La respuesta se guarda en la tabla dentro de la transacción que crea la orden
+ * o el pago, de modo que una clave en proceso nunca corresponde a una creación
+ * confirmada. Si la creación falla, la clave se libera y el cliente puede
+ * reintentar con la misma clave.
+ */
+@ApplicationScoped
+public class Idempotencia {
+    
+    public static final String ENCABEZADO = "Idempotency-Key";
+    public static final String ENCABEZADO_REPETIDA = "Idempotent-Replayed";
+    
+    static final String ORDENES = "ordenes";
+    static final String PAGOS = "pagos";
+    
+    static final int LONGITUD_MAXIMA = 128;
+    
+    /**
+     * Espera máxima por la respuesta de una solicitud simultánea con la misma clave
+     */
+    static final long MILISEGUNDOS_ESPERA = 5_000;
+    
+    private static final int MAXIMO_RECIENTES = Integer.getInteger("tipicos.idempotencia.recientes", 10_000);
+    
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writer();
+    
+    private static final Logger LOGGER = Logger.getLogger(Idempotencia.class.getName());
+    
+    @Inject
+    private IdempotenciaService idempotenciaService;
+    
+    @Resource
+    private ManagedScheduledExecutorService planificador;
+    
+    private final Map<String, RespuestaIdempotenteDTO> recientes = new LinkedHashMap<>(256, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, RespuestaIdempotenteDTO> mayor) {
+            return size() > MAXIMO_RECIENTES;
+        }
+    };
+    
+    private final Map<String, CompletableFuture<RespuestaIdempotenteDTO>> enCurso = new ConcurrentHashMap<>();
+    
+    private ScheduledFuture<?> purga;
+    
+    @PostConstruct
+    void iniciar() {
+        if (planificador != null) {
+            purga = planificador.scheduleWithFixedDelay(this::purgar, 1, 1, TimeUnit.HOURS);
+        }
+    }
+    
+    @PreDestroy
+    void detener() {
+        if (purga != null) {
+            purga.cancel(false);
+        }
+    }
+    
+    /**
+     * Ejecuta la creación una sola vez por clave y repite su respuesta en los reintentos
+     * @param ambito ORDENES o PAGOS
+     * @param claveCliente Valor del encabezado Idempotency-Key, o nulo para ejecutar sin control
+     * @param solicitud Cuerpo de la solicitud, para detectar una clave reutilizada con otro cuerpo
+     * @param tarea Creación de la orden o el pago; recibe el ámbito y la clave
+     *              reservada, o nulo, para completarla en su transacción
+     * @return Respuesta de la creación, la respuesta original repetida, 409 si la
+     *         solicitud original aún se procesa o 422 si la clave se usó con otro cuerpo
+     */
+    public Response ejecutar(String ambito, String claveCliente, Object solicitud, Function<String, Response> tarea) {
+        if (claveCliente == null || claveCliente.isBlank()) {
+            return tarea.apply(null);
+        }
+        if (claveCliente.length() > LONGITUD_MAXIMA) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity("El encabezado " + ENCABEZADO + " no puede tener más de " + LONGITUD_MAXIMA + " caracteres")
+                    .build();
+        }
+        
+        String clave = ambito + ":" + claveCliente;
+        String huella = huella(solicitud);
+        RespuestaIdempotenteDTO reciente = reciente(clave);
+        if (reciente != null) {
+            return repetir(reciente, huella);
+        }
+        
+        CompletableFuture<RespuestaIdempotenteDTO> propia = new CompletableFuture<>();
+        CompletableFuture<RespuestaIdempotenteDTO> otra = enCurso.putIfAbsent(clave, propia);
+        if (otra != null) {
+            return esperar(otra, huella);
+        }
+        
+        RespuestaIdempotenteDTO guardada = null;
+        try {
+            Optional<RespuestaIdempotenteDTO> registrada = idempotenciaService.reservar(clave, huella);
+            if (registrada.isPresent()) {
+                guardada = registrada.get();
+                if (!guardada.isEnProceso()) {
+                    recordar(clave, guardada);
+                }
+                return repetir(guardada, huella);
+            }
+            
+            Response respuesta;
+            try {
+                respuesta = tarea.apply(clave);
+            } catch (RuntimeException e) {
+                idempotenciaService.liberar(clave);
+                throw e;
+            }
+            if (respuesta.getStatusInfo().getFamily() != Status.Family.SUCCESSFUL) {
+                // Solo elimina la clave si sigue en proceso: si la creación se
+                // confirmó, la clave ya está completada y se conserva
+                idempotenciaService.liberar(clave);
+                return respuesta;
+            }
+            
+            // La tabla ya tiene la respuesta, guardada en la transacción de la creación
+            guardada = new RespuestaIdempotenteDTO(huella, respuesta.getStatus(), serializar(respuesta.getEntity()), false);
+            recordar(clave, guardada);
+            return construir(guardada, false);
+        } finally {
+            enCurso.remove(clave, propia);
+            propia.complete(guardada);
+        }
+    }
+    
+    /**
+     * Elimina de la tabla las claves más antiguas que el período de retención
+     */
+    void purgar() {
+        try {
+            int eliminadas = idempotenciaService.purgar();
+            if (eliminadas > 0) {
+                LOGGER.log(Level.FINE, "Claves de idempotencia eliminadas: {0}", eliminadas);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "No se pudieron purgar las claves de idempotencia", e);
+        }
+    }
+    
+    private Response esperar(CompletableFuture<RespuestaIdempotenteDTO> otra, String huella) {
+        RespuestaIdempotenteDTO guardada;
+        try {
+            guardada = otra.get(MILISEGUNDOS_ESPERA, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            guardada = null;
+        } catch (ExecutionException | TimeoutException e) {
+            guardada = null;
+        }
+        if (guardada == null) {
+            // La solicitud original falló o sigue en curso: el cliente puede reintentar
+            return enProceso();
+        }
+        return repetir(guardada, huella);
+    }
+    
+    private static Response repetir(RespuestaIdempotenteDTO guardada, String huella) {
+        if (guardada.isEnProceso()) {
+            return enProceso();
+        }
+        if (!huella.equals(guardada.getHuella())) {
+            return Response.status(422)
+                    .entity("La clave de idempotencia ya se usó con otra solicitud")
+                    .build();
+        }
+        return construir(guardada, true);
+    }
+    
+    private static Response construir(RespuestaIdempotenteDTO guardada, boolean repetida) {
+        Response.ResponseBuilder builder = Response.status(guardada.getEstado())
+                .entity(guardada.getCuerpo())
+                .type(MediaType.APPLICATION_JSON_TYPE);
+        if (repetida) {
+            builder.header(ENCABEZADO_REPETIDA, "true");
+        }
+        return builder.build();
+    }
+    
+    private static Response enProceso() {
+        return Response.status(Status.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .entity("La solicitud con esta clave de idempotencia aún se está procesando")
+                .build();
+    }
+    
+    private RespuestaIdempotenteDTO reciente(String clave) {
+        synchronized (recientes) {
+            return recientes.get(clave);
+        }
+    }
+    
+    private void recordar(String clave, RespuestaIdempotenteDTO guardada) {
+        synchronized (recientes) {
+            recientes.put(clave, guardada);
+        }
+    }
+    
+    /**
+     * SHA-256 en Base64 del cuerpo de la solicitud serializado
+     */
+    static String huella(Object solicitud) {
+        try {
+            byte[] resumen = MessageDigest.getInstance("SHA-256").digest(ESCRITOR_JSON.writeValueAsBytes(solicitud));
+            return Base64.getEncoder().encodeToString(resumen);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No se pudo calcular la huella de la solicitud", e);
+        }
+    }
+    
+    private static String serializar(Object entidad) {
+        try {
+            return entidad instanceof String ? (String) entidad : ESCRITOR_JSON.writeValueAsString(entidad);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import sv.edu.ues.fmocc.tpi135.config.Compartimentos;
+import sv.edu.ues.fmocc.tpi135.config.ExportadorPrometheus;
+import sv.edu.ues.fmocc.tpi135.config.FiltroAdmision;
+import sv.edu.ues.fmocc.tpi135.config.FiltroLimiteSucursal;
+import sv.edu.ues.fmocc.tpi135.config.FiltroSentencias;
+
+/**
+ * Controlador REST con las métricas de funcionamiento de la API
+ */
+@Path("/metrics")
+@Produces(MediaType.APPLICATION_JSON)
+public class MetricasController {
+    
+    @Inject
+    private Compartimentos compartimentos;
+    
+    /**
+     * Obtiene todas las métricas de la API en formato de texto de Prometheus:
+     * latencia, códigos de estado, bytes y sentencias SQL por endpoint, y el
+     * estado de los compartimentos
+     * @return Respuesta con las métricas en texto plano
+     */
+    @GET
+    @Produces(ExportadorPrometheus.TIPO_CONTENIDO)
+    public Response obtenerMetricas() {
+        return Response.ok(ExportadorPrometheus.exportar(compartimentos.todos())).build();
+    }
+    
+    /**
+     * Obtiene el estado de los compartimentos: hilos, cola, rechazos y vencimientos
+     * @return Respuesta con las métricas por compartimento
+     */
+    @GET
+    @Path("/compartimentos")
+    public Response obtenerCompartimentos() {
+        return Response.ok(compartimentos.estadisticas()).build();
+    }
+    
+    /**
+     * Obtiene el estado del control de admisión: límite adaptativo, solicitudes
+     * en curso, latencia y rechazos por clase de endpoints
+     * @return Respuesta con las métricas por clase
+     */
+    @GET
+    @Path("/admision")
+    public Response obtenerAdmision() {
+        return Response.ok(FiltroAdmision.estadisticas()).build();
+    }
+    
+    /**
+     * Obtiene las solicitudes de escritura admitidas y rechazadas por sucursal
+     * o cliente, con las claves con más rechazos primero
+     * @return Respuesta con los totales y las métricas por clave
+     */
+    @GET
+    @Path("/sucursales")
+    public Response obtenerLimitesSucursal() {
+        return Response.ok(FiltroLimiteSucursal.estadisticas()).build();
+    }
+    
+    /**
+     * Obtiene el histograma de sentencias SQL por solicitud de cada endpoint
+     * @return Respuesta con conteo, suma y conteos acumulados por cubeta
+     */
+    @GET
+    @Path("/sentencias")
+    public Response obtenerSentenciasPorEndpoint() {
+        return Response.ok(FiltroSentencias.estadisticas()).build();
+    }
+}
@@ -1,43 +1,100 @@
 package sv.edu.ues.fmocc.tpi135.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Date;
 import java.util.List;
 import javax.inject.Inject;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
+import sv.edu.ues.fmocc.tpi135.config.Compartimentos;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResultadoLoteDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenVentasDTO;
 import sv.edu.ues.fmocc.tpi135.service.OrdenService;
 
 /**
- * Controlador REST para operaciones CRUD de órdenes
+ * Controlador REST para operaciones CRUD de órdenes. Los métodos de recurso
+ * suspenden la respuesta y la atienden en el compartimento de escrituras o de
+ * lecturas; los métodos que devuelven Response contienen la lógica de cada uno.
  */
 @Path("/ordenes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class OrdenController {
     
+    /**
+     * Tipo de contenido para JSON delimitado por saltos de línea
+     */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+    
+    /**
+     * Cantidad de líneas escritas entre cada vaciado del flujo de salida
+     */
+    private static final int LINEAS_POR_FLUSH = 200;
+    
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writer();
+    
     @Inject
     private OrdenService ordenService;
     
+    @Inject
+    private Compartimentos compartimentos;
+    
+    @Inject
+    private Idempotencia idempotencia;
+    
+    /**
+     * Crea una nueva orden en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
+     * @param claveIdempotencia Encabezado Idempotency-Key opcional; los reintentos
+     *                          con la misma clave repiten la respuesta original
+     * @param ordenDTO DTO con los datos de la orden a crear
+     */
+    @POST
+    public void crearOrden(@Suspended AsyncResponse respuesta,
+            @HeaderParam(Idempotencia.ENCABEZADO) String claveIdempotencia, OrdenDTO ordenDTO) {
+        compartimentos.escrituras().atender(respuesta, () -> idempotencia.ejecutar(
+                Idempotencia.ORDENES, claveIdempotencia, ordenDTO, clave -> crearOrden(ordenDTO, clave)));
+    }
+    
     /**
      * Crea una nueva orden
      * @param ordenDTO DTO con los datos de la orden a crear
      * @return Respuesta con la orden creada y código 201 CREATED
      */
-    @POST
     public Response crearOrden(OrdenDTO ordenDTO) {
+        return crearOrden(ordenDTO, null);
+    }
+    
+    /**
+     * Crea una nueva orden y completa su clave de idempotencia en la misma transacción
+     * @param ordenDTO DTO con los datos de la orden a crear
+     * @param claveIdempotencia Ámbito y clave reservada, o nulo
+     * @return Respuesta con la orden creada y código 201 CREATED
+     */
+    Response crearOrden(OrdenDTO ordenDTO, String claveIdempotencia) {
         try {
-            OrdenDTO creada = ordenService.crearOrden(ordenDTO);
+            OrdenDTO creada = claveIdempotencia == null
+                    ? ordenService.crearOrden(ordenDTO)
+                    : ordenService.crearOrden(ordenDTO, claveIdempotencia);
             return Response.status(Status.CREATED)
                     .entity(creada)
                     .build();
@@ -53,14 +110,56 @@ public class OrdenController {
     }
     
     /**
-     * Actualiza una orden existente
+     * Crea un lote de órdenes en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
+     * @param ordenes Arreglo de DTOs con las órdenes a crear
+     */
+    @POST
+    @Path("/lote")
+    public void crearOrdenesEnLote(@Suspended AsyncResponse respuesta, List<OrdenDTO> ordenes) {
+        compartimentos.escrituras().atender(respuesta, () -> crearOrdenesEnLote(ordenes));
+    }
+    
+    /**
+     * Crea un lote de órdenes en una sola transacción, pensado para sucursales que
+     * reenvían las órdenes registradas sin conexión
+     * @param ordenes Arreglo de DTOs con las órdenes a crear
+     * @return Respuesta con el resultado de cada orden y código 200 OK
+     */
+    public Response crearOrdenesEnLote(List<OrdenDTO> ordenes) {
+        try {
+            List<ResultadoLoteDTO<OrdenDTO>> resultados = ordenService.crearOrdenesEnLote(ordenes);
+            return Response.ok(resultados).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return Response.status(Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error al crear el lote de órdenes: " + e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * Actualiza una orden existente en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
      * @param id ID de la orden a actualizar
      * @param ordenDTO DTO con los datos actualizados
-     * @return Respuesta con la orden actualizada y código 200 OK
      */
     @PUT
     @Path("/{id}")
-    public Response actualizarOrden(@PathParam("id") Long id, OrdenDTO ordenDTO) {
+    public void actualizarOrden(@Suspended AsyncResponse respuesta, @PathParam("id") Long id, OrdenDTO ordenDTO) {
+        compartimentos.escrituras().atender(respuesta, () -> actualizarOrden(id, ordenDTO));
+    }
+    
+    /**
+     * Actualiza una orden existente
+     * @param id ID de la orden a actualizar
+     * @param ordenDTO DTO con los datos actualizados
+     * @return Respuesta con la orden actualizada y código 200 OK
+     */
+    public Response actualizarOrden(Long id, OrdenDTO ordenDTO) {
         try {
             OrdenDTO actualizada = ordenService.actualizarOrden(id, ordenDTO);
             return Response.ok(actualizada).build();
@@ -76,13 +175,22 @@ public class OrdenController {
     }
     
     /**
-     * Obtiene una orden por su ID
+     * Obtiene una orden por su ID en el compartimento de lecturas
+     * @param respuesta Respuesta suspendida
      * @param id ID de la orden a buscar
-     * @return Respuesta con la orden encontrada o 404 si no existe
      */
     @GET
     @Path("/{id}")
-    public Response obtenerOrdenPorId(@PathParam("id") Long id) {
+    public void obtenerOrdenPorId(@Suspended AsyncResponse respuesta, @PathParam("id") Long id) {
+        compartimentos.lecturas().atender(respuesta, () -> obtenerOrdenPorId(id));
+    }
+    
+    /**
+     * Obtiene una orden por su ID
+     * @param id ID de la orden a buscar
+     * @return Respuesta con la orden encontrada o 404 si no existe
+     */
+    public Response obtenerOrdenPorId(Long id) {
         return ordenService.obtenerOrdenPorId(id)
                 .map(orden -> Response.ok(orden).build())
                 .orElse(Response.status(Status.NOT_FOUND)
@@ -91,17 +199,49 @@ public class OrdenController {
     }
     
     /**
-     * Lista todas las órdenes o filtra por fecha, sucursal o estado de anulación
+     * Lista las órdenes en el compartimento de lecturas
+     * @param respuesta Respuesta suspendida
      * @param fecha Filtro opcional por fecha
      * @param sucursal Filtro opcional por sucursal
      * @param anulada Filtro opcional por estado de anulación
-     * @return Lista de órdenes que cumplen con los filtros
+     * @param limit Cantidad máxima de órdenes por página
+     * @param after Cursor opaco devuelto en la página anterior
      */
     @GET
-    public Response listarOrdenes(
+    public void listarOrdenes(
+            @Suspended AsyncResponse respuesta,
             @QueryParam("fecha") Date fecha,
             @QueryParam("sucursal") String sucursal,
-            @QueryParam("anulada") Boolean anulada) {
+            @QueryParam("anulada") Boolean anulada,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("after") String after) {
+        compartimentos.lecturas().atender(respuesta, () -> listarOrdenes(fecha, sucursal, anulada, limit, after));
+    }
+    
+    /**
+     * Lista todas las órdenes o filtra por fecha, sucursal o estado de anulación.
+     * Si se envía limit o after, responde una página por cursor con todos los filtros
+     * combinados; el cursor solo es válido con los filtros de la página que lo devolvió
+     * @param fecha Filtro opcional por fecha
+     * @param sucursal Filtro opcional por sucursal
+     * @param anulada Filtro opcional por estado de anulación
+     * @param limit Cantidad máxima de órdenes por página
+     * @param after Cursor opaco devuelto en la página anterior
+     * @return Lista de órdenes que cumplen con los filtros, o una página con el cursor siguiente
+     */
+    public Response listarOrdenes(Date fecha, String sucursal, Boolean anulada, Integer limit, String after) {
+        
+        if (limit != null || after != null) {
+            // Paginación por cursor
+            try {
+                PaginaDTO<OrdenDTO> pagina = ordenService.listarOrdenesPaginadas(after, fecha, sucursal, anulada, limit);
+                return Response.ok(pagina).build();
+            } catch (IllegalArgumentException e) {
+                return Response.status(Status.BAD_REQUEST)
+                        .entity(e.getMessage())
+                        .build();
+            }
+        }
         
         List<OrdenDTO> ordenes;
         
@@ -123,13 +263,117 @@ public class OrdenController {
     }
     
     /**
-     * Anula una orden por su ID
+     * Exporta las órdenes en el compartimento de lecturas; el flujo se escribe en
+     * el hilo del compartimento
+     * @param respuesta Respuesta suspendida
+     * @param desde Filtro opcional por fecha inicial (inclusiva)
+     * @param hasta Filtro opcional por fecha final (inclusiva)
+     * @param sucursal Filtro opcional por sucursal
+     */
+    @GET
+    @Path("/exportar")
+    @Produces(APPLICATION_NDJSON)
+    public void exportarOrdenes(
+            @Suspended AsyncResponse respuesta,
+            @QueryParam("desde") Date desde,
+            @QueryParam("hasta") Date hasta,
+            @QueryParam("sucursal") String sucursal) {
+        compartimentos.lecturas().atender(respuesta, () -> exportarOrdenes(desde, hasta, sucursal));
+    }
+    
+    /**
+     * Exporta las órdenes como JSON delimitado por saltos de línea (una orden por línea),
+     * escribiendo mientras se leen para que la memoria no dependa del total de filas
+     * @param desde Filtro opcional por fecha inicial (inclusiva)
+     * @param hasta Filtro opcional por fecha final (inclusiva)
+     * @param sucursal Filtro opcional por sucursal
+     * @return Respuesta con el flujo de órdenes o 400 si el rango de fechas no es válido
+     */
+    public Response exportarOrdenes(Date desde, Date hasta, String sucursal) {
+        
+        if (desde != null && hasta != null && desde.after(hasta)) {
+            return Response.status(Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_PLAIN)
+                    .entity("La fecha inicial no puede ser posterior a la fecha final")
+                    .build();
+        }
+        
+        StreamingOutput flujo = salida -> {
+            long[] lineas = {0};
+            try {
+                ordenService.exportarOrdenes(desde, hasta, sucursal, orden -> {
+                    try {
+                        salida.write(ESCRITOR_JSON.writeValueAsBytes(orden));
+                        salida.write('\n');
+                        if (++lineas[0] % LINEAS_POR_FLUSH == 0) {
+                            salida.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            salida.flush();
+        };
+        
+        return Response.ok(flujo, APPLICATION_NDJSON).build();
+    }
+    
+    /**
+     * Obtiene el resumen de ventas en el compartimento de lecturas
+     * @param respuesta Respuesta suspendida
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @param sucursal Filtro opcional por sucursal
+     */
+    @GET
+    @Path("/resumen")
+    public void resumirVentas(
+            @Suspended AsyncResponse respuesta,
+            @QueryParam("desde") Date desde,
+            @QueryParam("hasta") Date hasta,
+            @QueryParam("sucursal") String sucursal) {
+        compartimentos.lecturas().atender(respuesta, () -> resumirVentas(desde, hasta, sucursal));
+    }
+    
+    /**
+     * Obtiene el resumen de ventas por sucursal y fecha, calculado en la base de datos
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @param sucursal Filtro opcional por sucursal
+     * @return Respuesta con la cantidad de órdenes, anuladas, total bruto y ticket promedio
+     *         por sucursal y fecha, o 400 si el rango no es válido
+     */
+    public Response resumirVentas(Date desde, Date hasta, String sucursal) {
+        try {
+            List<ResumenVentasDTO> resumen = ordenService.resumirVentas(desde, hasta, sucursal);
+            return Response.ok(resumen).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * Anula una orden en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
      * @param id ID de la orden a anular
-     * @return Respuesta con código 204 NO_CONTENT si se anuló correctamente o 404 si no existe
      */
     @PUT
     @Path("/{id}/anular")
-    public Response anularOrden(@PathParam("id") Long id) {
+    public void anularOrden(@Suspended AsyncResponse respuesta, @PathParam("id") Long id) {
+        compartimentos.escrituras().atender(respuesta, () -> anularOrden(id));
+    }
+    
+    /**
+     * Anula una orden por su ID
+     * @param id ID de la orden a anular
+     * @return Respuesta con código 204 NO_CONTENT si se anuló correctamente o 404 si no existe
+     */
+    public Response anularOrden(Long id) {
         boolean anulada = ordenService.anularOrden(id);
         
         if (anulada) {
@@ -142,13 +386,22 @@ public class OrdenController {
     }
     
     /**
-     * Elimina una orden por su ID
+     * Elimina una orden en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
      * @param id ID de la orden a eliminar
-     * @return Respuesta vacía con código 204 NO_CONTENT si se eliminó correctamente o 404 si no existe
      */
     @DELETE
     @Path("/{id}")
-    public Response eliminarOrden(@PathParam("id") Long id) {
+    public void eliminarOrden(@Suspended AsyncResponse respuesta, @PathParam("id") Long id) {
+        compartimentos.escrituras().atender(respuesta, () -> eliminarOrden(id));
+    }
+    
+    /**
+     * Elimina una orden por su ID
+     * @param id ID de la orden a eliminar
+     * @return Respuesta vacía con código 204 NO_CONTENT si se eliminó correctamente o 404 si no existe
+     */
+    public Response eliminarOrden(Long id) {
         boolean eliminada = ordenService.eliminarOrden(id);
         
         if (eliminada) {
@@ -6,20 +6,27 @@ import javax.inject.Inject;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
+import sv.edu.ues.fmocc.tpi135.config.Compartimentos;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
 import sv.edu.ues.fmocc.tpi135.service.PagoService;
 
 /**
- * Controlador REST para operaciones CRUD de pagos
+ * Controlador REST para operaciones CRUD de pagos. Los métodos de recurso
+ * suspenden la respuesta y la atienden en el compartimento de escrituras o de
+ * lecturas; los métodos que devuelven Response contienen la lógica de cada uno.
  */
 @Path("/pagos")
 @Produces(MediaType.APPLICATION_JSON)
@@ -29,15 +36,46 @@ public class PagoController {
     @Inject
     private PagoService pagoService;
     
+    @Inject
+    private Compartimentos compartimentos;
+    
+    @Inject
+    private Idempotencia idempotencia;
+    
+    /**
+     * Crea un nuevo pago en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
+     * @param claveIdempotencia Encabezado Idempotency-Key opcional; los reintentos
+     *                          con la misma clave repiten la respuesta original
+     * @param pagoDTO DTO con los datos del pago a crear
+     */
+    @POST
+    public void crearPago(@Suspended AsyncResponse respuesta,
+            @HeaderParam(Idempotencia.ENCABEZADO) String claveIdempotencia, PagoDTO pagoDTO) {
+        compartimentos.escrituras().atender(respuesta, () -> idempotencia.ejecutar(
+                Idempotencia.PAGOS, claveIdempotencia, pagoDTO, clave -> crearPago(pagoDTO, clave)));
+    }
+    
     /**
      * Crea un nuevo pago
      * @param pagoDTO DTO con los datos del pago a crear
      * @return Respuesta con el pago creado y código 201 CREATED
      */
-    @POST
     public Response crearPago(PagoDTO pagoDTO) {
+        return crearPago(pagoDTO, null);
+    }
+    
+    /**
+     * Crea un nuevo pago y completa su clave de idempotencia en la misma transacción
+     * @param pagoDTO DTO con los datos del pago a crear
+     * @param claveIdempotencia Ámbito y clave reservada, o nulo
+     * @return Respuesta con el pago creado y código 201 CREATED
+     */
+    Response crearPago(PagoDTO pagoDTO, String claveIdempotencia) {
         try {
-            PagoDTO creado = pagoService.crearPago(pagoDTO);
+            PagoDTO creado = claveIdempotencia == null
+                    ? pagoService.crearPago(pagoDTO)
+                    : pagoService.crearPago(pagoDTO, claveIdempotencia);
             return Response.status(Status.CREATED)
                     .entity(creado)
                     .build();
@@ -53,14 +91,24 @@ public class PagoController {
     }
     
     /**
-     * Actualiza un pago existente
+     * Actualiza un pago existente en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
      * @param id ID del pago a actualizar
      * @param pagoDTO DTO con los datos actualizados
-     * @return Respuesta con el pago actualizado y código 200 OK
      */
     @PUT
     @Path("/{id}")
-    public Response actualizarPago(@PathParam("id") Long id, PagoDTO pagoDTO) {
+    public void actualizarPago(@Suspended AsyncResponse respuesta, @PathParam("id") Long id, PagoDTO pagoDTO) {
+        compartimentos.escrituras().atender(respuesta, () -> actualizarPago(id, pagoDTO));
+    }
+    
+    /**
+     * Actualiza un pago existente
+     * @param id ID del pago a actualizar
+     * @param pagoDTO DTO con los datos actualizados
+     * @return Respuesta con el pago actualizado y código 200 OK
+     */
+    public Response actualizarPago(Long id, PagoDTO pagoDTO) {
         try {
             PagoDTO actualizado = pagoService.actualizarPago(id, pagoDTO);
             return Response.ok(actualizado).build();
@@ -76,13 +124,22 @@ public class PagoController {
     }
     
     /**
-     * Obtiene un pago por su ID
+     * Obtiene un pago por su ID en el compartimento de lecturas
+     * @param respuesta Respuesta suspendida
      * @param id ID del pago a buscar
-     * @return Respuesta con el pago encontrado o 404 si no existe
      */
     @GET
     @Path("/{id}")
-    public Response obtenerPagoPorId(@PathParam("id") Long id) {
+    public void obtenerPagoPorId(@Suspended AsyncResponse respuesta, @PathParam("id") Long id) {
+        compartimentos.lecturas().atender(respuesta, () -> obtenerPagoPorId(id));
+    }
+    
+    /**
+     * Obtiene un pago por su ID
+     * @param id ID del pago a buscar
+     * @return Respuesta con el pago encontrado o 404 si no existe
+     */
+    public Response obtenerPagoPorId(Long id) {
         return pagoService.obtenerPagoPorId(id)
                 .map(pago -> Response.ok(pago).build())
                 .orElse(Response.status(Status.NOT_FOUND)
@@ -91,17 +148,49 @@ public class PagoController {
     }
     
     /**
-     * Lista todos los pagos o filtra por orden, fecha o método de pago
+     * Lista los pagos en el compartimento de lecturas
+     * @param respuesta Respuesta suspendida
      * @param idOrden Filtro opcional por ID de orden
      * @param fecha Filtro opcional por fecha
      * @param metodoPago Filtro opcional por método de pago
-     * @return Lista de pagos que cumplen con los filtros
+     * @param limit Cantidad máxima de pagos por página
+     * @param after Cursor opaco devuelto en la página anterior
      */
     @GET
-    public Response listarPagos(
+    public void listarPagos(
+            @Suspended AsyncResponse respuesta,
             @QueryParam("idOrden") Long idOrden,
             @QueryParam("fecha") Date fecha,
-            @QueryParam("metodoPago") String metodoPago) {
+            @QueryParam("metodoPago") String metodoPago,
+            @QueryParam("limit") Integer limit,
+            @QueryParam("after") String after) {
+        compartimentos.lecturas().atender(respuesta, () -> listarPagos(idOrden, fecha, metodoPago, limit, after));
+    }
+    
+    /**
+     * Lista todos los pagos o filtra por orden, fecha o método de pago.
+     * Si se envía limit o after, responde una página por cursor con todos los filtros
+     * combinados; el cursor solo es válido con los filtros de la página que lo devolvió
+     * @param idOrden Filtro opcional por ID de orden
+     * @param fecha Filtro opcional por fecha
+     * @param metodoPago Filtro opcional por método de pago
+     * @param limit Cantidad máxima de pagos por página
+     * @param after Cursor opaco devuelto en la página anterior
+     * @return Lista de pagos que cumplen con los filtros, o una página con el cursor siguiente
+     */
+    public Response listarPagos(Long idOrden, Date fecha, String metodoPago, Integer limit, String after) {
+        
+        if (limit != null || after != null) {
+            // Paginación por cursor
+            try {
+                PaginaDTO<PagoDTO> pagina = pagoService.listarPagosPaginados(after, idOrden, fecha, metodoPago, limit);
+                return Response.ok(pagina).build();
+            } catch (IllegalArgumentException e) {
+                return Response.status(Status.BAD_REQUEST)
+                        .entity(e.getMessage())
+                        .build();
+            }
+        }
         
         List<PagoDTO> pagos;
         
@@ -123,13 +212,22 @@ public class PagoController {
     }
     
     /**
-     * Elimina un pago por su ID
+     * Elimina un pago en el compartimento de escrituras
+     * @param respuesta Respuesta suspendida
      * @param id ID del pago a eliminar
-     * @return Respuesta vacía con código 204 NO_CONTENT si se eliminó correctamente o 404 si no existe
      */
     @DELETE
     @Path("/{id}")
-    public Response eliminarPago(@PathParam("id") Long id) {
+    public void eliminarPago(@Suspended AsyncResponse respuesta, @PathParam("id") Long id) {
+        compartimentos.escrituras().atender(respuesta, () -> eliminarPago(id));
+    }
+    
+    /**
+     * Elimina un pago por su ID
+     * @param id ID del pago a eliminar
+     * @return Respuesta vacía con código 204 NO_CONTENT si se eliminó correctamente o 404 si no existe
+     */
+    public Response eliminarPago(Long id) {
         boolean eliminado = pagoService.eliminarPago(id);
         
         if (eliminado) {
@@ -142,13 +240,22 @@ public class PagoController {
     }
     
     /**
-     * Obtiene todos los pagos asociados a una orden
+     * Obtiene los pagos de una orden en el compartimento de lecturas
+     * @param respuesta Respuesta suspendida
      * @param idOrden ID de la orden
-     * @return Lista de pagos asociados a la orden
      */
     @GET
     @Path("/orden/{idOrden}")
-    public Response obtenerPagosPorOrden(@PathParam("idOrden") Long idOrden) {
+    public void obtenerPagosPorOrden(@Suspended AsyncResponse respuesta, @PathParam("idOrden") Long idOrden) {
+        compartimentos.lecturas().atender(respuesta, () -> obtenerPagosPorOrden(idOrden));
+    }
+    
+    /**
+     * Obtiene todos los pagos asociados a una orden
+     * @param idOrden ID de la orden
+     * @return Lista de pagos asociados a la orden
+     */
+    public Response obtenerPagosPorOrden(Long idOrden) {
         List<PagoDTO> pagos = pagoService.buscarPagosPorIdOrden(idOrden);
         return Response.ok(pagos).build();
     }
@@ -12,11 +12,14 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
 import sv.edu.ues.fmocc.tpi135.service.ProductoService;
+import sv.edu.ues.fmocc.tpi135.service.VersionCatalogo;
 
 /**
  * Controlador REST para operaciones CRUD de productos
@@ -29,6 +32,9 @@ public class ProductoController {
     @Inject
     private ProductoService productoService;
     
+    @Context
+    private Request request;
+    
     /**
      * Crea un nuevo producto
      * @param productoDTO DTO con los datos del producto a crear
@@ -78,13 +84,20 @@ public class ProductoController {
     /**
      * Obtiene un producto por su ID
      * @param id ID del producto a buscar
-     * @return Respuesta con el producto encontrado o 404 si no existe
+     * @return Respuesta con el producto encontrado o 404 si no existe,
+     *         o 304 si el cliente ya tiene la versión vigente del catálogo
      */
     @GET
     @Path("/{id}")
     public Response obtenerProductoPorId(@PathParam("id") Long id) {
+        VersionCatalogo.Marca version = VersionCatalogo.PRODUCTOS.actual();
+        Response noModificado = RespuestaCondicional.noModificado(request, version);
+        if (noModificado != null) {
+            return noModificado;
+        }
+        
         return productoService.obtenerProductoPorId(id)
-                .map(producto -> Response.ok(producto).build())
+                .map(producto -> RespuestaCondicional.ok(producto, version))
                 .orElse(Response.status(Status.NOT_FOUND)
                         .entity("Producto no encontrado con ID: " + id)
                         .build());
@@ -94,13 +107,21 @@ public class ProductoController {
      * Lista todos los productos o filtra por nombre o estado
      * @param nombre Filtro opcional por nombre
      * @param activo Filtro opcional por estado activo/inactivo
-     * @return Lista de productos que cumplen con los filtros
+     * @return Lista de productos que cumplen con los filtros,
+     *         o 304 si el cliente ya tiene la versión vigente del catálogo
      */
     @GET
     public Response listarProductos(
             @QueryParam("nombre") String nombre,
             @QueryParam("activo") Boolean activo) {
         
+        // La versión se lee antes de cargar los datos
+        VersionCatalogo.Marca version = VersionCatalogo.PRODUCTOS.actual();
+        Response noModificado = RespuestaCondicional.noModificado(request, version);
+        if (noModificado != null) {
+            return noModificado;
+        }
+        
         List<ProductoDTO> productos;
         
         if (nombre != null && !nombre.trim().isEmpty()) {
@@ -114,7 +135,7 @@ public class ProductoController {
             productos = productoService.listarProductos();
         }
         
-        return Response.ok(productos).build();
+        return RespuestaCondicional.ok(productos, version);
     }
     
     /**
@@ -0,0 +1,53 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import java.util.Date;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import sv.edu.ues.fmocc.tpi135.service.VersionCatalogo;
+
+/**
+ * Respuestas condicionales (ETag / Last-Modified) para los recursos del catálogo
+ */
+final class RespuestaCondicional {
+
+    /**
+     * Los terminales pueden guardar la respuesta, pero deben revalidarla en cada uso
+     */
+    private static final CacheControl REVALIDAR = CacheControl.valueOf("no-cache");
+
+    private RespuestaCondicional() {
+    }
+
+    /**
+     * Evalúa If-None-Match e If-Modified-Since contra la versión de la colección
+     * @return Respuesta 304 Not Modified si el cliente ya tiene esta versión, o nulo
+     *         si hay que generar la respuesta completa
+     */
+    static Response noModificado(Request request, VersionCatalogo.Marca marca) {
+        if (request == null) {
+            return null;
+        }
+        ResponseBuilder builder = request.evaluatePreconditions(new Date(marca.getModificado()), new EntityTag(marca.getEtiqueta()));
+        return builder != null ? builder.cacheControl(REVALIDAR).build() : null;
+    }
+
+    /**
+     * Respuesta 200 con la entidad y los encabezados de validación de la versión
+     */
+    static Response ok(Object entidad, VersionCatalogo.Marca marca) {
+        return construir(entidad, marca).build();
+    }
+
+    /**
+     * Igual que ok, pero permite agregar encabezados antes de construir la respuesta
+     */
+    static ResponseBuilder construir(Object entidad, VersionCatalogo.Marca marca) {
+        return Response.ok(entidad)
+                .tag(new EntityTag(marca.getEtiqueta()))
+                .lastModified(new Date(marca.getModificado()))
+                .cacheControl(REVALIDAR);
+    }
+}
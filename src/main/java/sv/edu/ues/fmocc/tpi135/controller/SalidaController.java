@@ -0,0 +1,48 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import javax.inject.Inject;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import sv.edu.ues.fmocc.tpi135.dto.LoteSalidaDTO;
+import sv.edu.ues.fmocc.tpi135.service.SalidaService;
+
+/**
+ * Controlador REST que expone la bandeja de salida de órdenes y pagos para que
+ * otros sistemas lean los cambios en orden sin consultar las tablas de negocio
+ */
+@Path("/salida")
+@Produces(MediaType.APPLICATION_JSON)
+public class SalidaController {
+    
+    @Inject
+    private SalidaService salidaService;
+    
+    /**
+     * Obtiene los eventos posteriores a la posición indicada. Solo se entregan
+     * eventos ya numerados, que no cambian de posición, por lo que leer con la
+     * posición "hasta" de la respuesta anterior nunca omite eventos.
+     * @param desde Última posición procesada por el consumidor (0 para leer desde el inicio)
+     * @param limite Cantidad máxima de eventos (por defecto 500)
+     * @return Respuesta con el lote de eventos, o 400 si los parámetros no son válidos
+     */
+    @GET
+    @Path("/eventos")
+    public Response leerEventos(
+            @QueryParam("desde") @DefaultValue("0") long desde,
+            @QueryParam("limite") @DefaultValue("500") int limite) {
+        try {
+            LoteSalidaDTO lote = salidaService.leer(desde, limite);
+            return Response.ok(lote).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+    }
+}
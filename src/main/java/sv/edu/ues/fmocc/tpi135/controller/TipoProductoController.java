@@ -11,11 +11,14 @@ import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 import sv.edu.ues.fmocc.tpi135.dto.TipoProductoDTO;
 import sv.edu.ues.fmocc.tpi135.service.TipoProductoService;
+import sv.edu.ues.fmocc.tpi135.service.VersionCatalogo;
 
 /**
  * Controlador REST para operaciones CRUD de tipos de productos
@@ -28,6 +31,9 @@ public class TipoProductoController {
     @Inject
     private TipoProductoService tipoProductoService;
     
+    @Context
+    private Request request;
+    
     /**
      * Crea un nuevo tipo de producto
      * @param tipoProductoDTO DTO con los datos del tipo de producto a crear
@@ -77,13 +83,20 @@ public class TipoProductoController {
     /**
      * Obtiene un tipo de producto por su ID
      * @param id ID del tipo de producto a buscar
-     * @return Respuesta con el tipo de producto encontrado o 404 si no existe
+     * @return Respuesta con el tipo de producto encontrado o 404 si no existe,
+     *         o 304 si el cliente ya tiene la versión vigente del catálogo
      */
     @GET
     @Path("/{id}")
     public Response obtenerTipoProductoPorId(@PathParam("id") Integer id) {
+        VersionCatalogo.Marca version = VersionCatalogo.TIPOS_PRODUCTO.actual();
+        Response noModificado = RespuestaCondicional.noModificado(request, version);
+        if (noModificado != null) {
+            return noModificado;
+        }
+        
         return tipoProductoService.obtenerTipoProductoPorId(id)
-                .map(tipoProducto -> Response.ok(tipoProducto).build())
+                .map(tipoProducto -> RespuestaCondicional.ok(tipoProducto, version))
                 .orElse(Response.status(Status.NOT_FOUND)
                         .entity("Tipo de producto no encontrado con ID: " + id)
                         .build());
@@ -93,13 +106,21 @@ public class TipoProductoController {
      * Lista todos los tipos de productos o filtra por nombre o estado
      * @param nombre Filtro opcional por nombre
      * @param activo Filtro opcional por estado activo/inactivo
-     * @return Lista de tipos de productos que cumplen con los filtros
+     * @return Lista de tipos de productos que cumplen con los filtros,
+     *         o 304 si el cliente ya tiene la versión vigente del catálogo
      */
     @GET
     public Response listarTiposProductos(
             @QueryParam("nombre") String nombre,
             @QueryParam("activo") Boolean activo) {
         
+        // La versión se lee antes de cargar los datos
+        VersionCatalogo.Marca version = VersionCatalogo.TIPOS_PRODUCTO.actual();
+        Response noModificado = RespuestaCondicional.noModificado(request, version);
+        if (noModificado != null) {
+            return noModificado;
+        }
+        
         List<TipoProductoDTO> tiposProductos;
         
         if (nombre != null && !nombre.trim().isEmpty()) {
@@ -113,7 +134,7 @@ public class TipoProductoController {
             tiposProductos = tipoProductoService.listarTiposProductos();
         }
         
-        return Response.ok(tiposProductos).build();
+        return RespuestaCondicional.ok(tiposProductos, version);
     }
     
     /**
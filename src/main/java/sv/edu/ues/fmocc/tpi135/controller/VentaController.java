@@ -0,0 +1,93 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import java.util.Date;
+import java.util.List;
+import javax.inject.Inject;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import sv.edu.ues.fmocc.tpi135.dto.VentaProductoDiariaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.VerificacionVentasDTO;
+import sv.edu.ues.fmocc.tpi135.service.VentaDiariaService;
+
+/**
+ * Controlador REST para consultar y mantener las ventas diarias por producto
+ */
+@Path("/ventas")
+@Produces(MediaType.APPLICATION_JSON)
+public class VentaController {
+    
+    @Inject
+    private VentaDiariaService ventaDiariaService;
+    
+    /**
+     * Obtiene las ventas por fecha, sucursal y producto desde los contadores acumulados
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @param sucursal Filtro opcional por sucursal
+     * @return Respuesta con la lista de ventas o 400 si el rango no es válido
+     */
+    @GET
+    @Path("/diarias")
+    public Response buscarVentas(
+            @QueryParam("desde") Date desde,
+            @QueryParam("hasta") Date hasta,
+            @QueryParam("sucursal") String sucursal) {
+        try {
+            List<VentaProductoDiariaDTO> ventas = ventaDiariaService.buscarVentas(desde, hasta, sucursal);
+            return Response.ok(ventas).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * Compara los contadores de un rango con los valores recalculados desde las órdenes
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Respuesta con las diferencias encontradas o 400 si el rango no es válido
+     */
+    @GET
+    @Path("/diarias/verificacion")
+    public Response verificar(
+            @QueryParam("desde") Date desde,
+            @QueryParam("hasta") Date hasta) {
+        try {
+            VerificacionVentasDTO verificacion = ventaDiariaService.verificar(desde, hasta);
+            return Response.ok(verificacion).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+    }
+    
+    /**
+     * Reconstruye los contadores de un rango desde las órdenes
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Respuesta con las diferencias corregidas y los contadores generados,
+     *         o 400 si el rango no es válido
+     */
+    @POST
+    @Path("/diarias/reconstruccion")
+    public Response reconstruir(
+            @QueryParam("desde") Date desde,
+            @QueryParam("hasta") Date hasta) {
+        try {
+            VerificacionVentasDTO verificacion = ventaDiariaService.reconstruir(desde, hasta);
+            return Response.ok(verificacion).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Status.BAD_REQUEST)
+                    .entity(e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DTO con los cambios del catálogo posteriores a una versión. Las filas creadas
+ * o modificadas se entregan con su estado vigente; de las eliminadas solo se
+ * entrega el ID, agrupado por entidad.
+ */
+public class CambiosCatalogoDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private long desde;
+    private long hasta;
+    private boolean hayMas;
+    private List<ProductoDTO> productos = new ArrayList<>();
+    private List<TipoProductoDTO> tiposProducto = new ArrayList<>();
+    private List<ComboDTO> combos = new ArrayList<>();
+    private List<ProductoPrecioDTO> precios = new ArrayList<>();
+    private Map<String, List<Long>> eliminados = new TreeMap<>();
+    
+    public CambiosCatalogoDTO() {
+    }
+    
+    public CambiosCatalogoDTO(long desde, long hasta, boolean hayMas) {
+        this.desde = desde;
+        this.hasta = hasta;
+        this.hayMas = hayMas;
+    }
+
+    /**
+     * Versión indicada por el cliente
+     */
+    public long getDesde() {
+        return desde;
+    }
+
+    public void setDesde(long desde) {
+        this.desde = desde;
+    }
+
+    /**
+     * Última versión incluida; el cliente la envía como "desde" en la siguiente consulta
+     */
+    public long getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(long hasta) {
+        this.hasta = hasta;
+    }
+
+    /**
+     * Indica que quedaron cambios sin entregar por el límite de la consulta
+     */
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    public List<ProductoDTO> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(List<ProductoDTO> productos) {
+        this.productos = productos;
+    }
+
+    public List<TipoProductoDTO> getTiposProducto() {
+        return tiposProducto;
+    }
+
+    public void setTiposProducto(List<TipoProductoDTO> tiposProducto) {
+        this.tiposProducto = tiposProducto;
+    }
+
+    public List<ComboDTO> getCombos() {
+        return combos;
+    }
+
+    public void setCombos(List<ComboDTO> combos) {
+        this.combos = combos;
+    }
+
+    public List<ProductoPrecioDTO> getPrecios() {
+        return precios;
+    }
+
+    public void setPrecios(List<ProductoPrecioDTO> precios) {
+        this.precios = precios;
+    }
+
+    /**
+     * IDs eliminados por entidad (producto, tipo_producto, combo, producto_precio)
+     */
+    public Map<String, List<Long>> getEliminados() {
+        return eliminados;
+    }
+
+    public void setEliminados(Map<String, List<Long>> eliminados) {
+        this.eliminados = eliminados;
+    }
+    
+    @Override
+    public String toString() {
+        return "CambiosCatalogoDTO{" +
+                "desde=" + desde +
+                ", hasta=" + hasta +
+                ", hayMas=" + hayMas +
+                '}';
+    }
+}
@@ -0,0 +1,115 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DTO con una orden cuyo total no coincide con la suma de sus pagos.
+ * El total esperado de una orden anulada es cero.
+ */
+public class ConciliacionOrdenDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Long idOrden;
+    private Date fecha;
+    private String sucursal;
+    private Boolean anulada;
+    private BigDecimal totalEsperado;
+    private BigDecimal totalPagado;
+    private BigDecimal diferencia;
+    private Long pagos;
+    private String estado;
+    
+    public ConciliacionOrdenDTO() {
+    }
+
+    public Long getIdOrden() {
+        return idOrden;
+    }
+
+    public void setIdOrden(Long idOrden) {
+        this.idOrden = idOrden;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public void setSucursal(String sucursal) {
+        this.sucursal = sucursal;
+    }
+
+    public Boolean getAnulada() {
+        return anulada;
+    }
+
+    public void setAnulada(Boolean anulada) {
+        this.anulada = anulada;
+    }
+
+    public BigDecimal getTotalEsperado() {
+        return totalEsperado;
+    }
+
+    public void setTotalEsperado(BigDecimal totalEsperado) {
+        this.totalEsperado = totalEsperado;
+    }
+
+    public BigDecimal getTotalPagado() {
+        return totalPagado;
+    }
+
+    public void setTotalPagado(BigDecimal totalPagado) {
+        this.totalPagado = totalPagado;
+    }
+
+    /**
+     * Total pagado menos total esperado: negativo si falta pagar, positivo si sobra
+     */
+    public BigDecimal getDiferencia() {
+        return diferencia;
+    }
+
+    public void setDiferencia(BigDecimal diferencia) {
+        this.diferencia = diferencia;
+    }
+
+    public Long getPagos() {
+        return pagos;
+    }
+
+    public void setPagos(Long pagos) {
+        this.pagos = pagos;
+    }
+
+    /**
+     * SIN_PAGO, PARCIAL o EXCEDENTE
+     */
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    @Override
+    public String toString() {
+        return "ConciliacionOrdenDTO{" +
+                "idOrden=" + idOrden +
+                ", totalEsperado=" + totalEsperado +
+                ", totalPagado=" + totalPagado +
+                ", estado='" + estado + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DTO con un contador de ventas que no coincide con el valor recalculado desde
+ * las órdenes. Los valores registrados o calculados son nulos cuando la fila
+ * existe solo de un lado.
+ */
+public class DiferenciaVentaDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Date fecha;
+    private String sucursal;
+    private Long idProducto;
+    private Long cantidadRegistrada;
+    private Long cantidadCalculada;
+    private BigDecimal totalRegistrado;
+    private BigDecimal totalCalculado;
+    private Long lineasRegistradas;
+    private Long lineasCalculadas;
+    
+    public DiferenciaVentaDTO() {
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public void setSucursal(String sucursal) {
+        this.sucursal = sucursal;
+    }
+
+    public Long getIdProducto() {
+        return idProducto;
+    }
+
+    public void setIdProducto(Long idProducto) {
+        this.idProducto = idProducto;
+    }
+
+    public Long getCantidadRegistrada() {
+        return cantidadRegistrada;
+    }
+
+    public void setCantidadRegistrada(Long cantidadRegistrada) {
+        this.cantidadRegistrada = cantidadRegistrada;
+    }
+
+    public Long getCantidadCalculada() {
+        return cantidadCalculada;
+    }
+
+    public void setCantidadCalculada(Long cantidadCalculada) {
+        this.cantidadCalculada = cantidadCalculada;
+    }
+
+    public BigDecimal getTotalRegistrado() {
+        return totalRegistrado;
+    }
+
+    public void setTotalRegistrado(BigDecimal totalRegistrado) {
+        this.totalRegistrado = totalRegistrado;
+    }
+
+    public BigDecimal getTotalCalculado() {
+        return totalCalculado;
+    }
+
+    public void setTotalCalculado(BigDecimal totalCalculado) {
+        this.totalCalculado = totalCalculado;
+    }
+
+    public Long getLineasRegistradas() {
+        return lineasRegistradas;
+    }
+
+    public void setLineasRegistradas(Long lineasRegistradas) {
+        this.lineasRegistradas = lineasRegistradas;
+    }
+
+    public Long getLineasCalculadas() {
+        return lineasCalculadas;
+    }
+
+    public void setLineasCalculadas(Long lineasCalculadas) {
+        this.lineasCalculadas = lineasCalculadas;
+    }
+    
+    @Override
+    public String toString() {
+        return "DiferenciaVentaDTO{" +
+                "fecha=" + fecha +
+                ", sucursal='" + sucursal + '\'' +
+                ", idProducto=" + idProducto +
+                ", cantidadRegistrada=" + cantidadRegistrada +
+                ", cantidadCalculada=" + cantidadCalculada +
+                '}';
+    }
+}
@@ -0,0 +1,68 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+
+/**
+ * DTO con un cambio de orden que se notifica a las pantallas de cocina de la
+ * sucursal. El tipo se usa como nombre del evento en el flujo SSE.
+ */
+public class EventoOrdenDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    public static final String CREADA = "orden-creada";
+    public static final String ACTUALIZADA = "orden-actualizada";
+    public static final String ANULADA = "orden-anulada";
+    public static final String ELIMINADA = "orden-eliminada";
+    
+    private String tipo;
+    private String sucursalAnterior;
+    private OrdenDTO orden;
+    
+    public EventoOrdenDTO() {
+    }
+    
+    public EventoOrdenDTO(String tipo, OrdenDTO orden, String sucursalAnterior) {
+        this.tipo = tipo;
+        this.orden = orden;
+        this.sucursalAnterior = sucursalAnterior;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    /**
+     * Sucursal de la orden antes de una actualización que la cambió; null si no cambió
+     */
+    public String getSucursalAnterior() {
+        return sucursalAnterior;
+    }
+
+    public void setSucursalAnterior(String sucursalAnterior) {
+        this.sucursalAnterior = sucursalAnterior;
+    }
+
+    /**
+     * Orden con sus detalles; en anulaciones y eliminaciones solo trae el encabezado
+     */
+    public OrdenDTO getOrden() {
+        return orden;
+    }
+
+    public void setOrden(OrdenDTO orden) {
+        this.orden = orden;
+    }
+    
+    @Override
+    public String toString() {
+        return "EventoOrdenDTO{" +
+                "tipo='" + tipo + '\'' +
+                ", idOrden=" + (orden != null ? orden.getIdOrden() : null) +
+                '}';
+    }
+}
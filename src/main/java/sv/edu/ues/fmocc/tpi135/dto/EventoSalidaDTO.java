@@ -0,0 +1,98 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * DTO de un evento de la bandeja de salida. La posición identifica al evento:
+ * un consumidor que ya procesó una posición debe ignorarla si la recibe de nuevo.
+ */
+public class EventoSalidaDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Long posicion;
+    private String agregado;
+    private Long idAgregado;
+    private String tipo;
+    private Date fecha;
+    private String datos;
+    
+    public EventoSalidaDTO() {
+    }
+    
+    public EventoSalidaDTO(Long posicion, String agregado, Long idAgregado, String tipo, Date fecha, String datos) {
+        this.posicion = posicion;
+        this.agregado = agregado;
+        this.idAgregado = idAgregado;
+        this.tipo = tipo;
+        this.fecha = fecha;
+        this.datos = datos;
+    }
+
+    public Long getPosicion() {
+        return posicion;
+    }
+
+    public void setPosicion(Long posicion) {
+        this.posicion = posicion;
+    }
+
+    /**
+     * "orden" o "pago"
+     */
+    public String getAgregado() {
+        return agregado;
+    }
+
+    public void setAgregado(String agregado) {
+        this.agregado = agregado;
+    }
+
+    public Long getIdAgregado() {
+        return idAgregado;
+    }
+
+    public void setIdAgregado(Long idAgregado) {
+        this.idAgregado = idAgregado;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    /**
+     * Estado del agregado después del cambio (OrdenDTO o PagoDTO), incrustado como JSON
+     */
+    @JsonRawValue
+    public String getDatos() {
+        return datos;
+    }
+
+    public void setDatos(String datos) {
+        this.datos = datos;
+    }
+    
+    @Override
+    public String toString() {
+        return "EventoSalidaDTO{" +
+                "posicion=" + posicion +
+                ", agregado='" + agregado + '\'' +
+                ", idAgregado=" + idAgregado +
+                ", tipo='" + tipo + '\'' +
+                '}';
+    }
+}
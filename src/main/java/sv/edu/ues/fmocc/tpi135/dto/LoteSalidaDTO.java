@@ -0,0 +1,69 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con un lote de eventos de la bandeja de salida, en orden de posición
+ */
+public class LoteSalidaDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private long desde;
+    private long hasta;
+    private boolean hayMas;
+    private List<EventoSalidaDTO> eventos = new ArrayList<>();
+    
+    public LoteSalidaDTO() {
+    }
+    
+    public LoteSalidaDTO(long desde, long hasta, boolean hayMas, List<EventoSalidaDTO> eventos) {
+        this.desde = desde;
+        this.hasta = hasta;
+        this.hayMas = hayMas;
+        this.eventos = eventos;
+    }
+
+    /**
+     * Posición indicada por el consumidor
+     */
+    public long getDesde() {
+        return desde;
+    }
+
+    public void setDesde(long desde) {
+        this.desde = desde;
+    }
+
+    /**
+     * Última posición incluida; el consumidor la envía como "desde" en la siguiente consulta
+     */
+    public long getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(long hasta) {
+        this.hasta = hasta;
+    }
+
+    /**
+     * Indica si quedan eventos posteriores sin entregar
+     */
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+
+    public List<EventoSalidaDTO> getEventos() {
+        return eventos;
+    }
+
+    public void setEventos(List<EventoSalidaDTO> eventos) {
+        this.eventos = eventos;
+    }
+}
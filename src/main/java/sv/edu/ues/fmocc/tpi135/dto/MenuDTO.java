@@ -0,0 +1,72 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DTO con el menú que ven los clientes: tipos de producto, productos y combos
+ * activos, y los precios vigentes de los productos activos
+ */
+public class MenuDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private List<TipoProductoDTO> tiposProducto = new ArrayList<>();
+    private List<ProductoDTO> productos = new ArrayList<>();
+    private List<ComboDTO> combos = new ArrayList<>();
+    private List<ProductoPrecioDTO> precios = new ArrayList<>();
+    
+    public MenuDTO() {
+    }
+    
+    public MenuDTO(List<TipoProductoDTO> tiposProducto, List<ProductoDTO> productos,
+                   List<ComboDTO> combos, List<ProductoPrecioDTO> precios) {
+        this.tiposProducto = tiposProducto;
+        this.productos = productos;
+        this.combos = combos;
+        this.precios = precios;
+    }
+
+    public List<TipoProductoDTO> getTiposProducto() {
+        return tiposProducto;
+    }
+
+    public void setTiposProducto(List<TipoProductoDTO> tiposProducto) {
+        this.tiposProducto = tiposProducto;
+    }
+
+    public List<ProductoDTO> getProductos() {
+        return productos;
+    }
+
+    public void setProductos(List<ProductoDTO> productos) {
+        this.productos = productos;
+    }
+
+    public List<ComboDTO> getCombos() {
+        return combos;
+    }
+
+    public void setCombos(List<ComboDTO> combos) {
+        this.combos = combos;
+    }
+
+    public List<ProductoPrecioDTO> getPrecios() {
+        return precios;
+    }
+
+    public void setPrecios(List<ProductoPrecioDTO> precios) {
+        this.precios = precios;
+    }
+    
+    @Override
+    public String toString() {
+        return "MenuDTO{" +
+                "tiposProducto=" + tiposProducto.size() +
+                ", productos=" + productos.size() +
+                ", combos=" + combos.size() +
+                ", precios=" + precios.size() +
+                '}';
+    }
+}
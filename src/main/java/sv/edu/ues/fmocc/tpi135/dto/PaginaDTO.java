@@ -0,0 +1,61 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * DTO para transferir una página de resultados obtenida con paginación por cursor.
+ * El campo siguiente contiene el cursor opaco para pedir la página posterior,
+ * o es nulo cuando no hay más resultados.
+ * @param <T> Tipo de los elementos de la página
+ */
+public class PaginaDTO<T> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private List<T> elementos;
+    private String siguiente;
+    private Integer limite;
+    
+    public PaginaDTO() {
+    }
+    
+    public PaginaDTO(List<T> elementos, String siguiente, Integer limite) {
+        this.elementos = elementos;
+        this.siguiente = siguiente;
+        this.limite = limite;
+    }
+
+    public List<T> getElementos() {
+        return elementos;
+    }
+
+    public void setElementos(List<T> elementos) {
+        this.elementos = elementos;
+    }
+
+    public String getSiguiente() {
+        return siguiente;
+    }
+
+    public void setSiguiente(String siguiente) {
+        this.siguiente = siguiente;
+    }
+
+    public Integer getLimite() {
+        return limite;
+    }
+
+    public void setLimite(Integer limite) {
+        this.limite = limite;
+    }
+    
+    @Override
+    public String toString() {
+        return "PaginaDTO{" +
+                "elementos=" + (elementos != null ? elementos.size() : 0) +
+                ", siguiente='" + siguiente + '\'' +
+                ", limite=" + limite +
+                '}';
+    }
+}
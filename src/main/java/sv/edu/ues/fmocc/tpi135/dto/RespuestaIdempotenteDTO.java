@@ -0,0 +1,68 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+
+/**
+ * DTO con la respuesta registrada para una clave de idempotencia, o con la
+ * indicación de que la solicitud original aún se está procesando
+ */
+public class RespuestaIdempotenteDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private String huella;
+    private int estado;
+    private String cuerpo;
+    private boolean enProceso;
+    
+    public RespuestaIdempotenteDTO() {
+    }
+    
+    public RespuestaIdempotenteDTO(String huella, int estado, String cuerpo, boolean enProceso) {
+        this.huella = huella;
+        this.estado = estado;
+        this.cuerpo = cuerpo;
+        this.enProceso = enProceso;
+    }
+
+    /**
+     * Huella del cuerpo de la solicitud original
+     */
+    public String getHuella() {
+        return huella;
+    }
+
+    public void setHuella(String huella) {
+        this.huella = huella;
+    }
+
+    /**
+     * Código de estado HTTP de la respuesta original
+     */
+    public int getEstado() {
+        return estado;
+    }
+
+    public void setEstado(int estado) {
+        this.estado = estado;
+    }
+
+    /**
+     * Cuerpo de la respuesta original en JSON
+     */
+    public String getCuerpo() {
+        return cuerpo;
+    }
+
+    public void setCuerpo(String cuerpo) {
+        this.cuerpo = cuerpo;
+    }
+
+    public boolean isEnProceso() {
+        return enProceso;
+    }
+
+    public void setEnProceso(boolean enProceso) {
+        this.enProceso = enProceso;
+    }
+}
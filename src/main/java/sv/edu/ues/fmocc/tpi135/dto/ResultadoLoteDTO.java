@@ -0,0 +1,85 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+
+/**
+ * DTO con el resultado de procesar un elemento de un lote.
+ * El campo indice es la posición del elemento en el arreglo recibido; cuando
+ * exitoso es verdadero, elemento contiene el registro creado y, en caso
+ * contrario, error describe por qué fue rechazado.
+ * @param <T> Tipo del registro creado
+ */
+public class ResultadoLoteDTO<T> implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Integer indice;
+    private Boolean exitoso;
+    private T elemento;
+    private String error;
+    
+    public ResultadoLoteDTO() {
+    }
+    
+    public ResultadoLoteDTO(Integer indice, Boolean exitoso, T elemento, String error) {
+        this.indice = indice;
+        this.exitoso = exitoso;
+        this.elemento = elemento;
+        this.error = error;
+    }
+    
+    /**
+     * Crea un resultado exitoso
+     */
+    public static <T> ResultadoLoteDTO<T> exito(int indice, T elemento) {
+        return new ResultadoLoteDTO<>(indice, Boolean.TRUE, elemento, null);
+    }
+    
+    /**
+     * Crea un resultado rechazado con su motivo
+     */
+    public static <T> ResultadoLoteDTO<T> rechazo(int indice, String error) {
+        return new ResultadoLoteDTO<>(indice, Boolean.FALSE, null, error);
+    }
+
+    public Integer getIndice() {
+        return indice;
+    }
+
+    public void setIndice(Integer indice) {
+        this.indice = indice;
+    }
+
+    public Boolean getExitoso() {
+        return exitoso;
+    }
+
+    public void setExitoso(Boolean exitoso) {
+        this.exitoso = exitoso;
+    }
+
+    public T getElemento() {
+        return elemento;
+    }
+
+    public void setElemento(T elemento) {
+        this.elemento = elemento;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoLoteDTO{" +
+                "indice=" + indice +
+                ", exitoso=" + exitoso +
+                ", error='" + error + '\'' +
+                '}';
+    }
+}
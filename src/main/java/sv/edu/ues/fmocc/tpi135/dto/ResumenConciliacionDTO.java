@@ -0,0 +1,116 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DTO con los conteos de la conciliación entre órdenes y pagos de un rango de fechas
+ */
+public class ResumenConciliacionDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Date desde;
+    private Date hasta;
+    private long ordenes;
+    private long conciliadas;
+    private long sinPago;
+    private long parciales;
+    private long excedentes;
+    private BigDecimal totalEsperado = BigDecimal.ZERO;
+    private BigDecimal totalPagado = BigDecimal.ZERO;
+    
+    public ResumenConciliacionDTO() {
+    }
+    
+    public ResumenConciliacionDTO(Date desde, Date hasta) {
+        this.desde = desde;
+        this.hasta = hasta;
+    }
+
+    public Date getDesde() {
+        return desde;
+    }
+
+    public void setDesde(Date desde) {
+        this.desde = desde;
+    }
+
+    public Date getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(Date hasta) {
+        this.hasta = hasta;
+    }
+
+    public long getOrdenes() {
+        return ordenes;
+    }
+
+    public void setOrdenes(long ordenes) {
+        this.ordenes = ordenes;
+    }
+
+    public long getConciliadas() {
+        return conciliadas;
+    }
+
+    public void setConciliadas(long conciliadas) {
+        this.conciliadas = conciliadas;
+    }
+
+    public long getSinPago() {
+        return sinPago;
+    }
+
+    public void setSinPago(long sinPago) {
+        this.sinPago = sinPago;
+    }
+
+    public long getParciales() {
+        return parciales;
+    }
+
+    public void setParciales(long parciales) {
+        this.parciales = parciales;
+    }
+
+    public long getExcedentes() {
+        return excedentes;
+    }
+
+    public void setExcedentes(long excedentes) {
+        this.excedentes = excedentes;
+    }
+
+    public BigDecimal getTotalEsperado() {
+        return totalEsperado;
+    }
+
+    public void setTotalEsperado(BigDecimal totalEsperado) {
+        this.totalEsperado = totalEsperado;
+    }
+
+    public BigDecimal getTotalPagado() {
+        return totalPagado;
+    }
+
+    public void setTotalPagado(BigDecimal totalPagado) {
+        this.totalPagado = totalPagado;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResumenConciliacionDTO{" +
+                "desde=" + desde +
+                ", hasta=" + hasta +
+                ", ordenes=" + ordenes +
+                ", conciliadas=" + conciliadas +
+                ", sinPago=" + sinPago +
+                ", parciales=" + parciales +
+                ", excedentes=" + excedentes +
+                '}';
+    }
+}
@@ -0,0 +1,92 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DTO con el resumen de ventas de una sucursal en una fecha.
+ * El total bruto y el ticket promedio consideran solo las órdenes no anuladas.
+ */
+public class ResumenVentasDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Date fecha;
+    private String sucursal;
+    private Long ordenes;
+    private Long anuladas;
+    private BigDecimal totalBruto;
+    private BigDecimal ticketPromedio;
+    
+    public ResumenVentasDTO() {
+    }
+    
+    public ResumenVentasDTO(Date fecha, String sucursal, Long ordenes, Long anuladas, BigDecimal totalBruto, BigDecimal ticketPromedio) {
+        this.fecha = fecha;
+        this.sucursal = sucursal;
+        this.ordenes = ordenes;
+        this.anuladas = anuladas;
+        this.totalBruto = totalBruto;
+        this.ticketPromedio = ticketPromedio;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public void setSucursal(String sucursal) {
+        this.sucursal = sucursal;
+    }
+
+    public Long getOrdenes() {
+        return ordenes;
+    }
+
+    public void setOrdenes(Long ordenes) {
+        this.ordenes = ordenes;
+    }
+
+    public Long getAnuladas() {
+        return anuladas;
+    }
+
+    public void setAnuladas(Long anuladas) {
+        this.anuladas = anuladas;
+    }
+
+    public BigDecimal getTotalBruto() {
+        return totalBruto;
+    }
+
+    public void setTotalBruto(BigDecimal totalBruto) {
+        this.totalBruto = totalBruto;
+    }
+
+    public BigDecimal getTicketPromedio() {
+        return ticketPromedio;
+    }
+
+    public void setTicketPromedio(BigDecimal ticketPromedio) {
+        this.ticketPromedio = ticketPromedio;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResumenVentasDTO{" +
+                "fecha=" + fecha +
+                ", sucursal='" + sucursal + '\'' +
+                ", ordenes=" + ordenes +
+                ", anuladas=" + anuladas +
+                ", totalBruto=" + totalBruto +
+                '}';
+    }
+}
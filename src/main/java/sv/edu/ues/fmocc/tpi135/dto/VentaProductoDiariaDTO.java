@@ -0,0 +1,92 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * DTO con las ventas acumuladas de un producto en una sucursal y fecha.
+ * Solo considera las órdenes no anuladas.
+ */
+public class VentaProductoDiariaDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Date fecha;
+    private String sucursal;
+    private Long idProducto;
+    private Long cantidad;
+    private BigDecimal total;
+    private Long lineas;
+    
+    public VentaProductoDiariaDTO() {
+    }
+    
+    public VentaProductoDiariaDTO(Date fecha, String sucursal, Long idProducto, Long cantidad, BigDecimal total, Long lineas) {
+        this.fecha = fecha;
+        this.sucursal = sucursal;
+        this.idProducto = idProducto;
+        this.cantidad = cantidad;
+        this.total = total;
+        this.lineas = lineas;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public void setSucursal(String sucursal) {
+        this.sucursal = sucursal;
+    }
+
+    public Long getIdProducto() {
+        return idProducto;
+    }
+
+    public void setIdProducto(Long idProducto) {
+        this.idProducto = idProducto;
+    }
+
+    public Long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Long getLineas() {
+        return lineas;
+    }
+
+    public void setLineas(Long lineas) {
+        this.lineas = lineas;
+    }
+    
+    @Override
+    public String toString() {
+        return "VentaProductoDiariaDTO{" +
+                "fecha=" + fecha +
+                ", sucursal='" + sucursal + '\'' +
+                ", idProducto=" + idProducto +
+                ", cantidad=" + cantidad +
+                ", total=" + total +
+                '}';
+    }
+}
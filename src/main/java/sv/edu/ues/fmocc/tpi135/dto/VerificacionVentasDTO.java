@@ -0,0 +1,80 @@
+package sv.edu.ues.fmocc.tpi135.dto;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * DTO con el resultado de comparar los contadores de venta de un rango de
+ * fechas con los valores recalculados desde las órdenes
+ */
+public class VerificacionVentasDTO implements Serializable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Date desde;
+    private Date hasta;
+    private List<DiferenciaVentaDTO> diferencias;
+    private Integer reconstruidos;
+    
+    public VerificacionVentasDTO() {
+    }
+    
+    public VerificacionVentasDTO(Date desde, Date hasta, List<DiferenciaVentaDTO> diferencias) {
+        this.desde = desde;
+        this.hasta = hasta;
+        this.diferencias = diferencias;
+    }
+
+    public Date getDesde() {
+        return desde;
+    }
+
+    public void setDesde(Date desde) {
+        this.desde = desde;
+    }
+
+    public Date getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(Date hasta) {
+        this.hasta = hasta;
+    }
+
+    public List<DiferenciaVentaDTO> getDiferencias() {
+        return diferencias;
+    }
+
+    public void setDiferencias(List<DiferenciaVentaDTO> diferencias) {
+        this.diferencias = diferencias;
+    }
+
+    /**
+     * Cantidad de contadores que no coinciden con las órdenes
+     */
+    public int getTotalDiferencias() {
+        return diferencias != null ? diferencias.size() : 0;
+    }
+
+    /**
+     * Cantidad de contadores generados por la reconstrucción, o nulo si solo se verificó
+     */
+    public Integer getReconstruidos() {
+        return reconstruidos;
+    }
+
+    public void setReconstruidos(Integer reconstruidos) {
+        this.reconstruidos = reconstruidos;
+    }
+    
+    @Override
+    public String toString() {
+        return "VerificacionVentasDTO{" +
+                "desde=" + desde +
+                ", hasta=" + hasta +
+                ", totalDiferencias=" + getTotalDiferencias() +
+                ", reconstruidos=" + reconstruidos +
+                '}';
+    }
+}
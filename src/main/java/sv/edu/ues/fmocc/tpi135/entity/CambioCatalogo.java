@@ -0,0 +1,132 @@
+package sv.edu.ues.fmocc.tpi135.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Entidad JPA del registro de cambios del catálogo. Cada creación, actualización
+ * o eliminación de un producto, tipo de producto, combo o precio agrega una fila
+ * con una versión creciente, en la misma transacción que la modificación, para
+ * que los terminales pidan solo los cambios posteriores a la última versión vista.
+ */
+@Entity
+@Table(name = "catalogo_cambio")
+@NamedQueries({
+    @NamedQuery(name = "CambioCatalogo.findDesde", query = "SELECT c FROM CambioCatalogo c WHERE c.version > :version ORDER BY c.version"),
+    @NamedQuery(name = "CambioCatalogo.findVersionActual", query = "SELECT MAX(c.version) FROM CambioCatalogo c")
+})
+public class CambioCatalogo implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    
+    public static final String PRODUCTO = "producto";
+    public static final String TIPO_PRODUCTO = "tipo_producto";
+    public static final String COMBO = "combo";
+    public static final String PRODUCTO_PRECIO = "producto_precio";
+    
+    /**
+     * La fila se creó o se modificó; su estado vigente se lee de la tabla de origen
+     */
+    public static final String GUARDADO = "G";
+    
+    /**
+     * La fila se eliminó
+     */
+    public static final String ELIMINADO = "E";
+    
+    @Id
+    @Column(name = "version")
+    private Long version;
+    
+    @Column(name = "entidad", length = 20, nullable = false)
+    private String entidad;
+    
+    @Column(name = "id_entidad", nullable = false)
+    private Long idEntidad;
+    
+    @Column(name = "operacion", length = 1, nullable = false)
+    private String operacion;
+    
+    @Column(name = "fecha", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date fecha;
+    
+    public CambioCatalogo() {
+    }
+    
+    public CambioCatalogo(Long version, String entidad, Long idEntidad, String operacion, Date fecha) {
+        this.version = version;
+        this.entidad = entidad;
+        this.idEntidad = idEntidad;
+        this.operacion = operacion;
+        this.fecha = fecha;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public void setEntidad(String entidad) {
+        this.entidad = entidad;
+    }
+
+    public Long getIdEntidad() {
+        return idEntidad;
+    }
+
+    public void setIdEntidad(Long idEntidad) {
+        this.idEntidad = idEntidad;
+    }
+
+    public String getOperacion() {
+        return operacion;
+    }
+
+    public void setOperacion(String operacion) {
+        this.operacion = operacion;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+    
+    @Override
+    public int hashCode() {
+        return version != null ? version.hashCode() : 0;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof CambioCatalogo)) {
+            return false;
+        }
+        CambioCatalogo other = (CambioCatalogo) object;
+        return version != null && version.equals(other.version);
+    }
+
+    @Override
+    public String toString() {
+        return "CambioCatalogo[ version=" + version + ", entidad=" + entidad + ", idEntidad=" + idEntidad
+                + ", operacion=" + operacion + " ]";
+    }
+}
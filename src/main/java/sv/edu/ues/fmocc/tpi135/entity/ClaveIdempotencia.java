@@ -0,0 +1,139 @@
+package sv.edu.ues.fmocc.tpi135.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Entidad JPA con una clave de idempotencia (encabezado Idempotency-Key) y la
+ * respuesta que se devolvió con ella. Mientras la solicitud original se procesa,
+ * el estado es EN_PROCESO y no hay cuerpo.
+ */
+@Entity
+@Table(name = "idempotencia_clave")
+@NamedQueries({
+    @NamedQuery(name = "ClaveIdempotencia.updateCompletada",
+            query = "UPDATE ClaveIdempotencia c SET c.estado = :estado, c.cuerpo = :cuerpo "
+                    + "WHERE c.clave = :clave AND c.estado = 0"),
+    @NamedQuery(name = "ClaveIdempotencia.deleteEnProceso",
+            query = "DELETE FROM ClaveIdempotencia c WHERE c.clave = :clave AND c.estado = 0"),
+    @NamedQuery(name = "ClaveIdempotencia.deleteAnteriores",
+            query = "DELETE FROM ClaveIdempotencia c WHERE c.fecha < :fecha")})
+public class ClaveIdempotencia implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * Estado de una clave reservada cuya solicitud aún no termina
+     */
+    public static final short EN_PROCESO = 0;
+    
+    /**
+     * Estado de una clave cuya orden o pago se creó (201 CREATED)
+     */
+    public static final short CREADA = 201;
+    
+    /**
+     * Ámbito y clave enviada por el cliente, p. ej. "ordenes:7f3c…"
+     */
+    @Id
+    @Column(name = "clave", length = 160)
+    private String clave;
+    
+    /**
+     * SHA-256 en Base64 del cuerpo de la solicitud, para detectar una clave
+     * reutilizada con otra solicitud
+     */
+    @Column(name = "huella", length = 44, nullable = false)
+    private String huella;
+    
+    /**
+     * Código de estado HTTP de la respuesta, o EN_PROCESO
+     */
+    @Column(name = "estado", nullable = false)
+    private Short estado;
+    
+    @Column(name = "cuerpo")
+    private String cuerpo;
+    
+    @Column(name = "fecha", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date fecha;
+    
+    public ClaveIdempotencia() {
+    }
+    
+    public ClaveIdempotencia(String clave, String huella, Short estado, String cuerpo, Date fecha) {
+        this.clave = clave;
+        this.huella = huella;
+        this.estado = estado;
+        this.cuerpo = cuerpo;
+        this.fecha = fecha;
+    }
+
+    public String getClave() {
+        return clave;
+    }
+
+    public void setClave(String clave) {
+        this.clave = clave;
+    }
+
+    public String getHuella() {
+        return huella;
+    }
+
+    public void setHuella(String huella) {
+        this.huella = huella;
+    }
+
+    public Short getEstado() {
+        return estado;
+    }
+
+    public void setEstado(Short estado) {
+        this.estado = estado;
+    }
+
+    public String getCuerpo() {
+        return cuerpo;
+    }
+
+    public void setCuerpo(String cuerpo) {
+        this.cuerpo = cuerpo;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+    
+    @Override
+    public int hashCode() {
+        return clave != null ? clave.hashCode() : 0;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof ClaveIdempotencia)) {
+            return false;
+        }
+        ClaveIdempotencia other = (ClaveIdempotencia) object;
+        return clave != null && clave.equals(other.clave);
+    }
+
+    @Override
+    public String toString() {
+        return "ClaveIdempotencia[ clave=" + clave + ", estado=" + estado + " ]";
+    }
+}
@@ -0,0 +1,83 @@
+package sv.edu.ues.fmocc.tpi135.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Entidad JPA con la última posición de la bandeja de salida entregada a cada destino
+ */
+@Entity
+@Table(name = "salida_cursor")
+public class CursorSalida implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @Column(name = "destino", length = 50)
+    private String destino;
+    
+    @Column(name = "posicion", nullable = false)
+    private Long posicion;
+    
+    @Column(name = "actualizado", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date actualizado;
+    
+    public CursorSalida() {
+    }
+    
+    public CursorSalida(String destino, Long posicion, Date actualizado) {
+        this.destino = destino;
+        this.posicion = posicion;
+        this.actualizado = actualizado;
+    }
+
+    public String getDestino() {
+        return destino;
+    }
+
+    public void setDestino(String destino) {
+        this.destino = destino;
+    }
+
+    public Long getPosicion() {
+        return posicion;
+    }
+
+    public void setPosicion(Long posicion) {
+        this.posicion = posicion;
+    }
+
+    public Date getActualizado() {
+        return actualizado;
+    }
+
+    public void setActualizado(Date actualizado) {
+        this.actualizado = actualizado;
+    }
+    
+    @Override
+    public int hashCode() {
+        return destino != null ? destino.hashCode() : 0;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof CursorSalida)) {
+            return false;
+        }
+        CursorSalida other = (CursorSalida) object;
+        return destino != null && destino.equals(other.destino);
+    }
+
+    @Override
+    public String toString() {
+        return "CursorSalida[ destino=" + destino + ", posicion=" + posicion + " ]";
+    }
+}
@@ -0,0 +1,156 @@
+package sv.edu.ues.fmocc.tpi135.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Entidad JPA de la bandeja de salida de eventos de órdenes y pagos. Cada
+ * modificación agrega una fila en la misma transacción, con el estado del
+ * agregado en JSON. La posición no se asigna al insertar: la asigna el relevo
+ * a las filas ya confirmadas, en orden de ID, de modo que las posiciones son
+ * consecutivas y un consumidor que lee desde una posición nunca salta eventos.
+ */
+@Entity
+@Table(name = "salida_evento")
+@NamedQueries({
+    @NamedQuery(name = "EventoSalida.findPendientes", query = "SELECT e FROM EventoSalida e WHERE e.posicion IS NULL ORDER BY e.idEvento"),
+    @NamedQuery(name = "EventoSalida.findDesde", query = "SELECT e FROM EventoSalida e WHERE e.posicion > :posicion ORDER BY e.posicion"),
+    @NamedQuery(name = "EventoSalida.findUltimaPosicion", query = "SELECT MAX(e.posicion) FROM EventoSalida e")
+})
+public class EventoSalida implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    
+    public static final String ORDEN = "orden";
+    public static final String PAGO = "pago";
+    
+    public static final String PAGO_CREADO = "pago-creado";
+    public static final String PAGO_ACTUALIZADO = "pago-actualizado";
+    public static final String PAGO_ELIMINADO = "pago-eliminado";
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "salida_evento_id_evento_seq")
+    @SequenceGenerator(name = "salida_evento_id_evento_seq", sequenceName = "salida_evento_id_evento_seq", allocationSize = 1)
+    @Column(name = "id_evento")
+    private Long idEvento;
+    
+    @Column(name = "posicion", unique = true)
+    private Long posicion;
+    
+    @Column(name = "agregado", length = 10, nullable = false)
+    private String agregado;
+    
+    @Column(name = "id_agregado", nullable = false)
+    private Long idAgregado;
+    
+    @Column(name = "tipo", length = 30, nullable = false)
+    private String tipo;
+    
+    @Column(name = "datos", nullable = false)
+    private String datos;
+    
+    @Column(name = "fecha", nullable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date fecha;
+    
+    public EventoSalida() {
+    }
+    
+    public EventoSalida(String agregado, Long idAgregado, String tipo, String datos, Date fecha) {
+        this.agregado = agregado;
+        this.idAgregado = idAgregado;
+        this.tipo = tipo;
+        this.datos = datos;
+        this.fecha = fecha;
+    }
+
+    public Long getIdEvento() {
+        return idEvento;
+    }
+
+    public void setIdEvento(Long idEvento) {
+        this.idEvento = idEvento;
+    }
+
+    /**
+     * Posición en el flujo de eventos; null mientras el relevo no la asigne
+     */
+    public Long getPosicion() {
+        return posicion;
+    }
+
+    public void setPosicion(Long posicion) {
+        this.posicion = posicion;
+    }
+
+    public String getAgregado() {
+        return agregado;
+    }
+
+    public void setAgregado(String agregado) {
+        this.agregado = agregado;
+    }
+
+    public Long getIdAgregado() {
+        return idAgregado;
+    }
+
+    public void setIdAgregado(Long idAgregado) {
+        this.idAgregado = idAgregado;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getDatos() {
+        return datos;
+    }
+
+    public void setDatos(String datos) {
+        this.datos = datos;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+    
+    @Override
+    public int hashCode() {
+        return idEvento != null ? idEvento.hashCode() : 0;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof EventoSalida)) {
+            return false;
+        }
+        EventoSalida other = (EventoSalida) object;
+        return idEvento != null && idEvento.equals(other.idEvento);
+    }
+
+    @Override
+    public String toString() {
+        return "EventoSalida[ idEvento=" + idEvento + ", posicion=" + posicion + ", agregado=" + agregado
+                + ", idAgregado=" + idAgregado + ", tipo=" + tipo + " ]";
+    }
+}
@@ -11,6 +11,8 @@ import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 
 /**
  * Entidad JPA que representa el detalle de una orden en el sistema.
@@ -21,6 +23,7 @@ import javax.persistence.Table;
 @NamedQueries({
     @NamedQuery(name = "OrdenDetalle.findAll", query = "SELECT od FROM OrdenDetalle od"),
     @NamedQuery(name = "OrdenDetalle.findByIdOrden", query = "SELECT od FROM OrdenDetalle od WHERE od.idOrden = :idOrden"),
+    @NamedQuery(name = "OrdenDetalle.findByIdsOrden", query = "SELECT od FROM OrdenDetalle od LEFT JOIN FETCH od.productoPrecio WHERE od.idOrden IN :idsOrden ORDER BY od.idOrden"),
     @NamedQuery(name = "OrdenDetalle.findByIdProductoPrecio", query = "SELECT od FROM OrdenDetalle od WHERE od.idProductoPrecio = :idProductoPrecio")
 })
 public class OrdenDetalle implements Serializable {
@@ -44,7 +47,9 @@ public class OrdenDetalle implements Serializable {
     @Column(name = "observaciones")
     private String observaciones;
     
+    // Las órdenes de un bloque de detalles se cargan con una sola consulta IN
     @ManyToOne
+    @BatchFetch(BatchFetchType.IN)
     @JoinColumn(name = "id_orden", referencedColumnName = "id_orden", insertable = false, updatable = false)
     private Orden orden;
     
@@ -11,9 +11,12 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 
 /**
  * Entidad JPA que representa un pago en el sistema.
@@ -32,7 +35,8 @@ public class Pago implements Serializable {
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pago_id_pago_seq")
+    @SequenceGenerator(name = "pago_id_pago_seq", sequenceName = "pago_id_pago_seq", allocationSize = 1)
     @Column(name = "id_pago")
     private Long idPago;
     
@@ -49,7 +53,9 @@ public class Pago implements Serializable {
     @Column(name = "referencia")
     private String referencia;
     
+    // Las órdenes de un bloque de pagos se cargan con una sola consulta IN
     @ManyToOne
+    @BatchFetch(BatchFetchType.IN)
     @JoinColumn(name = "id_orden", insertable = false, updatable = false)
     private Orden orden;
     
@@ -11,7 +11,10 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 
 /**
  * Entidad JPA que representa el detalle de un pago en el sistema.
@@ -21,14 +24,16 @@ import javax.persistence.Table;
 @NamedQueries({
     @NamedQuery(name = "PagoDetalle.findAll", query = "SELECT pd FROM PagoDetalle pd"),
     @NamedQuery(name = "PagoDetalle.findById", query = "SELECT pd FROM PagoDetalle pd WHERE pd.idPagoDetalle = :idPagoDetalle"),
-    @NamedQuery(name = "PagoDetalle.findByIdPago", query = "SELECT pd FROM PagoDetalle pd WHERE pd.idPago = :idPago")
+    @NamedQuery(name = "PagoDetalle.findByIdPago", query = "SELECT pd FROM PagoDetalle pd WHERE pd.idPago = :idPago"),
+    @NamedQuery(name = "PagoDetalle.findByIdsPago", query = "SELECT pd FROM PagoDetalle pd WHERE pd.idPago IN :idsPago ORDER BY pd.idPago, pd.idPagoDetalle")
 })
 public class PagoDetalle implements Serializable {
 
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pago_detalle_id_pago_detalle_seq")
+    @SequenceGenerator(name = "pago_detalle_id_pago_detalle_seq", sequenceName = "pago_detalle_id_pago_detalle_seq", allocationSize = 1)
     @Column(name = "id_pago_detalle")
     private Long idPagoDetalle;
     
@@ -41,7 +46,9 @@ public class PagoDetalle implements Serializable {
     @Column(name = "observaciones")
     private String observaciones;
     
+    // Los pagos de un bloque de detalles se cargan con una sola consulta IN
     @ManyToOne
+    @BatchFetch(BatchFetchType.IN)
     @JoinColumn(name = "id_pago", insertable = false, updatable = false)
     private Pago pago;
     
@@ -12,9 +12,12 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Temporal;
 import javax.persistence.TemporalType;
+import org.eclipse.persistence.annotations.BatchFetch;
+import org.eclipse.persistence.annotations.BatchFetchType;
 
 /**
  * Entidad JPA que representa el precio de un producto en el sistema.
@@ -26,6 +29,7 @@ import javax.persistence.TemporalType;
 @NamedQueries({
     @NamedQuery(name = "ProductoPrecio.findAll", query = "SELECT pp FROM ProductoPrecio pp"),
     @NamedQuery(name = "ProductoPrecio.findById", query = "SELECT pp FROM ProductoPrecio pp WHERE pp.idProductoPrecio = :idProductoPrecio"),
+    @NamedQuery(name = "ProductoPrecio.findByIds", query = "SELECT pp FROM ProductoPrecio pp WHERE pp.idProductoPrecio IN :ids"),
     @NamedQuery(name = "ProductoPrecio.findByIdProducto", query = "SELECT pp FROM ProductoPrecio pp WHERE pp.idProducto = :idProducto"),
     @NamedQuery(name = "ProductoPrecio.findVigentesByFecha", query = "SELECT pp FROM ProductoPrecio pp WHERE (pp.fechaHasta IS NULL OR pp.fechaHasta >= :fecha) AND pp.fechaDesde <= :fecha"),
     @NamedQuery(name = "ProductoPrecio.findVigente", query = "SELECT pp FROM ProductoPrecio pp WHERE pp.idProducto = :idProducto AND (pp.fechaHasta IS NULL OR pp.fechaHasta >= :fecha) AND pp.fechaDesde <= :fecha")
@@ -35,7 +39,8 @@ public class ProductoPrecio implements Serializable {
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producto_precio_id_producto_precio_seq")
+    @SequenceGenerator(name = "producto_precio_id_producto_precio_seq", sequenceName = "producto_precio_id_producto_precio_seq", allocationSize = 1)
     @Column(name = "id_producto_precio")
     private Long idProductoPrecio;
     
@@ -53,7 +58,9 @@ public class ProductoPrecio implements Serializable {
     @Column(name = "precio_sugerido", precision = 8, scale = 2)
     private BigDecimal precioSugerido;
     
+    // Los productos de un bloque de precios se cargan con una sola consulta IN
     @ManyToOne
+    @BatchFetch(BatchFetchType.IN)
     @JoinColumn(name = "id_producto", insertable = false, updatable = false)
     private Producto producto;
     
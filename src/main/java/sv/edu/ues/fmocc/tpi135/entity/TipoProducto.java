@@ -8,6 +8,7 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.NamedQueries;
 import javax.persistence.NamedQuery;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 
 /**
@@ -26,7 +27,8 @@ public class TipoProducto implements Serializable {
     private static final long serialVersionUID = 1L;
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tipo_producto_id_tipo_producto_seq")
+    @SequenceGenerator(name = "tipo_producto_id_tipo_producto_seq", sequenceName = "tipo_producto_id_tipo_producto_seq", allocationSize = 1)
     @Column(name = "id_tipo_producto")
     private Integer idTipoProducto;
     
@@ -0,0 +1,133 @@
+package sv.edu.ues.fmocc.tpi135.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.NamedQueries;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+
+/**
+ * Entidad JPA con los contadores de venta acumulados por fecha, sucursal y producto.
+ * Solo considera órdenes no anuladas y se actualiza con incrementos en la misma
+ * transacción que crea, modifica, anula o elimina cada orden.
+ */
+@Entity
+@Table(name = "venta_producto_diaria")
+@IdClass(VentaProductoDiariaPK.class)
+@NamedQueries({
+    @NamedQuery(name = "VentaProductoDiaria.findByRango", query = "SELECT v FROM VentaProductoDiaria v WHERE v.fecha BETWEEN :desde AND :hasta ORDER BY v.fecha, v.sucursal, v.idProducto"),
+    @NamedQuery(name = "VentaProductoDiaria.findByRangoAndSucursal", query = "SELECT v FROM VentaProductoDiaria v WHERE v.fecha BETWEEN :desde AND :hasta AND v.sucursal = :sucursal ORDER BY v.fecha, v.idProducto")
+})
+public class VentaProductoDiaria implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    
+    @Id
+    @Column(name = "fecha")
+    @Temporal(TemporalType.DATE)
+    private Date fecha;
+    
+    @Id
+    @Column(name = "sucursal", length = 5)
+    private String sucursal;
+    
+    @Id
+    @Column(name = "id_producto")
+    private Long idProducto;
+    
+    @Column(name = "cantidad", nullable = false)
+    private Long cantidad;
+    
+    @Column(name = "total", precision = 14, scale = 2, nullable = false)
+    private BigDecimal total;
+    
+    @Column(name = "lineas", nullable = false)
+    private Long lineas;
+    
+    public VentaProductoDiaria() {
+    }
+    
+    public VentaProductoDiaria(Date fecha, String sucursal, Long idProducto, Long cantidad, BigDecimal total, Long lineas) {
+        this.fecha = fecha;
+        this.sucursal = sucursal;
+        this.idProducto = idProducto;
+        this.cantidad = cantidad;
+        this.total = total;
+        this.lineas = lineas;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public void setSucursal(String sucursal) {
+        this.sucursal = sucursal;
+    }
+
+    public Long getIdProducto() {
+        return idProducto;
+    }
+
+    public void setIdProducto(Long idProducto) {
+        this.idProducto = idProducto;
+    }
+
+    public Long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Long cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    public Long getLineas() {
+        return lineas;
+    }
+
+    public void setLineas(Long lineas) {
+        this.lineas = lineas;
+    }
+
+    @Override
+    public int hashCode() {
+        return new VentaProductoDiariaPK(fecha, sucursal, idProducto).hashCode();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof VentaProductoDiaria)) {
+            return false;
+        }
+        VentaProductoDiaria other = (VentaProductoDiaria) object;
+        return new VentaProductoDiariaPK(fecha, sucursal, idProducto)
+                .equals(new VentaProductoDiariaPK(other.fecha, other.sucursal, other.idProducto));
+    }
+
+    @Override
+    public String toString() {
+        return "sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiaria[ fecha=" + fecha + ", sucursal=" + sucursal + ", idProducto=" + idProducto + " ]";
+    }
+}
@@ -0,0 +1,97 @@
+package sv.edu.ues.fmocc.tpi135.entity;
+
+import java.io.Serializable;
+import java.util.Date;
+
+/**
+ * Clase para representar la clave primaria compuesta de VentaProductoDiaria.
+ */
+public class VentaProductoDiariaPK implements Serializable, Comparable<VentaProductoDiariaPK> {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private Date fecha;
+    private String sucursal;
+    private Long idProducto;
+    
+    public VentaProductoDiariaPK() {
+    }
+    
+    public VentaProductoDiariaPK(Date fecha, String sucursal, Long idProducto) {
+        this.fecha = fecha;
+        this.sucursal = sucursal;
+        this.idProducto = idProducto;
+    }
+
+    public Date getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(Date fecha) {
+        this.fecha = fecha;
+    }
+
+    public String getSucursal() {
+        return sucursal;
+    }
+
+    public void setSucursal(String sucursal) {
+        this.sucursal = sucursal;
+    }
+
+    public Long getIdProducto() {
+        return idProducto;
+    }
+
+    public void setIdProducto(Long idProducto) {
+        this.idProducto = idProducto;
+    }
+    
+    /**
+     * Orden natural (fecha, sucursal, producto); las escrituras de varios
+     * contadores se aplican en este orden para no provocar bloqueos mutuos
+     */
+    @Override
+    public int compareTo(VentaProductoDiariaPK otra) {
+        int comparacion = Long.compare(fecha.getTime(), otra.fecha.getTime());
+        if (comparacion == 0) {
+            comparacion = sucursal.compareTo(otra.sucursal);
+        }
+        if (comparacion == 0) {
+            comparacion = idProducto.compareTo(otra.idProducto);
+        }
+        return comparacion;
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        hash += (fecha != null ? Long.hashCode(fecha.getTime()) : 0);
+        hash += (sucursal != null ? sucursal.hashCode() : 0);
+        hash += (idProducto != null ? idProducto.hashCode() : 0);
+        return hash;
+    }
+    
+    @Override
+    public boolean equals(Object object) {
+        if (!(object instanceof VentaProductoDiariaPK)) {
+            return false;
+        }
+        VentaProductoDiariaPK other = (VentaProductoDiariaPK) object;
+        if ((this.fecha == null && other.fecha != null) || 
+                (this.fecha != null && (other.fecha == null || this.fecha.getTime() != other.fecha.getTime()))) {
+            return false;
+        }
+        if ((this.sucursal == null && other.sucursal != null) || 
+                (this.sucursal != null && !this.sucursal.equals(other.sucursal))) {
+            return false;
+        }
+        return !((this.idProducto == null && other.idProducto != null) || 
+                (this.idProducto != null && !this.idProducto.equals(other.idProducto)));
+    }
+    
+    @Override
+    public String toString() {
+        return "sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiariaPK[ fecha=" + fecha + ", sucursal=" + sucursal + ", idProducto=" + idProducto + " ]";
+    }
+}
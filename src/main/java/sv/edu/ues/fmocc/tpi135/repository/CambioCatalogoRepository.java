@@ -0,0 +1,36 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.List;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
+
+/**
+ * Interfaz que define las operaciones de persistencia para el registro de
+ * cambios del catálogo
+ */
+public interface CambioCatalogoRepository {
+    
+    /**
+     * Agrega un cambio con la siguiente versión. Debe llamarse dentro de la
+     * transacción que modifica la fila; las escrituras concurrentes del catálogo
+     * esperan a que esta se confirme, por lo que las versiones se confirman en orden.
+     * El cambio se publica como evento CDI.
+     * @param entidad Nombre de la entidad modificada (constantes de CambioCatalogo)
+     * @param idEntidad ID de la fila modificada
+     * @param operacion CambioCatalogo.GUARDADO o CambioCatalogo.ELIMINADO
+     * @return Cambio registrado con su versión
+     */
+    CambioCatalogo registrar(String entidad, Long idEntidad, String operacion);
+    
+    /**
+     * Busca los cambios posteriores a una versión
+     * @param version Última versión conocida por el cliente
+     * @param limite Cantidad máxima de cambios a devolver
+     * @return Cambios ordenados por versión
+     */
+    List<CambioCatalogo> buscarDesde(long version, int limite);
+    
+    /**
+     * Versión del último cambio registrado, o 0 si no hay ninguno
+     */
+    long buscarVersionActual();
+}
@@ -0,0 +1,67 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.Date;
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
+
+/**
+ * Implementación de CambioCatalogoRepository con JPA. Cada cambio registrado se
+ * publica además como evento CDI; los servicios del catálogo lo observan al
+ * confirmarse la transacción (TransactionPhase.AFTER_SUCCESS) para invalidar sus
+ * cachés cuando los datos nuevos ya son visibles.
+ */
+@ApplicationScoped
+@RequierePermisoBaseDatos
+public class CambioCatalogoRepositoryImpl implements CambioCatalogoRepository {
+    
+    /**
+     * Llave del bloqueo consultivo que ordena las escrituras del catálogo. Sin él,
+     * una transacción que tomó la versión N podría confirmarse después de otra con
+     * N + 1, y un terminal que ya leyó N + 1 nunca vería el cambio N.
+     */
+    private static final long LLAVE_BLOQUEO = 0x7469706963L;
+    
+    @PersistenceContext(unitName = "TipicosPU")
+    private EntityManager em;
+    
+    @Inject
+    private Event<CambioCatalogo> eventos;
+    
+    @Override
+    @Transactional
+    public CambioCatalogo registrar(String entidad, Long idEntidad, String operacion) {
+        // El bloqueo se libera al confirmar o revertir la transacción
+        em.createNativeQuery("SELECT pg_advisory_xact_lock(?1)")
+                .setParameter(1, LLAVE_BLOQUEO)
+                .getSingleResult();
+        Number version = (Number) em.createNativeQuery("SELECT nextval('catalogo_cambio_version_seq')")
+                .getSingleResult();
+        
+        CambioCatalogo cambio = new CambioCatalogo(version.longValue(), entidad, idEntidad, operacion, new Date());
+        em.persist(cambio);
+        eventos.fire(cambio);
+        return cambio;
+    }
+    
+    @Override
+    public List<CambioCatalogo> buscarDesde(long version, int limite) {
+        TypedQuery<CambioCatalogo> query = em.createNamedQuery("CambioCatalogo.findDesde", CambioCatalogo.class);
+        query.setParameter("version", version);
+        query.setMaxResults(limite);
+        return query.getResultList();
+    }
+    
+    @Override
+    public long buscarVersionActual() {
+        Long version = em.createNamedQuery("CambioCatalogo.findVersionActual", Long.class).getSingleResult();
+        return version != null ? version : 0;
+    }
+}
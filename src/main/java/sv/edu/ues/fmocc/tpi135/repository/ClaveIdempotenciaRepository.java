@@ -0,0 +1,54 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.Date;
+import java.util.Optional;
+import sv.edu.ues.fmocc.tpi135.entity.ClaveIdempotencia;
+
+/**
+ * Interfaz que define las operaciones de persistencia para las claves de
+ * idempotencia de la creación de órdenes y pagos
+ */
+public interface ClaveIdempotenciaRepository {
+    
+    /**
+     * Inserta la clave en estado EN_PROCESO si no existe. La inserción es atómica
+     * en la base de datos, por lo que entre solicitudes simultáneas, aunque
+     * lleguen a distintas instancias, solo una obtiene la reserva.
+     * @param clave Ámbito y clave
+     * @param huella Huella del cuerpo de la solicitud
+     * @return true si se reservó, false si la clave ya existía
+     */
+    boolean reservar(String clave, String huella);
+    
+    /**
+     * Busca una clave
+     * @param clave Ámbito y clave
+     * @return Clave con su estado y respuesta, si existe
+     */
+    Optional<ClaveIdempotencia> encontrarPorClave(String clave);
+    
+    /**
+     * Guarda la respuesta de una clave que sigue EN_PROCESO. Se ejecuta en la
+     * transacción de la creación, para que la clave se complete solo si la
+     * creación se confirma.
+     * @param clave Ámbito y clave
+     * @param estado Código de estado HTTP
+     * @param cuerpo Cuerpo de la respuesta en JSON
+     * @return true si la clave seguía en proceso y se completó
+     */
+    boolean completar(String clave, short estado, String cuerpo);
+    
+    /**
+     * Elimina una clave que sigue EN_PROCESO, para que la solicitud se pueda reintentar
+     * @param clave Ámbito y clave
+     * @return true si se eliminó
+     */
+    boolean liberar(String clave);
+    
+    /**
+     * Elimina las claves registradas antes de la fecha indicada
+     * @param fecha Fecha límite
+     * @return Cantidad de claves eliminadas
+     */
+    int eliminarAnteriores(Date fecha);
+}
@@ -0,0 +1,72 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.Date;
+import java.util.Optional;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
+import sv.edu.ues.fmocc.tpi135.entity.ClaveIdempotencia;
+
+/**
+ * Implementación de ClaveIdempotenciaRepository con JPA. La reserva y la
+ * liberación se llaman fuera de la transacción que crea la orden o el pago, de
+ * modo que la reserva es visible para las demás solicitudes antes de la
+ * creación; la clave se completa dentro de esa transacción.
+ */
+@ApplicationScoped
+@RequierePermisoBaseDatos
+public class ClaveIdempotenciaRepositoryImpl implements ClaveIdempotenciaRepository {
+    
+    @PersistenceContext(unitName = "TipicosPU")
+    private EntityManager em;
+    
+    @Override
+    @Transactional
+    public boolean reservar(String clave, String huella) {
+        // ON CONFLICT evita la excepción por clave duplicada, que marcaría la
+        // transacción para reversión
+        int insertadas = em.createNativeQuery("INSERT INTO idempotencia_clave (clave, huella, estado, fecha) "
+                + "VALUES (?1, ?2, ?3, ?4) ON CONFLICT (clave) DO NOTHING")
+                .setParameter(1, clave)
+                .setParameter(2, huella)
+                .setParameter(3, ClaveIdempotencia.EN_PROCESO)
+                .setParameter(4, new Date())
+                .executeUpdate();
+        return insertadas == 1;
+    }
+    
+    @Override
+    public Optional<ClaveIdempotencia> encontrarPorClave(String clave) {
+        return Optional.ofNullable(em.find(ClaveIdempotencia.class, clave));
+    }
+    
+    @Override
+    @Transactional
+    public boolean completar(String clave, short estado, String cuerpo) {
+        // La condición sobre el estado bloquea la fila: una liberación simultánea
+        // espera a esta transacción y ya no encuentra la clave en proceso
+        return em.createNamedQuery("ClaveIdempotencia.updateCompletada")
+                .setParameter("estado", estado)
+                .setParameter("cuerpo", cuerpo)
+                .setParameter("clave", clave)
+                .executeUpdate() > 0;
+    }
+    
+    @Override
+    @Transactional
+    public boolean liberar(String clave) {
+        return em.createNamedQuery("ClaveIdempotencia.deleteEnProceso")
+                .setParameter("clave", clave)
+                .executeUpdate() > 0;
+    }
+    
+    @Override
+    @Transactional
+    public int eliminarAnteriores(Date fecha) {
+        return em.createNamedQuery("ClaveIdempotencia.deleteAnteriores")
+                .setParameter("fecha", fecha)
+                .executeUpdate();
+    }
+}
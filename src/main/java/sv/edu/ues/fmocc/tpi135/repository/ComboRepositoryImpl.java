@@ -7,6 +7,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
 import sv.edu.ues.fmocc.tpi135.entity.Combo;
 import sv.edu.ues.fmocc.tpi135.repository.ComboRepository;
 
@@ -14,6 +15,7 @@ import sv.edu.ues.fmocc.tpi135.repository.ComboRepository;
  * Implementación de ComboRepository para operaciones CRUD con JPA
  */
 @ApplicationScoped
+@RequierePermisoBaseDatos
 public class ComboRepositoryImpl implements ComboRepository {
 
     @PersistenceContext(unitName = "TipicosPU")
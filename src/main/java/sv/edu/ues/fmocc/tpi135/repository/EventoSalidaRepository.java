@@ -0,0 +1,53 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.List;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
+
+/**
+ * Interfaz que define las operaciones de persistencia para la bandeja de salida
+ * de eventos de órdenes y pagos
+ */
+public interface EventoSalidaRepository {
+    
+    /**
+     * Agrega un evento sin posición. Debe llamarse dentro de la transacción que
+     * modifica el agregado, para que el evento exista si y solo si el cambio se confirma.
+     * @param agregado EventoSalida.ORDEN o EventoSalida.PAGO
+     * @param idAgregado ID de la orden o el pago
+     * @param tipo Tipo de evento
+     * @param datos Estado del agregado en JSON
+     * @return Evento registrado
+     */
+    EventoSalida registrar(String agregado, Long idAgregado, String tipo, String datos);
+    
+    /**
+     * Asigna posiciones consecutivas, en orden de ID, a los eventos confirmados que
+     * aún no la tienen. Solo una transacción a la vez puede asignar posiciones; si
+     * otra lo está haciendo, no asigna ninguna.
+     * @param limite Cantidad máxima de eventos a numerar
+     * @return Cantidad de eventos numerados
+     */
+    int asignarPosiciones(int limite);
+    
+    /**
+     * Busca los eventos con posición mayor a la indicada, en orden de posición
+     * @param posicion Última posición ya leída (0 para leer desde el inicio)
+     * @param limite Cantidad máxima de eventos a devolver
+     * @return Lista de eventos
+     */
+    List<EventoSalida> buscarDesde(long posicion, int limite);
+    
+    /**
+     * Obtiene la última posición entregada a un destino
+     * @param destino Nombre del destino
+     * @return Posición, o 0 si nunca se le entregó nada
+     */
+    long obtenerCursor(String destino);
+    
+    /**
+     * Guarda la última posición entregada a un destino
+     * @param destino Nombre del destino
+     * @param posicion Última posición entregada
+     */
+    void guardarCursor(String destino, long posicion);
+}
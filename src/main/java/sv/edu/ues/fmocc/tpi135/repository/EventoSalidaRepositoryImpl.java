@@ -0,0 +1,87 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.Date;
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
+import sv.edu.ues.fmocc.tpi135.entity.CursorSalida;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
+
+/**
+ * Implementación de EventoSalidaRepository con JPA. Las órdenes y pagos solo
+ * insertan filas, sin bloqueos compartidos; la numeración la hace el relevo
+ * fuera del camino de las solicitudes.
+ */
+@ApplicationScoped
+@RequierePermisoBaseDatos
+public class EventoSalidaRepositoryImpl implements EventoSalidaRepository {
+    
+    /**
+     * Llave del bloqueo consultivo que permite un solo numerador a la vez, aunque
+     * haya varias instancias de la aplicación
+     */
+    private static final long LLAVE_NUMERACION = 0x73616c696461L;
+    
+    @PersistenceContext(unitName = "TipicosPU")
+    private EntityManager em;
+    
+    @Override
+    @Transactional
+    public EventoSalida registrar(String agregado, Long idAgregado, String tipo, String datos) {
+        EventoSalida evento = new EventoSalida(agregado, idAgregado, tipo, datos, new Date());
+        em.persist(evento);
+        return evento;
+    }
+    
+    @Override
+    @Transactional
+    public int asignarPosiciones(int limite) {
+        // El bloqueo se libera al confirmar o revertir la transacción
+        Boolean obtenido = (Boolean) em.createNativeQuery("SELECT pg_try_advisory_xact_lock(?1)")
+                .setParameter(1, LLAVE_NUMERACION)
+                .getSingleResult();
+        if (!Boolean.TRUE.equals(obtenido)) {
+            return 0;
+        }
+        
+        // Solo se ven las filas ya confirmadas; las que se confirmen después
+        // reciben una posición posterior en la siguiente pasada
+        TypedQuery<EventoSalida> query = em.createNamedQuery("EventoSalida.findPendientes", EventoSalida.class);
+        query.setMaxResults(limite);
+        List<EventoSalida> pendientes = query.getResultList();
+        if (pendientes.isEmpty()) {
+            return 0;
+        }
+        
+        Long ultima = em.createNamedQuery("EventoSalida.findUltimaPosicion", Long.class).getSingleResult();
+        long posicion = ultima != null ? ultima : 0;
+        for (EventoSalida evento : pendientes) {
+            evento.setPosicion(++posicion);
+        }
+        return pendientes.size();
+    }
+    
+    @Override
+    public List<EventoSalida> buscarDesde(long posicion, int limite) {
+        TypedQuery<EventoSalida> query = em.createNamedQuery("EventoSalida.findDesde", EventoSalida.class);
+        query.setParameter("posicion", posicion);
+        query.setMaxResults(limite);
+        return query.getResultList();
+    }
+    
+    @Override
+    public long obtenerCursor(String destino) {
+        CursorSalida cursor = em.find(CursorSalida.class, destino);
+        return cursor != null ? cursor.getPosicion() : 0;
+    }
+    
+    @Override
+    @Transactional
+    public void guardarCursor(String destino, long posicion) {
+        em.merge(new CursorSalida(destino, posicion, new Date()));
+    }
+}
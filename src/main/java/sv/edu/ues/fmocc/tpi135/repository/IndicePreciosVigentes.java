@@ -0,0 +1,270 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+
+/**
+ * Índice en memoria de los precios de producto, organizado por producto como
+ * una lista de intervalos de vigencia ordenados por fecha de inicio.
+ * Responde "precio del producto X en la fecha D" con una búsqueda binaria sin
+ * reservar memoria, aplicando la misma regla que la consulta
+ * ProductoPrecio.findVigente: fechaDesde &lt;= D y (fechaHasta nula o &gt;= D),
+ * comparando solo la parte de fecha.
+ *
+ * Guarda copias separadas del contexto de persistencia, sin la relación con
+ * Producto, por lo que sus valores no cambian con las entidades que modifica
+ * una transacción; quienes consultan el índice no deben modificarlos.
+ */
+final class IndicePreciosVigentes {
+
+    private static final long MILIS_POR_DIA = 86_400_000L;
+
+    private static final TimeZone ZONA = TimeZone.getDefault();
+
+    private final Map<Long, Intervalos> porProducto = new ConcurrentHashMap<>();
+
+    private final Map<Long, ProductoPrecio> porId = new ConcurrentHashMap<>();
+
+    private volatile boolean cargado;
+
+    /**
+     * Indica si el índice ya fue poblado con todos los precios
+     */
+    boolean estaCargado() {
+        return cargado;
+    }
+
+    /**
+     * Reemplaza el contenido del índice con la lista completa de precios
+     * @param precios Todos los precios de producto registrados
+     */
+    synchronized void cargar(Collection<ProductoPrecio> precios) {
+        Map<Long, List<ProductoPrecio>> agrupados = new HashMap<>();
+        for (ProductoPrecio precio : precios) {
+            if (precio.getIdProducto() != null) {
+                agrupados.computeIfAbsent(precio.getIdProducto(), k -> new ArrayList<>()).add(copiar(precio));
+            }
+        }
+
+        porProducto.clear();
+        porId.clear();
+        agrupados.forEach(this::reemplazarProducto);
+        cargado = true;
+    }
+
+    /**
+     * Reemplaza los intervalos de un producto con su lista actual de precios
+     * @param idProducto ID del producto
+     * @param precios Precios actuales del producto; vacía si ya no tiene
+     */
+    synchronized void reemplazarProducto(Long idProducto, List<ProductoPrecio> precios) {
+        if (precios != null) {
+            List<ProductoPrecio> copias = new ArrayList<>(precios.size());
+            for (ProductoPrecio precio : precios) {
+                copias.add(copiar(precio));
+            }
+            precios = copias;
+        }
+        Intervalos anteriores = precios == null || precios.isEmpty()
+                ? porProducto.remove(idProducto)
+                : porProducto.put(idProducto, new Intervalos(precios));
+
+        Set<Long> vigentes = new HashSet<>();
+        if (precios != null) {
+            for (ProductoPrecio precio : precios) {
+                porId.put(precio.getIdProductoPrecio(), precio);
+                vigentes.add(precio.getIdProductoPrecio());
+            }
+        }
+        if (anteriores != null) {
+            for (ProductoPrecio precio : anteriores.precios) {
+                if (!vigentes.contains(precio.getIdProductoPrecio())) {
+                    porId.remove(precio.getIdProductoPrecio());
+                }
+            }
+        }
+    }
+
+    /**
+     * Copia los campos de un precio en una instancia nueva, que no pertenece a
+     * ningún contexto de persistencia
+     */
+    private static ProductoPrecio copiar(ProductoPrecio precio) {
+        return new ProductoPrecio(precio.getIdProductoPrecio(), precio.getIdProducto(),
+                precio.getFechaDesde() != null ? new Date(precio.getFechaDesde().getTime()) : null,
+                precio.getFechaHasta() != null ? new Date(precio.getFechaHasta().getTime()) : null,
+                precio.getPrecioSugerido());
+    }
+
+    /**
+     * Busca un precio por su ID
+     * @param idProductoPrecio ID del precio
+     * @return El precio o null si no está en el índice
+     */
+    ProductoPrecio buscarPorId(Long idProductoPrecio) {
+        return idProductoPrecio != null ? porId.get(idProductoPrecio) : null;
+    }
+
+    /**
+     * Busca el precio vigente de un producto en una fecha
+     * @param idProducto ID del producto
+     * @param fecha Fecha de vigencia a considerar
+     * @return El precio vigente o null si no hay ninguno
+     */
+    ProductoPrecio buscarVigente(Long idProducto, Date fecha) {
+        if (idProducto == null || fecha == null) {
+            return null;
+        }
+        Intervalos intervalos = porProducto.get(idProducto);
+        return intervalos != null ? intervalos.vigente(dia(fecha)) : null;
+    }
+
+    /**
+     * Lista los precios vigentes de todos los productos en una fecha
+     * @param fecha Fecha de vigencia a considerar
+     * @return Lista con los precios vigentes
+     */
+    List<ProductoPrecio> buscarVigentes(Date fecha) {
+        List<ProductoPrecio> resultado = new ArrayList<>();
+        if (fecha == null) {
+            return resultado;
+        }
+        long dia = dia(fecha);
+        for (Intervalos intervalos : porProducto.values()) {
+            intervalos.agregarVigentes(dia, resultado);
+        }
+        return resultado;
+    }
+
+    /**
+     * Busca el primer día posterior a una fecha en que un precio empieza o deja
+     * de estar vigente, es decir, en que cambia el resultado de buscarVigentes
+     * @param fecha Fecha de referencia
+     * @return Inicio de ese día en la zona horaria por defecto, o null si no hay ninguno
+     */
+    Date proximoCambioVigencia(Date fecha) {
+        if (fecha == null) {
+            return null;
+        }
+        long dia = dia(fecha);
+        long proximo = Long.MAX_VALUE;
+        for (Intervalos intervalos : porProducto.values()) {
+            proximo = Math.min(proximo, intervalos.proximoCambio(dia));
+        }
+        return proximo != Long.MAX_VALUE
+                ? Date.from(LocalDate.ofEpochDay(proximo).atStartOfDay(ZONA.toZoneId()).toInstant())
+                : null;
+    }
+
+    /**
+     * Convierte una fecha al número de día en la zona horaria por defecto,
+     * igual que hace JDBC al enviar un parámetro de tipo DATE
+     */
+    static long dia(Date fecha) {
+        long milis = fecha.getTime();
+        return Math.floorDiv(milis + ZONA.getOffset(milis), MILIS_POR_DIA);
+    }
+
+    /**
+     * Intervalos de vigencia de un producto, ordenados por día de inicio.
+     * hastaMaximo[i] guarda el mayor día de fin entre los intervalos 0..i, lo
+     * que permite cortar la búsqueda hacia atrás cuando hay traslapes.
+     */
+    private static final class Intervalos {
+
+        private final long[] desde;
+        private final long[] hastaMaximo;
+        private final long[] hasta;
+        private final ProductoPrecio[] precios;
+
+        Intervalos(List<ProductoPrecio> lista) {
+            List<ProductoPrecio> ordenada = new ArrayList<>();
+            for (ProductoPrecio precio : lista) {
+                if (precio.getFechaDesde() != null) {
+                    ordenada.add(precio);
+                }
+            }
+            ordenada.sort(Comparator.comparingLong((ProductoPrecio p) -> dia(p.getFechaDesde()))
+                    .thenComparing(ProductoPrecio::getIdProductoPrecio, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+            int n = ordenada.size();
+            desde = new long[n];
+            hasta = new long[n];
+            hastaMaximo = new long[n];
+            precios = ordenada.toArray(new ProductoPrecio[n]);
+
+            long maximo = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++) {
+                ProductoPrecio precio = precios[i];
+                desde[i] = dia(precio.getFechaDesde());
+                hasta[i] = precio.getFechaHasta() != null ? dia(precio.getFechaHasta()) : Long.MAX_VALUE;
+                maximo = Math.max(maximo, hasta[i]);
+                hastaMaximo[i] = maximo;
+            }
+        }
+
+        /**
+         * Devuelve el intervalo vigente con el inicio más reciente
+         */
+        ProductoPrecio vigente(long dia) {
+            for (int i = ultimoQueIniciaAntes(dia); i >= 0 && hastaMaximo[i] >= dia; i--) {
+                if (hasta[i] >= dia) {
+                    return precios[i];
+                }
+            }
+            return null;
+        }
+
+        void agregarVigentes(long dia, List<ProductoPrecio> resultado) {
+            for (int i = ultimoQueIniciaAntes(dia); i >= 0 && hastaMaximo[i] >= dia; i--) {
+                if (hasta[i] >= dia) {
+                    resultado.add(precios[i]);
+                }
+            }
+        }
+
+        /**
+         * Primer día posterior a dia en que un intervalo inicia o en que termina
+         * (el día siguiente a su fin), o Long.MAX_VALUE si no hay ninguno
+         */
+        long proximoCambio(long dia) {
+            int siguiente = ultimoQueIniciaAntes(dia) + 1;
+            long proximo = siguiente < desde.length ? desde[siguiente] : Long.MAX_VALUE;
+            // Los intervalos que inician después terminan después de su propio inicio
+            for (int i = 0; i < siguiente; i++) {
+                if (hasta[i] >= dia && hasta[i] != Long.MAX_VALUE) {
+                    proximo = Math.min(proximo, hasta[i] + 1);
+                }
+            }
+            return proximo;
+        }
+
+        /**
+         * Posición del último intervalo cuyo día de inicio es &lt;= dia, o -1
+         */
+        private int ultimoQueIniciaAntes(long dia) {
+            int bajo = 0;
+            int alto = desde.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (desde[medio] <= dia) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio - 1;
+                }
+            }
+            return alto;
+        }
+    }
+}
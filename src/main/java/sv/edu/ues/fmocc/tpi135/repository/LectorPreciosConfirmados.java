@@ -0,0 +1,32 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+
+/**
+ * Lee los precios para cargar el índice de ProductoPrecioRepositoryImpl fuera de
+ * la transacción de quien hace la primera consulta. Dentro de ella la lectura
+ * incluiría los precios que esa transacción ya escribió, que el índice
+ * conservaría aunque luego se reviertan.
+ */
+@ApplicationScoped
+public class LectorPreciosConfirmados {
+
+    @PersistenceContext(unitName = "TipicosPU")
+    private EntityManager em;
+
+    /**
+     * Lista todos los precios confirmados, suspendiendo la transacción en curso
+     * @return Precios confirmados
+     */
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public List<ProductoPrecio> listarTodos() {
+        TypedQuery<ProductoPrecio> query = em.createNamedQuery("ProductoPrecio.findAll", ProductoPrecio.class);
+        return query.getResultList();
+    }
+}
@@ -1,5 +1,6 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import sv.edu.ues.fmocc.tpi135.entity.OrdenDetalle;
@@ -17,6 +18,23 @@ public interface OrdenDetalleRepository {
      */
     OrdenDetalle crear(OrdenDetalle ordenDetalle);
     
+    /**
+     * Guarda varios detalles de orden sin sincronizar fila por fila; los INSERT
+     * se envían agrupados al sincronizar o confirmar la transacción
+     * @param detalles Entidades a guardar
+     * @return Detalles guardados
+     */
+    List<OrdenDetalle> crearLote(List<OrdenDetalle> detalles);
+    
+    /**
+     * Aplica los cambios calculados sobre los detalles de la orden sin sincronizar
+     * fila por fila; las sentencias se envían agrupadas al confirmar la transacción
+     * @param nuevos Detalles a insertar
+     * @param modificados Detalles existentes con datos actualizados
+     * @param eliminados Detalles existentes a eliminar
+     */
+    void aplicarCambios(List<OrdenDetalle> nuevos, List<OrdenDetalle> modificados, List<OrdenDetalle> eliminados);
+    
     /**
      * Actualiza un detalle de orden existente
      * @param ordenDetalle OrdenDetalle con los datos actualizados
@@ -52,6 +70,13 @@ public interface OrdenDetalleRepository {
      */
     List<OrdenDetalle> buscarPorIdOrden(Long idOrden);
     
+    /**
+     * Busca en bloque los detalles de varias órdenes
+     * @param idsOrden IDs de las órdenes a buscar
+     * @return Lista de detalles que pertenecen a cualquiera de las órdenes, ordenada por ID de orden
+     */
+    List<OrdenDetalle> buscarPorIdsOrden(Collection<Long> idsOrden);
+    
     /**
      * Busca detalles de órdenes por ID de producto-precio
      * @param idProductoPrecio ID del producto-precio a buscar
@@ -1,5 +1,7 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import javax.enterprise.context.ApplicationScoped;
@@ -10,6 +12,7 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.Root;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
 import sv.edu.ues.fmocc.tpi135.entity.OrdenDetalle;
 import sv.edu.ues.fmocc.tpi135.entity.OrdenDetallePK;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepository;
@@ -18,8 +21,14 @@ import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepository;
  * Implementación de OrdenDetalleRepository para operaciones CRUD con JPA
  */
 @ApplicationScoped
+@RequierePermisoBaseDatos
 public class OrdenDetalleRepositoryImpl implements OrdenDetalleRepository {
     
+    /**
+     * Cantidad máxima de IDs enviados en una sola lista IN
+     */
+    private static final int TAMANIO_LOTE_IN = 1000;
+    
     @PersistenceContext(unitName = "TipicosPU")
     private EntityManager em;
     
@@ -27,10 +36,32 @@ public class OrdenDetalleRepositoryImpl implements OrdenDetalleRepository {
     @Transactional
     public OrdenDetalle crear(OrdenDetalle ordenDetalle) {
         em.persist(ordenDetalle);
-        em.flush();
         return ordenDetalle;
     }
     
+    @Override
+    @Transactional
+    public List<OrdenDetalle> crearLote(List<OrdenDetalle> detalles) {
+        for (OrdenDetalle detalle : detalles) {
+            em.persist(detalle);
+        }
+        return detalles;
+    }
+    
+    @Override
+    @Transactional
+    public void aplicarCambios(List<OrdenDetalle> nuevos, List<OrdenDetalle> modificados, List<OrdenDetalle> eliminados) {
+        for (OrdenDetalle detalle : eliminados) {
+            em.remove(em.contains(detalle) ? detalle : em.merge(detalle));
+        }
+        for (OrdenDetalle detalle : modificados) {
+            em.merge(detalle);
+        }
+        for (OrdenDetalle detalle : nuevos) {
+            em.persist(detalle);
+        }
+    }
+    
     @Override
     @Transactional
     public OrdenDetalle actualizar(OrdenDetalle ordenDetalle) {
@@ -62,6 +93,22 @@ public class OrdenDetalleRepositoryImpl implements OrdenDetalleRepository {
         return query.getResultList();
     }
     
+    @Override
+    public List<OrdenDetalle> buscarPorIdsOrden(Collection<Long> idsOrden) {
+        List<OrdenDetalle> resultado = new ArrayList<>();
+        if (idsOrden == null || idsOrden.isEmpty()) {
+            return resultado;
+        }
+        
+        List<Long> ids = new ArrayList<>(idsOrden);
+        for (int i = 0; i < ids.size(); i += TAMANIO_LOTE_IN) {
+            TypedQuery<OrdenDetalle> query = em.createNamedQuery("OrdenDetalle.findByIdsOrden", OrdenDetalle.class);
+            query.setParameter("idsOrden", ids.subList(i, Math.min(i + TAMANIO_LOTE_IN, ids.size())));
+            resultado.addAll(query.getResultList());
+        }
+        return resultado;
+    }
+    
     @Override
     public List<OrdenDetalle> buscarPorIdProductoPrecio(Long idProductoPrecio) {
         TypedQuery<OrdenDetalle> query = em.createNamedQuery("OrdenDetalle.findByIdProductoPrecio", OrdenDetalle.class);
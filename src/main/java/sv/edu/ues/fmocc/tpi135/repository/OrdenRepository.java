@@ -17,6 +17,14 @@ public interface OrdenRepository {
      */
     Orden crear(Orden orden);
     
+    /**
+     * Guarda varias órdenes sin sincronizar fila por fila; los INSERT
+     * se envían agrupados al sincronizar o confirmar la transacción
+     * @param ordenes Entidades a guardar
+     * @return Órdenes guardadas con sus IDs generados
+     */
+    List<Orden> crearLote(List<Orden> ordenes);
+    
     /**
      * Actualiza una orden existente
      * @param orden Orden con los datos actualizados
@@ -31,6 +39,15 @@ public interface OrdenRepository {
      */
     Optional<Orden> encontrarPorId(Long id);
     
+    /**
+     * Busca una orden por su ID y bloquea su fila (SELECT … FOR UPDATE) hasta el
+     * fin de la transacción en curso, para que las modificaciones simultáneas de
+     * la misma orden se apliquen una tras otra sobre el estado confirmado
+     * @param id ID de la orden a buscar
+     * @return Optional con la orden bloqueada o vacío si no existe
+     */
+    Optional<Orden> encontrarParaActualizar(Long id);
+    
     /**
      * Lista todas las órdenes
      * @return Lista de órdenes
@@ -58,6 +75,42 @@ public interface OrdenRepository {
      */
     List<Orden> buscarPorAnulada(Boolean anulada);
     
+    /**
+     * Obtiene una página de órdenes ordenadas por ID usando paginación por cursor
+     * (WHERE id_orden &gt; :despuesDe ORDER BY id_orden LIMIT n)
+     * @param despuesDe Último ID entregado en la página anterior (0 para la primera página)
+     * @param fecha Filtro opcional por fecha, puede ser nulo
+     * @param sucursal Filtro opcional por sucursal, puede ser nulo
+     * @param anulada Filtro opcional por estado de anulación, puede ser nulo
+     * @param limite Cantidad máxima de órdenes a devolver
+     * @return Lista de órdenes con ID mayor al cursor que cumplen todos los filtros
+     */
+    List<Orden> buscarPagina(long despuesDe, Date fecha, String sucursal, Boolean anulada, int limite);
+    
+    /**
+     * Obtiene el siguiente bloque de órdenes para una exportación masiva.
+     * Los filtros se aplican en SQL y el contexto de persistencia se limpia antes
+     * de cada bloque para que la memoria usada no dependa del total de filas.
+     * @param despuesDe Último ID exportado (0 para el primer bloque)
+     * @param desde Fecha inicial inclusiva, puede ser nula
+     * @param hasta Fecha final inclusiva, puede ser nula
+     * @param sucursal Sucursal a exportar, puede ser nula
+     * @param limite Tamaño máximo del bloque
+     * @return Lista de órdenes ordenadas por ID
+     */
+    List<Orden> buscarBloqueExportacion(long despuesDe, Date desde, Date hasta, String sucursal, int limite);
+    
+    /**
+     * Resume las ventas por fecha y sucursal con una sola consulta de agregación
+     * sobre orden y orden_detalle
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @param sucursal Sucursal a resumir, puede ser nula para todas
+     * @return Filas ordenadas por fecha y sucursal con las columnas
+     *         [fecha, sucursal, ordenes, anuladas, total de órdenes no anuladas]
+     */
+    List<Object[]> resumirVentas(Date desde, Date hasta, String sucursal);
+    
     /**
      * Anula una orden por su ID
      * @param id ID de la orden a anular
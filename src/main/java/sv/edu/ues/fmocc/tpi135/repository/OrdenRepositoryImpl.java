@@ -1,13 +1,22 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import javax.enterprise.context.ApplicationScoped;
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
 
@@ -15,6 +24,7 @@ import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
  * Implementación de OrdenRepository para operaciones CRUD con JPA
  */
 @ApplicationScoped
+@RequierePermisoBaseDatos
 public class OrdenRepositoryImpl implements OrdenRepository {
     
     @PersistenceContext(unitName = "TipicosPU")
@@ -24,10 +34,18 @@ public class OrdenRepositoryImpl implements OrdenRepository {
     @Transactional
     public Orden crear(Orden orden) {
         em.persist(orden);
-        em.flush();
         return orden;
     }
     
+    @Override
+    @Transactional
+    public List<Orden> crearLote(List<Orden> ordenes) {
+        for (Orden orden : ordenes) {
+            em.persist(orden);
+        }
+        return ordenes;
+    }
+    
     @Override
     @Transactional
     public Orden actualizar(Orden orden) {
@@ -40,6 +58,12 @@ public class OrdenRepositoryImpl implements OrdenRepository {
         return Optional.ofNullable(orden);
     }
     
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public Optional<Orden> encontrarParaActualizar(Long id) {
+        return Optional.ofNullable(em.find(Orden.class, id, LockModeType.PESSIMISTIC_WRITE));
+    }
+    
     @Override
     public List<Orden> listarTodas() {
         TypedQuery<Orden> query = em.createNamedQuery("Orden.findAll", Orden.class);
@@ -67,6 +91,86 @@ public class OrdenRepositoryImpl implements OrdenRepository {
         return query.getResultList();
     }
     
+    @Override
+    public List<Orden> buscarPagina(long despuesDe, Date fecha, String sucursal, Boolean anulada, int limite) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Orden> cq = cb.createQuery(Orden.class);
+        Root<Orden> root = cq.from(Orden.class);
+        
+        List<Predicate> condiciones = new ArrayList<>();
+        condiciones.add(cb.greaterThan(root.get("idOrden"), despuesDe));
+        if (fecha != null) {
+            condiciones.add(cb.equal(root.<Date>get("fecha"), fecha));
+        }
+        if (sucursal != null) {
+            condiciones.add(cb.equal(root.get("sucursal"), sucursal));
+        }
+        if (anulada != null) {
+            condiciones.add(cb.equal(root.get("anulada"), anulada));
+        }
+        cq.select(root)
+                .where(condiciones.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("idOrden")));
+        
+        TypedQuery<Orden> query = em.createQuery(cq);
+        query.setMaxResults(limite);
+        return query.getResultList();
+    }
+    
+    @Override
+    public List<Orden> buscarBloqueExportacion(long despuesDe, Date desde, Date hasta, String sucursal, int limite) {
+        // Liberar las entidades del bloque anterior
+        em.clear();
+        
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Orden> cq = cb.createQuery(Orden.class);
+        Root<Orden> root = cq.from(Orden.class);
+        
+        List<Predicate> condiciones = new ArrayList<>();
+        condiciones.add(cb.greaterThan(root.get("idOrden"), despuesDe));
+        if (desde != null) {
+            condiciones.add(cb.greaterThanOrEqualTo(root.<Date>get("fecha"), desde));
+        }
+        if (hasta != null) {
+            condiciones.add(cb.lessThanOrEqualTo(root.<Date>get("fecha"), hasta));
+        }
+        if (sucursal != null && !sucursal.trim().isEmpty()) {
+            condiciones.add(cb.equal(root.get("sucursal"), sucursal));
+        }
+        cq.select(root)
+                .where(condiciones.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("idOrden")));
+        
+        TypedQuery<Orden> query = em.createQuery(cq);
+        query.setMaxResults(limite);
+        query.setHint("eclipselink.jdbc.fetch-size", limite);
+        query.setHint("eclipselink.read-only", "true");
+        return query.getResultList();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> resumirVentas(Date desde, Date hasta, String sucursal) {
+        boolean porSucursal = sucursal != null && !sucursal.trim().isEmpty();
+        
+        // Cada orden se cuenta una vez aunque se una con varios detalles
+        String sql = "SELECT o.fecha, o.sucursal, COUNT(DISTINCT o.id_orden), "
+                + "COUNT(DISTINCT CASE WHEN o.anulada = TRUE THEN o.id_orden END), "
+                + "COALESCE(SUM(CASE WHEN o.anulada = TRUE THEN 0 ELSE d.cantidad * d.precio END), 0) "
+                + "FROM orden o LEFT JOIN orden_detalle d ON d.id_orden = o.id_orden "
+                + "WHERE o.fecha BETWEEN ?1 AND ?2"
+                + (porSucursal ? " AND o.sucursal = ?3" : "")
+                + " GROUP BY o.fecha, o.sucursal ORDER BY o.fecha, o.sucursal";
+        
+        Query query = em.createNativeQuery(sql);
+        query.setParameter(1, desde, TemporalType.DATE);
+        query.setParameter(2, hasta, TemporalType.DATE);
+        if (porSucursal) {
+            query.setParameter(3, sucursal);
+        }
+        return query.getResultList();
+    }
+    
     @Override
     @Transactional
     public boolean anular(Long id) {
@@ -1,5 +1,6 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import sv.edu.ues.fmocc.tpi135.entity.PagoDetalle;
@@ -16,6 +17,15 @@ public interface PagoDetalleRepository {
      */
     PagoDetalle crear(PagoDetalle pagoDetalle);
     
+    /**
+     * Aplica los cambios calculados sobre los detalles del pago sin sincronizar
+     * fila por fila; las sentencias se envían agrupadas al confirmar la transacción
+     * @param nuevos Detalles a insertar
+     * @param modificados Detalles existentes con datos actualizados
+     * @param eliminados Detalles existentes a eliminar
+     */
+    void aplicarCambios(List<PagoDetalle> nuevos, List<PagoDetalle> modificados, List<PagoDetalle> eliminados);
+    
     /**
      * Actualiza un detalle de pago existente
      * @param pagoDetalle PagoDetalle con los datos actualizados
@@ -43,6 +53,13 @@ public interface PagoDetalleRepository {
      */
     List<PagoDetalle> buscarPorIdPago(Long idPago);
     
+    /**
+     * Busca en bloque los detalles de varios pagos
+     * @param idsPago IDs de los pagos a buscar
+     * @return Lista de detalles que pertenecen a cualquiera de los pagos, ordenada por ID de pago
+     */
+    List<PagoDetalle> buscarPorIdsPago(Collection<Long> idsPago);
+    
     /**
      * Elimina un detalle de pago por su ID
      * @param id ID del detalle de pago a eliminar
@@ -1,5 +1,7 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import javax.enterprise.context.ApplicationScoped;
@@ -10,6 +12,7 @@ import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaDelete;
 import javax.persistence.criteria.Root;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
 import sv.edu.ues.fmocc.tpi135.entity.PagoDetalle;
 import sv.edu.ues.fmocc.tpi135.repository.PagoDetalleRepository;
 
@@ -17,8 +20,14 @@ import sv.edu.ues.fmocc.tpi135.repository.PagoDetalleRepository;
  * Implementación de PagoDetalleRepository para operaciones CRUD con JPA
  */
 @ApplicationScoped
+@RequierePermisoBaseDatos
 public class PagoDetalleRepositoryImpl implements PagoDetalleRepository {
     
+    /**
+     * Cantidad máxima de IDs enviados en una sola lista IN
+     */
+    private static final int TAMANIO_LOTE_IN = 1000;
+    
     @PersistenceContext(unitName = "TipicosPU")
     private EntityManager em;
     
@@ -26,10 +35,23 @@ public class PagoDetalleRepositoryImpl implements PagoDetalleRepository {
     @Transactional
     public PagoDetalle crear(PagoDetalle pagoDetalle) {
         em.persist(pagoDetalle);
-        em.flush();
         return pagoDetalle;
     }
     
+    @Override
+    @Transactional
+    public void aplicarCambios(List<PagoDetalle> nuevos, List<PagoDetalle> modificados, List<PagoDetalle> eliminados) {
+        for (PagoDetalle detalle : eliminados) {
+            em.remove(em.contains(detalle) ? detalle : em.merge(detalle));
+        }
+        for (PagoDetalle detalle : modificados) {
+            em.merge(detalle);
+        }
+        for (PagoDetalle detalle : nuevos) {
+            em.persist(detalle);
+        }
+    }
+    
     @Override
     @Transactional
     public PagoDetalle actualizar(PagoDetalle pagoDetalle) {
@@ -55,6 +77,22 @@ public class PagoDetalleRepositoryImpl implements PagoDetalleRepository {
         return query.getResultList();
     }
     
+    @Override
+    public List<PagoDetalle> buscarPorIdsPago(Collection<Long> idsPago) {
+        List<PagoDetalle> resultado = new ArrayList<>();
+        if (idsPago == null || idsPago.isEmpty()) {
+            return resultado;
+        }
+        
+        List<Long> ids = new ArrayList<>(idsPago);
+        for (int i = 0; i < ids.size(); i += TAMANIO_LOTE_IN) {
+            TypedQuery<PagoDetalle> query = em.createNamedQuery("PagoDetalle.findByIdsPago", PagoDetalle.class);
+            query.setParameter("idsPago", ids.subList(i, Math.min(i + TAMANIO_LOTE_IN, ids.size())));
+            resultado.addAll(query.getResultList());
+        }
+        return resultado;
+    }
+    
     @Override
     @Transactional
     public boolean eliminar(Long id) {
@@ -3,6 +3,7 @@ package sv.edu.ues.fmocc.tpi135.repository;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import sv.edu.ues.fmocc.tpi135.entity.Pago;
 
 /**
@@ -58,6 +59,40 @@ public interface PagoRepository {
      */
     List<Pago> buscarPorMetodoPago(String metodoPago);
     
+    /**
+     * Obtiene una página de pagos ordenados por ID usando paginación por cursor
+     * (WHERE id_pago &gt; :despuesDe ORDER BY id_pago LIMIT n)
+     * @param despuesDe Último ID entregado en la página anterior (0 para la primera página)
+     * @param idOrden Filtro opcional por ID de orden, puede ser nulo
+     * @param fecha Filtro opcional por fecha, puede ser nulo
+     * @param metodoPago Filtro opcional por método de pago, puede ser nulo
+     * @param limite Cantidad máxima de pagos a devolver
+     * @return Lista de pagos con ID mayor al cursor que cumplen todos los filtros
+     */
+    List<Pago> buscarPagina(long despuesDe, Long idOrden, Date fecha, String metodoPago, int limite);
+    
+    /**
+     * Resume en una sola consulta la conciliación entre el total de cada orden del
+     * rango (suma de cantidad × precio de sus detalles, cero si está anulada) y la
+     * suma de los montos de sus pagos
+     * @param desde Fecha inicial inclusiva de las órdenes
+     * @param hasta Fecha final inclusiva de las órdenes
+     * @return Filas por estado con las columnas [estado, órdenes, total esperado, total pagado]
+     */
+    List<Object[]> resumirConciliacion(Date desde, Date hasta);
+    
+    /**
+     * Recorre las órdenes del rango cuyo total no coincide con lo pagado, sin
+     * cargar entidades y sin reunir el resultado completo en memoria
+     * @param desde Fecha inicial inclusiva de las órdenes
+     * @param hasta Fecha final inclusiva de las órdenes
+     * @param consumidor Recibe cada fila, ordenadas por ID de orden, con las columnas
+     *                   [id_orden, fecha, sucursal, anulada, total esperado, total pagado,
+     *                   cantidad de pagos, estado]
+     * @return Cantidad de filas recorridas
+     */
+    long recorrerDiferenciasConciliacion(Date desde, Date hasta, Consumer<Object[]> consumidor);
+    
     /**
      * Elimina un pago por su ID
      * @param id ID del pago a eliminar
@@ -1,13 +1,23 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import javax.enterprise.context.ApplicationScoped;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
 import sv.edu.ues.fmocc.tpi135.entity.Pago;
 import sv.edu.ues.fmocc.tpi135.repository.PagoRepository;
 
@@ -15,8 +25,42 @@ import sv.edu.ues.fmocc.tpi135.repository.PagoRepository;
  * Implementación de PagoRepository para operaciones CRUD con JPA
  */
 @ApplicationScoped
+@RequierePermisoBaseDatos
 public class PagoRepositoryImpl implements PagoRepository {
     
+    /**
+     * Filas leídas por viaje a la base de datos al recorrer las diferencias
+     */
+    private static final int TAMANIO_BLOQUE_LECTURA = 500;
+    
+    /**
+     * Total esperado y pagado de cada orden del rango. Los detalles y los pagos se
+     * agregan por separado antes de unirlos, para que una orden con varias líneas
+     * y varios pagos no multiplique ninguna de las dos sumas.
+     */
+    private static final String SQL_CONCILIACION = "SELECT o.id_orden, o.fecha, o.sucursal, o.anulada, "
+            + "CASE WHEN o.anulada = TRUE THEN 0 ELSE COALESCE(t.total, 0) END AS esperado, "
+            + "COALESCE(g.pagado, 0) AS pagado, COALESCE(g.pagos, 0) AS pagos "
+            + "FROM orden o "
+            + "LEFT JOIN (SELECT d.id_orden, SUM(d.cantidad * d.precio) AS total "
+            + "FROM orden_detalle d JOIN orden od ON od.id_orden = d.id_orden "
+            + "WHERE od.fecha BETWEEN ?1 AND ?2 GROUP BY d.id_orden) t ON t.id_orden = o.id_orden "
+            + "LEFT JOIN (SELECT p.id_orden, SUM(pd.monto) AS pagado, COUNT(DISTINCT p.id_pago) AS pagos "
+            + "FROM pago p JOIN orden op ON op.id_orden = p.id_orden "
+            + "LEFT JOIN pago_detalle pd ON pd.id_pago = p.id_pago "
+            + "WHERE op.fecha BETWEEN ?1 AND ?2 GROUP BY p.id_orden) g ON g.id_orden = o.id_orden "
+            + "WHERE o.fecha BETWEEN ?1 AND ?2";
+    
+    /**
+     * Conciliación de cada orden con su estado: CONCILIADA, SIN_PAGO, PARCIAL o EXCEDENTE
+     */
+    private static final String SQL_CONCILIACION_ESTADO = "SELECT c.*, "
+            + "CASE WHEN c.pagado = c.esperado THEN 'CONCILIADA' "
+            + "WHEN c.pagado = 0 THEN 'SIN_PAGO' "
+            + "WHEN c.pagado < c.esperado THEN 'PARCIAL' "
+            + "ELSE 'EXCEDENTE' END AS estado "
+            + "FROM (" + SQL_CONCILIACION + ") c";
+    
     @PersistenceContext(unitName = "TipicosPU")
     private EntityManager em;
     
@@ -24,7 +68,6 @@ public class PagoRepositoryImpl implements PagoRepository {
     @Transactional
     public Pago crear(Pago pago) {
         em.persist(pago);
-        em.flush();
         return pago;
     }
     
@@ -67,6 +110,68 @@ public class PagoRepositoryImpl implements PagoRepository {
         return query.getResultList();
     }
     
+    @Override
+    public List<Pago> buscarPagina(long despuesDe, Long idOrden, Date fecha, String metodoPago, int limite) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Pago> cq = cb.createQuery(Pago.class);
+        Root<Pago> root = cq.from(Pago.class);
+        
+        List<Predicate> condiciones = new ArrayList<>();
+        condiciones.add(cb.greaterThan(root.get("idPago"), despuesDe));
+        if (idOrden != null) {
+            condiciones.add(cb.equal(root.get("idOrden"), idOrden));
+        }
+        if (fecha != null) {
+            condiciones.add(cb.equal(root.<Date>get("fecha"), fecha));
+        }
+        if (metodoPago != null) {
+            condiciones.add(cb.equal(root.get("metodoPago"), metodoPago));
+        }
+        cq.select(root)
+                .where(condiciones.toArray(new Predicate[0]))
+                .orderBy(cb.asc(root.get("idPago")));
+        
+        TypedQuery<Pago> query = em.createQuery(cq);
+        query.setMaxResults(limite);
+        return query.getResultList();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> resumirConciliacion(Date desde, Date hasta) {
+        String sql = "SELECT r.estado, COUNT(*), COALESCE(SUM(r.esperado), 0), COALESCE(SUM(r.pagado), 0) "
+                + "FROM (" + SQL_CONCILIACION_ESTADO + ") r "
+                + "GROUP BY r.estado ORDER BY r.estado";
+        
+        Query query = em.createNativeQuery(sql);
+        query.setParameter(1, desde, TemporalType.DATE);
+        query.setParameter(2, hasta, TemporalType.DATE);
+        return query.getResultList();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public long recorrerDiferenciasConciliacion(Date desde, Date hasta, Consumer<Object[]> consumidor) {
+        String sql = "SELECT r.id_orden, r.fecha, r.sucursal, r.anulada, r.esperado, r.pagado, r.pagos, r.estado "
+                + "FROM (" + SQL_CONCILIACION_ESTADO + ") r "
+                + "WHERE r.estado <> 'CONCILIADA' "
+                + "ORDER BY r.id_orden";
+        
+        Query query = em.createNativeQuery(sql);
+        query.setParameter(1, desde, TemporalType.DATE);
+        query.setParameter(2, hasta, TemporalType.DATE);
+        query.setHint("eclipselink.jdbc.fetch-size", TAMANIO_BLOQUE_LECTURA);
+        
+        long filas = 0;
+        try (Stream<Object[]> resultado = query.getResultStream()) {
+            for (Object[] fila : (Iterable<Object[]>) resultado::iterator) {
+                consumidor.accept(fila);
+                filas++;
+            }
+        }
+        return filas;
+    }
+    
     @Override
     @Transactional
     public boolean eliminar(Long id) {
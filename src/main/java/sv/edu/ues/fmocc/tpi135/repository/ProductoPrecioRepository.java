@@ -1,7 +1,10 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
 
@@ -31,6 +34,13 @@ public interface ProductoPrecioRepository {
      */
     Optional<ProductoPrecio> encontrarPorId(Long id);
     
+    /**
+     * Busca en bloque varios precios de producto por sus IDs
+     * @param ids IDs de los precios de producto a buscar
+     * @return Lista con los precios de producto encontrados
+     */
+    List<ProductoPrecio> buscarPorIds(Collection<Long> ids);
+    
     /**
      * Lista todos los precios de productos
      * @return Lista de precios de productos
@@ -59,6 +69,30 @@ public interface ProductoPrecioRepository {
      */
     Optional<ProductoPrecio> buscarPrecioVigente(Long idProducto, Date fecha);
     
+    /**
+     * Obtiene el primer día posterior a una fecha en que cambia el conjunto de
+     * precios vigentes, porque un precio empieza o deja de estar vigente
+     * @param fecha Fecha de referencia
+     * @return Optional con el inicio de ese día o vacío si no hay cambios programados
+     */
+    Optional<Date> buscarProximoCambioVigencia(Date fecha);
+    
+    /**
+     * Obtiene el precio sugerido de un registro de precio sin consultar la base de datos
+     * cuando ya está en el índice en memoria
+     * @param idProductoPrecio ID del precio de producto
+     * @return Optional con el precio sugerido o vacío si no existe
+     */
+    Optional<BigDecimal> buscarPrecioSugerido(Long idProductoPrecio);
+    
+    /**
+     * Obtiene el producto al que pertenece cada registro de precio, usando el
+     * índice en memoria y consultando la base de datos solo para los que falten
+     * @param idsProductoPrecio IDs de los precios de producto
+     * @return Mapa ID de precio → ID de producto; los IDs inexistentes no aparecen
+     */
+    Map<Long, Long> buscarIdsProducto(Collection<Long> idsProductoPrecio);
+    
     /**
      * Elimina un precio de producto por su ID
      * @param id ID del precio de producto a eliminar
@@ -1,14 +1,25 @@
 package sv.edu.ues.fmocc.tpi135.repository;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
-import javax.persistence.TemporalType;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
 import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
 
 /**
@@ -17,36 +28,80 @@ import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
 @ApplicationScoped
 public class ProductoPrecioRepositoryImpl implements ProductoPrecioRepository {
     
+    /**
+     * Cantidad máxima de IDs enviados en una sola lista IN
+     */
+    private static final int TAMANIO_LOTE_IN = 1000;
+    
+    /**
+     * Índice en memoria de los precios vigentes; se carga completo en la
+     * primera consulta y se refresca por producto cuando se confirma una escritura
+     */
+    private final IndicePreciosVigentes indice = new IndicePreciosVigentes();
+    
     @PersistenceContext(unitName = "TipicosPU")
     private EntityManager em;
     
+    /**
+     * Los precios no tienen servicio propio, por lo que sus cambios se registran aquí
+     */
+    @Inject
+    private CambioCatalogoRepository cambioCatalogoRepository;
+    
+    @Inject
+    private LectorPreciosConfirmados lectorPrecios;
+    
     @Override
+    @RequierePermisoBaseDatos
     @Transactional
     public ProductoPrecio crear(ProductoPrecio productoPrecio) {
         em.persist(productoPrecio);
-        em.flush();
+        cambioCatalogoRepository.registrar(CambioCatalogo.PRODUCTO_PRECIO, productoPrecio.getIdProductoPrecio(), CambioCatalogo.GUARDADO);
         return productoPrecio;
     }
     
     @Override
+    @RequierePermisoBaseDatos
     @Transactional
     public ProductoPrecio actualizar(ProductoPrecio productoPrecio) {
-        return em.merge(productoPrecio);
+        ProductoPrecio actualizado = em.merge(productoPrecio);
+        cambioCatalogoRepository.registrar(CambioCatalogo.PRODUCTO_PRECIO, actualizado.getIdProductoPrecio(), CambioCatalogo.GUARDADO);
+        return actualizado;
     }
     
     @Override
+    @RequierePermisoBaseDatos
     public Optional<ProductoPrecio> encontrarPorId(Long id) {
         ProductoPrecio productoPrecio = em.find(ProductoPrecio.class, id);
         return Optional.ofNullable(productoPrecio);
     }
     
     @Override
+    @RequierePermisoBaseDatos
+    public List<ProductoPrecio> buscarPorIds(Collection<Long> ids) {
+        List<ProductoPrecio> resultado = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return resultado;
+        }
+        
+        List<Long> lista = new ArrayList<>(ids);
+        for (int i = 0; i < lista.size(); i += TAMANIO_LOTE_IN) {
+            TypedQuery<ProductoPrecio> query = em.createNamedQuery("ProductoPrecio.findByIds", ProductoPrecio.class);
+            query.setParameter("ids", lista.subList(i, Math.min(i + TAMANIO_LOTE_IN, lista.size())));
+            resultado.addAll(query.getResultList());
+        }
+        return resultado;
+    }
+    
+    @Override
+    @RequierePermisoBaseDatos
     public List<ProductoPrecio> listarTodos() {
         TypedQuery<ProductoPrecio> query = em.createNamedQuery("ProductoPrecio.findAll", ProductoPrecio.class);
         return query.getResultList();
     }
     
     @Override
+    @RequierePermisoBaseDatos
     public List<ProductoPrecio> buscarPorIdProducto(Long idProducto) {
         TypedQuery<ProductoPrecio> query = em.createNamedQuery("ProductoPrecio.findByIdProducto", ProductoPrecio.class);
         query.setParameter("idProducto", idProducto);
@@ -55,33 +110,115 @@ public class ProductoPrecioRepositoryImpl implements ProductoPrecioRepository {
     
     @Override
     public List<ProductoPrecio> buscarVigentesPorFecha(Date fecha) {
-        TypedQuery<ProductoPrecio> query = em.createNamedQuery("ProductoPrecio.findVigentesByFecha", ProductoPrecio.class);
-        query.setParameter("fecha", fecha, TemporalType.DATE);
-        return query.getResultList();
+        asegurarIndiceCargado();
+        return indice.buscarVigentes(fecha);
     }
     
     @Override
     public Optional<ProductoPrecio> buscarPrecioVigente(Long idProducto, Date fecha) {
-        TypedQuery<ProductoPrecio> query = em.createNamedQuery("ProductoPrecio.findVigente", ProductoPrecio.class);
-        query.setParameter("idProducto", idProducto);
-        query.setParameter("fecha", fecha, TemporalType.DATE);
-        query.setMaxResults(1);
-        
-        List<ProductoPrecio> resultList = query.getResultList();
-        if (resultList.isEmpty()) {
-            return Optional.empty();
+        asegurarIndiceCargado();
+        return Optional.ofNullable(indice.buscarVigente(idProducto, fecha));
+    }
+    
+    @Override
+    public Optional<Date> buscarProximoCambioVigencia(Date fecha) {
+        asegurarIndiceCargado();
+        return Optional.ofNullable(indice.proximoCambioVigencia(fecha));
+    }
+    
+    @Override
+    public Optional<BigDecimal> buscarPrecioSugerido(Long idProductoPrecio) {
+        asegurarIndiceCargado();
+        ProductoPrecio productoPrecio = indice.buscarPorId(idProductoPrecio);
+        if (productoPrecio == null && idProductoPrecio != null) {
+            productoPrecio = em.find(ProductoPrecio.class, idProductoPrecio);
+        }
+        return productoPrecio != null ? Optional.ofNullable(productoPrecio.getPrecioSugerido()) : Optional.empty();
+    }
+    
+    @Override
+    public Map<Long, Long> buscarIdsProducto(Collection<Long> idsProductoPrecio) {
+        asegurarIndiceCargado();
+        Map<Long, Long> resultado = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long idProductoPrecio : idsProductoPrecio) {
+            ProductoPrecio productoPrecio = indice.buscarPorId(idProductoPrecio);
+            if (productoPrecio != null) {
+                resultado.put(idProductoPrecio, productoPrecio.getIdProducto());
+            } else if (idProductoPrecio != null) {
+                faltantes.add(idProductoPrecio);
+            }
         }
-        return Optional.of(resultList.get(0));
+        if (!faltantes.isEmpty()) {
+            for (ProductoPrecio productoPrecio : buscarPorIds(faltantes)) {
+                resultado.put(productoPrecio.getIdProductoPrecio(), productoPrecio.getIdProducto());
+            }
+        }
+        return resultado;
     }
     
     @Override
+    @RequierePermisoBaseDatos
     @Transactional
     public boolean eliminar(Long id) {
         Optional<ProductoPrecio> productoPrecioOpt = encontrarPorId(id);
         if (productoPrecioOpt.isPresent()) {
             em.remove(productoPrecioOpt.get());
+            cambioCatalogoRepository.registrar(CambioCatalogo.PRODUCTO_PRECIO, id, CambioCatalogo.ELIMINADO);
             return true;
         }
         return false;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Carga el índice de precios con todos los registros confirmados si aún no
+     * se ha hecho; la lectura se hace fuera de la transacción en curso
+     */
+    private void asegurarIndiceCargado() {
+        if (!indice.estaCargado()) {
+            synchronized (indice) {
+                if (!indice.estaCargado()) {
+                    indice.cargar(lectorPrecios.listarTodos());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Refresca el índice cuando se confirma un cambio de precio, de modo que las
+     * consultas nunca vean precios sin confirmar ni los de una transacción revertida
+     */
+    void alConfirmarCambio(@Observes(during = TransactionPhase.AFTER_SUCCESS) CambioCatalogo cambio) {
+        if (CambioCatalogo.PRODUCTO_PRECIO.equals(cambio.getEntidad()) && cambio.getIdEntidad() != null) {
+            refrescarIndice(cambio.getIdEntidad());
+        }
+    }
+    
+    /**
+     * Vuelve a leer los precios confirmados del producto al que pertenece un
+     * precio y reemplaza sus intervalos en el índice. Si el precio cambió de
+     * producto o se eliminó, también se refresca el producto que tenía en el índice.
+     * Se ejecuta con el monitor del índice tomado para que las lecturas y los
+     * reemplazos de refrescos simultáneos no se intercalen.
+     * @param idProductoPrecio ID del precio modificado
+     */
+    private void refrescarIndice(Long idProductoPrecio) {
+        synchronized (indice) {
+            if (!indice.estaCargado()) {
+                return;
+            }
+            ProductoPrecio anterior = indice.buscarPorId(idProductoPrecio);
+            ProductoPrecio actual = em.find(ProductoPrecio.class, idProductoPrecio);
+            Set<Long> productos = new HashSet<>();
+            if (anterior != null) {
+                productos.add(anterior.getIdProducto());
+            }
+            if (actual != null && actual.getIdProducto() != null) {
+                productos.add(actual.getIdProducto());
+            }
+            for (Long idProducto : productos) {
+                indice.reemplazarProducto(idProducto, buscarPorIdProducto(idProducto));
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
 import sv.edu.ues.fmocc.tpi135.entity.Producto;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoRepository;
 
@@ -14,6 +15,7 @@ import sv.edu.ues.fmocc.tpi135.repository.ProductoRepository;
  * Implementación de ProductoRepository para operaciones CRUD con JPA
  */
 @ApplicationScoped
+@RequierePermisoBaseDatos
 public class ProductoRepositoryImpl implements ProductoRepository {
     
     @PersistenceContext(unitName = "TipicosPU")
@@ -23,7 +25,6 @@ public class ProductoRepositoryImpl implements ProductoRepository {
     @Transactional
     public Producto crear(Producto producto) {
         em.persist(producto);
-        em.flush();
         return producto;
     }
     
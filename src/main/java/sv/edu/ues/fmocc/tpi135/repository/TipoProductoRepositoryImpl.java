@@ -7,6 +7,7 @@ import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
 import javax.persistence.TypedQuery;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
 import sv.edu.ues.fmocc.tpi135.entity.TipoProducto;
 import sv.edu.ues.fmocc.tpi135.repository.TipoProductoRepository;
 
@@ -14,6 +15,7 @@ import sv.edu.ues.fmocc.tpi135.repository.TipoProductoRepository;
  * Implementación de TipoProductoRepository para operaciones CRUD con JPA
  */
 @ApplicationScoped
+@RequierePermisoBaseDatos
 public class TipoProductoRepositoryImpl implements TipoProductoRepository {
     
     @PersistenceContext(unitName = "TipicosPU")
@@ -23,7 +25,6 @@ public class TipoProductoRepositoryImpl implements TipoProductoRepository {
     @Transactional
     public TipoProducto crear(TipoProducto tipoProducto) {
         em.persist(tipoProducto);
-        em.flush();
         return tipoProducto;
     }
     
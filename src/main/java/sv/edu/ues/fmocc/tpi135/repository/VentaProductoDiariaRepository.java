@@ -0,0 +1,47 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.Date;
+import java.util.List;
+import sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiaria;
+
+/**
+ * Interfaz que define las operaciones de persistencia para los contadores de
+ * venta por fecha, sucursal y producto
+ */
+public interface VentaProductoDiariaRepository {
+    
+    /**
+     * Suma los incrementos indicados a los contadores, creando los que no existan.
+     * Debe llamarse dentro de la transacción que modifica las órdenes.
+     * @param incrementos Incrementos por contador (cantidad, total y líneas pueden ser negativos)
+     */
+    void aplicarIncrementos(List<VentaProductoDiaria> incrementos);
+    
+    /**
+     * Busca los contadores de un rango de fechas
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @param sucursal Sucursal a consultar, puede ser nula para todas
+     * @return Lista de contadores ordenada por fecha, sucursal y producto
+     */
+    List<VentaProductoDiaria> buscarPorRango(Date desde, Date hasta, String sucursal);
+    
+    /**
+     * Compara los contadores con los valores recalculados desde orden y orden_detalle
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Filas con diferencias, con las columnas [fecha, sucursal, id_producto,
+     *         cantidad registrada, cantidad calculada, total registrado, total calculado,
+     *         líneas registradas, líneas calculadas]; los valores ausentes son nulos
+     */
+    List<Object[]> buscarDiferencias(Date desde, Date hasta);
+    
+    /**
+     * Reemplaza los contadores del rango con los valores recalculados desde
+     * orden y orden_detalle
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Cantidad de contadores generados
+     */
+    int reconstruir(Date desde, Date hasta);
+}
@@ -0,0 +1,129 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import java.util.Date;
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TemporalType;
+import javax.persistence.TypedQuery;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.config.RequierePermisoBaseDatos;
+import sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiaria;
+
+/**
+ * Implementación de VentaProductoDiariaRepository con SQL nativo de PostgreSQL.
+ * Los incrementos se aplican con INSERT ... ON CONFLICT DO UPDATE, de modo que
+ * dos transacciones que tocan el mismo contador se serializan sobre la fila en
+ * lugar de perder una de las dos actualizaciones.
+ */
+@ApplicationScoped
+@RequierePermisoBaseDatos
+public class VentaProductoDiariaRepositoryImpl implements VentaProductoDiariaRepository {
+    
+    /**
+     * Cantidad máxima de contadores enviados en un solo INSERT
+     */
+    private static final int TAMANIO_LOTE_UPSERT = 500;
+    
+    /**
+     * Contadores recalculados desde las órdenes no anuladas del rango ?1 - ?2
+     */
+    private static final String SQL_CALCULADOS = "SELECT o.fecha, COALESCE(o.sucursal, '') AS sucursal, pp.id_producto, "
+            + "SUM(d.cantidad) AS cantidad, COALESCE(SUM(d.cantidad * d.precio), 0) AS total, COUNT(*) AS lineas "
+            + "FROM orden o "
+            + "JOIN orden_detalle d ON d.id_orden = o.id_orden "
+            + "JOIN producto_precio pp ON pp.id_producto_precio = d.id_producto_precio "
+            + "WHERE o.fecha BETWEEN ?1 AND ?2 AND o.anulada IS NOT TRUE AND pp.id_producto IS NOT NULL "
+            + "GROUP BY o.fecha, COALESCE(o.sucursal, ''), pp.id_producto";
+    
+    @PersistenceContext(unitName = "TipicosPU")
+    private EntityManager em;
+    
+    @Override
+    @Transactional
+    public void aplicarIncrementos(List<VentaProductoDiaria> incrementos) {
+        for (int i = 0; i < incrementos.size(); i += TAMANIO_LOTE_UPSERT) {
+            List<VentaProductoDiaria> lote = incrementos.subList(i, Math.min(i + TAMANIO_LOTE_UPSERT, incrementos.size()));
+            
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO venta_producto_diaria (fecha, sucursal, id_producto, cantidad, total, lineas) VALUES ");
+            for (int j = 0; j < lote.size(); j++) {
+                int base = j * 6;
+                sql.append(j > 0 ? ", " : "")
+                        .append("(?").append(base + 1).append(", ?").append(base + 2).append(", ?").append(base + 3)
+                        .append(", ?").append(base + 4).append(", ?").append(base + 5).append(", ?").append(base + 6).append(')');
+            }
+            sql.append(" ON CONFLICT (fecha, sucursal, id_producto) DO UPDATE SET ")
+                    .append("cantidad = venta_producto_diaria.cantidad + EXCLUDED.cantidad, ")
+                    .append("total = venta_producto_diaria.total + EXCLUDED.total, ")
+                    .append("lineas = venta_producto_diaria.lineas + EXCLUDED.lineas");
+            
+            Query query = em.createNativeQuery(sql.toString());
+            for (int j = 0; j < lote.size(); j++) {
+                VentaProductoDiaria incremento = lote.get(j);
+                int base = j * 6;
+                query.setParameter(base + 1, incremento.getFecha(), TemporalType.DATE);
+                query.setParameter(base + 2, incremento.getSucursal());
+                query.setParameter(base + 3, incremento.getIdProducto());
+                query.setParameter(base + 4, incremento.getCantidad());
+                query.setParameter(base + 5, incremento.getTotal());
+                query.setParameter(base + 6, incremento.getLineas());
+            }
+            query.executeUpdate();
+        }
+    }
+    
+    @Override
+    public List<VentaProductoDiaria> buscarPorRango(Date desde, Date hasta, String sucursal) {
+        boolean porSucursal = sucursal != null && !sucursal.trim().isEmpty();
+        TypedQuery<VentaProductoDiaria> query = em.createNamedQuery(
+                porSucursal ? "VentaProductoDiaria.findByRangoAndSucursal" : "VentaProductoDiaria.findByRango",
+                VentaProductoDiaria.class);
+        query.setParameter("desde", desde, TemporalType.DATE);
+        query.setParameter("hasta", hasta, TemporalType.DATE);
+        if (porSucursal) {
+            query.setParameter("sucursal", sucursal);
+        }
+        return query.getResultList();
+    }
+    
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> buscarDiferencias(Date desde, Date hasta) {
+        String sql = "SELECT COALESCE(v.fecha, c.fecha), COALESCE(v.sucursal, c.sucursal), COALESCE(v.id_producto, c.id_producto), "
+                + "v.cantidad, c.cantidad, v.total, c.total, v.lineas, c.lineas "
+                + "FROM (SELECT * FROM venta_producto_diaria WHERE fecha BETWEEN ?1 AND ?2) v "
+                + "FULL OUTER JOIN (" + SQL_CALCULADOS + ") c "
+                + "ON c.fecha = v.fecha AND c.sucursal = v.sucursal AND c.id_producto = v.id_producto "
+                + "WHERE COALESCE(v.cantidad, 0) <> COALESCE(c.cantidad, 0) "
+                + "OR COALESCE(v.total, 0) <> COALESCE(c.total, 0) "
+                + "OR COALESCE(v.lineas, 0) <> COALESCE(c.lineas, 0) "
+                + "ORDER BY 1, 2, 3";
+        
+        Query query = em.createNativeQuery(sql);
+        query.setParameter(1, desde, TemporalType.DATE);
+        query.setParameter(2, hasta, TemporalType.DATE);
+        return query.getResultList();
+    }
+    
+    @Override
+    @Transactional
+    public int reconstruir(Date desde, Date hasta) {
+        // Detiene los incrementos concurrentes hasta confirmar: las órdenes que ya
+        // escribieron su incremento terminan antes, las nuevas esperan la reconstrucción
+        em.createNativeQuery("LOCK TABLE venta_producto_diaria IN EXCLUSIVE MODE").executeUpdate();
+        
+        Query borrar = em.createNativeQuery("DELETE FROM venta_producto_diaria WHERE fecha BETWEEN ?1 AND ?2");
+        borrar.setParameter(1, desde, TemporalType.DATE);
+        borrar.setParameter(2, hasta, TemporalType.DATE);
+        borrar.executeUpdate();
+        
+        Query insertar = em.createNativeQuery(
+                "INSERT INTO venta_producto_diaria (fecha, sucursal, id_producto, cantidad, total, lineas) " + SQL_CALCULADOS);
+        insertar.setParameter(1, desde, TemporalType.DATE);
+        insertar.setParameter(2, hasta, TemporalType.DATE);
+        return insertar.executeUpdate();
+    }
+}
@@ -0,0 +1,94 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import sv.edu.ues.fmocc.tpi135.entity.Orden;
+import sv.edu.ues.fmocc.tpi135.entity.OrdenDetalle;
+import sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiaria;
+import sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiariaPK;
+
+/**
+ * Acumula los incrementos que una operación sobre órdenes produce en los
+ * contadores de venta por fecha, sucursal y producto. Una orden aporta sus
+ * líneas con signo positivo al crearse y con signo negativo al anularse o
+ * eliminarse; una actualización resta el estado anterior y suma el nuevo, de
+ * modo que las líneas sin cambios se cancelan.
+ */
+final class AcumuladorVentas {
+
+    private final Map<Long, Long> productosPorPrecio;
+
+    /**
+     * Ordenado por clave para que las filas se actualicen siempre en el mismo orden
+     */
+    private final Map<VentaProductoDiariaPK, VentaProductoDiaria> incrementos = new TreeMap<>();
+
+    /**
+     * @param productosPorPrecio ID de precio de producto → ID de producto de todas
+     *                           las líneas que se van a acumular
+     */
+    AcumuladorVentas(Map<Long, Long> productosPorPrecio) {
+        this.productosPorPrecio = productosPorPrecio;
+    }
+
+    /**
+     * Suma (signo 1) o resta (signo -1) las líneas de una orden. Las órdenes
+     * anuladas no aportan a los contadores.
+     */
+    void agregar(Orden orden, Collection<OrdenDetalle> detalles, int signo) {
+        if (orden == null || orden.getFecha() == null || Boolean.TRUE.equals(orden.getAnulada()) || detalles == null) {
+            return;
+        }
+
+        Date dia = dia(orden.getFecha());
+        String sucursal = orden.getSucursal() != null ? orden.getSucursal() : "";
+        for (OrdenDetalle detalle : detalles) {
+            Long idProducto = productosPorPrecio.get(detalle.getIdProductoPrecio());
+            if (idProducto == null) {
+                continue;
+            }
+            long cantidad = detalle.getCantidad() != null ? detalle.getCantidad() : 0;
+            BigDecimal total = detalle.getPrecio() != null
+                    ? detalle.getPrecio().multiply(BigDecimal.valueOf(cantidad))
+                    : BigDecimal.ZERO;
+
+            VentaProductoDiaria incremento = incrementos.computeIfAbsent(
+                    new VentaProductoDiariaPK(dia, sucursal, idProducto),
+                    clave -> new VentaProductoDiaria(clave.getFecha(), clave.getSucursal(), clave.getIdProducto(),
+                            0L, BigDecimal.ZERO, 0L));
+            incremento.setCantidad(incremento.getCantidad() + signo * cantidad);
+            incremento.setTotal(signo > 0 ? incremento.getTotal().add(total) : incremento.getTotal().subtract(total));
+            incremento.setLineas(incremento.getLineas() + signo);
+        }
+    }
+
+    /**
+     * Incrementos distintos de cero, en orden de clave
+     */
+    List<VentaProductoDiaria> incrementos() {
+        List<VentaProductoDiaria> resultado = new ArrayList<>(incrementos.size());
+        for (VentaProductoDiaria incremento : incrementos.values()) {
+            if (incremento.getCantidad() != 0 || incremento.getLineas() != 0 || incremento.getTotal().signum() != 0) {
+                resultado.add(incremento);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Fecha sin hora, en la zona horaria por defecto como la columna DATE
+     */
+    private static Date dia(Date fecha) {
+        if (fecha instanceof java.sql.Date) {
+            return fecha;
+        }
+        return java.sql.Date.valueOf(Instant.ofEpochMilli(fecha.getTime()).atZone(ZoneId.systemDefault()).toLocalDate());
+    }
+}
@@ -0,0 +1,166 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura para los datos del catálogo (productos, tipos de producto y combos).
+ * Mantiene como máximo una cantidad fija de entradas y desaloja la menos usada
+ * recientemente. Los servicios la invalidan cuando se confirma una creación,
+ * actualización o eliminación, por lo que nunca sirve datos de antes de una
+ * escritura ya confirmada ni de una que luego se revierte.
+ *
+ * @param <K> Tipo de la llave
+ * @param <V> Tipo del valor almacenado
+ */
+public final class CacheCatalogo<K, V> {
+
+    /**
+     * Capacidad usada por las cachés de entidades individuales
+     */
+    public static final int CAPACIDAD_ENTIDADES = 1000;
+
+    /**
+     * Capacidad usada por las cachés de resultados de consultas (listados y filtros)
+     */
+    public static final int CAPACIDAD_CONSULTAS = 200;
+
+    /**
+     * Estadísticas de todas las cachés del catálogo, por nombre
+     */
+    private static final Map<String, CacheCatalogo<?, ?>> REGISTRO = new ConcurrentHashMap<>();
+
+    private final String nombre;
+    private final int capacidad;
+    private final LinkedHashMap<K, V> entradas;
+
+    /**
+     * Se incrementa en cada invalidación; una carga iniciada antes de una
+     * invalidación no guarda su resultado para no reinsertar datos viejos
+     */
+    private long generacion;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    /**
+     * Crea una caché y la registra para exponer sus estadísticas
+     * @param nombre Nombre con el que se publican las estadísticas
+     * @param capacidad Cantidad máxima de entradas
+     */
+    public CacheCatalogo(String nombre, int capacidad) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad de la caché debe ser mayor que cero");
+        }
+        this.nombre = nombre;
+        this.capacidad = capacidad;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true);
+        REGISTRO.put(nombre, this);
+    }
+
+    /**
+     * Devuelve el valor asociado a la llave, cargándolo con el proveedor si no está en caché.
+     * Los valores nulos no se almacenan.
+     * @param llave Llave a buscar
+     * @param cargador Función que consulta la fuente de datos en caso de fallo
+     * @return Valor en caché o recién cargado
+     */
+    public V obtener(K llave, Supplier<V> cargador) {
+        long generacionInicial;
+        synchronized (this) {
+            V valor = entradas.get(llave);
+            if (valor != null) {
+                aciertos.increment();
+                return valor;
+            }
+            generacionInicial = generacion;
+        }
+
+        fallos.increment();
+        V cargado = cargador.get();
+        if (cargado == null) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (generacion == generacionInicial) {
+                entradas.put(llave, cargado);
+                desalojarExcedente();
+            }
+        }
+        return cargado;
+    }
+
+    /**
+     * Elimina una entrada de la caché
+     * @param llave Llave a invalidar
+     */
+    public synchronized void invalidar(K llave) {
+        generacion++;
+        entradas.remove(llave);
+    }
+
+    /**
+     * Elimina todas las entradas de la caché
+     */
+    public synchronized void limpiar() {
+        generacion++;
+        entradas.clear();
+    }
+
+    /**
+     * Cantidad de entradas almacenadas actualmente
+     */
+    public synchronized int tamanio() {
+        return entradas.size();
+    }
+
+    public long getAciertos() {
+        return aciertos.sum();
+    }
+
+    public long getFallos() {
+        return fallos.sum();
+    }
+
+    public long getDesalojos() {
+        return desalojos.sum();
+    }
+
+    /**
+     * Estadísticas de todas las cachés del catálogo registradas
+     * @return Mapa nombre de caché → (aciertos, fallos, desalojos, entradas)
+     */
+    public static Map<String, Map<String, Long>> estadisticas() {
+        Map<String, Map<String, Long>> resultado = new TreeMap<>();
+        REGISTRO.forEach((nombreCache, cache) -> {
+            Map<String, Long> valores = new LinkedHashMap<>();
+            valores.put("aciertos", cache.getAciertos());
+            valores.put("fallos", cache.getFallos());
+            valores.put("desalojos", cache.getDesalojos());
+            valores.put("entradas", (long) cache.tamanio());
+            resultado.put(nombreCache, valores);
+        });
+        return resultado;
+    }
+
+    private void desalojarExcedente() {
+        Iterator<K> iterador = entradas.keySet().iterator();
+        while (entradas.size() > capacidad && iterador.hasNext()) {
+            iterador.next();
+            iterador.remove();
+            desalojos.increment();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CacheCatalogo[" + nombre + "]";
+    }
+}
@@ -1,12 +1,18 @@
 package sv.edu.ues.fmocc.tpi135.service;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
 import javax.inject.Inject;
+import javax.transaction.Transactional;
 import sv.edu.ues.fmocc.tpi135.dto.ComboDTO;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
 import sv.edu.ues.fmocc.tpi135.entity.Combo;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ComboRepository;
 
 /**
@@ -18,6 +24,23 @@ public class ComboServiceImpl implements ComboService {
     @Inject
     private ComboRepository comboRepository;
     
+    @Inject
+    private CambioCatalogoRepository cambioCatalogoRepository;
+    
+    /**
+     * Caché de combos individuales por ID. Los DTO almacenados no salen del
+     * servicio: cada consulta entrega una copia, de modo que quien la modifique
+     * no altere lo que reciben las demás
+     */
+    private final CacheCatalogo<Long, ComboDTO> cachePorId =
+            new CacheCatalogo<>("combos.porId", CacheCatalogo.CAPACIDAD_ENTIDADES);
+    
+    /**
+     * Caché de listados y filtros de combos, por consulta
+     */
+    private final CacheCatalogo<String, List<ComboDTO>> cacheConsultas =
+            new CacheCatalogo<>("combos.consultas", CacheCatalogo.CAPACIDAD_CONSULTAS);
+    
     /**
      * Convierte una entidad Combo a DTO
      */
@@ -52,6 +75,7 @@ public class ComboServiceImpl implements ComboService {
     }
     
     @Override
+    @Transactional
     public ComboDTO crearCombo(ComboDTO comboDTO) {
         // Validación básica
         if (comboDTO == null || comboDTO.getNombre() == null || comboDTO.getNombre().trim().isEmpty()) {
@@ -68,12 +92,14 @@ public class ComboServiceImpl implements ComboService {
         
         // Guardamos en la base de datos
         Combo creado = comboRepository.crear(combo);
+        cambioCatalogoRepository.registrar(CambioCatalogo.COMBO, creado.getIdCombo(), CambioCatalogo.GUARDADO);
         
         // Convertimos resultado a DTO
         return mapToDTO(creado);
     }
     
     @Override
+    @Transactional
     public ComboDTO actualizarCombo(Long id, ComboDTO comboDTO) throws IllegalArgumentException {
         // Validación básica
         if (id == null) {
@@ -98,6 +124,7 @@ public class ComboServiceImpl implements ComboService {
         
         // Guardar cambios
         Combo actualizado = comboRepository.actualizar(combo);
+        cambioCatalogoRepository.registrar(CambioCatalogo.COMBO, id, CambioCatalogo.GUARDADO);
         
         // Convertir resultado a DTO
         return mapToDTO(actualizado);
@@ -109,15 +136,17 @@ public class ComboServiceImpl implements ComboService {
             return Optional.empty();
         }
         
-        return comboRepository.encontrarPorId(id)
-                .map(this::mapToDTO);
+        return Optional.ofNullable(cachePorId.obtener(id, () -> comboRepository.encontrarPorId(id)
+                .map(this::mapToDTO)
+                .orElse(null)))
+                .map(this::copiar);
     }
     
     @Override
     public List<ComboDTO> listarCombos() {
-        return comboRepository.listarTodos().stream()
+        return copiar(cacheConsultas.obtener("todos", () -> comboRepository.listarTodos().stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
@@ -126,9 +155,9 @@ public class ComboServiceImpl implements ComboService {
             return List.of();
         }
         
-        return comboRepository.buscarPorNombre(nombre).stream()
+        return copiar(cacheConsultas.obtener("nombre:" + nombre, () -> comboRepository.buscarPorNombre(nombre).stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
@@ -137,17 +166,57 @@ public class ComboServiceImpl implements ComboService {
             return listarCombos();
         }
         
-        return comboRepository.buscarPorEstado(activo).stream()
+        return copiar(cacheConsultas.obtener("estado:" + activo, () -> comboRepository.buscarPorEstado(activo).stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
+    @Transactional
     public boolean eliminarCombo(Long id) {
         if (id == null) {
             return false;
         }
         
-        return comboRepository.eliminar(id);
+        boolean eliminado = comboRepository.eliminar(id);
+        if (eliminado) {
+            cambioCatalogoRepository.registrar(CambioCatalogo.COMBO, id, CambioCatalogo.ELIMINADO);
+        }
+        return eliminado;
+    }
+    
+    /**
+     * Invalida las cachés y avanza la versión solo cuando la transacción se confirma:
+     * hacerlo dentro de ella dejaría que una lectura concurrente cargara en caché
+     * los datos anteriores con la versión nueva, o anunciara un cambio que luego
+     * se revierte
+     */
+    void alConfirmarCambio(@Observes(during = TransactionPhase.AFTER_SUCCESS) CambioCatalogo cambio) {
+        if (CambioCatalogo.COMBO.equals(cambio.getEntidad())) {
+            invalidar(cambio.getIdEntidad());
+        }
+    }
+    
+    /**
+     * Invalida las cachés afectadas por la modificación de un combo y avanza la versión de la colección
+     */
+    private void invalidar(Long id) {
+        cachePorId.invalidar(id);
+        cacheConsultas.limpiar();
+        VersionCatalogo.COMBOS.incrementar();
+    }
+    
+    /**
+     * Copia un combo en caché para entregarlo
+     */
+    private ComboDTO copiar(ComboDTO dto) {
+        return new ComboDTO(dto.getIdCombo(), dto.getNombre(), dto.getActivo(), dto.getDescripcionPublica());
+    }
+    
+    /**
+     * Copia un listado en caché para entregarlo
+     */
+    private List<ComboDTO> copiar(List<ComboDTO> dtos) {
+        return dtos.stream().map(this::copiar).collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.util.Date;
+import java.util.function.Consumer;
+import sv.edu.ues.fmocc.tpi135.dto.ConciliacionOrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenConciliacionDTO;
+
+/**
+ * Interfaz que define los servicios de conciliación entre el total de las
+ * órdenes y los montos de sus pagos
+ */
+public interface ConciliacionService {
+    
+    /**
+     * Estado de una orden cuyo total coincide con lo pagado
+     */
+    String CONCILIADA = "CONCILIADA";
+    
+    /**
+     * Estado de una orden con total mayor a cero y sin montos pagados
+     */
+    String SIN_PAGO = "SIN_PAGO";
+    
+    /**
+     * Estado de una orden pagada por debajo de su total
+     */
+    String PARCIAL = "PARCIAL";
+    
+    /**
+     * Estado de una orden pagada por encima de su total, incluidas las anuladas con pagos
+     */
+    String EXCEDENTE = "EXCEDENTE";
+    
+    /**
+     * Valida el rango de fechas de una conciliación
+     * @param desde Fecha inicial inclusiva de las órdenes
+     * @param hasta Fecha final inclusiva de las órdenes
+     * @throws IllegalArgumentException si las fechas faltan, están invertidas o el rango es demasiado amplio
+     */
+    void validarRango(Date desde, Date hasta) throws IllegalArgumentException;
+    
+    /**
+     * Cuenta las órdenes del rango por estado de conciliación
+     * @param desde Fecha inicial inclusiva de las órdenes
+     * @param hasta Fecha final inclusiva de las órdenes
+     * @return Resumen con los conteos y los totales esperado y pagado
+     * @throws IllegalArgumentException si las fechas faltan o el rango no es válido
+     */
+    ResumenConciliacionDTO resumir(Date desde, Date hasta) throws IllegalArgumentException;
+    
+    /**
+     * Entrega una por una las órdenes del rango que no están conciliadas, en orden de ID
+     * @param desde Fecha inicial inclusiva de las órdenes
+     * @param hasta Fecha final inclusiva de las órdenes
+     * @param consumidor Recibe cada orden con diferencia
+     * @return Cantidad de órdenes entregadas
+     * @throws IllegalArgumentException si las fechas faltan o el rango no es válido
+     */
+    long exportarDiferencias(Date desde, Date hasta, Consumer<ConciliacionOrdenDTO> consumidor) throws IllegalArgumentException;
+}
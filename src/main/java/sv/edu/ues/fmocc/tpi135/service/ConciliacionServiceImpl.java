@@ -0,0 +1,105 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.dto.ConciliacionOrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenConciliacionDTO;
+import sv.edu.ues.fmocc.tpi135.repository.PagoRepository;
+
+/**
+ * Implementación de ConciliacionService. Los totales se calculan en la base de
+ * datos en una sola pasada sobre el rango; la aplicación solo recibe los conteos
+ * y las filas de las órdenes con diferencia.
+ */
+@ApplicationScoped
+public class ConciliacionServiceImpl implements ConciliacionService {
+    
+    /**
+     * Cantidad máxima de días que abarca una conciliación
+     */
+    private static final long MAXIMO_DIAS_RANGO = 366;
+    
+    @Inject
+    private PagoRepository pagoRepository;
+    
+    @Override
+    public ResumenConciliacionDTO resumir(Date desde, Date hasta) throws IllegalArgumentException {
+        validarRango(desde, hasta);
+        
+        ResumenConciliacionDTO resumen = new ResumenConciliacionDTO(desde, hasta);
+        List<Object[]> filas = pagoRepository.resumirConciliacion(desde, hasta);
+        for (Object[] fila : filas) {
+            String estado = (String) fila[0];
+            long ordenes = ((Number) fila[1]).longValue();
+            switch (estado) {
+                case CONCILIADA:
+                    resumen.setConciliadas(ordenes);
+                    break;
+                case SIN_PAGO:
+                    resumen.setSinPago(ordenes);
+                    break;
+                case PARCIAL:
+                    resumen.setParciales(ordenes);
+                    break;
+                case EXCEDENTE:
+                    resumen.setExcedentes(ordenes);
+                    break;
+                default:
+                    throw new IllegalStateException("Estado de conciliación desconocido: " + estado);
+            }
+            resumen.setOrdenes(resumen.getOrdenes() + ordenes);
+            resumen.setTotalEsperado(resumen.getTotalEsperado().add(aBigDecimal(fila[2])));
+            resumen.setTotalPagado(resumen.getTotalPagado().add(aBigDecimal(fila[3])));
+        }
+        return resumen;
+    }
+    
+    @Override
+    @Transactional
+    public long exportarDiferencias(Date desde, Date hasta, Consumer<ConciliacionOrdenDTO> consumidor) throws IllegalArgumentException {
+        validarRango(desde, hasta);
+        
+        // Un solo DTO reutilizado: el consumidor lo serializa antes de recibir el siguiente
+        ConciliacionOrdenDTO dto = new ConciliacionOrdenDTO();
+        return pagoRepository.recorrerDiferenciasConciliacion(desde, hasta, fila -> {
+            BigDecimal esperado = aBigDecimal(fila[4]);
+            BigDecimal pagado = aBigDecimal(fila[5]);
+            dto.setIdOrden(((Number) fila[0]).longValue());
+            dto.setFecha((Date) fila[1]);
+            dto.setSucursal((String) fila[2]);
+            dto.setAnulada((Boolean) fila[3]);
+            dto.setTotalEsperado(esperado);
+            dto.setTotalPagado(pagado);
+            dto.setDiferencia(pagado.subtract(esperado));
+            dto.setPagos(((Number) fila[6]).longValue());
+            dto.setEstado((String) fila[7]);
+            consumidor.accept(dto);
+        });
+    }
+    
+    @Override
+    public void validarRango(Date desde, Date hasta) throws IllegalArgumentException {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas inicial y final son requeridas");
+        }
+        if (desde.after(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        if (TimeUnit.MILLISECONDS.toDays(hasta.getTime() - desde.getTime()) >= MAXIMO_DIAS_RANGO) {
+            throw new IllegalArgumentException("El rango no puede superar " + MAXIMO_DIAS_RANGO + " días");
+        }
+    }
+    
+    private static BigDecimal aBigDecimal(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        return valor instanceof BigDecimal ? (BigDecimal) valor : new BigDecimal(valor.toString());
+    }
+}
@@ -0,0 +1,106 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * Utilidades para la paginación por cursor (keyset) de los listados.
+ * El cursor es el último ID entregado codificado en Base64 URL-safe, de modo que
+ * el cliente lo trate como un valor opaco y la siguiente página se obtenga con
+ * WHERE id &gt; :cursor ORDER BY id LIMIT n, con el mismo costo en cualquier página.
+ * El cursor incluye además una huella de los filtros de la consulta, de modo que
+ * no se pueda continuar con otros filtros una página obtenida con unos.
+ */
+public final class CursorPaginacion {
+    
+    /**
+     * Límite por defecto cuando el cliente no especifica uno
+     */
+    public static final int LIMITE_POR_DEFECTO = 50;
+    
+    /**
+     * Límite máximo permitido por página
+     */
+    public static final int LIMITE_MAXIMO = 500;
+    
+    private static final String PREFIJO = "id:";
+    
+    private static final String SEPARADOR = ";f:";
+    
+    private CursorPaginacion() {
+    }
+    
+    /**
+     * Codifica el último ID de una página como cursor opaco
+     * @param ultimoId Último ID entregado
+     * @param filtros Filtros de la consulta que produjo la página
+     * @return Cursor opaco, o null si no hay ID
+     */
+    public static String codificar(Long ultimoId, Object... filtros) {
+        if (ultimoId == null) {
+            return null;
+        }
+        String valor = PREFIJO + ultimoId + SEPARADOR + huella(filtros);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * Decodifica un cursor opaco al último ID entregado
+     * @param cursor Cursor recibido del cliente
+     * @param filtros Filtros de la consulta actual, en el mismo orden que al codificar
+     * @return ID a partir del cual continuar; 0 si el cursor es nulo o vacío
+     * @throws IllegalArgumentException si el cursor no es válido o se generó con otros filtros
+     */
+    public static long decodificar(String cursor, Object... filtros) throws IllegalArgumentException {
+        if (cursor == null || cursor.trim().isEmpty()) {
+            return 0L;
+        }
+        String valor;
+        int fin;
+        long id;
+        try {
+            valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            if (!valor.startsWith(PREFIJO)) {
+                throw new IllegalArgumentException("El cursor de paginación no es válido");
+            }
+            fin = valor.indexOf(SEPARADOR);
+            id = Long.parseLong(valor.substring(PREFIJO.length(), fin < 0 ? valor.length() : fin));
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException también es IllegalArgumentException
+            throw new IllegalArgumentException("El cursor de paginación no es válido");
+        }
+        // Los cursores sin huella corresponden a una consulta sin filtros
+        String recibida = fin < 0 ? huella() : valor.substring(fin + SEPARADOR.length());
+        if (!recibida.equals(huella(filtros))) {
+            throw new IllegalArgumentException("El cursor de paginación no corresponde a los filtros de la consulta");
+        }
+        return id;
+    }
+    
+    /**
+     * Normaliza el límite solicitado por el cliente
+     * @param limite Límite solicitado, puede ser nulo
+     * @return Límite dentro del rango permitido
+     * @throws IllegalArgumentException si el límite es menor que 1
+     */
+    public static int normalizarLimite(Integer limite) throws IllegalArgumentException {
+        if (limite == null) {
+            return LIMITE_POR_DEFECTO;
+        }
+        if (limite < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor que cero");
+        }
+        return Math.min(limite, LIMITE_MAXIMO);
+    }
+    
+    private static String huella(Object... filtros) {
+        // Sin filtros la huella no depende de cuántos admite el listado
+        if (Arrays.stream(filtros).allMatch(Objects::isNull)) {
+            return "0";
+        }
+        return Integer.toHexString(Arrays.hashCode(filtros));
+    }
+}
@@ -0,0 +1,121 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.enterprise.context.ApplicationScoped;
+import sv.edu.ues.fmocc.tpi135.dto.EventoSalidaDTO;
+
+/**
+ * Destino que agrega los eventos a un archivo, un objeto JSON por línea, para que
+ * otros procesos (analítica, búsqueda) lo lean. Se activa con la propiedad del
+ * sistema tipicos.salida.archivo. Al iniciar lee la posición de la última línea
+ * del archivo y descarta las posiciones menores o iguales, de modo que un lote
+ * repetido no duplica líneas.
+ */
+@ApplicationScoped
+public class DestinoArchivoSalida implements DestinoSalida {
+    
+    static final String PROPIEDAD_ARCHIVO = "tipicos.salida.archivo";
+    
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writer();
+    
+    private static final Pattern POSICION = Pattern.compile("\"posicion\":(\\d+)");
+    
+    private final Path archivo;
+    
+    private long ultimaPosicion = -1;
+    
+    public DestinoArchivoSalida() {
+        String ruta = System.getProperty(PROPIEDAD_ARCHIVO);
+        this.archivo = ruta != null && !ruta.isBlank() ? Paths.get(ruta) : null;
+    }
+    
+    DestinoArchivoSalida(Path archivo) {
+        this.archivo = archivo;
+    }
+    
+    @Override
+    public String getNombre() {
+        return "archivo";
+    }
+    
+    @Override
+    public boolean isActivo() {
+        return archivo != null;
+    }
+    
+    @Override
+    public synchronized void entregar(List<EventoSalidaDTO> eventos) throws IOException {
+        if (ultimaPosicion < 0) {
+            ultimaPosicion = recuperar(archivo);
+        }
+        
+        long escrita = ultimaPosicion;
+        try (Writer escritor = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (EventoSalidaDTO evento : eventos) {
+                if (evento.getPosicion() <= escrita) {
+                    continue;
+                }
+                escritor.write(ESCRITOR_JSON.writeValueAsString(evento));
+                escritor.write('\n');
+                escrita = evento.getPosicion();
+            }
+        } catch (IOException e) {
+            // No se sabe cuántas líneas llegaron al archivo; se vuelve a leer en el reintento
+            ultimaPosicion = -1;
+            throw e;
+        }
+        ultimaPosicion = escrita;
+    }
+    
+    /**
+     * Descarta una última línea escrita a medias y devuelve la posición de la
+     * última línea completa del archivo, o 0 si no existe o está vacío
+     */
+    static long recuperar(Path archivo) throws IOException {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+        try (RandomAccessFile lector = new RandomAccessFile(archivo.toFile(), "rw")) {
+            long fin = lector.length();
+            while (fin > 0) {
+                lector.seek(fin - 1);
+                if (lector.read() == '\n') {
+                    break;
+                }
+                fin--;
+            }
+            if (fin < lector.length()) {
+                lector.setLength(fin);
+            }
+            long inicio = fin - 1;
+            while (inicio > 0) {
+                lector.seek(inicio - 1);
+                if (lector.read() == '\n') {
+                    break;
+                }
+                inicio--;
+            }
+            if (inicio < 0 || fin - inicio <= 1) {
+                return 0;
+            }
+            byte[] linea = new byte[(int) (fin - inicio)];
+            lector.seek(inicio);
+            lector.readFully(linea);
+            Matcher matcher = POSICION.matcher(new String(linea, StandardCharsets.UTF_8));
+            return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.io.IOException;
+import java.util.List;
+import sv.edu.ues.fmocc.tpi135.dto.EventoSalidaDTO;
+
+/**
+ * Sistema externo que recibe los eventos de la bandeja de salida. RelevoSalida
+ * entrega los eventos en orden de posición y guarda por nombre de destino hasta
+ * dónde llegó; si falla o se reinicia antes de guardarlo, vuelve a entregar el
+ * lote, por lo que el destino debe ignorar las posiciones que ya recibió.
+ */
+public interface DestinoSalida {
+    
+    /**
+     * Nombre con el que se guarda la posición entregada; no debe cambiar entre ejecuciones
+     */
+    String getNombre();
+    
+    /**
+     * Indica si el destino está configurado. Los destinos inactivos no reciben eventos
+     * y su posición no avanza.
+     */
+    boolean isActivo();
+    
+    /**
+     * Entrega un lote de eventos
+     * @param eventos Eventos en orden de posición
+     * @throws IOException si no se pudo entregar; el lote se reintenta completo
+     */
+    void entregar(List<EventoSalidaDTO> eventos) throws IOException;
+}
@@ -0,0 +1,47 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.util.Optional;
+import sv.edu.ues.fmocc.tpi135.dto.RespuestaIdempotenteDTO;
+
+/**
+ * Interfaz que define el registro durable de las claves de idempotencia
+ * (encabezado Idempotency-Key) de la creación de órdenes y pagos
+ */
+public interface IdempotenciaService {
+    
+    /**
+     * Reserva la clave para ejecutar la solicitud. Una reserva que quedó en
+     * proceso más que el plazo de reserva (p. ej. por un reinicio del servidor)
+     * se considera abandonada y se vuelve a tomar.
+     * @param clave Ámbito y clave enviada por el cliente
+     * @param huella Huella del cuerpo de la solicitud
+     * @return Vacío si la reserva es de quien llama; si no, la respuesta registrada
+     *         o una respuesta en proceso
+     */
+    Optional<RespuestaIdempotenteDTO> reservar(String clave, String huella);
+    
+    /**
+     * Guarda la orden o el pago creado como respuesta 201 de una clave reservada,
+     * para repetirla en los reintentos. Debe llamarse dentro de la transacción de
+     * la creación: la clave se completa si y solo si la creación se confirma, de
+     * modo que una clave que sigue en proceso nunca corresponde a una creación
+     * confirmada.
+     * @param clave Ámbito y clave
+     * @param creado DTO de la orden o el pago creado
+     * @throws IllegalStateException si la clave ya no está en proceso (p. ej. se
+     *         liberó por abandonada); la creación se revierte
+     */
+    void completar(String clave, Object creado);
+    
+    /**
+     * Libera una clave reservada cuya solicitud falló, para que se pueda reintentar
+     * @param clave Ámbito y clave
+     */
+    void liberar(String clave);
+    
+    /**
+     * Elimina las claves más antiguas que el período de retención
+     * @return Cantidad de claves eliminadas
+     */
+    int purgar();
+}
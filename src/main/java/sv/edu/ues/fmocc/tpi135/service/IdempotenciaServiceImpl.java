@@ -0,0 +1,88 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.dto.RespuestaIdempotenteDTO;
+import sv.edu.ues.fmocc.tpi135.entity.ClaveIdempotencia;
+import sv.edu.ues.fmocc.tpi135.repository.ClaveIdempotenciaRepository;
+
+/**
+ * Implementación de IdempotenciaService. Las claves se conservan durante
+ * tipicos.idempotencia.horasRetencion horas (24 por defecto).
+ */
+@ApplicationScoped
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+    
+    /**
+     * Tiempo tras el que una reserva en proceso se considera abandonada; muy
+     * superior al plazo de los compartimentos y al de las transacciones, por lo
+     * que la solicitud original ya no puede estar ejecutándose. Como la clave se
+     * completa en la transacción de la creación, una reserva abandonada nunca
+     * corresponde a una orden o un pago confirmado.
+     */
+    static final long MILISEGUNDOS_RESERVA = TimeUnit.MINUTES.toMillis(10);
+    
+    private static final long MILISEGUNDOS_RETENCION =
+            TimeUnit.HOURS.toMillis(Long.getLong("tipicos.idempotencia.horasRetencion", 24));
+    
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writer();
+    
+    @Inject
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+    
+    @Override
+    public Optional<RespuestaIdempotenteDTO> reservar(String clave, String huella) {
+        // Dos intentos: la clave puede liberarse entre la reserva fallida y la búsqueda
+        for (int intento = 0; intento < 2; intento++) {
+            if (claveIdempotenciaRepository.reservar(clave, huella)) {
+                return Optional.empty();
+            }
+            Optional<ClaveIdempotencia> existente = claveIdempotenciaRepository.encontrarPorClave(clave);
+            if (existente.isEmpty()) {
+                continue;
+            }
+            ClaveIdempotencia registro = existente.get();
+            if (registro.getEstado() != ClaveIdempotencia.EN_PROCESO) {
+                return Optional.of(new RespuestaIdempotenteDTO(registro.getHuella(), registro.getEstado(),
+                        registro.getCuerpo(), false));
+            }
+            boolean abandonada = registro.getFecha() != null
+                    && System.currentTimeMillis() - registro.getFecha().getTime() > MILISEGUNDOS_RESERVA;
+            if (!abandonada || !claveIdempotenciaRepository.liberar(clave)) {
+                return Optional.of(new RespuestaIdempotenteDTO(registro.getHuella(), 0, null, true));
+            }
+        }
+        return Optional.of(new RespuestaIdempotenteDTO(huella, 0, null, true));
+    }
+    
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void completar(String clave, Object creado) {
+        String cuerpo;
+        try {
+            cuerpo = ESCRITOR_JSON.writeValueAsString(creado);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar la respuesta de la clave " + clave, e);
+        }
+        if (!claveIdempotenciaRepository.completar(clave, ClaveIdempotencia.CREADA, cuerpo)) {
+            throw new IllegalStateException("La clave de idempotencia " + clave + " ya no está reservada");
+        }
+    }
+    
+    @Override
+    public void liberar(String clave) {
+        claveIdempotenciaRepository.liberar(clave);
+    }
+    
+    @Override
+    public int purgar() {
+        return claveIdempotenciaRepository.eliminarAnteriores(new Date(System.currentTimeMillis() - MILISEGUNDOS_RETENCION));
+    }
+}
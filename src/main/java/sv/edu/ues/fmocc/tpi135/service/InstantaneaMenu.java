@@ -0,0 +1,51 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+/**
+ * Menú ya serializado, listo para escribirse tal cual en la respuesta. Es
+ * inmutable: una reconstrucción crea una instantánea nueva y la publica
+ * reemplazando la anterior. Los arreglos se entregan sin copiar, por lo que
+ * no se deben modificar.
+ */
+public final class InstantaneaMenu {
+
+    private final byte[] json;
+    private final byte[] jsonGzip;
+    private final VersionCatalogo.Marca marca;
+    private final long validoHasta;
+
+    InstantaneaMenu(byte[] json, byte[] jsonGzip, VersionCatalogo.Marca marca, long validoHasta) {
+        this.json = json;
+        this.jsonGzip = jsonGzip;
+        this.marca = marca;
+        this.validoHasta = validoHasta;
+    }
+
+    /**
+     * Menú en JSON (UTF-8)
+     */
+    public byte[] getJson() {
+        return json;
+    }
+
+    /**
+     * Menú en JSON comprimido con gzip, o null si la compresión no reduce el tamaño
+     */
+    public byte[] getJsonGzip() {
+        return jsonGzip;
+    }
+
+    /**
+     * Versión del menú, para ETag y Last-Modified; solo cambia si cambia el contenido
+     */
+    public VersionCatalogo.Marca getMarca() {
+        return marca;
+    }
+
+    /**
+     * Instante en milisegundos en que un precio empieza o deja de estar vigente y
+     * el menú debe reconstruirse; Long.MAX_VALUE si no hay cambios programados
+     */
+    public long getValidoHasta() {
+        return validoHasta;
+    }
+}
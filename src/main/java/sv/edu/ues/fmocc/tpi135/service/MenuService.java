@@ -0,0 +1,21 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+/**
+ * Interfaz que define el acceso al menú precalculado para los clientes
+ */
+public interface MenuService {
+    
+    /**
+     * Obtiene el menú vigente ya serializado. Solo se arma en la primera consulta
+     * o si la reconstrucción programada aún no se ejecutó al pasar un cambio de
+     * vigencia de precios; el resto de consultas no accede a la base de datos.
+     * @return Instantánea del menú vigente
+     */
+    InstantaneaMenu obtenerMenu();
+    
+    /**
+     * Pide reconstruir el menú en segundo plano. Las solicitudes que llegan
+     * mientras hay una reconstrucción pendiente se combinan en una sola.
+     */
+    void solicitarReconstruccion();
+}
@@ -0,0 +1,209 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Priority;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
+import javax.inject.Inject;
+import javax.interceptor.Interceptor;
+import sv.edu.ues.fmocc.tpi135.dto.ComboDTO;
+import sv.edu.ues.fmocc.tpi135.dto.MenuDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ProductoPrecioDTO;
+import sv.edu.ues.fmocc.tpi135.dto.TipoProductoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+
+/**
+ * Implementación de MenuService. Arma el menú con los servicios del catálogo,
+ * lo serializa una sola vez (y lo comprime con gzip) y publica el resultado
+ * como una instantánea inmutable que las consultas entregan sin copiarla.
+ *
+ * El menú se reconstruye en segundo plano cuando se confirma un cambio del
+ * catálogo y cuando llega el día en que un precio empieza o deja de estar
+ * vigente. Mientras tanto se sigue entregando la instantánea anterior.
+ */
+@ApplicationScoped
+public class MenuServiceImpl implements MenuService {
+    
+    private static final Logger LOGGER = Logger.getLogger(MenuServiceImpl.class.getName());
+    
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writerFor(MenuDTO.class);
+    
+    @Inject
+    private ProductoService productoService;
+    
+    @Inject
+    private TipoProductoService tipoProductoService;
+    
+    @Inject
+    private ComboService comboService;
+    
+    @Inject
+    private ProductoPrecioRepository productoPrecioRepository;
+    
+    @Resource
+    private ManagedScheduledExecutorService planificador;
+    
+    private volatile InstantaneaMenu instantanea;
+    
+    private final AtomicBoolean reconstruccionPendiente = new AtomicBoolean();
+    
+    /**
+     * Reconstrucción programada para el próximo cambio de vigencia de precios
+     */
+    private ScheduledFuture<?> reconstruccionProgramada;
+    
+    @Override
+    public InstantaneaMenu obtenerMenu() {
+        InstantaneaMenu actual = instantanea;
+        if (actual != null && System.currentTimeMillis() < actual.getValidoHasta()) {
+            return actual;
+        }
+        synchronized (this) {
+            actual = instantanea;
+            if (actual != null && System.currentTimeMillis() < actual.getValidoHasta()) {
+                return actual;
+            }
+            return construir();
+        }
+    }
+    
+    @Override
+    public void solicitarReconstruccion() {
+        if (!reconstruccionPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            planificador.execute(this::reconstruir);
+        } catch (RejectedExecutionException e) {
+            reconstruccionPendiente.set(false);
+            LOGGER.log(Level.WARNING, "No se pudo programar la reconstrucción del menú", e);
+            instantanea = null;
+        }
+    }
+    
+    /**
+     * Pide la reconstrucción al confirmarse un cambio del catálogo. Se ejecuta
+     * después de los observadores de los servicios, que invalidan sus cachés con
+     * la misma notificación, para que el menú no se arme con datos anteriores.
+     */
+    void alConfirmarCambio(@Observes(during = TransactionPhase.AFTER_SUCCESS)
+                           @Priority(Interceptor.Priority.APPLICATION + 1000) CambioCatalogo cambio) {
+        solicitarReconstruccion();
+    }
+    
+    private void reconstruir() {
+        // Se libera antes de armar el menú para que un cambio confirmado durante
+        // la reconstrucción pida otra
+        reconstruccionPendiente.set(false);
+        try {
+            synchronized (this) {
+                construir();
+            }
+        } catch (RuntimeException e) {
+            // Se descarta la instantánea para no seguir entregando un menú desactualizado;
+            // la siguiente consulta lo vuelve a armar
+            LOGGER.log(Level.WARNING, "No se pudo reconstruir el menú", e);
+            instantanea = null;
+        }
+    }
+    
+    /**
+     * Arma, serializa y publica el menú; se llama con el monitor de this tomado
+     */
+    private InstantaneaMenu construir() {
+        long ahora = System.currentTimeMillis();
+        Date hoy = new Date(ahora);
+        
+        List<TipoProductoDTO> tipos = tipoProductoService.buscarTiposProductosPorEstado(true);
+        List<ProductoDTO> productos = productoService.buscarProductosPorEstado(true);
+        List<ComboDTO> combos = comboService.buscarCombosPorEstado(true);
+        
+        Set<Long> activos = new HashSet<>();
+        for (ProductoDTO producto : productos) {
+            activos.add(producto.getIdProducto());
+        }
+        List<ProductoPrecioDTO> precios = new ArrayList<>();
+        for (ProductoPrecio precio : productoPrecioRepository.buscarVigentesPorFecha(hoy)) {
+            if (activos.contains(precio.getIdProducto())) {
+                precios.add(new ProductoPrecioDTO(precio.getIdProductoPrecio(), precio.getIdProducto(),
+                        precio.getFechaDesde(), precio.getFechaHasta(), precio.getPrecioSugerido()));
+            }
+        }
+        // Orden estable para que un mismo contenido produzca los mismos bytes
+        precios.sort((a, b) -> Long.compare(a.getIdProductoPrecio(), b.getIdProductoPrecio()));
+        
+        byte[] json;
+        try {
+            json = ESCRITOR_JSON.writeValueAsBytes(new MenuDTO(tipos, productos, combos, precios));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el menú", e);
+        }
+        
+        InstantaneaMenu anterior = instantanea;
+        VersionCatalogo.Marca marca = anterior != null && Arrays.equals(anterior.getJson(), json)
+                ? anterior.getMarca()
+                : VersionCatalogo.MENU.incrementar();
+        long validoHasta = productoPrecioRepository.buscarProximoCambioVigencia(hoy)
+                .map(Date::getTime)
+                .orElse(Long.MAX_VALUE);
+        
+        InstantaneaMenu nueva = new InstantaneaMenu(json, comprimir(json), marca, validoHasta);
+        instantanea = nueva;
+        programar(validoHasta, ahora);
+        return nueva;
+    }
+    
+    private void programar(long validoHasta, long ahora) {
+        if (reconstruccionProgramada != null) {
+            reconstruccionProgramada.cancel(false);
+            reconstruccionProgramada = null;
+        }
+        if (validoHasta == Long.MAX_VALUE) {
+            return;
+        }
+        try {
+            reconstruccionProgramada = planificador.schedule(this::solicitarReconstruccion,
+                    Math.max(0, validoHasta - ahora), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // La primera consulta después del cambio de vigencia reconstruye el menú
+            LOGGER.log(Level.WARNING, "No se pudo programar la reconstrucción del menú", e);
+        }
+    }
+    
+    /**
+     * Comprime el JSON con gzip; devuelve null si el resultado no es más pequeño
+     */
+    private static byte[] comprimir(byte[] json) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.size() < json.length ? salida.toByteArray() : null;
+    }
+}
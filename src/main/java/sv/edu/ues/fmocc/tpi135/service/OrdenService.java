@@ -3,7 +3,11 @@ package sv.edu.ues.fmocc.tpi135.service;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResultadoLoteDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenVentasDTO;
 
 /**
  * Interfaz que define los servicios para la gestión de órdenes
@@ -17,6 +21,25 @@ public interface OrdenService {
      */
     OrdenDTO crearOrden(OrdenDTO ordenDTO);
     
+    /**
+     * Crea una nueva orden y completa su clave de idempotencia en la misma
+     * transacción, de modo que la clave queda completada si y solo si la orden
+     * se confirma
+     * @param ordenDTO DTO con los datos de la orden a crear
+     * @param claveIdempotencia Ámbito y clave reservada, o nulo
+     * @return DTO de la orden creada con su ID generado
+     */
+    OrdenDTO crearOrden(OrdenDTO ordenDTO, String claveIdempotencia);
+    
+    /**
+     * Crea un lote de órdenes en una sola transacción. Las órdenes inválidas se
+     * rechazan individualmente sin afectar al resto del lote
+     * @param ordenes DTOs de las órdenes a crear
+     * @return Resultado por orden, en el mismo orden recibido
+     * @throws IllegalArgumentException si el lote está vacío o supera el tamaño máximo
+     */
+    List<ResultadoLoteDTO<OrdenDTO>> crearOrdenesEnLote(List<OrdenDTO> ordenes) throws IllegalArgumentException;
+    
     /**
      * Actualiza una orden existente
      * @param id ID de la orden a actualizar
@@ -60,6 +83,40 @@ public interface OrdenService {
      */
     List<OrdenDTO> buscarOrdenesPorAnulada(Boolean anulada);
     
+    /**
+     * Lista órdenes por páginas usando un cursor opaco sobre el ID de la orden
+     * @param cursor Cursor devuelto en la página anterior, o nulo para la primera página
+     * @param fecha Filtro opcional por fecha
+     * @param sucursal Filtro opcional por sucursal
+     * @param anulada Filtro opcional por estado de anulación
+     * @param limite Cantidad máxima de órdenes por página, o nulo para el valor por defecto
+     * @return Página de DTOs de órdenes con el cursor de la siguiente página
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos
+     */
+    PaginaDTO<OrdenDTO> listarOrdenesPaginadas(String cursor, Date fecha, String sucursal, Boolean anulada, Integer limite) throws IllegalArgumentException;
+    
+    /**
+     * Recorre todas las órdenes que cumplen los filtros entregándolas una a una,
+     * sin mantener el resultado completo en memoria
+     * @param desde Fecha inicial inclusiva, puede ser nula
+     * @param hasta Fecha final inclusiva, puede ser nula
+     * @param sucursal Sucursal a exportar, puede ser nula
+     * @param consumidor Receptor de cada orden exportada, en orden de ID
+     * @return Cantidad de órdenes exportadas
+     */
+    long exportarOrdenes(Date desde, Date hasta, String sucursal, Consumer<OrdenDTO> consumidor);
+    
+    /**
+     * Resume las ventas por sucursal y fecha: cantidad de órdenes, anuladas,
+     * total bruto (suma de cantidad * precio de las órdenes no anuladas) y ticket promedio
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @param sucursal Sucursal a resumir, puede ser nula para todas
+     * @return Lista de resúmenes ordenada por fecha y sucursal
+     * @throws IllegalArgumentException si falta alguna fecha o el rango no es válido
+     */
+    List<ResumenVentasDTO> resumirVentas(Date desde, Date hasta, String sucursal) throws IllegalArgumentException;
+    
     /**
      * Anula una orden por su ID
      * @param id ID de la orden a anular
@@ -1,24 +1,43 @@
 package sv.edu.ues.fmocc.tpi135.service;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.ejb.Stateless;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Event;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.dto.EventoOrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
 import sv.edu.ues.fmocc.tpi135.dto.ProductoPrecioDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResultadoLoteDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenVentasDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
 import sv.edu.ues.fmocc.tpi135.entity.OrdenDetalle;
 import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+import sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiaria;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepository;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+import sv.edu.ues.fmocc.tpi135.repository.VentaProductoDiariaRepository;
 
 /**
  * Implementación de OrdenService que gestiona la lógica de negocio para órdenes
@@ -26,6 +45,26 @@ import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
 @ApplicationScoped
 public class OrdenServiceImpl implements OrdenService {
     
+    /**
+     * Cantidad de órdenes leídas por bloque durante una exportación
+     */
+    private static final int TAMANIO_BLOQUE_EXPORTACION = 500;
+    
+    /**
+     * Cantidad máxima de días que abarca un resumen de ventas
+     */
+    private static final long MAXIMO_DIAS_RESUMEN = 366;
+    
+    /**
+     * Cantidad máxima de órdenes aceptadas en una sola carga por lote
+     */
+    private static final int TAMANIO_MAXIMO_LOTE = 1000;
+    
+    /**
+     * Longitud de la columna orden.sucursal
+     */
+    private static final int LONGITUD_SUCURSAL = 5;
+    
     @Inject
     private OrdenRepository ordenRepository;
     
@@ -35,6 +74,22 @@ public class OrdenServiceImpl implements OrdenService {
     @Inject
     private ProductoPrecioRepository productoPrecioRepository;
     
+    @Inject
+    private VentaProductoDiariaRepository ventaProductoDiariaRepository;
+    
+    /**
+     * Cambios de órdenes para las pantallas de cocina; los observadores los
+     * reciben solo si la transacción se confirma
+     */
+    @Inject
+    private Event<EventoOrdenDTO> eventosOrden;
+    
+    @Inject
+    private SalidaService salidaService;
+    
+    @Inject
+    private IdempotenciaService idempotenciaService;
+    
     /**
      * Convierte una entidad Orden a DTO
      */
@@ -63,6 +118,45 @@ public class OrdenServiceImpl implements OrdenService {
         return dto;
     }
     
+    /**
+     * Convierte un bloque de órdenes a DTOs con una sola consulta para todos los
+     * detalles, que trae su precio de producto en la misma sentencia
+     */
+    private List<OrdenDTO> mapToDTOs(List<Orden> ordenes) {
+        if (ordenes == null || ordenes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Long> idsOrden = ordenes.stream()
+                .map(Orden::getIdOrden)
+                .collect(Collectors.toList());
+        
+        Map<Long, List<OrdenDetalle>> detallesPorOrden = ordenDetalleRepository.buscarPorIdsOrden(idsOrden).stream()
+                .collect(Collectors.groupingBy(OrdenDetalle::getIdOrden));
+        
+        List<OrdenDTO> resultado = new ArrayList<>(ordenes.size());
+        for (Orden orden : ordenes) {
+            OrdenDTO dto = new OrdenDTO(
+                    orden.getIdOrden(),
+                    orden.getFecha(),
+                    orden.getSucursal(),
+                    orden.getAnulada()
+            );
+            
+            List<OrdenDetalle> detalles = detallesPorOrden.get(orden.getIdOrden());
+            if (detalles != null && !detalles.isEmpty()) {
+                List<OrdenDetalleDTO> detallesDTO = new ArrayList<>(detalles.size());
+                for (OrdenDetalle detalle : detalles) {
+                    detallesDTO.add(mapToDetalleDTO(detalle, detalle.getProductoPrecio()));
+                }
+                dto.setDetalles(detallesDTO);
+            }
+            resultado.add(dto);
+        }
+        
+        return resultado;
+    }
+    
     /**
      * Convierte un DTO a entidad Orden
      */
@@ -109,6 +203,22 @@ public class OrdenServiceImpl implements OrdenService {
         return dto;
     }
     
+    /**
+     * Convierte una entidad OrdenDetalle a DTO con su precio de producto ya cargado
+     */
+    private OrdenDetalleDTO mapToDetalleDTO(OrdenDetalle detalle, ProductoPrecio productoPrecio) {
+        OrdenDetalleDTO dto = new OrdenDetalleDTO(
+                detalle.getIdOrden(),
+                detalle.getIdProductoPrecio(),
+                detalle.getCantidad(),
+                detalle.getPrecio(),
+                detalle.getObservaciones()
+        );
+        dto.setProductoPrecio(mapToProductoPrecioDTO(productoPrecio));
+        
+        return dto;
+    }
+    
     /**
      * Convierte una entidad ProductoPrecio a DTO
      */
@@ -126,6 +236,30 @@ public class OrdenServiceImpl implements OrdenService {
         );
     }
     
+    /**
+     * Convierte un DTO a entidad OrdenDetalle tomando el precio sugerido de los
+     * precios ya cargados cuando el DTO no trae precio
+     */
+    private OrdenDetalle mapToDetalleEntity(OrdenDetalleDTO dto, Long idOrden, Map<Long, ProductoPrecio> precios) {
+        OrdenDetalle detalle = new OrdenDetalle();
+        detalle.setIdOrden(idOrden);
+        detalle.setIdProductoPrecio(dto.getIdProductoPrecio());
+        detalle.setCantidad(dto.getCantidad() != null ? dto.getCantidad() : 1); // Cantidad 1 por defecto
+        
+        if (dto.getPrecio() == null) {
+            ProductoPrecio productoPrecio = precios.get(dto.getIdProductoPrecio());
+            detalle.setPrecio(productoPrecio != null && productoPrecio.getPrecioSugerido() != null
+                    ? productoPrecio.getPrecioSugerido()
+                    : BigDecimal.ZERO);
+        } else {
+            detalle.setPrecio(dto.getPrecio());
+        }
+        
+        detalle.setObservaciones(dto.getObservaciones());
+        
+        return detalle;
+    }
+    
     /**
      * Convierte un DTO a entidad OrdenDetalle
      */
@@ -141,12 +275,8 @@ public class OrdenServiceImpl implements OrdenService {
         
         // Si no se proporciona un precio, obtener el precio sugerido del producto
         if (dto.getPrecio() == null) {
-            Optional<ProductoPrecio> productoPrecioOpt = productoPrecioRepository.encontrarPorId(dto.getIdProductoPrecio());
-            if (productoPrecioOpt.isPresent()) {
-                detalle.setPrecio(productoPrecioOpt.get().getPrecioSugerido());
-            } else {
-                detalle.setPrecio(BigDecimal.ZERO);
-            }
+            detalle.setPrecio(productoPrecioRepository.buscarPrecioSugerido(dto.getIdProductoPrecio())
+                    .orElse(BigDecimal.ZERO));
         } else {
             detalle.setPrecio(dto.getPrecio());
         }
@@ -159,6 +289,12 @@ public class OrdenServiceImpl implements OrdenService {
     @Override
     @Transactional
     public OrdenDTO crearOrden(OrdenDTO ordenDTO) {
+        return crearOrden(ordenDTO, null);
+    }
+    
+    @Override
+    @Transactional
+    public OrdenDTO crearOrden(OrdenDTO ordenDTO, String claveIdempotencia) {
         // Validación básica
         if (ordenDTO == null) {
             throw new IllegalArgumentException("La orden no puede ser nula");
@@ -180,15 +316,179 @@ public class OrdenServiceImpl implements OrdenService {
         Orden ordenCreada = ordenRepository.crear(orden);
         
         // Guardamos los detalles de la orden si existen
+        List<OrdenDetalle> detalles = new ArrayList<>();
         if (ordenDTO.getDetalles() != null && !ordenDTO.getDetalles().isEmpty()) {
             for (OrdenDetalleDTO detalleDTO : ordenDTO.getDetalles()) {
                 OrdenDetalle detalle = mapToDetalleEntity(detalleDTO, ordenCreada.getIdOrden());
                 ordenDetalleRepository.crear(detalle);
+                detalles.add(detalle);
             }
         }
         
+        AcumuladorVentas ventas = acumuladorVentas(detalles);
+        ventas.agregar(ordenCreada, detalles, 1);
+        registrarVentas(ventas);
+        
         // Convertimos resultado a DTO
-        return mapToDTO(ordenCreada);
+        OrdenDTO creada = mapToDTO(ordenCreada);
+        if (claveIdempotencia != null) {
+            idempotenciaService.completar(claveIdempotencia, creada);
+        }
+        notificar(new EventoOrdenDTO(EventoOrdenDTO.CREADA, creada, null));
+        return creada;
+    }
+    
+    @Override
+    @Transactional
+    public List<ResultadoLoteDTO<OrdenDTO>> crearOrdenesEnLote(List<OrdenDTO> ordenes) throws IllegalArgumentException {
+        // Validación básica
+        if (ordenes == null || ordenes.isEmpty()) {
+            throw new IllegalArgumentException("El lote de órdenes no puede estar vacío");
+        }
+        
+        if (ordenes.size() > TAMANIO_MAXIMO_LOTE) {
+            throw new IllegalArgumentException("El lote no puede tener más de " + TAMANIO_MAXIMO_LOTE + " órdenes");
+        }
+        
+        // Validar cada orden por separado; las inválidas se reportan sin detener el lote
+        List<ResultadoLoteDTO<OrdenDTO>> resultados = new ArrayList<>(Collections.nCopies(ordenes.size(), null));
+        List<Integer> candidatas = new ArrayList<>();
+        Set<Long> idsPrecio = new HashSet<>();
+        for (int i = 0; i < ordenes.size(); i++) {
+            String error = validarOrdenLote(ordenes.get(i));
+            if (error != null) {
+                resultados.set(i, ResultadoLoteDTO.rechazo(i, error));
+                continue;
+            }
+            candidatas.add(i);
+            if (ordenes.get(i).getDetalles() != null) {
+                ordenes.get(i).getDetalles().forEach(detalle -> idsPrecio.add(detalle.getIdProductoPrecio()));
+            }
+        }
+        
+        if (candidatas.isEmpty()) {
+            return resultados;
+        }
+        
+        // Una sola consulta para todos los precios referenciados en el lote
+        Map<Long, ProductoPrecio> precios = idsPrecio.isEmpty()
+                ? Collections.emptyMap()
+                : productoPrecioRepository.buscarPorIds(idsPrecio).stream()
+                        .collect(Collectors.toMap(ProductoPrecio::getIdProductoPrecio, Function.identity()));
+        
+        // Un precio inexistente violaría la llave foránea al insertar y revertiría
+        // todo el lote, por lo que se rechaza solo la orden que lo referencia
+        List<Integer> indicesValidos = new ArrayList<>(candidatas.size());
+        for (Integer indice : candidatas) {
+            String error = validarPreciosLote(ordenes.get(indice), precios);
+            if (error != null) {
+                resultados.set(indice, ResultadoLoteDTO.rechazo(indice, error));
+            } else {
+                indicesValidos.add(indice);
+            }
+        }
+        
+        if (indicesValidos.isEmpty()) {
+            return resultados;
+        }
+        
+        // Insertar todos los encabezados juntos para obtener sus IDs
+        List<Orden> entidades = new ArrayList<>(indicesValidos.size());
+        for (Integer indice : indicesValidos) {
+            entidades.add(mapToEntity(ordenes.get(indice)));
+        }
+        ordenRepository.crearLote(entidades);
+        
+        // Insertar todos los detalles juntos
+        List<OrdenDetalle> detalles = new ArrayList<>();
+        List<List<OrdenDetalle>> detallesPorOrden = new ArrayList<>(entidades.size());
+        for (int j = 0; j < entidades.size(); j++) {
+            List<OrdenDetalle> detallesOrden = new ArrayList<>();
+            List<OrdenDetalleDTO> detallesDTO = ordenes.get(indicesValidos.get(j)).getDetalles();
+            if (detallesDTO != null) {
+                for (OrdenDetalleDTO detalleDTO : detallesDTO) {
+                    detallesOrden.add(mapToDetalleEntity(detalleDTO, entidades.get(j).getIdOrden(), precios));
+                }
+            }
+            detalles.addAll(detallesOrden);
+            detallesPorOrden.add(detallesOrden);
+        }
+        if (!detalles.isEmpty()) {
+            ordenDetalleRepository.crearLote(detalles);
+        }
+        
+        AcumuladorVentas ventas = acumuladorVentas(detalles);
+        for (int j = 0; j < entidades.size(); j++) {
+            ventas.agregar(entidades.get(j), detallesPorOrden.get(j), 1);
+        }
+        registrarVentas(ventas);
+        
+        // Armar la respuesta con lo ya insertado, sin volver a consultar
+        for (int j = 0; j < entidades.size(); j++) {
+            Orden orden = entidades.get(j);
+            OrdenDTO dto = new OrdenDTO(orden.getIdOrden(), orden.getFecha(), orden.getSucursal(), orden.getAnulada());
+            if (!detallesPorOrden.get(j).isEmpty()) {
+                List<OrdenDetalleDTO> detallesDTO = new ArrayList<>(detallesPorOrden.get(j).size());
+                for (OrdenDetalle detalle : detallesPorOrden.get(j)) {
+                    detallesDTO.add(mapToDetalleDTO(detalle, precios.get(detalle.getIdProductoPrecio())));
+                }
+                dto.setDetalles(detallesDTO);
+            }
+            resultados.set(indicesValidos.get(j), ResultadoLoteDTO.exito(indicesValidos.get(j), dto));
+            notificar(new EventoOrdenDTO(EventoOrdenDTO.CREADA, dto, null));
+        }
+        
+        return resultados;
+    }
+    
+    /**
+     * Valida una orden de un lote
+     * @return Mensaje de error o null si la orden es válida
+     */
+    private String validarOrdenLote(OrdenDTO ordenDTO) {
+        if (ordenDTO == null) {
+            return "La orden no puede ser nula";
+        }
+        
+        if (ordenDTO.getSucursal() == null || ordenDTO.getSucursal().trim().isEmpty()) {
+            return "La sucursal es obligatoria";
+        }
+        
+        if (ordenDTO.getSucursal().length() > LONGITUD_SUCURSAL) {
+            return "La sucursal no puede tener más de " + LONGITUD_SUCURSAL + " caracteres";
+        }
+        
+        if (ordenDTO.getDetalles() == null) {
+            return null;
+        }
+        
+        Set<Long> idsPrecio = new HashSet<>();
+        for (OrdenDetalleDTO detalle : ordenDTO.getDetalles()) {
+            if (detalle == null || detalle.getIdProductoPrecio() == null) {
+                return "Cada detalle debe indicar el ID del precio de producto";
+            }
+            if (!idsPrecio.add(detalle.getIdProductoPrecio())) {
+                return "El precio de producto " + detalle.getIdProductoPrecio() + " está repetido en la orden";
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Verifica que todos los precios de producto de una orden del lote existan
+     * @param precios Precios referenciados en el lote, por ID
+     * @return Mensaje de error o null si la orden es válida
+     */
+    private static String validarPreciosLote(OrdenDTO ordenDTO, Map<Long, ProductoPrecio> precios) {
+        if (ordenDTO.getDetalles() == null) {
+            return null;
+        }
+        for (OrdenDetalleDTO detalle : ordenDTO.getDetalles()) {
+            if (!precios.containsKey(detalle.getIdProductoPrecio())) {
+                return "No existe un precio de producto con el ID " + detalle.getIdProductoPrecio();
+            }
+        }
+        return null;
     }
     
     @Override
@@ -203,8 +503,9 @@ public class OrdenServiceImpl implements OrdenService {
             throw new IllegalArgumentException("La orden no puede ser nula");
         }
         
-        // Verificar si la orden existe
-        Optional<Orden> existente = ordenRepository.encontrarPorId(id);
+        // Verificar si la orden existe, bloqueándola para que las modificaciones
+        // simultáneas no descuenten dos veces las mismas ventas
+        Optional<Orden> existente = ordenRepository.encontrarParaActualizar(id);
         if (!existente.isPresent()) {
             throw new IllegalArgumentException("No existe una orden con el ID " + id);
         }
@@ -212,6 +513,9 @@ public class OrdenServiceImpl implements OrdenService {
         // Actualizar los campos
         Orden orden = existente.get();
         
+        // Copia del encabezado anterior para descontarlo de los contadores de venta
+        Orden anterior = new Orden(orden.getIdOrden(), orden.getFecha(), orden.getSucursal(), orden.getAnulada());
+        
         // Solo actualizar la fecha si se proporciona una nueva
         if (ordenDTO.getFecha() != null) {
             orden.setFecha(ordenDTO.getFecha());
@@ -230,20 +534,124 @@ public class OrdenServiceImpl implements OrdenService {
         // Guardar cambios en la orden
         Orden actualizada = ordenRepository.actualizar(orden);
         
-        // Manejar los detalles de la orden si se proporcionan
-        if (ordenDTO.getDetalles() != null) {
-            // Opción más sencilla: eliminar los detalles existentes y agregar los nuevos
-            ordenDetalleRepository.eliminarPorIdOrden(id);
+        // Manejar los detalles de la orden si se proporcionan; si solo cambió el
+        // encabezado, los detalles se leen para mover sus ventas de contador
+        boolean cambioEncabezado = !Objects.equals(anterior.getFecha(), actualizada.getFecha())
+                || !Objects.equals(anterior.getSucursal(), actualizada.getSucursal())
+                || !Objects.equals(anterior.getAnulada(), actualizada.getAnulada());
+        if (ordenDTO.getDetalles() != null || cambioEncabezado) {
+            List<OrdenDetalle> existentes = ordenDetalleRepository.buscarPorIdOrden(id);
+            List<OrdenDetalle> detallesAnteriores = copiarDetalles(existentes);
+            List<OrdenDetalle> detallesNuevos = ordenDTO.getDetalles() != null
+                    ? reconciliarDetalles(id, existentes, ordenDTO.getDetalles())
+                    : detallesAnteriores;
             
-            // Agregar los nuevos detalles
-            for (OrdenDetalleDTO detalleDTO : ordenDTO.getDetalles()) {
-                OrdenDetalle detalle = mapToDetalleEntity(detalleDTO, id);
-                ordenDetalleRepository.crear(detalle);
-            }
+            List<OrdenDetalle> todos = new ArrayList<>(detallesAnteriores);
+            todos.addAll(detallesNuevos);
+            AcumuladorVentas ventas = acumuladorVentas(todos);
+            ventas.agregar(anterior, detallesAnteriores, -1);
+            ventas.agregar(actualizada, detallesNuevos, 1);
+            registrarVentas(ventas);
         }
         
         // Convertir resultado a DTO
-        return mapToDTO(actualizada);
+        OrdenDTO resultado = mapToDTO(actualizada);
+        String tipo = !Boolean.TRUE.equals(anterior.getAnulada()) && Boolean.TRUE.equals(actualizada.getAnulada())
+                ? EventoOrdenDTO.ANULADA
+                : EventoOrdenDTO.ACTUALIZADA;
+        notificar(new EventoOrdenDTO(tipo, resultado,
+                Objects.equals(anterior.getSucursal(), actualizada.getSucursal()) ? null : anterior.getSucursal()));
+        return resultado;
+    }
+    
+    /**
+     * Compara los detalles recibidos con los existentes por su clave (idOrden, idProductoPrecio)
+     * y aplica solo las inserciones, actualizaciones y eliminaciones necesarias
+     * @return Detalles que quedan en la orden
+     */
+    private List<OrdenDetalle> reconciliarDetalles(Long idOrden, List<OrdenDetalle> detallesActuales, List<OrdenDetalleDTO> detallesDTO) {
+        Map<Long, OrdenDetalle> existentes = new HashMap<>();
+        for (OrdenDetalle detalle : detallesActuales) {
+            existentes.put(detalle.getIdProductoPrecio(), detalle);
+        }
+        
+        List<OrdenDetalle> nuevos = new ArrayList<>();
+        List<OrdenDetalle> modificados = new ArrayList<>();
+        List<OrdenDetalle> resultado = new ArrayList<>(detallesDTO.size());
+        Set<Long> recibidos = new HashSet<>();
+        for (OrdenDetalleDTO detalleDTO : detallesDTO) {
+            if (detalleDTO == null || detalleDTO.getIdProductoPrecio() == null) {
+                throw new IllegalArgumentException("Cada detalle debe indicar el ID del precio de producto");
+            }
+            if (!recibidos.add(detalleDTO.getIdProductoPrecio())) {
+                throw new IllegalArgumentException("El precio de producto " + detalleDTO.getIdProductoPrecio() + " está repetido en la orden");
+            }
+            
+            OrdenDetalle deseado = mapToDetalleEntity(detalleDTO, idOrden);
+            resultado.add(deseado);
+            OrdenDetalle actual = existentes.remove(detalleDTO.getIdProductoPrecio());
+            if (actual == null) {
+                nuevos.add(deseado);
+            } else if (!Objects.equals(actual.getCantidad(), deseado.getCantidad())
+                    || !mismoMonto(actual.getPrecio(), deseado.getPrecio())
+                    || !Objects.equals(actual.getObservaciones(), deseado.getObservaciones())) {
+                actual.setCantidad(deseado.getCantidad());
+                actual.setPrecio(deseado.getPrecio());
+                actual.setObservaciones(deseado.getObservaciones());
+                modificados.add(actual);
+            }
+        }
+        
+        // Lo que quedó en existentes ya no viene en la orden
+        List<OrdenDetalle> eliminados = new ArrayList<>(existentes.values());
+        if (!nuevos.isEmpty() || !modificados.isEmpty() || !eliminados.isEmpty()) {
+            ordenDetalleRepository.aplicarCambios(nuevos, modificados, eliminados);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Copia los valores de los detalles antes de que se modifiquen las entidades administradas
+     */
+    private static List<OrdenDetalle> copiarDetalles(List<OrdenDetalle> detalles) {
+        List<OrdenDetalle> copias = new ArrayList<>(detalles.size());
+        for (OrdenDetalle detalle : detalles) {
+            copias.add(new OrdenDetalle(detalle.getIdOrden(), detalle.getIdProductoPrecio(),
+                    detalle.getCantidad(), detalle.getPrecio(), null));
+        }
+        return copias;
+    }
+    
+    /**
+     * Prepara un acumulador de ventas resolviendo en bloque el producto de cada línea
+     */
+    private AcumuladorVentas acumuladorVentas(Collection<OrdenDetalle> detalles) {
+        Set<Long> idsPrecio = new HashSet<>();
+        for (OrdenDetalle detalle : detalles) {
+            if (detalle.getIdProductoPrecio() != null) {
+                idsPrecio.add(detalle.getIdProductoPrecio());
+            }
+        }
+        return new AcumuladorVentas(idsPrecio.isEmpty()
+                ? Collections.emptyMap()
+                : productoPrecioRepository.buscarIdsProducto(idsPrecio));
+    }
+    
+    /**
+     * Aplica a los contadores de venta los incrementos acumulados, dentro de la transacción actual
+     */
+    private void registrarVentas(AcumuladorVentas ventas) {
+        List<VentaProductoDiaria> incrementos = ventas.incrementos();
+        if (!incrementos.isEmpty()) {
+            ventaProductoDiariaRepository.aplicarIncrementos(incrementos);
+        }
+    }
+    
+    /**
+     * Compara dos montos por valor, sin tomar en cuenta la escala
+     */
+    private static boolean mismoMonto(BigDecimal a, BigDecimal b) {
+        return a == null ? b == null : b != null && a.compareTo(b) == 0;
     }
     
     @Override
@@ -258,9 +666,7 @@ public class OrdenServiceImpl implements OrdenService {
     
     @Override
     public List<OrdenDTO> listarOrdenes() {
-        return ordenRepository.listarTodas().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(ordenRepository.listarTodas());
     }
     
     @Override
@@ -269,9 +675,7 @@ public class OrdenServiceImpl implements OrdenService {
             return new ArrayList<>();
         }
         
-        return ordenRepository.buscarPorFecha(fecha).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(ordenRepository.buscarPorFecha(fecha));
     }
     
     @Override
@@ -280,9 +684,7 @@ public class OrdenServiceImpl implements OrdenService {
             return new ArrayList<>();
         }
         
-        return ordenRepository.buscarPorSucursal(sucursal).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(ordenRepository.buscarPorSucursal(sucursal));
     }
     
     @Override
@@ -291,9 +693,89 @@ public class OrdenServiceImpl implements OrdenService {
             return listarOrdenes();
         }
         
-        return ordenRepository.buscarPorAnulada(anulada).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(ordenRepository.buscarPorAnulada(anulada));
+    }
+    
+    @Override
+    public PaginaDTO<OrdenDTO> listarOrdenesPaginadas(String cursor, Date fecha, String sucursal, Boolean anulada, Integer limite) throws IllegalArgumentException {
+        if (sucursal != null && sucursal.trim().isEmpty()) {
+            sucursal = null;
+        }
+        // El cursor solo es válido con los mismos filtros con que se generó
+        long despuesDe = CursorPaginacion.decodificar(cursor, fecha, sucursal, anulada);
+        int tamanio = CursorPaginacion.normalizarLimite(limite);
+        
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Orden> ordenes = ordenRepository.buscarPagina(despuesDe, fecha, sucursal, anulada, tamanio + 1);
+        boolean hayMas = ordenes.size() > tamanio;
+        if (hayMas) {
+            ordenes = ordenes.subList(0, tamanio);
+        }
+        
+        String siguiente = hayMas ? CursorPaginacion.codificar(ordenes.get(ordenes.size() - 1).getIdOrden(), fecha, sucursal, anulada) : null;
+        return new PaginaDTO<>(mapToDTOs(ordenes), siguiente, tamanio);
+    }
+    
+    @Override
+    public long exportarOrdenes(Date desde, Date hasta, String sucursal, Consumer<OrdenDTO> consumidor) {
+        if (desde != null && hasta != null && desde.after(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        
+        long exportadas = 0;
+        long despuesDe = 0;
+        List<Orden> bloque;
+        do {
+            bloque = ordenRepository.buscarBloqueExportacion(despuesDe, desde, hasta, sucursal, TAMANIO_BLOQUE_EXPORTACION);
+            if (bloque.isEmpty()) {
+                break;
+            }
+            
+            for (OrdenDTO dto : mapToDTOs(bloque)) {
+                consumidor.accept(dto);
+                exportadas++;
+            }
+            despuesDe = bloque.get(bloque.size() - 1).getIdOrden();
+        } while (bloque.size() == TAMANIO_BLOQUE_EXPORTACION);
+        
+        return exportadas;
+    }
+    
+    @Override
+    public List<ResumenVentasDTO> resumirVentas(Date desde, Date hasta, String sucursal) throws IllegalArgumentException {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas inicial y final son requeridas");
+        }
+        if (desde.after(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        if (TimeUnit.MILLISECONDS.toDays(hasta.getTime() - desde.getTime()) >= MAXIMO_DIAS_RESUMEN) {
+            throw new IllegalArgumentException("El rango del resumen no puede superar " + MAXIMO_DIAS_RESUMEN + " días");
+        }
+        
+        List<Object[]> filas = ordenRepository.resumirVentas(desde, hasta, sucursal);
+        List<ResumenVentasDTO> resultado = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            long ordenes = ((Number) fila[2]).longValue();
+            long anuladas = ((Number) fila[3]).longValue();
+            BigDecimal total = aBigDecimal(fila[4]);
+            long validas = ordenes - anuladas;
+            BigDecimal ticketPromedio = validas > 0
+                    ? total.divide(BigDecimal.valueOf(validas), 2, RoundingMode.HALF_UP)
+                    : BigDecimal.ZERO;
+            resultado.add(new ResumenVentasDTO((Date) fila[0], (String) fila[1], ordenes, anuladas, total, ticketPromedio));
+        }
+        return resultado;
+    }
+    
+    /**
+     * Convierte el resultado numérico de una consulta nativa a BigDecimal
+     */
+    private static BigDecimal aBigDecimal(Object valor) {
+        if (valor == null) {
+            return BigDecimal.ZERO;
+        }
+        return valor instanceof BigDecimal ? (BigDecimal) valor : new BigDecimal(valor.toString());
     }
     
     @Override
@@ -303,7 +785,28 @@ public class OrdenServiceImpl implements OrdenService {
             return false;
         }
         
-        return ordenRepository.anular(id);
+        Optional<Orden> existente = ordenRepository.encontrarParaActualizar(id);
+        if (!existente.isPresent()) {
+            return false;
+        }
+        Orden orden = existente.get();
+        if (Boolean.TRUE.equals(orden.getAnulada())) {
+            // Ya anulada: sus ventas ya se descontaron y el evento ya se emitió
+            return true;
+        }
+        Orden anterior = new Orden(orden.getIdOrden(), orden.getFecha(), orden.getSucursal(), orden.getAnulada());
+        List<OrdenDetalle> detalles = copiarDetalles(ordenDetalleRepository.buscarPorIdOrden(id));
+        
+        if (!ordenRepository.anular(id)) {
+            return false;
+        }
+        
+        AcumuladorVentas ventas = acumuladorVentas(detalles);
+        ventas.agregar(anterior, detalles, -1);
+        registrarVentas(ventas);
+        notificar(new EventoOrdenDTO(EventoOrdenDTO.ANULADA,
+                new OrdenDTO(id, anterior.getFecha(), anterior.getSucursal(), Boolean.TRUE), null));
+        return true;
     }
     
     @Override
@@ -313,10 +816,38 @@ public class OrdenServiceImpl implements OrdenService {
             return false;
         }
         
+        Optional<Orden> existente = ordenRepository.encontrarParaActualizar(id);
+        if (!existente.isPresent()) {
+            return false;
+        }
+        Orden orden = existente.get();
+        Orden anterior = new Orden(orden.getIdOrden(), orden.getFecha(), orden.getSucursal(), orden.getAnulada());
+        List<OrdenDetalle> detalles = Boolean.TRUE.equals(anterior.getAnulada())
+                ? Collections.emptyList()
+                : copiarDetalles(ordenDetalleRepository.buscarPorIdOrden(id));
+        
         // Primero eliminar los detalles de la orden
         ordenDetalleRepository.eliminarPorIdOrden(id);
         
         // Luego eliminar la orden
-        return ordenRepository.eliminar(id);
+        if (!ordenRepository.eliminar(id)) {
+            return false;
+        }
+        
+        AcumuladorVentas ventas = acumuladorVentas(detalles);
+        ventas.agregar(anterior, detalles, -1);
+        registrarVentas(ventas);
+        notificar(new EventoOrdenDTO(EventoOrdenDTO.ELIMINADA,
+                new OrdenDTO(id, anterior.getFecha(), anterior.getSucursal(), anterior.getAnulada()), null));
+        return true;
+    }
+    
+    /**
+     * Registra el cambio en la bandeja de salida, en la transacción en curso, y lo
+     * publica para los observadores que esperan la confirmación
+     */
+    private void notificar(EventoOrdenDTO evento) {
+        salidaService.registrar(EventoSalida.ORDEN, evento.getOrden().getIdOrden(), evento.getTipo(), evento.getOrden());
+        eventosOrden.fire(evento);
     }
-}
\ No newline at end of file
+}
@@ -3,6 +3,7 @@ package sv.edu.ues.fmocc.tpi135.service;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
 
 /**
@@ -17,6 +18,16 @@ public interface PagoService {
      */
     PagoDTO crearPago(PagoDTO pagoDTO);
     
+    /**
+     * Crea un nuevo pago y completa su clave de idempotencia en la misma
+     * transacción, de modo que la clave queda completada si y solo si el pago
+     * se confirma
+     * @param pagoDTO DTO con los datos del pago a crear
+     * @param claveIdempotencia Ámbito y clave reservada, o nulo
+     * @return DTO del pago creado con su ID generado
+     */
+    PagoDTO crearPago(PagoDTO pagoDTO, String claveIdempotencia);
+    
     /**
      * Actualiza un pago existente
      * @param id ID del pago a actualizar
@@ -60,6 +71,18 @@ public interface PagoService {
      */
     List<PagoDTO> buscarPagosPorMetodoPago(String metodoPago);
     
+    /**
+     * Lista pagos por páginas usando un cursor opaco sobre el ID del pago
+     * @param cursor Cursor devuelto en la página anterior, o nulo para la primera página
+     * @param idOrden Filtro opcional por ID de orden
+     * @param fecha Filtro opcional por fecha
+     * @param metodoPago Filtro opcional por método de pago
+     * @param limite Cantidad máxima de pagos por página, o nulo para el valor por defecto
+     * @return Página de DTOs de pagos con el cursor de la siguiente página
+     * @throws IllegalArgumentException si el cursor o el límite no son válidos
+     */
+    PaginaDTO<PagoDTO> listarPagosPaginados(String cursor, Long idOrden, Date fecha, String metodoPago, Integer limite) throws IllegalArgumentException;
+    
     /**
      * Elimina un pago por su ID
      * @param id ID del pago a eliminar
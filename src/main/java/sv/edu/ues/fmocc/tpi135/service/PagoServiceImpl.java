@@ -3,15 +3,20 @@ package sv.edu.ues.fmocc.tpi135.service;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
 import javax.inject.Inject;
 import javax.transaction.Transactional;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
 import sv.edu.ues.fmocc.tpi135.entity.Pago;
 import sv.edu.ues.fmocc.tpi135.entity.PagoDetalle;
@@ -34,6 +39,12 @@ public class PagoServiceImpl implements PagoService {
     @Inject
     private OrdenRepository ordenRepository;
     
+    @Inject
+    private SalidaService salidaService;
+    
+    @Inject
+    private IdempotenciaService idempotenciaService;
+    
     /**
      * Convierte una entidad Pago a DTO
      */
@@ -73,6 +84,50 @@ public class PagoServiceImpl implements PagoService {
         return dto;
     }
     
+    /**
+     * Convierte un bloque de pagos a DTOs con un número constante de consultas:
+     * las órdenes de los pagos se cargan en bloque (BatchFetch en Pago.orden) y
+     * los detalles de todos los pagos con una sola consulta
+     */
+    private List<PagoDTO> mapToDTOs(List<Pago> pagos) {
+        if (pagos == null || pagos.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        List<Long> idsPago = new ArrayList<>(pagos.size());
+        for (Pago pago : pagos) {
+            idsPago.add(pago.getIdPago());
+        }
+        
+        Map<Long, List<PagoDetalle>> detallesPorPago = pagoDetalleRepository.buscarPorIdsPago(idsPago).stream()
+                .collect(Collectors.groupingBy(PagoDetalle::getIdPago));
+        
+        List<PagoDTO> resultado = new ArrayList<>(pagos.size());
+        for (Pago pago : pagos) {
+            PagoDTO dto = new PagoDTO(
+                    pago.getIdPago(),
+                    pago.getIdOrden(),
+                    pago.getFecha(),
+                    pago.getMetodoPago(),
+                    pago.getReferencia()
+            );
+            
+            dto.setOrden(mapToOrdenDTO(pago.getOrden()));
+            
+            List<PagoDetalle> detalles = detallesPorPago.get(pago.getIdPago());
+            if (detalles != null && !detalles.isEmpty()) {
+                List<PagoDetalleDTO> detallesDTO = new ArrayList<>(detalles.size());
+                for (PagoDetalle detalle : detalles) {
+                    detallesDTO.add(mapToDetalleDTO(detalle));
+                }
+                dto.setDetalles(detallesDTO);
+            }
+            resultado.add(dto);
+        }
+        
+        return resultado;
+    }
+    
     /**
      * Convierte una entidad Orden a DTO (versión simplificada)
      */
@@ -144,6 +199,12 @@ public class PagoServiceImpl implements PagoService {
     @Override
     @Transactional
     public PagoDTO crearPago(PagoDTO pagoDTO) {
+        return crearPago(pagoDTO, null);
+    }
+    
+    @Override
+    @Transactional
+    public PagoDTO crearPago(PagoDTO pagoDTO, String claveIdempotencia) {
         // Validación básica
         if (pagoDTO == null) {
             throw new IllegalArgumentException("El pago no puede ser nulo");
@@ -182,7 +243,12 @@ public class PagoServiceImpl implements PagoService {
         }
         
         // Convertimos resultado a DTO
-        return mapToDTO(pagoCreado);
+        PagoDTO creado = mapToDTO(pagoCreado);
+        if (claveIdempotencia != null) {
+            idempotenciaService.completar(claveIdempotencia, creado);
+        }
+        salidaService.registrar(EventoSalida.PAGO, creado.getIdPago(), EventoSalida.PAGO_CREADO, creado);
+        return creado;
     }
     
     @Override
@@ -235,18 +301,56 @@ public class PagoServiceImpl implements PagoService {
         
         // Manejar los detalles del pago si se proporcionan
         if (pagoDTO.getDetalles() != null) {
-            // Opción más sencilla: eliminar los detalles existentes y agregar los nuevos
-            pagoDetalleRepository.eliminarPorIdPago(id);
+            reconciliarDetalles(id, pagoDTO.getDetalles());
+        }
+        
+        // Convertir resultado a DTO
+        PagoDTO resultado = mapToDTO(actualizado);
+        salidaService.registrar(EventoSalida.PAGO, id, EventoSalida.PAGO_ACTUALIZADO, resultado);
+        return resultado;
+    }
+    
+    /**
+     * Compara los detalles recibidos con los existentes por idPagoDetalle y aplica
+     * solo las inserciones, actualizaciones y eliminaciones necesarias. Los detalles
+     * sin ID se insertan como nuevos
+     */
+    private void reconciliarDetalles(Long idPago, List<PagoDetalleDTO> detallesDTO) {
+        Map<Long, PagoDetalle> existentes = new HashMap<>();
+        for (PagoDetalle detalle : pagoDetalleRepository.buscarPorIdPago(idPago)) {
+            existentes.put(detalle.getIdPagoDetalle(), detalle);
+        }
+        
+        List<PagoDetalle> nuevos = new ArrayList<>();
+        List<PagoDetalle> modificados = new ArrayList<>();
+        for (PagoDetalleDTO detalleDTO : detallesDTO) {
+            if (detalleDTO == null) {
+                throw new IllegalArgumentException("Los detalles del pago no pueden ser nulos");
+            }
             
-            // Agregar los nuevos detalles
-            for (PagoDetalleDTO detalleDTO : pagoDTO.getDetalles()) {
-                PagoDetalle detalle = mapToDetalleEntity(detalleDTO, id);
-                pagoDetalleRepository.crear(detalle);
+            PagoDetalle deseado = mapToDetalleEntity(detalleDTO, idPago);
+            if (detalleDTO.getIdPagoDetalle() == null) {
+                nuevos.add(deseado);
+                continue;
+            }
+            
+            PagoDetalle actual = existentes.remove(detalleDTO.getIdPagoDetalle());
+            if (actual == null) {
+                throw new IllegalArgumentException("El detalle " + detalleDTO.getIdPagoDetalle() + " no pertenece al pago " + idPago);
+            }
+            if (actual.getMonto() == null || actual.getMonto().compareTo(deseado.getMonto()) != 0
+                    || !Objects.equals(actual.getObservaciones(), deseado.getObservaciones())) {
+                actual.setMonto(deseado.getMonto());
+                actual.setObservaciones(deseado.getObservaciones());
+                modificados.add(actual);
             }
         }
         
-        // Convertir resultado a DTO
-        return mapToDTO(actualizado);
+        // Lo que quedó en existentes ya no viene en el pago
+        List<PagoDetalle> eliminados = new ArrayList<>(existentes.values());
+        if (!nuevos.isEmpty() || !modificados.isEmpty() || !eliminados.isEmpty()) {
+            pagoDetalleRepository.aplicarCambios(nuevos, modificados, eliminados);
+        }
     }
     
     @Override
@@ -261,9 +365,7 @@ public class PagoServiceImpl implements PagoService {
     
     @Override
     public List<PagoDTO> listarPagos() {
-        return pagoRepository.listarTodos().stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(pagoRepository.listarTodos());
     }
     
     @Override
@@ -272,9 +374,7 @@ public class PagoServiceImpl implements PagoService {
             return new ArrayList<>();
         }
         
-        return pagoRepository.buscarPorIdOrden(idOrden).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(pagoRepository.buscarPorIdOrden(idOrden));
     }
     
     @Override
@@ -283,9 +383,7 @@ public class PagoServiceImpl implements PagoService {
             return new ArrayList<>();
         }
         
-        return pagoRepository.buscarPorFecha(fecha).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(pagoRepository.buscarPorFecha(fecha));
     }
     
     @Override
@@ -294,9 +392,27 @@ public class PagoServiceImpl implements PagoService {
             return new ArrayList<>();
         }
         
-        return pagoRepository.buscarPorMetodoPago(metodoPago).stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return mapToDTOs(pagoRepository.buscarPorMetodoPago(metodoPago));
+    }
+    
+    @Override
+    public PaginaDTO<PagoDTO> listarPagosPaginados(String cursor, Long idOrden, Date fecha, String metodoPago, Integer limite) throws IllegalArgumentException {
+        if (metodoPago != null && metodoPago.trim().isEmpty()) {
+            metodoPago = null;
+        }
+        // El cursor solo es válido con los mismos filtros con que se generó
+        long despuesDe = CursorPaginacion.decodificar(cursor, idOrden, fecha, metodoPago);
+        int tamanio = CursorPaginacion.normalizarLimite(limite);
+        
+        // Se pide un registro extra para saber si existe una página siguiente
+        List<Pago> pagos = pagoRepository.buscarPagina(despuesDe, idOrden, fecha, metodoPago, tamanio + 1);
+        boolean hayMas = pagos.size() > tamanio;
+        if (hayMas) {
+            pagos = pagos.subList(0, tamanio);
+        }
+        
+        String siguiente = hayMas ? CursorPaginacion.codificar(pagos.get(pagos.size() - 1).getIdPago(), idOrden, fecha, metodoPago) : null;
+        return new PaginaDTO<>(mapToDTOs(pagos), siguiente, tamanio);
     }
     
     @Override
@@ -310,6 +426,11 @@ public class PagoServiceImpl implements PagoService {
         pagoDetalleRepository.eliminarPorIdPago(id);
         
         // Luego eliminar el pago
-        return pagoRepository.eliminar(id);
+        if (!pagoRepository.eliminar(id)) {
+            return false;
+        }
+        salidaService.registrar(EventoSalida.PAGO, id, EventoSalida.PAGO_ELIMINADO,
+                new PagoDTO(id, null, null, null, null));
+        return true;
     }
 }
\ No newline at end of file
@@ -1,12 +1,18 @@
 package sv.edu.ues.fmocc.tpi135.service;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
 import javax.inject.Inject;
+import javax.transaction.Transactional;
 import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
 import sv.edu.ues.fmocc.tpi135.entity.Producto;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoRepository;
 
 /**
@@ -18,6 +24,23 @@ public class ProductoServiceImpl implements ProductoService {
     @Inject
     private ProductoRepository productoRepository;
     
+    @Inject
+    private CambioCatalogoRepository cambioCatalogoRepository;
+    
+    /**
+     * Caché de productos individuales por ID. Los DTO almacenados no salen del
+     * servicio: cada consulta entrega una copia, de modo que quien la modifique
+     * no altere lo que reciben las demás
+     */
+    private final CacheCatalogo<Long, ProductoDTO> cachePorId =
+            new CacheCatalogo<>("productos.porId", CacheCatalogo.CAPACIDAD_ENTIDADES);
+    
+    /**
+     * Caché de listados y filtros de productos, por consulta
+     */
+    private final CacheCatalogo<String, List<ProductoDTO>> cacheConsultas =
+            new CacheCatalogo<>("productos.consultas", CacheCatalogo.CAPACIDAD_CONSULTAS);
+    
     /**
      * Convierte una entidad Producto a DTO
      */
@@ -52,6 +75,7 @@ public class ProductoServiceImpl implements ProductoService {
     }
     
     @Override
+    @Transactional
     public ProductoDTO crearProducto(ProductoDTO productoDTO) {
         // Validación básica
         if (productoDTO == null || productoDTO.getNombre() == null || productoDTO.getNombre().trim().isEmpty()) {
@@ -68,12 +92,14 @@ public class ProductoServiceImpl implements ProductoService {
         
         // Guardamos en la base de datos
         Producto creado = productoRepository.crear(producto);
+        cambioCatalogoRepository.registrar(CambioCatalogo.PRODUCTO, creado.getIdProducto(), CambioCatalogo.GUARDADO);
         
         // Convertimos resultado a DTO
         return mapToDTO(creado);
     }
     
     @Override
+    @Transactional
     public ProductoDTO actualizarProducto(Long id, ProductoDTO productoDTO) throws IllegalArgumentException {
         // Validación básica
         if (id == null) {
@@ -98,6 +124,7 @@ public class ProductoServiceImpl implements ProductoService {
         
         // Guardar cambios
         Producto actualizado = productoRepository.actualizar(producto);
+        cambioCatalogoRepository.registrar(CambioCatalogo.PRODUCTO, id, CambioCatalogo.GUARDADO);
         
         // Convertir resultado a DTO
         return mapToDTO(actualizado);
@@ -109,15 +136,17 @@ public class ProductoServiceImpl implements ProductoService {
             return Optional.empty();
         }
         
-        return productoRepository.encontrarPorId(id)
-                .map(this::mapToDTO);
+        return Optional.ofNullable(cachePorId.obtener(id, () -> productoRepository.encontrarPorId(id)
+                .map(this::mapToDTO)
+                .orElse(null)))
+                .map(this::copiar);
     }
     
     @Override
     public List<ProductoDTO> listarProductos() {
-        return productoRepository.listarTodos().stream()
+        return copiar(cacheConsultas.obtener("todos", () -> productoRepository.listarTodos().stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
@@ -126,9 +155,9 @@ public class ProductoServiceImpl implements ProductoService {
             return List.of();
         }
         
-        return productoRepository.buscarPorNombre(nombre).stream()
+        return copiar(cacheConsultas.obtener("nombre:" + nombre, () -> productoRepository.buscarPorNombre(nombre).stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
@@ -137,17 +166,57 @@ public class ProductoServiceImpl implements ProductoService {
             return listarProductos();
         }
         
-        return productoRepository.buscarPorEstado(activo).stream()
+        return copiar(cacheConsultas.obtener("estado:" + activo, () -> productoRepository.buscarPorEstado(activo).stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
+    @Transactional
     public boolean eliminarProducto(Long id) {
         if (id == null) {
             return false;
         }
         
-        return productoRepository.eliminar(id);
+        boolean eliminado = productoRepository.eliminar(id);
+        if (eliminado) {
+            cambioCatalogoRepository.registrar(CambioCatalogo.PRODUCTO, id, CambioCatalogo.ELIMINADO);
+        }
+        return eliminado;
+    }
+    
+    /**
+     * Invalida las cachés y avanza la versión solo cuando la transacción se confirma:
+     * hacerlo dentro de ella dejaría que una lectura concurrente cargara en caché
+     * los datos anteriores con la versión nueva, o anunciara un cambio que luego
+     * se revierte
+     */
+    void alConfirmarCambio(@Observes(during = TransactionPhase.AFTER_SUCCESS) CambioCatalogo cambio) {
+        if (CambioCatalogo.PRODUCTO.equals(cambio.getEntidad())) {
+            invalidar(cambio.getIdEntidad());
+        }
+    }
+    
+    /**
+     * Invalida las cachés afectadas por la modificación de un producto y avanza la versión de la colección
+     */
+    private void invalidar(Long id) {
+        cachePorId.invalidar(id);
+        cacheConsultas.limpiar();
+        VersionCatalogo.PRODUCTOS.incrementar();
+    }
+    
+    /**
+     * Copia un producto en caché para entregarlo
+     */
+    private ProductoDTO copiar(ProductoDTO dto) {
+        return new ProductoDTO(dto.getIdProducto(), dto.getNombre(), dto.getActivo(), dto.getObservaciones());
+    }
+    
+    /**
+     * Copia un listado en caché para entregarlo
+     */
+    private List<ProductoDTO> copiar(List<ProductoDTO> dtos) {
+        return dtos.stream().map(this::copiar).collect(Collectors.toList());
     }
 }
\ No newline at end of file
@@ -0,0 +1,126 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.context.Initialized;
+import javax.enterprise.event.Observes;
+import javax.enterprise.inject.Any;
+import javax.enterprise.inject.Instance;
+import javax.inject.Inject;
+import sv.edu.ues.fmocc.tpi135.dto.EventoSalidaDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
+import sv.edu.ues.fmocc.tpi135.repository.EventoSalidaRepository;
+
+/**
+ * Tarea periódica que numera los eventos confirmados de la bandeja de salida y
+ * los entrega a cada DestinoSalida activo. La posición entregada a cada destino
+ * avanza después de cada lote, por lo que un fallo o un reinicio provoca como
+ * mucho la repetición del último lote (entrega al menos una vez).
+ */
+@ApplicationScoped
+public class RelevoSalida {
+    
+    /**
+     * Eventos numerados y entregados por lote
+     */
+    static final int TAMANO_LOTE = 500;
+    
+    /**
+     * Espera entre una pasada y la siguiente
+     */
+    static final long MILISEGUNDOS_ESPERA = 1000;
+    
+    private static final Logger LOGGER = Logger.getLogger(RelevoSalida.class.getName());
+    
+    @Inject
+    private EventoSalidaRepository eventoSalidaRepository;
+    
+    @Inject
+    @Any
+    private Instance<DestinoSalida> destinos;
+    
+    @Resource
+    private ManagedScheduledExecutorService planificador;
+    
+    private ScheduledFuture<?> tarea;
+    
+    /**
+     * Notificar al observador obliga al contenedor a crear el bean al iniciar la
+     * aplicación, de modo que la tarea empieza sin esperar a la primera solicitud
+     */
+    void alIniciar(@Observes @Initialized(ApplicationScoped.class) Object inicio) {
+    }
+    
+    @PostConstruct
+    void iniciar() {
+        tarea = planificador.scheduleWithFixedDelay(this::relevar, MILISEGUNDOS_ESPERA, MILISEGUNDOS_ESPERA,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    @PreDestroy
+    void detener() {
+        if (tarea != null) {
+            tarea.cancel(false);
+        }
+    }
+    
+    /**
+     * Una pasada: numera los eventos pendientes y entrega a cada destino lo que le falta
+     */
+    void relevar() {
+        try {
+            while (eventoSalidaRepository.asignarPosiciones(TAMANO_LOTE) == TAMANO_LOTE) {
+                // Se sigue hasta numerar todos los pendientes
+            }
+            for (DestinoSalida destino : destinos) {
+                if (destino.isActivo()) {
+                    entregar(destino);
+                }
+            }
+        } catch (RuntimeException e) {
+            // Una excepción cancelaría la tarea periódica
+            LOGGER.log(Level.WARNING, "Error en el relevo de la bandeja de salida", e);
+        }
+    }
+    
+    /**
+     * Entrega a un destino los eventos posteriores a su posición, lote por lote
+     * @return Cantidad de eventos entregados
+     */
+    long entregar(DestinoSalida destino) {
+        long posicion = eventoSalidaRepository.obtenerCursor(destino.getNombre());
+        long entregados = 0;
+        while (true) {
+            List<EventoSalida> eventos = eventoSalidaRepository.buscarDesde(posicion, TAMANO_LOTE);
+            if (eventos.isEmpty()) {
+                return entregados;
+            }
+            List<EventoSalidaDTO> lote = new ArrayList<>(eventos.size());
+            for (EventoSalida evento : eventos) {
+                lote.add(SalidaServiceImpl.convertirADTO(evento));
+            }
+            try {
+                destino.entregar(lote);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "No se pudo entregar al destino " + destino.getNombre()
+                        + " desde la posición " + posicion, e);
+                return entregados;
+            }
+            posicion = eventos.get(eventos.size() - 1).getPosicion();
+            eventoSalidaRepository.guardarCursor(destino.getNombre(), posicion);
+            entregados += eventos.size();
+            if (eventos.size() < TAMANO_LOTE) {
+                return entregados;
+            }
+        }
+    }
+}
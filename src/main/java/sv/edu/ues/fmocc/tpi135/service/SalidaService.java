@@ -0,0 +1,28 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import sv.edu.ues.fmocc.tpi135.dto.LoteSalidaDTO;
+
+/**
+ * Interfaz que define la bandeja de salida transaccional de eventos de órdenes y pagos
+ */
+public interface SalidaService {
+    
+    /**
+     * Registra un evento en la transacción en curso. Si la transacción se revierte,
+     * el evento se descarta junto con el cambio que lo produjo.
+     * @param agregado EventoSalida.ORDEN o EventoSalida.PAGO
+     * @param idAgregado ID de la orden o el pago
+     * @param tipo Tipo de evento
+     * @param datos Estado del agregado después del cambio
+     */
+    void registrar(String agregado, Long idAgregado, String tipo, Object datos);
+    
+    /**
+     * Lee los eventos con posición posterior a la indicada
+     * @param desde Última posición procesada por el consumidor (0 para leer desde el inicio)
+     * @param limite Cantidad máxima de eventos
+     * @return Lote de eventos con la posición hasta la que se entregaron
+     * @throws IllegalArgumentException si la posición es negativa o el límite no es válido
+     */
+    LoteSalidaDTO leer(long desde, int limite) throws IllegalArgumentException;
+}
@@ -0,0 +1,77 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.util.ArrayList;
+import java.util.List;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.dto.EventoSalidaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.LoteSalidaDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
+import sv.edu.ues.fmocc.tpi135.repository.EventoSalidaRepository;
+
+/**
+ * Implementación de SalidaService. El registro es una inserción en la misma
+ * transacción que el cambio; la numeración y la entrega a otros sistemas las hace
+ * RelevoSalida después de confirmada la transacción.
+ */
+@ApplicationScoped
+public class SalidaServiceImpl implements SalidaService {
+    
+    /**
+     * Cantidad máxima de eventos leídos en una consulta
+     */
+    public static final int MAXIMO_EVENTOS = 1000;
+    
+    private static final ObjectWriter ESCRITOR_JSON = new ObjectMapper().writer();
+    
+    @Inject
+    private EventoSalidaRepository eventoSalidaRepository;
+    
+    @Override
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void registrar(String agregado, Long idAgregado, String tipo, Object datos) {
+        String json;
+        try {
+            json = ESCRITOR_JSON.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + tipo + " de " + agregado + " " + idAgregado, e);
+        }
+        eventoSalidaRepository.registrar(agregado, idAgregado, tipo, json);
+    }
+    
+    @Override
+    public LoteSalidaDTO leer(long desde, int limite) throws IllegalArgumentException {
+        if (desde < 0) {
+            throw new IllegalArgumentException("La posición no puede ser negativa");
+        }
+        if (limite <= 0 || limite > MAXIMO_EVENTOS) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAXIMO_EVENTOS);
+        }
+        
+        // Se pide un evento extra para saber si quedan más sin leer
+        List<EventoSalida> eventos = eventoSalidaRepository.buscarDesde(desde, limite + 1);
+        boolean hayMas = eventos.size() > limite;
+        if (hayMas) {
+            eventos = eventos.subList(0, limite);
+        }
+        
+        List<EventoSalidaDTO> dtos = new ArrayList<>(eventos.size());
+        for (EventoSalida evento : eventos) {
+            dtos.add(convertirADTO(evento));
+        }
+        long hasta = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).getPosicion();
+        return new LoteSalidaDTO(desde, hasta, hayMas, dtos);
+    }
+    
+    /**
+     * Convierte un evento a DTO
+     */
+    static EventoSalidaDTO convertirADTO(EventoSalida evento) {
+        return new EventoSalidaDTO(evento.getPosicion(), evento.getAgregado(), evento.getIdAgregado(),
+                evento.getTipo(), evento.getFecha(), evento.getDatos());
+    }
+}
@@ -0,0 +1,20 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import sv.edu.ues.fmocc.tpi135.dto.CambiosCatalogoDTO;
+
+/**
+ * Interfaz que define la sincronización incremental del catálogo con los terminales
+ */
+public interface SincronizacionCatalogoService {
+    
+    /**
+     * Obtiene los cambios de productos, tipos de producto, combos y precios
+     * posteriores a una versión. Varios cambios de una misma fila se entregan
+     * una sola vez con su estado vigente.
+     * @param desde Última versión aplicada por el cliente (0 para la carga inicial)
+     * @param limite Cantidad máxima de cambios a leer del registro
+     * @return Cambios con la versión hasta la que se entregaron
+     * @throws IllegalArgumentException si la versión es negativa o el límite no es válido
+     */
+    CambiosCatalogoDTO buscarCambios(long desde, int limite) throws IllegalArgumentException;
+}
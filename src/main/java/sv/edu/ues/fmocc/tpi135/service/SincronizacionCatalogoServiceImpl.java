@@ -0,0 +1,151 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import sv.edu.ues.fmocc.tpi135.dto.CambiosCatalogoDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ComboDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ProductoPrecioDTO;
+import sv.edu.ues.fmocc.tpi135.dto.TipoProductoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
+import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+
+/**
+ * Implementación de SincronizacionCatalogoService sobre el registro de cambios.
+ * El trabajo por consulta es proporcional a la cantidad de cambios: se lee el
+ * registro desde la versión del cliente y solo se cargan las filas modificadas,
+ * los productos, tipos y combos a través de las cachés de sus servicios.
+ */
+@ApplicationScoped
+public class SincronizacionCatalogoServiceImpl implements SincronizacionCatalogoService {
+    
+    /**
+     * Cantidad máxima de cambios leídos en una consulta
+     */
+    public static final int MAXIMO_CAMBIOS = 1000;
+    
+    @Inject
+    private CambioCatalogoRepository cambioCatalogoRepository;
+    
+    @Inject
+    private ProductoService productoService;
+    
+    @Inject
+    private TipoProductoService tipoProductoService;
+    
+    @Inject
+    private ComboService comboService;
+    
+    @Inject
+    private ProductoPrecioRepository productoPrecioRepository;
+    
+    @Override
+    public CambiosCatalogoDTO buscarCambios(long desde, int limite) throws IllegalArgumentException {
+        if (desde < 0) {
+            throw new IllegalArgumentException("La versión no puede ser negativa");
+        }
+        if (limite <= 0 || limite > MAXIMO_CAMBIOS) {
+            throw new IllegalArgumentException("El límite debe estar entre 1 y " + MAXIMO_CAMBIOS);
+        }
+        
+        // Se pide un cambio extra para saber si quedan más sin leer
+        List<CambioCatalogo> cambios = cambioCatalogoRepository.buscarDesde(desde, limite + 1);
+        boolean hayMas = cambios.size() > limite;
+        if (hayMas) {
+            cambios = cambios.subList(0, limite);
+        }
+        long hasta = cambios.isEmpty() ? desde : cambios.get(cambios.size() - 1).getVersion();
+        CambiosCatalogoDTO resultado = new CambiosCatalogoDTO(desde, hasta, hayMas);
+        
+        // Solo cuenta la última operación de cada fila
+        Map<String, Map<Long, String>> ultimas = new LinkedHashMap<>();
+        for (CambioCatalogo cambio : cambios) {
+            Map<Long, String> porId = ultimas.computeIfAbsent(cambio.getEntidad(), e -> new LinkedHashMap<>());
+            porId.remove(cambio.getIdEntidad());
+            porId.put(cambio.getIdEntidad(), cambio.getOperacion());
+        }
+        
+        ultimas.forEach((entidad, porId) -> {
+            List<Long> guardados = new ArrayList<>();
+            porId.forEach((id, operacion) -> {
+                if (CambioCatalogo.GUARDADO.equals(operacion)) {
+                    guardados.add(id);
+                } else {
+                    agregarEliminado(resultado, entidad, id);
+                }
+            });
+            if (!guardados.isEmpty()) {
+                cargarGuardados(resultado, entidad, guardados);
+            }
+        });
+        return resultado;
+    }
+    
+    /**
+     * Agrega el estado vigente de las filas guardadas; si una ya no existe, se
+     * eliminó después del cambio y se informa como eliminada
+     */
+    private void cargarGuardados(CambiosCatalogoDTO resultado, String entidad, List<Long> ids) {
+        switch (entidad) {
+            case CambioCatalogo.PRODUCTO:
+                for (Long id : ids) {
+                    Optional<ProductoDTO> producto = productoService.obtenerProductoPorId(id);
+                    if (producto.isPresent()) {
+                        resultado.getProductos().add(producto.get());
+                    } else {
+                        agregarEliminado(resultado, entidad, id);
+                    }
+                }
+                break;
+            case CambioCatalogo.TIPO_PRODUCTO:
+                for (Long id : ids) {
+                    Optional<TipoProductoDTO> tipo = tipoProductoService.obtenerTipoProductoPorId(id.intValue());
+                    if (tipo.isPresent()) {
+                        resultado.getTiposProducto().add(tipo.get());
+                    } else {
+                        agregarEliminado(resultado, entidad, id);
+                    }
+                }
+                break;
+            case CambioCatalogo.COMBO:
+                for (Long id : ids) {
+                    Optional<ComboDTO> combo = comboService.obtenerComboPorId(id);
+                    if (combo.isPresent()) {
+                        resultado.getCombos().add(combo.get());
+                    } else {
+                        agregarEliminado(resultado, entidad, id);
+                    }
+                }
+                break;
+            case CambioCatalogo.PRODUCTO_PRECIO:
+                Map<Long, ProductoPrecio> precios = new LinkedHashMap<>();
+                for (ProductoPrecio precio : productoPrecioRepository.buscarPorIds(ids)) {
+                    precios.put(precio.getIdProductoPrecio(), precio);
+                }
+                for (Long id : ids) {
+                    ProductoPrecio precio = precios.get(id);
+                    if (precio != null) {
+                        resultado.getPrecios().add(new ProductoPrecioDTO(precio.getIdProductoPrecio(), precio.getIdProducto(),
+                                precio.getFechaDesde(), precio.getFechaHasta(), precio.getPrecioSugerido()));
+                    } else {
+                        agregarEliminado(resultado, entidad, id);
+                    }
+                }
+                break;
+            default:
+                // Entidad desconocida: se ignora para no interrumpir la sincronización
+                break;
+        }
+    }
+    
+    private static void agregarEliminado(CambiosCatalogoDTO resultado, String entidad, Long id) {
+        resultado.getEliminados().computeIfAbsent(entidad, e -> new ArrayList<>()).add(id);
+    }
+}
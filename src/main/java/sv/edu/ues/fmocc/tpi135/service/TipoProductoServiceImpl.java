@@ -1,12 +1,18 @@
 package sv.edu.ues.fmocc.tpi135.service;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.enterprise.context.ApplicationScoped;
+import javax.enterprise.event.Observes;
+import javax.enterprise.event.TransactionPhase;
 import javax.inject.Inject;
+import javax.transaction.Transactional;
 import sv.edu.ues.fmocc.tpi135.dto.TipoProductoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
 import sv.edu.ues.fmocc.tpi135.entity.TipoProducto;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.TipoProductoRepository;
 
 /**
@@ -18,6 +24,23 @@ public class TipoProductoServiceImpl implements TipoProductoService {
     @Inject
     private TipoProductoRepository tipoProductoRepository;
     
+    @Inject
+    private CambioCatalogoRepository cambioCatalogoRepository;
+    
+    /**
+     * Caché de tipos de producto individuales por ID. Los DTO almacenados no salen
+     * del servicio: cada consulta entrega una copia, de modo que quien la modifique
+     * no altere lo que reciben las demás
+     */
+    private final CacheCatalogo<Integer, TipoProductoDTO> cachePorId =
+            new CacheCatalogo<>("tiposProducto.porId", CacheCatalogo.CAPACIDAD_ENTIDADES);
+    
+    /**
+     * Caché de listados y filtros de tiposProducto, por consulta
+     */
+    private final CacheCatalogo<String, List<TipoProductoDTO>> cacheConsultas =
+            new CacheCatalogo<>("tiposProducto.consultas", CacheCatalogo.CAPACIDAD_CONSULTAS);
+    
     /**
      * Convierte una entidad TipoProducto a DTO
      */
@@ -52,6 +75,7 @@ public class TipoProductoServiceImpl implements TipoProductoService {
     }
     
     @Override
+    @Transactional
     public TipoProductoDTO crearTipoProducto(TipoProductoDTO tipoProductoDTO) {
         // Validación básica
         if (tipoProductoDTO == null || tipoProductoDTO.getNombre() == null || tipoProductoDTO.getNombre().trim().isEmpty()) {
@@ -68,12 +92,14 @@ public class TipoProductoServiceImpl implements TipoProductoService {
         
         // Guardamos en la base de datos
         TipoProducto creado = tipoProductoRepository.crear(tipoProducto);
+        cambioCatalogoRepository.registrar(CambioCatalogo.TIPO_PRODUCTO, creado.getIdTipoProducto().longValue(), CambioCatalogo.GUARDADO);
         
         // Convertimos resultado a DTO
         return mapToDTO(creado);
     }
     
     @Override
+    @Transactional
     public TipoProductoDTO actualizarTipoProducto(Integer id, TipoProductoDTO tipoProductoDTO) throws IllegalArgumentException {
         // Validación básica
         if (id == null) {
@@ -98,6 +124,7 @@ public class TipoProductoServiceImpl implements TipoProductoService {
         
         // Guardar cambios
         TipoProducto actualizado = tipoProductoRepository.actualizar(tipoProducto);
+        cambioCatalogoRepository.registrar(CambioCatalogo.TIPO_PRODUCTO, id.longValue(), CambioCatalogo.GUARDADO);
         
         // Convertir resultado a DTO
         return mapToDTO(actualizado);
@@ -109,15 +136,17 @@ public class TipoProductoServiceImpl implements TipoProductoService {
             return Optional.empty();
         }
         
-        return tipoProductoRepository.encontrarPorId(id)
-                .map(this::mapToDTO);
+        return Optional.ofNullable(cachePorId.obtener(id, () -> tipoProductoRepository.encontrarPorId(id)
+                .map(this::mapToDTO)
+                .orElse(null)))
+                .map(this::copiar);
     }
     
     @Override
     public List<TipoProductoDTO> listarTiposProductos() {
-        return tipoProductoRepository.listarTodos().stream()
+        return copiar(cacheConsultas.obtener("todos", () -> tipoProductoRepository.listarTodos().stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
@@ -126,9 +155,9 @@ public class TipoProductoServiceImpl implements TipoProductoService {
             return List.of();
         }
         
-        return tipoProductoRepository.buscarPorNombre(nombre).stream()
+        return copiar(cacheConsultas.obtener("nombre:" + nombre, () -> tipoProductoRepository.buscarPorNombre(nombre).stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
@@ -137,17 +166,57 @@ public class TipoProductoServiceImpl implements TipoProductoService {
             return listarTiposProductos();
         }
         
-        return tipoProductoRepository.buscarPorEstado(activo).stream()
+        return copiar(cacheConsultas.obtener("estado:" + activo, () -> tipoProductoRepository.buscarPorEstado(activo).stream()
                 .map(this::mapToDTO)
-                .collect(Collectors.toList());
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))));
     }
     
     @Override
+    @Transactional
     public boolean eliminarTipoProducto(Integer id) {
         if (id == null) {
             return false;
         }
         
-        return tipoProductoRepository.eliminar(id);
+        boolean eliminado = tipoProductoRepository.eliminar(id);
+        if (eliminado) {
+            cambioCatalogoRepository.registrar(CambioCatalogo.TIPO_PRODUCTO, id.longValue(), CambioCatalogo.ELIMINADO);
+        }
+        return eliminado;
+    }
+    
+    /**
+     * Invalida las cachés y avanza la versión solo cuando la transacción se confirma:
+     * hacerlo dentro de ella dejaría que una lectura concurrente cargara en caché
+     * los datos anteriores con la versión nueva, o anunciara un cambio que luego
+     * se revierte
+     */
+    void alConfirmarCambio(@Observes(during = TransactionPhase.AFTER_SUCCESS) CambioCatalogo cambio) {
+        if (CambioCatalogo.TIPO_PRODUCTO.equals(cambio.getEntidad())) {
+            invalidar(cambio.getIdEntidad().intValue());
+        }
+    }
+    
+    /**
+     * Invalida las cachés afectadas por la modificación de un tipo de producto y avanza la versión de la colección
+     */
+    private void invalidar(Integer id) {
+        cachePorId.invalidar(id);
+        cacheConsultas.limpiar();
+        VersionCatalogo.TIPOS_PRODUCTO.incrementar();
+    }
+    
+    /**
+     * Copia un tipo de producto en caché para entregarlo
+     */
+    private TipoProductoDTO copiar(TipoProductoDTO dto) {
+        return new TipoProductoDTO(dto.getIdTipoProducto(), dto.getNombre(), dto.getActivo(), dto.getObservaciones());
+    }
+    
+    /**
+     * Copia un listado en caché para entregarlo
+     */
+    private List<TipoProductoDTO> copiar(List<TipoProductoDTO> dtos) {
+        return dtos.stream().map(this::copiar).collect(Collectors.toList());
     }
 }
\ No newline at end of file
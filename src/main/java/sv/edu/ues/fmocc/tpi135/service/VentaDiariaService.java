@@ -0,0 +1,41 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.util.Date;
+import java.util.List;
+import sv.edu.ues.fmocc.tpi135.dto.VentaProductoDiariaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.VerificacionVentasDTO;
+
+/**
+ * Interfaz que define los servicios de consulta y mantenimiento de los
+ * contadores de venta por fecha, sucursal y producto
+ */
+public interface VentaDiariaService {
+    
+    /**
+     * Obtiene las ventas acumuladas por producto, sin recorrer las órdenes
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @param sucursal Filtro opcional por sucursal
+     * @return Lista de ventas por fecha, sucursal y producto
+     * @throws IllegalArgumentException si las fechas faltan o el rango no es válido
+     */
+    List<VentaProductoDiariaDTO> buscarVentas(Date desde, Date hasta, String sucursal) throws IllegalArgumentException;
+    
+    /**
+     * Compara los contadores con los valores recalculados desde las órdenes
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Resultado con los contadores que no coinciden
+     * @throws IllegalArgumentException si las fechas faltan o el rango no es válido
+     */
+    VerificacionVentasDTO verificar(Date desde, Date hasta) throws IllegalArgumentException;
+    
+    /**
+     * Reemplaza los contadores del rango con los valores recalculados desde las órdenes
+     * @param desde Fecha inicial inclusiva
+     * @param hasta Fecha final inclusiva
+     * @return Diferencias encontradas antes de reconstruir y cantidad de contadores generados
+     * @throws IllegalArgumentException si las fechas faltan o el rango no es válido
+     */
+    VerificacionVentasDTO reconstruir(Date desde, Date hasta) throws IllegalArgumentException;
+}
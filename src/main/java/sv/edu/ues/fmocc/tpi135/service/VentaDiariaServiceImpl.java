@@ -0,0 +1,97 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.enterprise.context.ApplicationScoped;
+import javax.inject.Inject;
+import javax.transaction.Transactional;
+import sv.edu.ues.fmocc.tpi135.dto.DiferenciaVentaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.VentaProductoDiariaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.VerificacionVentasDTO;
+import sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiaria;
+import sv.edu.ues.fmocc.tpi135.repository.VentaProductoDiariaRepository;
+
+/**
+ * Implementación de VentaDiariaService sobre los contadores que OrdenServiceImpl
+ * mantiene al modificar las órdenes
+ */
+@ApplicationScoped
+public class VentaDiariaServiceImpl implements VentaDiariaService {
+    
+    /**
+     * Cantidad máxima de días que abarca una consulta o reconstrucción
+     */
+    private static final long MAXIMO_DIAS_RANGO = 366;
+    
+    @Inject
+    private VentaProductoDiariaRepository ventaProductoDiariaRepository;
+    
+    @Override
+    public List<VentaProductoDiariaDTO> buscarVentas(Date desde, Date hasta, String sucursal) throws IllegalArgumentException {
+        validarRango(desde, hasta);
+        
+        List<VentaProductoDiaria> ventas = ventaProductoDiariaRepository.buscarPorRango(desde, hasta, sucursal);
+        List<VentaProductoDiariaDTO> resultado = new ArrayList<>(ventas.size());
+        for (VentaProductoDiaria venta : ventas) {
+            resultado.add(new VentaProductoDiariaDTO(venta.getFecha(), venta.getSucursal(), venta.getIdProducto(),
+                    venta.getCantidad(), venta.getTotal(), venta.getLineas()));
+        }
+        return resultado;
+    }
+    
+    @Override
+    public VerificacionVentasDTO verificar(Date desde, Date hasta) throws IllegalArgumentException {
+        validarRango(desde, hasta);
+        
+        List<Object[]> filas = ventaProductoDiariaRepository.buscarDiferencias(desde, hasta);
+        List<DiferenciaVentaDTO> diferencias = new ArrayList<>(filas.size());
+        for (Object[] fila : filas) {
+            DiferenciaVentaDTO diferencia = new DiferenciaVentaDTO();
+            diferencia.setFecha((Date) fila[0]);
+            diferencia.setSucursal((String) fila[1]);
+            diferencia.setIdProducto(aLong(fila[2]));
+            diferencia.setCantidadRegistrada(aLong(fila[3]));
+            diferencia.setCantidadCalculada(aLong(fila[4]));
+            diferencia.setTotalRegistrado(aBigDecimal(fila[5]));
+            diferencia.setTotalCalculado(aBigDecimal(fila[6]));
+            diferencia.setLineasRegistradas(aLong(fila[7]));
+            diferencia.setLineasCalculadas(aLong(fila[8]));
+            diferencias.add(diferencia);
+        }
+        return new VerificacionVentasDTO(desde, hasta, diferencias);
+    }
+    
+    @Override
+    @Transactional
+    public VerificacionVentasDTO reconstruir(Date desde, Date hasta) throws IllegalArgumentException {
+        VerificacionVentasDTO verificacion = verificar(desde, hasta);
+        verificacion.setReconstruidos(ventaProductoDiariaRepository.reconstruir(desde, hasta));
+        return verificacion;
+    }
+    
+    private static void validarRango(Date desde, Date hasta) {
+        if (desde == null || hasta == null) {
+            throw new IllegalArgumentException("Las fechas inicial y final son requeridas");
+        }
+        if (desde.after(hasta)) {
+            throw new IllegalArgumentException("La fecha inicial no puede ser posterior a la fecha final");
+        }
+        if (TimeUnit.MILLISECONDS.toDays(hasta.getTime() - desde.getTime()) >= MAXIMO_DIAS_RANGO) {
+            throw new IllegalArgumentException("El rango no puede superar " + MAXIMO_DIAS_RANGO + " días");
+        }
+    }
+    
+    private static Long aLong(Object valor) {
+        return valor != null ? ((Number) valor).longValue() : null;
+    }
+    
+    private static BigDecimal aBigDecimal(Object valor) {
+        if (valor == null) {
+            return null;
+        }
+        return valor instanceof BigDecimal ? (BigDecimal) valor : new BigDecimal(valor.toString());
+    }
+}
@@ -0,0 +1,100 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Número de versión de una colección del catálogo. Los servicios lo incrementan
+ * después de cada creación, actualización o eliminación confirmada, y los
+ * controladores lo usan como ETag y Last-Modified de los listados, de modo que
+ * una solicitud condicional se puede responder sin consultar la base de datos.
+ *
+ * La versión se lee antes de cargar los datos: si una escritura ocurre entre
+ * ambas lecturas, la respuesta lleva la versión anterior y el cliente la vuelve
+ * a pedir en la siguiente consulta, nunca al revés.
+ */
+public final class VersionCatalogo {
+
+    public static final VersionCatalogo PRODUCTOS = new VersionCatalogo("productos");
+
+    public static final VersionCatalogo TIPOS_PRODUCTO = new VersionCatalogo("tipos-productos");
+
+    public static final VersionCatalogo COMBOS = new VersionCatalogo("combos");
+
+    public static final VersionCatalogo MENU = new VersionCatalogo("menu");
+
+    /**
+     * Instante de arranque, incluido en la etiqueta para que una versión numérica
+     * repetida tras un reinicio no coincida con la de una respuesta anterior
+     */
+    private static final String ARRANQUE = Long.toString(System.currentTimeMillis(), 36);
+
+    private final String nombre;
+    private final AtomicReference<Marca> actual;
+
+    private VersionCatalogo(String nombre) {
+        this.nombre = nombre;
+        this.actual = new AtomicReference<>(new Marca(nombre, 1, segundoActual()));
+    }
+
+    /**
+     * Versión vigente de la colección
+     */
+    public Marca actual() {
+        return actual.get();
+    }
+
+    /**
+     * Registra una modificación de la colección
+     * @return Nueva versión
+     */
+    public Marca incrementar() {
+        long modificado = segundoActual();
+        return actual.updateAndGet(marca -> new Marca(nombre, marca.version + 1,
+                Math.max(modificado, marca.modificado)));
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Las fechas HTTP tienen resolución de segundos
+     */
+    private static long segundoActual() {
+        return System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    /**
+     * Versión inmutable de una colección con su fecha de modificación
+     */
+    public static final class Marca {
+
+        private final long version;
+        private final long modificado;
+        private final String etiqueta;
+
+        private Marca(String nombre, long version, long modificado) {
+            this.version = version;
+            this.modificado = modificado;
+            this.etiqueta = nombre + "-" + ARRANQUE + "-" + version;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        /**
+         * Fecha de la última modificación en milisegundos, truncada al segundo
+         */
+        public long getModificado() {
+            return modificado;
+        }
+
+        /**
+         * Valor de la ETag fuerte, sin comillas
+         */
+        public String getEtiqueta() {
+            return etiqueta;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Fábrica de hilos virtuales. Solo se compila con el perfil hilos-virtuales (JDK
+ * 21 o superior); HilosVirtuales la carga por nombre.
+ */
+final class FabricaHilosVirtuales implements Supplier<ThreadFactory> {
+
+    @Override
+    public ThreadFactory get() {
+        return Thread.ofVirtual().name("tipicos-virtual-", 0).factory();
+    }
+}
@@ -0,0 +1,142 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para Compartimento
+ */
+@ExtendWith(MockitoExtension.class)
+public class CompartimentoTest {
+
+    @Mock
+    private AsyncResponse ocupada;
+
+    @Mock
+    private AsyncResponse enCola;
+
+    @Mock
+    private AsyncResponse rechazada;
+
+    private final Compartimento compartimento = new Compartimento("prueba", 1, 1, 2_000,
+            Executors.defaultThreadFactory());
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        compartimento.detener();
+    }
+
+    @Test
+    void testAtender_ReanudaConElResultado() {
+        // Ejecución del método
+        compartimento.atender(ocupada, () -> Response.ok("listo").build());
+
+        // Verificaciones
+        ArgumentCaptor<Response> respuesta = ArgumentCaptor.forClass(Response.class);
+        verify(ocupada, timeout(2_000)).resume(respuesta.capture());
+        assertEquals(200, respuesta.getValue().getStatus());
+        verify(ocupada).setTimeout(2_000, TimeUnit.MILLISECONDS);
+        assertEquals(1, compartimento.getAceptadas());
+    }
+
+    @Test
+    void testAtender_EntregaLaExcepcionDeLaTarea() {
+        // Ejecución del método
+        IllegalStateException error = new IllegalStateException("falla");
+        compartimento.atender(ocupada, () -> {
+            throw error;
+        });
+
+        // Verificaciones
+        verify(ocupada, timeout(2_000)).resume(error);
+    }
+
+    @Test
+    void testAtender_RechazaConLaColaLlena() throws InterruptedException {
+        // Configuración: un hilo ocupado y un lugar de la cola tomado
+        CountDownLatch iniciada = new CountDownLatch(1);
+        compartimento.atender(ocupada, () -> {
+            iniciada.countDown();
+            esperar(liberar);
+            return Response.noContent().build();
+        });
+        assertTrue(iniciada.await(2, TimeUnit.SECONDS));
+        compartimento.atender(enCola, () -> Response.noContent().build());
+
+        // Ejecución del método
+        compartimento.atender(rechazada, () -> Response.noContent().build());
+
+        // Verificaciones
+        ArgumentCaptor<Response> respuesta = ArgumentCaptor.forClass(Response.class);
+        verify(rechazada).resume(respuesta.capture());
+        assertEquals(503, respuesta.getValue().getStatus());
+        assertEquals("2", respuesta.getValue().getHeaderString(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, compartimento.getRechazadas());
+        assertEquals(1, compartimento.getEnCola());
+    }
+
+    @Test
+    void testPlazo_VenceEnColaSinEjecutar() throws InterruptedException {
+        // Configuración: la segunda solicitud queda en cola detrás de una ocupada
+        CountDownLatch iniciada = new CountDownLatch(1);
+        compartimento.atender(ocupada, () -> {
+            iniciada.countDown();
+            esperar(liberar);
+            return Response.noContent().build();
+        });
+        assertTrue(iniciada.await(2, TimeUnit.SECONDS));
+        AtomicBoolean ejecutada = new AtomicBoolean();
+        compartimento.atender(enCola, () -> {
+            ejecutada.set(true);
+            return Response.noContent().build();
+        });
+        ArgumentCaptor<TimeoutHandler> manejadorEnCola = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(enCola).setTimeoutHandler(manejadorEnCola.capture());
+        ArgumentCaptor<TimeoutHandler> manejadorOcupada = ArgumentCaptor.forClass(TimeoutHandler.class);
+        verify(ocupada).setTimeoutHandler(manejadorOcupada.capture());
+
+        // Ejecución del método: vence el plazo de ambas
+        manejadorEnCola.getValue().handleTimeout(enCola);
+        manejadorOcupada.getValue().handleTimeout(ocupada);
+        liberar.countDown();
+
+        // Verificaciones: la de la cola responde 503; la ocupada extiende el plazo y termina
+        ArgumentCaptor<Response> respuesta = ArgumentCaptor.forClass(Response.class);
+        verify(enCola).resume(respuesta.capture());
+        assertEquals(503, respuesta.getValue().getStatus());
+        verify(ocupada, times(2)).setTimeout(anyLong(), any());
+        verify(ocupada, timeout(2_000)).resume(any(Response.class));
+        assertEquals(1, compartimento.getVencidas());
+        assertEquals(0, compartimento.getEnCola());
+        assertFalse(ejecutada.get());
+    }
+
+    private static void esperar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.interceptor.InvocationContext;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para EjecutorVirtual y PermisosBaseDatos. Los hilos son de
+ * plataforma para que las pruebas corran con cualquier JDK.
+ */
+@ExtendWith(MockitoExtension.class)
+public class EjecutorVirtualTest {
+
+    @Mock
+    private InvocationContext contexto;
+
+    private final AtomicInteger contextualizadas = new AtomicInteger();
+
+    private final EjecutorVirtual ejecutor = new EjecutorVirtual(1, 1, Executors.defaultThreadFactory(),
+            tarea -> {
+                contextualizadas.incrementAndGet();
+                return tarea;
+            });
+
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        liberar.countDown();
+        ejecutor.detener();
+    }
+
+    @Test
+    void testExecute_LimitaSimultaneasYRechazaConLaEsperaLlena() throws InterruptedException {
+        // Configuración de mocks
+        CountDownLatch iniciada = new CountDownLatch(1);
+        CountDownLatch terminadas = new CountDownLatch(2);
+        List<String> orden = new CopyOnWriteArrayList<>();
+
+        // Ejecución del método
+        ejecutor.execute(() -> {
+            iniciada.countDown();
+            esperar(liberar);
+            orden.add("primera");
+            terminadas.countDown();
+        });
+        assertTrue(iniciada.await(2, TimeUnit.SECONDS));
+        ejecutor.execute(() -> {
+            orden.add("segunda");
+            terminadas.countDown();
+        });
+
+        // Verificaciones
+        assertThrows(RejectedExecutionException.class, () -> ejecutor.execute(() -> { }));
+        assertEquals(1, ejecutor.activos());
+        assertEquals(1, ejecutor.enCola());
+        liberar.countDown();
+        assertTrue(terminadas.await(2, TimeUnit.SECONDS));
+        assertEquals(List.of("primera", "segunda"), orden);
+        assertEquals(2, contextualizadas.get());
+    }
+
+    @Test
+    void testExecute_DetenidoRechaza() {
+        // Ejecución del método
+        ejecutor.detener();
+
+        // Verificaciones
+        assertThrows(RejectedExecutionException.class, () -> ejecutor.execute(() -> { }));
+        assertEquals(0, contextualizadas.get());
+    }
+
+    @Test
+    void testPermisos_ReentrantesEnElMismoHilo() throws Exception {
+        // Configuración de mocks
+        PermisosBaseDatos permisos = new PermisosBaseDatos(true, 1);
+        InvocationContext interna = mock(InvocationContext.class);
+        when(interna.proceed()).thenAnswer(invocacion -> permisos.estadisticas().get("enUso"));
+        when(contexto.proceed()).thenAnswer(invocacion -> permisos.ejecutar(interna));
+
+        // Ejecución del método
+        Object enUso = permisos.ejecutar(contexto);
+
+        // Verificaciones
+        assertEquals(1, enUso);
+        assertEquals(0, permisos.estadisticas().get("enUso"));
+        assertEquals(0L, permisos.estadisticas().get("esperas"));
+    }
+
+    @Test
+    void testPermisos_InactivosNoLimitan() throws Exception {
+        // Configuración de mocks
+        PermisosBaseDatos permisos = new PermisosBaseDatos(false, 1);
+        when(contexto.proceed()).thenReturn("resultado");
+
+        // Ejecución del método
+        Object resultado = permisos.ejecutar(contexto);
+
+        // Verificaciones
+        assertEquals("resultado", resultado);
+        assertFalse(permisos.isActivo());
+        assertEquals(0, permisos.estadisticas().get("enUso"));
+    }
+
+    private static void esperar(CountDownLatch senal) {
+        try {
+            senal.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.glassfish.jersey.server.ContainerRequest;
+import org.glassfish.jersey.server.monitoring.RequestEvent;
+import org.glassfish.jersey.server.monitoring.RequestEventListener;
+import sv.edu.ues.fmocc.tpi135.controller.ComboController;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para FiltroAdmision y LimiteAdaptativo
+ */
+@ExtendWith(MockitoExtension.class)
+public class FiltroAdmisionTest {
+
+    private static final long MILISEGUNDO = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Mock
+    private ResourceInfo resourceInfo;
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @Mock
+    private ContainerResponseContext responseContext;
+
+    @InjectMocks
+    private FiltroAdmision filtro;
+
+    @Test
+    void testClasificar_PrioridadYClases() {
+        // Ejecución del método
+        FiltroAdmision.Clasificacion crearOrden = FiltroAdmision.clasificar("POST /ordenes");
+        FiltroAdmision.Clasificacion crearPago = FiltroAdmision.clasificar("POST /pagos");
+        FiltroAdmision.Clasificacion listarOrdenes = FiltroAdmision.clasificar("GET /ordenes");
+        FiltroAdmision.Clasificacion lote = FiltroAdmision.clasificar("POST /ordenes/lote");
+        FiltroAdmision.Clasificacion resumen = FiltroAdmision.clasificar("GET /ordenes/resumen");
+        FiltroAdmision.Clasificacion menu = FiltroAdmision.clasificar("GET /catalogo/menu");
+        FiltroAdmision.Clasificacion eventos = FiltroAdmision.clasificar("GET /ordenes/eventos");
+        FiltroAdmision.Clasificacion metricas = FiltroAdmision.clasificar("GET /metrics");
+
+        // Verificaciones
+        assertTrue(crearOrden.prioritaria);
+        assertEquals(FiltroAdmision.ORDENES, crearOrden.limite.getNombre());
+        assertTrue(crearPago.prioritaria);
+        assertEquals(FiltroAdmision.PAGOS, crearPago.limite.getNombre());
+        assertFalse(listarOrdenes.prioritaria);
+        assertFalse(lote.prioritaria);
+        assertEquals(FiltroAdmision.REPORTES, resumen.limite.getNombre());
+        assertEquals(FiltroAdmision.CATALOGO, menu.limite.getNombre());
+        assertNull(eventos.limite);
+        assertNull(metricas.limite);
+    }
+
+    @Test
+    void testFiltro_AdmiteYLiberaAlResponder() throws Exception {
+        // Configuración de mocks
+        when(resourceInfo.getResourceMethod()).thenReturn(ComboController.class.getMethod("obtenerComboPorId", Long.class));
+        doReturn(ComboController.class).when(resourceInfo).getResourceClass();
+        when(requestContext.getMethod()).thenReturn("GET");
+        LimiteAdaptativo limite = FiltroAdmision.limite(FiltroAdmision.CATALOGO);
+        int enCurso = limite.getEnCurso();
+
+        // Ejecución del método
+        filtro.filter(requestContext);
+
+        // Verificaciones
+        ArgumentCaptor<Object> ocupacion = ArgumentCaptor.forClass(Object.class);
+        verify(requestContext).setProperty(eq(FiltroAdmision.PROPIEDAD_OCUPACION), ocupacion.capture());
+        assertEquals(enCurso + 1, limite.getEnCurso());
+        verify(requestContext, never()).abortWith(any());
+
+        when(requestContext.getProperty(FiltroAdmision.PROPIEDAD_OCUPACION)).thenReturn(ocupacion.getValue());
+        filtro.filter(requestContext, responseContext);
+        assertEquals(enCurso, limite.getEnCurso());
+
+        // El fin de la solicitud no vuelve a liberar el lugar
+        FiltroAdmision.liberar(ocupacion.getValue());
+        assertEquals(enCurso, limite.getEnCurso());
+    }
+
+    @Test
+    void testOyente_LiberaCuandoElRecursoLanzaUnaExcepcion() throws Exception {
+        // Configuración de mocks: sin ExceptionMapper, Jersey no ejecuta el filtro de respuesta;
+        // la clasificación del método puede estar ya en caché
+        when(resourceInfo.getResourceMethod()).thenReturn(ComboController.class.getMethod("obtenerComboPorId", Long.class));
+        lenient().doReturn(ComboController.class).when(resourceInfo).getResourceClass();
+        lenient().when(requestContext.getMethod()).thenReturn("GET");
+        LimiteAdaptativo limite = FiltroAdmision.limite(FiltroAdmision.CATALOGO);
+        int enCurso = limite.getEnCurso();
+        filtro.filter(requestContext);
+        ArgumentCaptor<Object> ocupacion = ArgumentCaptor.forClass(Object.class);
+        verify(requestContext).setProperty(eq(FiltroAdmision.PROPIEDAD_OCUPACION), ocupacion.capture());
+        assertEquals(enCurso + 1, limite.getEnCurso());
+
+        ContainerRequest solicitud = mock(ContainerRequest.class);
+        when(solicitud.getProperty(FiltroAdmision.PROPIEDAD_OCUPACION)).thenReturn(ocupacion.getValue());
+        RequestEvent excepcion = mock(RequestEvent.class);
+        when(excepcion.getType()).thenReturn(RequestEvent.Type.ON_EXCEPTION);
+        RequestEvent terminada = mock(RequestEvent.class);
+        when(terminada.getType()).thenReturn(RequestEvent.Type.FINISHED);
+        when(terminada.getContainerRequest()).thenReturn(solicitud);
+
+        // Ejecución del método
+        RequestEventListener oyente = new OyenteAdmision().onRequest(null);
+        oyente.onEvent(excepcion);
+        assertEquals(enCurso + 1, limite.getEnCurso());
+        oyente.onEvent(terminada);
+        oyente.onEvent(terminada);
+
+        // Verificaciones
+        assertEquals(enCurso, limite.getEnCurso());
+    }
+
+    @Test
+    void testAdquirir_NoPrioritariasSeRechazanPrimero() {
+        // Configuración de mocks
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 4, 1, 8, 100);
+
+        // Ejecución del método
+        assertTrue(limite.adquirir(false));
+        assertTrue(limite.adquirir(false));
+        assertTrue(limite.adquirir(false));
+
+        // Verificaciones: 3 es el 75 % de 4, el último lugar queda para las prioritarias
+        assertFalse(limite.adquirir(false));
+        assertTrue(limite.adquirir(true));
+        assertFalse(limite.adquirir(true));
+        assertEquals(1L, limite.estadisticas().get("rechazadasPrioritarias"));
+        assertEquals(1L, limite.estadisticas().get("rechazadasNoPrioritarias"));
+    }
+
+    @Test
+    void testLiberar_ReduceConLatenciaAltaYCreceSinCongestion() {
+        // Configuración de mocks
+        LimiteAdaptativo limite = new LimiteAdaptativo("prueba", 20, 2, 40, 50);
+        long ahora = 0;
+        for (int i = 0; i < 20; i++) {
+            limite.adquirir(true);
+            limite.liberar(10 * MILISEGUNDO, ahora += MILISEGUNDO);
+        }
+
+        // Ejecución del método: la base de datos se vuelve lenta
+        for (int i = 0; i < 10; i++) {
+            limite.adquirir(true);
+            limite.liberar(500 * MILISEGUNDO, ahora += 100 * MILISEGUNDO);
+        }
+
+        // Verificaciones: una reducción por período de enfriamiento
+        int reducido = limite.getLimite();
+        assertTrue(reducido < 20, "limite " + reducido);
+        assertEquals(2L, limite.estadisticas().get("reducciones"));
+
+        // La latencia vuelve a la normalidad y el límite está en uso
+        for (int i = 0; i < reducido; i++) {
+            assertTrue(limite.adquirir(true));
+        }
+        for (int i = 0; i < 60; i++) {
+            limite.liberar(10 * MILISEGUNDO, ahora += MILISEGUNDO);
+            limite.adquirir(true);
+        }
+        assertTrue(limite.getLimite() > reducido, "limite " + limite.getLimite());
+        assertTrue(limite.segundosReintento() >= 1);
+    }
+
+    @Test
+    void testFiltro_RechazaCon503YRetryAfter() throws Exception {
+        // Configuración de mocks
+        when(resourceInfo.getResourceMethod()).thenReturn(ComboController.class.getMethod("listarCombos", String.class, Boolean.class));
+        doReturn(ComboController.class).when(resourceInfo).getResourceClass();
+        when(requestContext.getMethod()).thenReturn("GET");
+        LimiteAdaptativo limite = FiltroAdmision.limite(FiltroAdmision.CATALOGO);
+        int ocupados = 0;
+        while (limite.adquirir(false)) {
+            ocupados++;
+        }
+
+        try {
+            // Ejecución del método
+            filtro.filter(requestContext);
+
+            // Verificaciones
+            ArgumentCaptor<Response> respuesta = ArgumentCaptor.forClass(Response.class);
+            verify(requestContext).abortWith(respuesta.capture());
+            assertEquals(503, respuesta.getValue().getStatus());
+            assertNotNull(respuesta.getValue().getHeaderString(HttpHeaders.RETRY_AFTER));
+            verify(requestContext, never()).setProperty(anyString(), any());
+        } finally {
+            for (int i = 0; i < ocupados; i++) {
+                limite.liberar(0, 0);
+            }
+        }
+    }
+}
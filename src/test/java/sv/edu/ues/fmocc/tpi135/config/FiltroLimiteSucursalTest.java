@@ -0,0 +1,119 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.controller.OrdenController;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ResourceInfo;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para FiltroLimiteSucursal y LimitadorSucursal
+ */
+@ExtendWith(MockitoExtension.class)
+public class FiltroLimiteSucursalTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Mock
+    private ResourceInfo resourceInfo;
+
+    @Mock
+    private HttpServletRequest solicitudServlet;
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @InjectMocks
+    private FiltroLimiteSucursal filtro;
+
+    @Test
+    void testConsumir_RafagaYRecarga() {
+        // Configuración de mocks
+        LimitadorSucursal limitador = new LimitadorSucursal(3, 1, 100, 60, 0);
+
+        // Ejecución del método
+        assertEquals(0, limitador.consumir("S001", 0));
+        assertEquals(0, limitador.consumir("S001", 0));
+        assertEquals(0, limitador.consumir("S001", 0));
+        long espera = limitador.consumir("S001", 0);
+
+        // Verificaciones: la ráfaga se agota, la otra sucursal no se ve afectada
+        assertEquals(SEGUNDO, espera);
+        assertEquals(0, limitador.consumir("S002", 0));
+        assertEquals(0, limitador.consumir("S001", SEGUNDO));
+        assertTrue(limitador.consumir("S001", SEGUNDO) > 0);
+        Map<String, Object> estadisticas = limitador.estadisticas();
+        assertEquals(2L, estadisticas.get("rechazadas"));
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> porClave = (Map<String, Map<String, Object>>) estadisticas.get("porClave");
+        assertEquals("S001", porClave.keySet().iterator().next());
+        assertEquals(2L, porClave.get("S001").get("rechazadas"));
+    }
+
+    @Test
+    void testConsumir_DescartaClavesOciosasYAcotaLaMemoria() {
+        // Configuración de mocks
+        LimitadorSucursal limitador = new LimitadorSucursal(2, 10, 2, 60, 0);
+        limitador.consumir("S001", 0);
+        limitador.consumir("S002", 0);
+
+        // Ejecución del método: sin lugar, la clave nueva usa la cubeta de desbordamiento
+        limitador.consumir("S003", SEGUNDO);
+
+        // Verificaciones
+        assertEquals(2, limitador.getClaves());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> porClave = (Map<String, Object>) limitador.estadisticas().get("porClave");
+        assertTrue(porClave.containsKey(LimitadorSucursal.DESBORDAMIENTO));
+
+        // Pasado el período de ociosidad las cubetas llenas se descartan
+        assertEquals(0, limitador.consumir("S004", 61 * SEGUNDO));
+        assertEquals(1, limitador.getClaves());
+        assertEquals(2L, limitador.estadisticas().get("descartadas"));
+    }
+
+    @Test
+    void testFiltro_ClaveDelCuerpoYCuerpoIntacto() throws Exception {
+        // Configuración de mocks
+        String json = "{\"fecha\":\"2025-01-01\",\"sucursal\":\"S-LIMITE\",\"anulada\":false}";
+        when(resourceInfo.getResourceMethod()).thenReturn(
+                OrdenController.class.getMethod("crearOrden", AsyncResponse.class, String.class, OrdenDTO.class));
+        doReturn(OrdenController.class).when(resourceInfo).getResourceClass();
+        when(requestContext.getMethod()).thenReturn("POST");
+        when(requestContext.hasEntity()).thenReturn(true);
+        when(requestContext.getEntityStream())
+                .thenAnswer(invocacion -> new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+
+        // Ejecución del método: la ráfaga por defecto es de 20 solicitudes
+        for (int i = 0; i < 25; i++) {
+            filtro.filter(requestContext);
+        }
+
+        // Verificaciones
+        ArgumentCaptor<InputStream> cuerpo = ArgumentCaptor.forClass(InputStream.class);
+        verify(requestContext, times(25)).setEntityStream(cuerpo.capture());
+        assertEquals(json, new String(cuerpo.getValue().readAllBytes(), StandardCharsets.UTF_8));
+        verify(requestContext, atLeast(1)).abortWith(any());
+        verifyNoInteractions(solicitudServlet);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> porClave = (Map<String, Object>) FiltroLimiteSucursal.estadisticas().get("porClave");
+        assertTrue(porClave.containsKey("sucursal:S-LIMITE"));
+    }
+}
@@ -0,0 +1,144 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.controller.CatalogoController;
+import sv.edu.ues.fmocc.tpi135.controller.PagoController;
+import sv.edu.ues.fmocc.tpi135.controller.ProductoController;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.ext.WriterInterceptorContext;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FiltroMetricasTest {
+
+    @Mock
+    private ResourceInfo resourceInfo;
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @Mock
+    private ContainerResponseContext responseContext;
+
+    @Mock
+    private WriterInterceptorContext writerContext;
+
+    @InjectMocks
+    private FiltroMetricas filtro;
+
+    @Test
+    void testFiltro_RegistraEstadoYBytesAlEscribirElCuerpo() throws Exception {
+        // Configuración de mocks
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(requestContext.getLength()).thenReturn(-1);
+        when(resourceInfo.getResourceMethod()).thenReturn(ProductoController.class.getMethod("obtenerProductoPorId", Long.class));
+        doReturn(ProductoController.class).when(resourceInfo).getResourceClass();
+        when(responseContext.getStatus()).thenReturn(200);
+        when(responseContext.hasEntity()).thenReturn(true);
+
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        AtomicReference<OutputStream> flujo = new AtomicReference<>(destino);
+        when(writerContext.getOutputStream()).thenAnswer(invocacion -> flujo.get());
+        doAnswer(invocacion -> {
+            flujo.set(invocacion.getArgument(0));
+            return null;
+        }).when(writerContext).setOutputStream(any());
+        doAnswer(invocacion -> {
+            flujo.get().write("{\"idProducto\":1}".getBytes());
+            return null;
+        }).when(writerContext).proceed();
+
+        // Ejecución del método
+        filtro.filter(requestContext);
+        filtro.filter(requestContext, responseContext);
+        filtro.aroundWriteTo(writerContext);
+
+        // Verificaciones
+        assertEquals("{\"idProducto\":1}", destino.toString());
+        assertSame(destino, flujo.get());
+        String metricas = ExportadorPrometheus.exportar();
+        assertTrue(metricas.contains("tipicos_http_respuestas_total{endpoint=\"GET /productos/{id}\",estado=\"200\"}"));
+        assertTrue(metricas.contains("tipicos_http_bytes_respuesta_total{endpoint=\"GET /productos/{id}\"}"));
+        assertTrue(metricas.contains("tipicos_http_duracion_segundos_bucket{endpoint=\"GET /productos/{id}\",le=\"+Inf\"}"));
+        assertTrue(metricas.contains("tipicos_http_duracion_percentil_segundos{endpoint=\"GET /productos/{id}\",quantile=\"0.99\"}"));
+    }
+
+    @Test
+    void testFiltro_AsincronoSeCierraEnOtroHilo() throws Exception {
+        // Configuración de mocks: las propiedades de la solicitud se guardan en un mapa
+        Map<String, Object> propiedades = new ConcurrentHashMap<>();
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(requestContext.getLength()).thenReturn(-1);
+        doAnswer(invocacion -> propiedades.put(invocacion.getArgument(0), invocacion.getArgument(1)))
+                .when(requestContext).setProperty(anyString(), any());
+        when(requestContext.getProperty(anyString())).thenAnswer(invocacion -> propiedades.get(invocacion.getArgument(0)));
+        when(resourceInfo.getResourceMethod()).thenReturn(
+                PagoController.class.getMethod("obtenerPagoPorId", AsyncResponse.class, Long.class));
+        doReturn(PagoController.class).when(resourceInfo).getResourceClass();
+        when(responseContext.getStatus()).thenReturn(404);
+        when(responseContext.hasEntity()).thenReturn(false);
+
+        // Ejecución del método: la respuesta se reanuda en otro hilo
+        filtro.filter(requestContext);
+        Thread hilo = new Thread(() -> filtro.filter(requestContext, responseContext));
+        hilo.start();
+        hilo.join();
+
+        // Verificaciones
+        assertEquals(1, propiedades.size());
+        assertTrue(ExportadorPrometheus.exportar()
+                .contains("tipicos_http_respuestas_total{endpoint=\"GET /pagos/{id}\",estado=\"404\"} 1"));
+    }
+
+    @Test
+    void testFiltro_IgnoraControladoresNoMedidos() throws Exception {
+        // Configuración de mocks
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(resourceInfo.getResourceMethod()).thenReturn(CatalogoController.class.getMethod("obtenerEstadisticasCache"));
+        doReturn(CatalogoController.class).when(resourceInfo).getResourceClass();
+
+        // Ejecución del método
+        filtro.filter(requestContext);
+        filtro.filter(requestContext, responseContext);
+        filtro.aroundWriteTo(writerContext);
+
+        // Verificaciones
+        verifyNoInteractions(responseContext);
+        verify(writerContext).proceed();
+        verify(writerContext, never()).setOutputStream(any());
+        assertFalse(ExportadorPrometheus.exportar().contains("/catalogo/cache"));
+    }
+
+    @Test
+    void testHistograma_Percentiles() {
+        // Datos de prueba: 100 observaciones de 1 a 100
+        Histograma histograma = new Histograma(10, 50, 90, 100);
+        for (int i = 1; i <= 100; i++) {
+            histograma.registrar(i);
+        }
+
+        // Verificaciones
+        assertEquals(50.0, histograma.percentil(0.5), 0.001);
+        assertEquals(90.0, histograma.percentil(0.9), 0.001);
+        assertEquals(99.0, histograma.percentil(0.99), 0.001);
+        assertEquals(100, histograma.getMaximo());
+        assertEquals(0.0, new Histograma(1, 2).percentil(0.5));
+    }
+}
@@ -0,0 +1,149 @@
+package sv.edu.ues.fmocc.tpi135.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.eclipse.persistence.queries.SQLCall;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.SessionEvent;
+import sv.edu.ues.fmocc.tpi135.controller.OrdenController;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FiltroSentenciasTest {
+
+    @Mock
+    private ResourceInfo resourceInfo;
+
+    @Mock
+    private ContainerRequestContext requestContext;
+
+    @Mock
+    private ContainerResponseContext responseContext;
+
+    @InjectMocks
+    private FiltroSentencias filtro;
+
+    @Test
+    void testFiltro_AgregaEncabezadoYRegistraHistograma() throws NoSuchMethodException {
+        // Configuración de mocks
+        MultivaluedMap<String, Object> encabezados = new MultivaluedHashMap<>();
+        when(requestContext.getMethod()).thenReturn("GET");
+        when(resourceInfo.getResourceMethod()).thenReturn(OrdenController.class.getMethod("obtenerOrdenPorId", AsyncResponse.class, Long.class));
+        doReturn(OrdenController.class).when(resourceInfo).getResourceClass();
+        when(responseContext.getHeaders()).thenReturn(encabezados);
+
+        // Ejecución del método
+        filtro.filter(requestContext);
+        ContadorSentencias.registrar("OrdenRepository.encontrarPorId");
+        ContadorSentencias.registrar("OrdenDetalleRepository.buscarPorIdOrden");
+        ContadorSentencias.registrar("ProductoPrecioRepository.encontrarPorId");
+        filtro.filter(requestContext, responseContext);
+
+        // Verificaciones
+        assertEquals(3, encabezados.getFirst(FiltroSentencias.ENCABEZADO));
+        Map<String, Object> histograma = FiltroSentencias.estadisticas().get("GET /ordenes/{id}");
+        assertNotNull(histograma);
+        assertTrue((Long) histograma.get("conteo") >= 1);
+    }
+
+    @Test
+    void testFiltro_SinSolicitudIniciadaNoHaceNada() {
+        // Ejecución del método: sin filtro de solicitud previo
+        ContadorSentencias.registrar("OrdenRepository.encontrarPorId");
+        filtro.filter(requestContext, responseContext);
+
+        // Verificaciones
+        verifyNoInteractions(responseContext);
+        assertNull(ContadorSentencias.finalizar());
+    }
+
+    @Test
+    void testFinalizar_ReportaFormasSobreElUmbral() {
+        // Ejecución del método
+        ContadorSentencias.iniciar();
+        ContadorSentencias.registrar("OrdenRepository.encontrarPorId");
+        for (int i = 0; i <= ContadorSentencias.UMBRAL_REPETICIONES; i++) {
+            ContadorSentencias.registrar("ProductoPrecioRepository.encontrarPorId");
+        }
+        ContadorSentencias.Resumen resumen = ContadorSentencias.finalizar();
+
+        // Verificaciones
+        assertEquals(ContadorSentencias.UMBRAL_REPETICIONES + 2, resumen.getTotal());
+        assertEquals(Map.of("ProductoPrecioRepository.encontrarPorId", ContadorSentencias.UMBRAL_REPETICIONES + 1),
+                resumen.getRepetidas());
+    }
+
+    @Test
+    void testHistograma_CubetasAcumuladas() {
+        // Datos de prueba
+        Histograma histograma = new Histograma(1, 5, 10);
+
+        // Ejecución del método
+        histograma.registrar(0);
+        histograma.registrar(1);
+        histograma.registrar(5);
+        histograma.registrar(7);
+        histograma.registrar(50);
+
+        // Verificaciones
+        assertArrayEquals(new long[]{2, 3, 4, 5}, histograma.acumulados());
+        assertEquals(5, histograma.getConteo());
+        assertEquals(63, histograma.getSuma());
+    }
+
+    @Test
+    void testOyente_CuentaSentenciasPorSql() {
+        // Datos de prueba
+        String sql = "SELECT ID_PRODUCTO_PRECIO FROM producto_precio WHERE (ID_PRODUCTO_PRECIO = ?)";
+        SessionEvent evento = new SessionEvent(SessionEvent.PostExecuteCall,
+                new Project(new DatabaseLogin()).createDatabaseSession());
+        evento.setCall(new SQLCall(sql));
+
+        // Ejecución del método
+        ContadorSentencias.iniciar();
+        for (int i = 0; i <= ContadorSentencias.UMBRAL_REPETICIONES; i++) {
+            new OyenteSentencias().postExecuteCall(evento);
+        }
+        ContadorSentencias.Resumen resumen = ContadorSentencias.finalizar();
+
+        // Verificaciones
+        assertEquals(ContadorSentencias.UMBRAL_REPETICIONES + 1, resumen.getTotal());
+        assertEquals(Map.of(sql, ContadorSentencias.UMBRAL_REPETICIONES + 1), resumen.getRepetidas());
+    }
+
+    @Test
+    void testOyente_EscriturasEnLoteNoSonRepeticiones() {
+        // Datos de prueba
+        DatabaseLogin login = new DatabaseLogin();
+        login.setUsesBatchWriting(true);
+        SQLCall insercion = new SQLCall("INSERT INTO orden_detalle (ID_ORDEN, CANTIDAD) VALUES (?, ?)");
+        insercion.setExecuteUpdate();
+        SessionEvent evento = new SessionEvent(SessionEvent.PostExecuteCall, new Project(login).createDatabaseSession());
+        evento.setCall(insercion);
+
+        // Ejecución del método
+        ContadorSentencias.iniciar();
+        for (int i = 0; i <= ContadorSentencias.UMBRAL_REPETICIONES; i++) {
+            new OyenteSentencias().postExecuteCall(evento);
+        }
+        ContadorSentencias.Resumen resumen = ContadorSentencias.finalizar();
+
+        // Verificaciones
+        assertEquals(ContadorSentencias.UMBRAL_REPETICIONES + 1, resumen.getTotal());
+        assertTrue(resumen.getRepetidas().isEmpty());
+    }
+}
@@ -0,0 +1,182 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import sv.edu.ues.fmocc.tpi135.dto.EventoOrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+
+import javax.enterprise.concurrent.ManagedExecutorService;
+import javax.ws.rs.sse.OutboundSseEvent;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para DifusorOrdenes
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class DifusorOrdenesTest {
+
+    @Mock
+    private ManagedExecutorService ejecutor;
+
+    @Mock
+    private Sse sse;
+
+    @Mock(answer = org.mockito.Answers.RETURNS_SELF)
+    private OutboundSseEvent.Builder builder;
+
+    @InjectMocks
+    private DifusorOrdenes difusorOrdenes;
+
+    /**
+     * Nombres de los eventos construidos, en orden
+     */
+    private final List<String> nombres = new ArrayList<>();
+
+    /**
+     * IDs de los eventos construidos, en orden
+     */
+    private final List<String> ids = new ArrayList<>();
+
+    private final List<Runnable> pendientes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // Configuración de mocks: las tareas se guardan y se ejecutan al llamar ejecutarPendientes
+        doAnswer(invocacion -> pendientes.add(invocacion.getArgument(0))).when(ejecutor).execute(any(Runnable.class));
+        when(sse.newEventBuilder()).thenReturn(builder);
+        when(builder.name(anyString())).thenAnswer(invocacion -> {
+            nombres.add(invocacion.getArgument(0));
+            return builder;
+        });
+        when(builder.id(anyString())).thenAnswer(invocacion -> {
+            ids.add(invocacion.getArgument(0));
+            return builder;
+        });
+        when(builder.build()).thenReturn(mock(OutboundSseEvent.class));
+    }
+
+    private SseEventSink nuevoSink() {
+        SseEventSink sink = mock(SseEventSink.class);
+        doReturn(CompletableFuture.completedFuture(null)).when(sink).send(any());
+        return sink;
+    }
+
+    private void ejecutarPendientes() {
+        while (!pendientes.isEmpty()) {
+            pendientes.remove(0).run();
+        }
+    }
+
+    private static EventoOrdenDTO evento(String tipo, long idOrden, String sucursal) {
+        return new EventoOrdenDTO(tipo, new OrdenDTO(idOrden, null, sucursal, false), null);
+    }
+
+    @Test
+    void testPublicar_SoloALaSucursal() {
+        // Configuración de mocks
+        SseEventSink cocinaS1 = nuevoSink();
+        SseEventSink cocinaS2 = nuevoSink();
+        difusorOrdenes.suscribir("S1", null, cocinaS1, sse);
+        difusorOrdenes.suscribir("S2", null, cocinaS2, sse);
+
+        // Ejecución del método
+        difusorOrdenes.publicar(evento(EventoOrdenDTO.CREADA, 1L, "S1"));
+        difusorOrdenes.publicar(evento(EventoOrdenDTO.ANULADA, 1L, "S1"));
+        ejecutarPendientes();
+
+        // Verificaciones
+        verify(cocinaS1, times(2)).send(any());
+        verify(cocinaS2, never()).send(any());
+        assertEquals(List.of(EventoOrdenDTO.CREADA, EventoOrdenDTO.ANULADA), nombres);
+        verify(builder, times(2)).data(eq(String.class), argThat(datos -> datos.toString().contains("\"idOrden\":1")));
+        assertEquals(2L, difusorOrdenes.estadisticas().get("eventosEnviados"));
+    }
+
+    @Test
+    void testPublicar_ClienteLentoRecibeResincronizacion() {
+        // Configuración de mocks: el cliente no recibe nada mientras se llena su cola
+        SseEventSink lento = nuevoSink();
+        difusorOrdenes.suscribir("S1", null, lento, sse);
+
+        // Ejecución del método
+        for (long i = 1; i <= DifusorOrdenes.CAPACIDAD_COLA + 1; i++) {
+            difusorOrdenes.publicar(evento(EventoOrdenDTO.CREADA, i, "S1"));
+        }
+        ejecutarPendientes();
+
+        // Verificaciones: los pendientes se reemplazan por una sola resincronización
+        verify(lento, times(1)).send(any());
+        assertEquals(List.of(DifusorOrdenes.RESINCRONIZAR), nombres);
+        assertTrue(ids.get(0).endsWith("-" + (DifusorOrdenes.CAPACIDAD_COLA + 1)));
+        assertEquals(1L, difusorOrdenes.estadisticas().get("resincronizaciones"));
+    }
+
+    @Test
+    void testSuscribir_ReenviaEventosPerdidos() {
+        // Configuración de mocks: un primer cliente recibe tres eventos
+        SseEventSink primero = nuevoSink();
+        difusorOrdenes.suscribir("S1", null, primero, sse);
+        for (long i = 1; i <= 3; i++) {
+            difusorOrdenes.publicar(evento(EventoOrdenDTO.CREADA, i, "S1"));
+        }
+        ejecutarPendientes();
+        String primerId = ids.get(0);
+        ids.clear();
+
+        // Ejecución del método: se reconecta con el ID del primer evento
+        SseEventSink reconectado = nuevoSink();
+        difusorOrdenes.suscribir("S1", primerId, reconectado, sse);
+        ejecutarPendientes();
+
+        // Verificaciones
+        verify(reconectado, times(2)).send(any());
+        assertTrue(ids.get(0).endsWith("-2"));
+        assertTrue(ids.get(1).endsWith("-3"));
+    }
+
+    @Test
+    void testSuscribir_IdDeOtraEjecucion() {
+        // Configuración de mocks
+        SseEventSink sink = nuevoSink();
+
+        // Ejecución del método
+        difusorOrdenes.suscribir("S1", "otro-15", sink, sse);
+        ejecutarPendientes();
+
+        // Verificaciones
+        assertEquals(List.of(DifusorOrdenes.RESINCRONIZAR), nombres);
+    }
+
+    @Test
+    void testEnvioFallido_CierraLaConexion() {
+        // Configuración de mocks
+        SseEventSink sink = mock(SseEventSink.class);
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("desconectado"))).when(sink).send(any());
+        difusorOrdenes.suscribir("S1", null, sink, sse);
+
+        // Ejecución del método
+        difusorOrdenes.publicar(evento(EventoOrdenDTO.CREADA, 1L, "S1"));
+        ejecutarPendientes();
+
+        // Verificaciones
+        verify(sink).close();
+        assertEquals(0, difusorOrdenes.estadisticas().get("suscriptores"));
+    }
+}
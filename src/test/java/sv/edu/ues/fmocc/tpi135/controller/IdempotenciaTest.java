@@ -0,0 +1,183 @@
+package sv.edu.ues.fmocc.tpi135.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.RespuestaIdempotenteDTO;
+import sv.edu.ues.fmocc.tpi135.service.IdempotenciaService;
+
+import javax.ws.rs.core.Response;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para Idempotencia
+ */
+@ExtendWith(MockitoExtension.class)
+public class IdempotenciaTest {
+
+    @Mock
+    private IdempotenciaService idempotenciaService;
+
+    @InjectMocks
+    private Idempotencia idempotencia;
+
+    private final OrdenDTO ordenDTO = new OrdenDTO(null, null, "S001", false);
+
+    private final AtomicInteger creadas = new AtomicInteger();
+
+    private Response crear(String clave) {
+        return Response.status(Response.Status.CREATED)
+                .entity(new OrdenDTO((long) creadas.incrementAndGet(), null, "S001", false))
+                .build();
+    }
+
+    @Test
+    void testEjecutar_SinClaveEjecutaSiempre() {
+        // Ejecución del método
+        idempotencia.ejecutar(Idempotencia.ORDENES, null, ordenDTO, this::crear);
+        idempotencia.ejecutar(Idempotencia.ORDENES, " ", ordenDTO, this::crear);
+
+        // Verificaciones
+        assertEquals(2, creadas.get());
+        verifyNoInteractions(idempotenciaService);
+    }
+
+    @Test
+    void testEjecutar_ReintentoRepiteLaRespuestaSinCrear() {
+        // Configuración de mocks
+        when(idempotenciaService.reservar(eq("ordenes:k1"), anyString())).thenReturn(Optional.empty());
+
+        // Ejecución del método
+        Response original = idempotencia.ejecutar(Idempotencia.ORDENES, "k1", ordenDTO, this::crear);
+        Response reintento = idempotencia.ejecutar(Idempotencia.ORDENES, "k1", ordenDTO, this::crear);
+
+        // Verificaciones
+        assertEquals(1, creadas.get());
+        assertEquals(201, original.getStatus());
+        assertEquals(201, reintento.getStatus());
+        assertEquals(original.getEntity(), reintento.getEntity());
+        assertTrue(((String) reintento.getEntity()).contains("\"idOrden\":1"));
+        assertEquals("true", reintento.getHeaderString(Idempotencia.ENCABEZADO_REPETIDA));
+        assertNull(original.getHeaderString(Idempotencia.ENCABEZADO_REPETIDA));
+        verify(idempotenciaService, never()).liberar(anyString());
+        verify(idempotenciaService, times(1)).reservar(anyString(), anyString());
+    }
+
+    @Test
+    void testEjecutar_LaCreacionRecibeLaClaveReservada() {
+        // Configuración de mocks
+        when(idempotenciaService.reservar(eq("pagos:k6"), anyString())).thenReturn(Optional.empty());
+        AtomicReference<String> recibida = new AtomicReference<>();
+
+        // Ejecución del método
+        idempotencia.ejecutar(Idempotencia.PAGOS, "k6", ordenDTO, clave -> {
+            recibida.set(clave);
+            return crear(clave);
+        });
+        idempotencia.ejecutar(Idempotencia.PAGOS, null, ordenDTO, clave -> {
+            assertNull(clave);
+            return crear(clave);
+        });
+
+        // Verificaciones
+        assertEquals("pagos:k6", recibida.get());
+        assertEquals(2, creadas.get());
+    }
+
+    @Test
+    void testEjecutar_RespuestaDeLaTablaTrasReinicio() {
+        // Configuración de mocks
+        String huella = Idempotencia.huella(ordenDTO);
+        when(idempotenciaService.reservar("ordenes:k2", huella)).thenReturn(Optional.of(
+                new RespuestaIdempotenteDTO(huella, 201, "{\"idOrden\":9}", false)));
+
+        // Ejecución del método
+        Response respuesta = idempotencia.ejecutar(Idempotencia.ORDENES, "k2", ordenDTO, this::crear);
+
+        // Verificaciones
+        assertEquals(0, creadas.get());
+        assertEquals(201, respuesta.getStatus());
+        assertEquals("{\"idOrden\":9}", respuesta.getEntity());
+    }
+
+    @Test
+    void testEjecutar_ClaveConOtroCuerpo() {
+        // Configuración de mocks
+        when(idempotenciaService.reservar(eq("ordenes:k3"), anyString())).thenReturn(Optional.empty());
+        idempotencia.ejecutar(Idempotencia.ORDENES, "k3", ordenDTO, this::crear);
+
+        // Ejecución del método
+        Response respuesta = idempotencia.ejecutar(Idempotencia.ORDENES, "k3",
+                new OrdenDTO(null, null, "S002", false), this::crear);
+
+        // Verificaciones
+        assertEquals(422, respuesta.getStatus());
+        assertEquals(1, creadas.get());
+    }
+
+    @Test
+    void testEjecutar_FalloLiberaLaClave() {
+        // Configuración de mocks
+        when(idempotenciaService.reservar(eq("pagos:k4"), anyString())).thenReturn(Optional.empty());
+
+        // Ejecución del método
+        Response respuesta = idempotencia.ejecutar(Idempotencia.PAGOS, "k4", ordenDTO,
+                clave -> Response.status(Response.Status.BAD_REQUEST).entity("inválido").build());
+
+        // Verificaciones
+        assertEquals(400, respuesta.getStatus());
+        verify(idempotenciaService).liberar("pagos:k4");
+        verify(idempotenciaService, never()).completar(anyString(), any());
+    }
+
+    @Test
+    void testEjecutar_DuplicadosSimultaneosEjecutanUnaVez() throws Exception {
+        // Configuración de mocks: la primera creación espera hasta que llegue el duplicado
+        when(idempotenciaService.reservar(eq("ordenes:k5"), anyString())).thenReturn(Optional.empty());
+        CountDownLatch enCreacion = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+
+        // Ejecución del método
+        CompletableFuture<Response> primera = CompletableFuture.supplyAsync(() ->
+                idempotencia.ejecutar(Idempotencia.ORDENES, "k5", ordenDTO, clave -> {
+                    enCreacion.countDown();
+                    esperar(liberar);
+                    return crear(clave);
+                }));
+        assertTrue(enCreacion.await(2, TimeUnit.SECONDS));
+        CompletableFuture<Response> duplicada = CompletableFuture.supplyAsync(() ->
+                idempotencia.ejecutar(Idempotencia.ORDENES, "k5", ordenDTO, this::crear));
+        Thread.sleep(100);
+        liberar.countDown();
+
+        // Verificaciones
+        Response respuestaPrimera = primera.get(2, TimeUnit.SECONDS);
+        Response respuestaDuplicada = duplicada.get(2, TimeUnit.SECONDS);
+        assertEquals(1, creadas.get());
+        assertEquals(201, respuestaDuplicada.getStatus());
+        assertEquals(respuestaPrimera.getEntity(), respuestaDuplicada.getEntity());
+        verify(idempotenciaService, times(1)).reservar(anyString(), anyString());
+    }
+
+    private static void esperar(CountDownLatch senal) {
+        try {
+            senal.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResultadoLoteDTO;
 import sv.edu.ues.fmocc.tpi135.service.OrdenService;
 
 import javax.ws.rs.core.Response;
@@ -162,7 +164,7 @@ public class OrdenControllerTest {
         when(ordenService.listarOrdenes()).thenReturn(ordenes);
 
         // Ejecución del método
-        Response response = ordenController.listarOrdenes(null, null, null);
+        Response response = ordenController.listarOrdenes(null, null, null, null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -185,7 +187,7 @@ public class OrdenControllerTest {
         when(ordenService.buscarOrdenesPorFecha(fecha)).thenReturn(ordenes);
 
         // Ejecución del método
-        Response response = ordenController.listarOrdenes(fecha, null, null);
+        Response response = ordenController.listarOrdenes(fecha, null, null, null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -209,7 +211,7 @@ public class OrdenControllerTest {
         when(ordenService.buscarOrdenesPorSucursal("S001")).thenReturn(ordenes);
 
         // Ejecución del método
-        Response response = ordenController.listarOrdenes(null, "S001", null);
+        Response response = ordenController.listarOrdenes(null, "S001", null, null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -233,7 +235,7 @@ public class OrdenControllerTest {
         when(ordenService.buscarOrdenesPorAnulada(false)).thenReturn(ordenes);
 
         // Ejecución del método
-        Response response = ordenController.listarOrdenes(null, null, false);
+        Response response = ordenController.listarOrdenes(null, null, false, null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -248,6 +250,121 @@ public class OrdenControllerTest {
         verify(ordenService, never()).buscarOrdenesPorSucursal(any());
     }
 
+    @Test
+    void testListarOrdenes_Paginado() {
+        // Datos de prueba
+        PaginaDTO<OrdenDTO> pagina = new PaginaDTO<>(List.of(ordenDTO), "aWQ6MQ", 1);
+
+        // Configuración del mock
+        when(ordenService.listarOrdenesPaginadas(null, fecha, "S001", true, 1)).thenReturn(pagina);
+
+        // Ejecución del método
+        Response response = ordenController.listarOrdenes(fecha, "S001", true, 1, null);
+
+        // Verificaciones
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(pagina, response.getEntity());
+
+        verify(ordenService, times(1)).listarOrdenesPaginadas(null, fecha, "S001", true, 1);
+        verify(ordenService, never()).buscarOrdenesPorFecha(any());
+        verify(ordenService, never()).listarOrdenes();
+    }
+
+    @Test
+    void testCrearOrdenesEnLote_Exitoso() {
+        // Configuración del mock
+        List<ResultadoLoteDTO<OrdenDTO>> resultados = List.of(
+                ResultadoLoteDTO.exito(0, ordenDTO),
+                ResultadoLoteDTO.rechazo(1, "La orden no puede ser nula"));
+        when(ordenService.crearOrdenesEnLote(anyList())).thenReturn(resultados);
+
+        // Ejecución del método
+        Response response = ordenController.crearOrdenesEnLote(Arrays.asList(ordenDTO, null));
+
+        // Verificaciones
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(resultados, response.getEntity());
+    }
+
+    @Test
+    void testCrearOrdenesEnLote_Vacio() {
+        // Configuración del mock
+        when(ordenService.crearOrdenesEnLote(anyList()))
+                .thenThrow(new IllegalArgumentException("El lote de órdenes no puede estar vacío"));
+
+        // Ejecución del método
+        Response response = ordenController.crearOrdenesEnLote(List.of());
+
+        // Verificaciones
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    void testExportarOrdenes_EscribeUnaOrdenPorLinea() throws Exception {
+        // Datos de prueba
+        OrdenDTO orden2 = new OrdenDTO(2L, fecha, "S001", false);
+
+        // Configuración del mock: el servicio entrega dos órdenes al consumidor
+        when(ordenService.exportarOrdenes(isNull(), isNull(), eq("S001"), any())).thenAnswer(invocation -> {
+            java.util.function.Consumer<OrdenDTO> consumidor = invocation.getArgument(3);
+            consumidor.accept(ordenDTO);
+            consumidor.accept(orden2);
+            return 2L;
+        });
+
+        // Ejecución del método
+        Response response = ordenController.exportarOrdenes(null, null, "S001");
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+        java.io.ByteArrayOutputStream salida = new java.io.ByteArrayOutputStream();
+        ((javax.ws.rs.core.StreamingOutput) response.getEntity()).write(salida);
+
+        // Verificaciones
+        String[] lineas = salida.toString("UTF-8").split("\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].contains("\"idOrden\":1"));
+        assertTrue(lineas[1].contains("\"idOrden\":2"));
+    }
+
+    @Test
+    void testExportarOrdenes_RangoInvalido() {
+        // Ejecución del método con la fecha inicial posterior a la final
+        Date hasta = new Date(fecha.getTime() - 86_400_000L);
+        Response response = ordenController.exportarOrdenes(fecha, hasta, null);
+
+        // Verificaciones
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        verify(ordenService, never()).exportarOrdenes(any(), any(), any(), any());
+    }
+
+    @Test
+    void testResumirVentas_RangoInvalido() {
+        // Configuración del mock
+        when(ordenService.resumirVentas(isNull(), any(), isNull()))
+                .thenThrow(new IllegalArgumentException("Las fechas inicial y final son requeridas"));
+
+        // Ejecución del método
+        Response response = ordenController.resumirVentas(null, fecha, null);
+
+        // Verificaciones
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertEquals("Las fechas inicial y final son requeridas", response.getEntity());
+    }
+
+    @Test
+    void testListarOrdenes_CursorInvalido() {
+        // Configuración del mock
+        when(ordenService.listarOrdenesPaginadas(eq("xyz"), any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("El cursor de paginación no es válido"));
+
+        // Ejecución del método
+        Response response = ordenController.listarOrdenes(null, null, null, null, "xyz");
+
+        // Verificaciones
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertEquals("El cursor de paginación no es válido", response.getEntity());
+    }
+
     @Test
     void testAnularOrden_Exitoso() {
         // Configuración del mock
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDetalleDTO;
 import sv.edu.ues.fmocc.tpi135.service.PagoService;
@@ -162,7 +163,7 @@ public class PagoControllerTest {
         when(pagoService.listarPagos()).thenReturn(pagos);
 
         // Ejecución del método
-        Response response = pagoController.listarPagos(null, null, null);
+        Response response = pagoController.listarPagos(null, null, null, null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -185,7 +186,7 @@ public class PagoControllerTest {
         when(pagoService.buscarPagosPorIdOrden(1L)).thenReturn(pagos);
 
         // Ejecución del método
-        Response response = pagoController.listarPagos(1L, null, null);
+        Response response = pagoController.listarPagos(1L, null, null, null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -209,7 +210,7 @@ public class PagoControllerTest {
         when(pagoService.buscarPagosPorFecha(eq(fecha))).thenReturn(pagos);
 
         // Ejecución del método
-        Response response = pagoController.listarPagos(null, fecha, null);
+        Response response = pagoController.listarPagos(null, fecha, null, null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -232,7 +233,7 @@ public class PagoControllerTest {
         when(pagoService.buscarPagosPorMetodoPago("EFECTIVO")).thenReturn(pagos);
 
         // Ejecución del método
-        Response response = pagoController.listarPagos(null, null, "EFECTIVO");
+        Response response = pagoController.listarPagos(null, null, "EFECTIVO", null, null);
 
         // Verificaciones
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -247,6 +248,26 @@ public class PagoControllerTest {
         verify(pagoService, never()).buscarPagosPorFecha(any());
     }
 
+    @Test
+    void testListarPagos_Paginado() {
+        // Datos de prueba
+        PaginaDTO<PagoDTO> pagina = new PaginaDTO<>(List.of(pagoDTO), null, 20);
+
+        // Configuración del mock
+        when(pagoService.listarPagosPaginados("aWQ6MQ", 1L, null, "TARJETA", 20)).thenReturn(pagina);
+
+        // Ejecución del método
+        Response response = pagoController.listarPagos(1L, null, "TARJETA", 20, "aWQ6MQ");
+
+        // Verificaciones
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals(pagina, response.getEntity());
+
+        verify(pagoService, times(1)).listarPagosPaginados("aWQ6MQ", 1L, null, "TARJETA", 20);
+        verify(pagoService, never()).buscarPagosPorIdOrden(any());
+        verify(pagoService, never()).listarPagos();
+    }
+
     @Test
     void testEliminarPago_Exitoso() {
         // Configuración del mock
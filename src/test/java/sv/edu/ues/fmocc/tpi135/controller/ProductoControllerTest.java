@@ -9,8 +9,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
 import sv.edu.ues.fmocc.tpi135.service.ProductoService;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +28,9 @@ public class ProductoControllerTest {
     @Mock
     private ProductoService productoService;
 
+    @Mock
+    private Request request;
+
     @InjectMocks
     private sv.edu.ues.fmocc.tpi135.controller.ProductoController productoController;
 
@@ -152,12 +158,30 @@ public class ProductoControllerTest {
         assertNotNull(response.getEntity());
         List<ProductoDTO> resultado = (List<ProductoDTO>) response.getEntity();
         assertEquals(2, resultado.size());
+        assertNotNull(response.getEntityTag());
+        assertNotNull(response.getLastModified());
 
         verify(productoService, times(1)).listarProductos();
         verify(productoService, never()).buscarProductosPorNombre(any());
         verify(productoService, never()).buscarProductosPorEstado(any());
     }
 
+    @Test
+    void testListarProductos_NoModificado() {
+        // Configuración del mock: el cliente envía la ETag vigente
+        when(request.evaluatePreconditions(any(Date.class), any(EntityTag.class)))
+                .thenReturn(Response.notModified());
+
+        // Ejecución del método
+        Response response = productoController.listarProductos(null, null);
+
+        // Verificaciones: se responde 304 sin consultar el servicio
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertNull(response.getEntity());
+
+        verifyNoInteractions(productoService);
+    }
+
     @Test
     void testListarProductos_FiltrarPorNombre() {
         // Datos de prueba
@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.controller.ComboController;
 import sv.edu.ues.fmocc.tpi135.dto.ComboDTO;
 import sv.edu.ues.fmocc.tpi135.entity.Combo;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ComboRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ComboRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.service.ComboService;
@@ -33,6 +34,9 @@ public class ComboIntegrationIT {
     @Mock
     private ComboRepositoryImpl comboRepository;
 
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
     private ComboService comboService;
     private ComboController comboController;
 
@@ -48,6 +52,9 @@ public class ComboIntegrationIT {
             java.lang.reflect.Field field = ComboServiceImpl.class.getDeclaredField("comboRepository");
             field.setAccessible(true);
             field.set(comboService, comboRepository);
+            field = ComboServiceImpl.class.getDeclaredField("cambioCatalogoRepository");
+            field.setAccessible(true);
+            field.set(comboService, cambioCatalogoRepository);
         } catch (IllegalAccessException | IllegalArgumentException | NoSuchFieldException | SecurityException e) {
             fail("Error al inyectar mock: " + e.getMessage());
         }
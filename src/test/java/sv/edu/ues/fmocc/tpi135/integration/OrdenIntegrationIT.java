@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.controller.OrdenController;
+import sv.edu.ues.fmocc.tpi135.dto.EventoOrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
@@ -15,9 +16,12 @@ import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+import sv.edu.ues.fmocc.tpi135.repository.VentaProductoDiariaRepository;
 import sv.edu.ues.fmocc.tpi135.service.OrdenService;
 import sv.edu.ues.fmocc.tpi135.service.OrdenServiceImpl;
+import sv.edu.ues.fmocc.tpi135.service.SalidaService;
 
+import javax.enterprise.event.Event;
 import javax.ws.rs.core.Response;
 import java.math.BigDecimal;
 import java.util.Arrays;
@@ -27,6 +31,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -47,6 +52,15 @@ public class OrdenIntegrationIT {
     @Mock
     private ProductoPrecioRepository productoPrecioRepository;
 
+    @Mock
+    private VentaProductoDiariaRepository ventaProductoDiariaRepository;
+
+    @Mock
+    private Event<EventoOrdenDTO> eventosOrden;
+
+    @Mock
+    private SalidaService salidaService;
+
     private OrdenService ordenService;
     private OrdenController ordenController;
 
@@ -74,6 +88,18 @@ public class OrdenIntegrationIT {
             field = OrdenServiceImpl.class.getDeclaredField("productoPrecioRepository");
             field.setAccessible(true);
             field.set(ordenService, productoPrecioRepository);
+
+            field = OrdenServiceImpl.class.getDeclaredField("ventaProductoDiariaRepository");
+            field.setAccessible(true);
+            field.set(ordenService, ventaProductoDiariaRepository);
+
+            field = OrdenServiceImpl.class.getDeclaredField("eventosOrden");
+            field.setAccessible(true);
+            field.set(ordenService, eventosOrden);
+
+            field = OrdenServiceImpl.class.getDeclaredField("salidaService");
+            field.setAccessible(true);
+            field.set(ordenService, salidaService);
         } catch (Exception e) {
             fail("Error al inyectar mocks: " + e.getMessage());
         }
@@ -170,16 +196,15 @@ public class OrdenIntegrationIT {
     @Test
     void testFlujoActualizarOrden() {
         // Configuración de mocks
-        when(ordenRepository.encontrarPorId(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
 
         when(ordenRepository.actualizar(any(Orden.class))).thenAnswer(invocation -> {
             Orden o = invocation.getArgument(0);
             return o; // Devolvemos el mismo objeto actualizado
         });
 
-        when(ordenDetalleRepository.eliminarPorIdOrden(1L)).thenReturn(1); // 1 detalle eliminado
-
-        when(ordenDetalleRepository.crear(any(OrdenDetalle.class))).thenReturn(ordenDetalleEntity);
+        // La orden tiene un detalle con el precio 1, que será reemplazado por el precio 2
+        when(ordenDetalleRepository.buscarPorIdOrden(1L)).thenReturn(List.of(ordenDetalleEntity));
 
         // Ejecutar flujo: actualizar orden
         OrdenDTO updateDTO = new OrdenDTO();
@@ -203,10 +228,14 @@ public class OrdenIntegrationIT {
         assertTrue(updatedDTO.getAnulada());
 
         // Verificar interacciones entre capas
-        verify(ordenRepository).encontrarPorId(1L);
+        verify(ordenRepository).encontrarParaActualizar(1L);
         verify(ordenRepository).actualizar(any(Orden.class));
-        verify(ordenDetalleRepository).eliminarPorIdOrden(1L);
-        verify(ordenDetalleRepository).crear(any(OrdenDetalle.class));
+        verify(ordenDetalleRepository).aplicarCambios(
+                argThat(nuevos -> nuevos.size() == 1 && nuevos.get(0).getIdProductoPrecio() == 2L),
+                argThat(List::isEmpty),
+                argThat(eliminados -> eliminados.size() == 1 && eliminados.get(0).getIdProductoPrecio() == 1L));
+        verify(ordenDetalleRepository, never()).eliminarPorIdOrden(anyLong());
+        verify(ordenDetalleRepository, never()).crear(any(OrdenDetalle.class));
     }
 
     @Test
@@ -224,30 +253,29 @@ public class OrdenIntegrationIT {
         when(ordenRepository.buscarPorSucursal("S001")).thenReturn(ordenesPorSucursal);
         when(ordenRepository.buscarPorFecha(eq(fecha))).thenReturn(ordenesPorFecha);
         when(ordenRepository.buscarPorAnulada(false)).thenReturn(ordenesPorAnulada);
-        when(ordenDetalleRepository.buscarPorIdOrden(anyLong())).thenReturn(List.of(ordenDetalleEntity));
-        when(ordenDetalleRepository.buscarPorIdOrden(anyLong())).thenReturn(List.of());
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
 
         // Ejecutar flujo: listar todas
-        Response listResponse = ordenController.listarOrdenes(null, null, null);
+        Response listResponse = ordenController.listarOrdenes(null, null, null, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), listResponse.getStatus());
         List<OrdenDTO> listedDTOs = (List<OrdenDTO>) listResponse.getEntity();
         assertEquals(2, listedDTOs.size());
 
         // Ejecutar flujo: buscar por sucursal
-        Response sucursalResponse = ordenController.listarOrdenes(null, "S001", null);
+        Response sucursalResponse = ordenController.listarOrdenes(null, "S001", null, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), sucursalResponse.getStatus());
         List<OrdenDTO> sucursalDTOs = (List<OrdenDTO>) sucursalResponse.getEntity();
         assertEquals(1, sucursalDTOs.size());
         assertEquals("S001", sucursalDTOs.get(0).getSucursal());
 
         // Ejecutar flujo: buscar por fecha
-        Response fechaResponse = ordenController.listarOrdenes(fecha, null, null);
+        Response fechaResponse = ordenController.listarOrdenes(fecha, null, null, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), fechaResponse.getStatus());
         List<OrdenDTO> fechaDTOs = (List<OrdenDTO>) fechaResponse.getEntity();
         assertEquals(2, fechaDTOs.size());
 
         // Ejecutar flujo: buscar por anulada
-        Response anuladaResponse = ordenController.listarOrdenes(null, null, false);
+        Response anuladaResponse = ordenController.listarOrdenes(null, null, false, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), anuladaResponse.getStatus());
         List<OrdenDTO> anuladaDTOs = (List<OrdenDTO>) anuladaResponse.getEntity();
         assertEquals(2, anuladaDTOs.size());
@@ -262,17 +290,17 @@ public class OrdenIntegrationIT {
 
     @Test
     void testFlujoAnularEliminarOrden() {
+        // Configuración de mocks para buscar la orden antes de anularla o eliminarla
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenRepository.encontrarParaActualizar(999L)).thenReturn(Optional.empty());
+
         // Configuración de mocks para anular
         when(ordenRepository.anular(1L)).thenReturn(true);
-        when(ordenRepository.anular(999L)).thenReturn(false);
 
         // Configuración de mocks para eliminar
         when(ordenDetalleRepository.eliminarPorIdOrden(1L)).thenReturn(1);
         when(ordenRepository.eliminar(1L)).thenReturn(true);
 
-        when(ordenDetalleRepository.eliminarPorIdOrden(999L)).thenReturn(0);
-        when(ordenRepository.eliminar(999L)).thenReturn(false);
-
         // Ejecutar flujo: anular orden existente
         Response anularResponse = ordenController.anularOrden(1L);
         assertEquals(Response.Status.NO_CONTENT.getStatusCode(), anularResponse.getStatus());
@@ -293,10 +321,10 @@ public class OrdenIntegrationIT {
 
         // Verificar interacciones entre capas
         verify(ordenRepository).anular(1L);
-        verify(ordenRepository).anular(999L);
+        verify(ordenRepository, never()).anular(999L);
         verify(ordenDetalleRepository).eliminarPorIdOrden(1L);
         verify(ordenRepository).eliminar(1L);
-        verify(ordenDetalleRepository).eliminarPorIdOrden(999L);
-        verify(ordenRepository).eliminar(999L);
+        verify(ordenDetalleRepository, never()).eliminarPorIdOrden(999L);
+        verify(ordenRepository, never()).eliminar(999L);
     }
 }
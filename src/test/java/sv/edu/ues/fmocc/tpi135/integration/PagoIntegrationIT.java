@@ -18,6 +18,7 @@ import sv.edu.ues.fmocc.tpi135.repository.PagoDetalleRepository;
 import sv.edu.ues.fmocc.tpi135.repository.PagoRepository;
 import sv.edu.ues.fmocc.tpi135.service.PagoService;
 import sv.edu.ues.fmocc.tpi135.service.PagoServiceImpl;
+import sv.edu.ues.fmocc.tpi135.service.SalidaService;
 
 import javax.ws.rs.core.Response;
 import java.math.BigDecimal;
@@ -28,6 +29,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -44,6 +46,9 @@ public class PagoIntegrationIT {
     @Mock
     private OrdenRepository ordenRepository;
 
+    @Mock
+    private SalidaService salidaService;
+
     private PagoService pagoService;
     private PagoController pagoController;
 
@@ -72,6 +77,10 @@ public class PagoIntegrationIT {
             field = PagoServiceImpl.class.getDeclaredField("ordenRepository");
             field.setAccessible(true);
             field.set(pagoService, ordenRepository);
+
+            field = PagoServiceImpl.class.getDeclaredField("salidaService");
+            field.setAccessible(true);
+            field.set(pagoService, salidaService);
         } catch (Exception e) {
             fail("Error al inyectar mocks: " + e.getMessage());
         }
@@ -205,19 +214,14 @@ public class PagoIntegrationIT {
             return pagoEntity;
         });
 
-        // Configuración de mocks para eliminar detalles existentes
-        when(pagoDetalleRepository.eliminarPorIdPago(1L)).thenReturn(1); // 1 detalle eliminado
-
-        // Configuración de mocks para crear nuevos detalles
+        // Detalle que el pago tiene registrado antes de la actualización
         PagoDetalle nuevoDetalle = new PagoDetalle();
         nuevoDetalle.setIdPagoDetalle(2L);
         nuevoDetalle.setIdPago(1L);
         nuevoDetalle.setMonto(new BigDecimal("200.00"));
         nuevoDetalle.setObservaciones("Nuevo detalle");
-        
-        when(pagoDetalleRepository.crear(any(PagoDetalle.class))).thenReturn(nuevoDetalle);
 
-        // Configuración de mocks para obtener detalles después de la actualización
+        // Configuración de mocks para obtener los detalles existentes
         when(pagoDetalleRepository.buscarPorIdPago(1L)).thenReturn(List.of(nuevoDetalle));
 
         // Ejecutar flujo: actualizar pago
@@ -245,9 +249,14 @@ public class PagoIntegrationIT {
         verify(pagoRepository, times(1)).encontrarPorId(1L);
         verify(ordenRepository, atLeastOnce()).encontrarPorId(2L);
         verify(pagoRepository).actualizar(any(Pago.class));
-        verify(pagoDetalleRepository).eliminarPorIdPago(1L);
-        verify(pagoDetalleRepository).crear(any(PagoDetalle.class));
-        verify(pagoDetalleRepository).buscarPorIdPago(1L);
+        // El detalle sin ID se inserta y el detalle 2, que ya no viene, se elimina
+        verify(pagoDetalleRepository).aplicarCambios(
+                argThat(nuevos -> nuevos.size() == 1 && nuevos.get(0).getIdPagoDetalle() == null),
+                argThat(List::isEmpty),
+                argThat(eliminados -> eliminados.size() == 1 && eliminados.get(0).getIdPagoDetalle() == 2L));
+        verify(pagoDetalleRepository, never()).eliminarPorIdPago(anyLong());
+        verify(pagoDetalleRepository, never()).crear(any(PagoDetalle.class));
+        verify(pagoDetalleRepository, times(2)).buscarPorIdPago(1L);
     }
 
     @Test
@@ -285,35 +294,32 @@ public class PagoIntegrationIT {
         // Configuración de mocks
         when(pagoRepository.listarTodos()).thenReturn(pagos);
         when(pagoRepository.buscarPorMetodoPago("EFECTIVO")).thenReturn(pagosEfectivo);
-        when(pagoDetalleRepository.buscarPorIdPago(anyLong())).thenReturn(List.of());
+        when(pagoDetalleRepository.buscarPorIdsPago(anyCollection())).thenReturn(List.of());
         when(pagoRepository.buscarPorIdOrden(1L)).thenReturn(pagosPorOrden);
         when(pagoRepository.buscarPorFecha(eq(fecha))).thenReturn(pagos);
-        
-        // Para evitar UnnecessaryStubbingException, usamos lenient()
-        lenient().when(pagoDetalleRepository.buscarPorIdPago(anyLong())).thenReturn(List.of());
 
         // Ejecutar flujo: listar todos
-        Response listResponse = pagoController.listarPagos(null, null, null);
+        Response listResponse = pagoController.listarPagos(null, null, null, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), listResponse.getStatus());
         List<PagoDTO> listedDTOs = (List<PagoDTO>) listResponse.getEntity();
         assertEquals(2, listedDTOs.size());
 
         // Ejecutar flujo: buscar por método de pago
-        Response efectivoResponse = pagoController.listarPagos(null, null, "EFECTIVO");
+        Response efectivoResponse = pagoController.listarPagos(null, null, "EFECTIVO", null, null);
         assertEquals(Response.Status.OK.getStatusCode(), efectivoResponse.getStatus());
         List<PagoDTO> efectivoDTOs = (List<PagoDTO>) efectivoResponse.getEntity();
         assertEquals(1, efectivoDTOs.size());
         assertEquals("EFECTIVO", efectivoDTOs.get(0).getMetodoPago());
 
         // Ejecutar flujo: buscar por orden
-        Response ordenResponse = pagoController.listarPagos(1L, null, null);
+        Response ordenResponse = pagoController.listarPagos(1L, null, null, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), ordenResponse.getStatus());
         List<PagoDTO> ordenDTOs = (List<PagoDTO>) ordenResponse.getEntity();
         assertEquals(1, ordenDTOs.size());
         assertEquals(1L, ordenDTOs.get(0).getIdOrden());
 
         // Ejecutar flujo: buscar por fecha
-        Response fechaResponse = pagoController.listarPagos(null, fecha, null);
+        Response fechaResponse = pagoController.listarPagos(null, fecha, null, null, null);
         assertEquals(Response.Status.OK.getStatusCode(), fechaResponse.getStatus());
         List<PagoDTO> fechaDTOs = (List<PagoDTO>) fechaResponse.getEntity();
         assertEquals(2, fechaDTOs.size());
@@ -360,7 +366,7 @@ public class PagoIntegrationIT {
         // Configuración de mocks
         when(pagoRepository.buscarPorIdOrden(1L)).thenReturn(pagosPorOrden);
         // Para permitir el procesamiento de los pagos al mapearlos a DTOs
-        lenient().when(pagoDetalleRepository.buscarPorIdPago(anyLong())).thenReturn(List.of());
+        lenient().when(pagoDetalleRepository.buscarPorIdsPago(anyCollection())).thenReturn(List.of());
 
         // Ejecutar flujo: obtener pagos por orden
         Response response = pagoController.obtenerPagosPorOrden(1L);
@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.controller.ProductoController;
 import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
 import sv.edu.ues.fmocc.tpi135.entity.Producto;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.service.ProductoService;
@@ -33,6 +34,9 @@ public class ProductoIntegrationIT {
     @Mock
     private ProductoRepositoryImpl productoRepository;
 
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
     private ProductoService productoService;
     private ProductoController productoController;
 
@@ -48,6 +52,9 @@ public class ProductoIntegrationIT {
             java.lang.reflect.Field field = ProductoServiceImpl.class.getDeclaredField("productoRepository");
             field.setAccessible(true);
             field.set(productoService, productoRepository);
+            field = ProductoServiceImpl.class.getDeclaredField("cambioCatalogoRepository");
+            field.setAccessible(true);
+            field.set(productoService, cambioCatalogoRepository);
         } catch (Exception e) {
             fail("Error al inyectar mock: " + e.getMessage());
         }
@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.controller.TipoProductoController;
 import sv.edu.ues.fmocc.tpi135.dto.TipoProductoDTO;
 import sv.edu.ues.fmocc.tpi135.entity.TipoProducto;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.TipoProductoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.TipoProductoRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.service.TipoProductoService;
@@ -33,6 +34,9 @@ public class TipoProductoIntegrationIT {
     @Mock
     private TipoProductoRepositoryImpl tipoProductoRepository;
 
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
     private TipoProductoService tipoProductoService;
     private TipoProductoController tipoProductoController;
 
@@ -48,6 +52,9 @@ public class TipoProductoIntegrationIT {
             java.lang.reflect.Field field = TipoProductoServiceImpl.class.getDeclaredField("tipoProductoRepository");
             field.setAccessible(true);
             field.set(tipoProductoService, tipoProductoRepository);
+            field = TipoProductoServiceImpl.class.getDeclaredField("cambioCatalogoRepository");
+            field.setAccessible(true);
+            field.set(tipoProductoService, cambioCatalogoRepository);
         } catch (IllegalAccessException | IllegalArgumentException | NoSuchFieldException | SecurityException e) {
             fail("Error al inyectar mock: " + e.getMessage());
         }
@@ -0,0 +1,122 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndicePreciosVigentesTest {
+
+    private IndicePreciosVigentes indice;
+
+    @BeforeEach
+    void setUp() {
+        // Producto 1: precio histórico cerrado y precio actual abierto
+        // Producto 2: un solo precio con vigencia cerrada
+        indice = new IndicePreciosVigentes();
+        indice.cargar(List.of(
+                new ProductoPrecio(1L, 1L, fecha("2025-01-01"), fecha("2025-03-31"), new BigDecimal("1.00")),
+                new ProductoPrecio(2L, 1L, fecha("2025-04-01"), null, new BigDecimal("1.25")),
+                new ProductoPrecio(3L, 2L, fecha("2025-02-01"), fecha("2025-02-28"), new BigDecimal("3.00"))
+        ));
+    }
+
+    @Test
+    void testBuscarVigente_LimitesInclusivos() {
+        // Verificaciones sobre los bordes de cada intervalo
+        assertNull(indice.buscarVigente(1L, fecha("2024-12-31")));
+        assertEquals(1L, indice.buscarVigente(1L, fecha("2025-01-01")).getIdProductoPrecio());
+        assertEquals(1L, indice.buscarVigente(1L, fecha("2025-03-31")).getIdProductoPrecio());
+        assertEquals(2L, indice.buscarVigente(1L, fecha("2025-04-01")).getIdProductoPrecio());
+        assertEquals(2L, indice.buscarVigente(1L, fecha("2030-01-01")).getIdProductoPrecio());
+        assertNull(indice.buscarVigente(2L, fecha("2025-03-01")));
+        assertNull(indice.buscarVigente(99L, fecha("2025-03-01")));
+    }
+
+    @Test
+    void testBuscarVigente_IgnoraLaHora() {
+        // La consulta compara solo la fecha, igual que TemporalType.DATE
+        Date conHora = Timestamp.valueOf("2025-03-31 23:59:59");
+
+        assertEquals(1L, indice.buscarVigente(1L, conHora).getIdProductoPrecio());
+    }
+
+    @Test
+    void testBuscarVigente_IntervalosTraslapados() {
+        // Un precio abierto antiguo sigue vigente bajo uno posterior ya vencido
+        indice.reemplazarProducto(3L, List.of(
+                new ProductoPrecio(10L, 3L, fecha("2025-01-01"), null, new BigDecimal("2.00")),
+                new ProductoPrecio(11L, 3L, fecha("2025-02-01"), fecha("2025-02-10"), new BigDecimal("1.50"))
+        ));
+
+        assertEquals(11L, indice.buscarVigente(3L, fecha("2025-02-05")).getIdProductoPrecio());
+        assertEquals(10L, indice.buscarVigente(3L, fecha("2025-02-20")).getIdProductoPrecio());
+    }
+
+    @Test
+    void testProximoCambioVigencia() {
+        // Verificaciones: inicio de un precio, día siguiente al fin de otro y sin cambios pendientes
+        assertEquals(fecha("2025-01-01"), indice.proximoCambioVigencia(fecha("2024-12-15")));
+        assertEquals(fecha("2025-02-01"), indice.proximoCambioVigencia(fecha("2025-01-10")));
+        assertEquals(fecha("2025-03-01"), indice.proximoCambioVigencia(fecha("2025-02-01")));
+        assertEquals(fecha("2025-04-01"), indice.proximoCambioVigencia(Timestamp.valueOf("2025-03-31 12:00:00")));
+        assertNull(indice.proximoCambioVigencia(fecha("2025-04-01")));
+    }
+
+    @Test
+    void testBuscarVigentes_PorFecha() {
+        // Ejecución del método
+        List<ProductoPrecio> vigentes = indice.buscarVigentes(fecha("2025-02-15"));
+
+        // Verificaciones
+        assertEquals(2, vigentes.size());
+        assertTrue(vigentes.stream().anyMatch(pp -> pp.getIdProductoPrecio() == 1L));
+        assertTrue(vigentes.stream().anyMatch(pp -> pp.getIdProductoPrecio() == 3L));
+    }
+
+    @Test
+    void testReemplazarProducto_ActualizaIndicePorId() {
+        // Se elimina el precio abierto del producto 1
+        indice.reemplazarProducto(1L, List.of(
+                new ProductoPrecio(1L, 1L, fecha("2025-01-01"), fecha("2025-03-31"), new BigDecimal("1.00"))
+        ));
+
+        // Verificaciones
+        assertNull(indice.buscarPorId(2L));
+        assertNotNull(indice.buscarPorId(1L));
+        assertNull(indice.buscarVigente(1L, fecha("2025-04-01")));
+
+        // Producto sin precios
+        indice.reemplazarProducto(2L, List.of());
+        assertNull(indice.buscarPorId(3L));
+        assertNull(indice.buscarVigente(2L, fecha("2025-02-15")));
+    }
+
+    @Test
+    void testReemplazarProducto_GuardaCopias() {
+        // Datos de prueba: entidad que la transacción sigue modificando tras refrescar el índice
+        ProductoPrecio entidad = new ProductoPrecio(4L, 3L, fecha("2025-01-01"), null, new BigDecimal("2.00"));
+        indice.reemplazarProducto(3L, List.of(entidad));
+
+        // Ejecución del método
+        entidad.setPrecioSugerido(new BigDecimal("9.99"));
+        entidad.getFechaDesde().setTime(fecha("2030-01-01").getTime());
+
+        // Verificaciones
+        ProductoPrecio indexado = indice.buscarVigente(3L, fecha("2025-06-01"));
+        assertNotNull(indexado);
+        assertNotSame(entidad, indexado);
+        assertEquals(new BigDecimal("2.00"), indexado.getPrecioSugerido());
+        assertNull(indexado.getProducto());
+    }
+
+    private static Date fecha(String valor) {
+        return java.sql.Date.valueOf(valor);
+    }
+}
@@ -0,0 +1,50 @@
+package sv.edu.ues.fmocc.tpi135.repository;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+
+import javax.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductoPrecioRepositoryImplTest {
+
+    @Mock
+    private EntityManager em;
+
+    @Mock
+    private LectorPreciosConfirmados lectorPrecios;
+
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @InjectMocks
+    private ProductoPrecioRepositoryImpl productoPrecioRepository;
+
+    @Test
+    void testBuscarPrecioVigente_CargaIndiceFueraDeLaTransaccion() {
+        // Configuración de mocks
+        ProductoPrecio precio = new ProductoPrecio(1L, 1L, new Date(0), null, new BigDecimal("1.25"));
+        when(lectorPrecios.listarTodos()).thenReturn(List.of(precio));
+
+        // Ejecución del método
+        Optional<ProductoPrecio> primero = productoPrecioRepository.buscarPrecioVigente(1L, new Date());
+        Optional<ProductoPrecio> segundo = productoPrecioRepository.buscarPrecioVigente(1L, new Date());
+
+        // Verificaciones: el índice se carga una vez y no con el EntityManager de quien consulta
+        assertTrue(primero.isPresent());
+        assertEquals(new BigDecimal("1.25"), segundo.get().getPrecioSugerido());
+        verify(lectorPrecios, times(1)).listarTodos();
+        verifyNoInteractions(em);
+    }
+}
@@ -0,0 +1,76 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CacheCatalogoTest {
+
+    @Test
+    void testObtener_CuentaAciertosYFallos() {
+        // Datos de prueba
+        CacheCatalogo<String, String> cache = new CacheCatalogo<>("prueba.aciertos", 10);
+        AtomicInteger cargas = new AtomicInteger();
+
+        // Ejecución del método
+        cache.obtener("a", () -> "valor-" + cargas.incrementAndGet());
+        String resultado = cache.obtener("a", () -> "valor-" + cargas.incrementAndGet());
+
+        // Verificaciones
+        assertEquals("valor-1", resultado);
+        assertEquals(1, cargas.get());
+        assertEquals(1, cache.getAciertos());
+        assertEquals(1, cache.getFallos());
+    }
+
+    @Test
+    void testObtener_DesalojaLaMenosUsada() {
+        // Datos de prueba
+        CacheCatalogo<Integer, String> cache = new CacheCatalogo<>("prueba.desalojo", 2);
+        cache.obtener(1, () -> "uno");
+        cache.obtener(2, () -> "dos");
+        cache.obtener(1, () -> "uno");
+
+        // Ejecución del método: la entrada 2 es la menos usada
+        cache.obtener(3, () -> "tres");
+
+        // Verificaciones
+        assertEquals(2, cache.tamanio());
+        assertEquals(1, cache.getDesalojos());
+        assertEquals("uno", cache.obtener(1, () -> "recargado"));
+        assertEquals("recargado", cache.obtener(2, () -> "recargado"));
+    }
+
+    @Test
+    void testObtener_NoGuardaCargaIniciadaAntesDeInvalidar() {
+        // Datos de prueba
+        CacheCatalogo<String, String> cache = new CacheCatalogo<>("prueba.invalidacion", 10);
+
+        // Ejecución del método: la invalidación ocurre mientras se carga el valor
+        cache.obtener("a", () -> {
+            cache.limpiar();
+            return "viejo";
+        });
+
+        // Verificaciones
+        assertEquals(0, cache.tamanio());
+        assertEquals("nuevo", cache.obtener("a", () -> "nuevo"));
+    }
+
+    @Test
+    void testEstadisticas_IncluyeCachesRegistradas() {
+        // Datos de prueba
+        CacheCatalogo<String, String> cache = new CacheCatalogo<>("prueba.estadisticas", 10);
+        cache.obtener("a", () -> "valor");
+
+        // Ejecución del método
+        Map<String, Map<String, Long>> estadisticas = CacheCatalogo.estadisticas();
+
+        // Verificaciones
+        assertEquals(1L, estadisticas.get("prueba.estadisticas").get("fallos"));
+        assertEquals(1L, estadisticas.get("prueba.estadisticas").get("entradas"));
+    }
+}
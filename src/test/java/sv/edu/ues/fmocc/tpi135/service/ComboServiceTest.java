@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.dto.ComboDTO;
 import sv.edu.ues.fmocc.tpi135.entity.Combo;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ComboRepository;
 
 import java.util.Arrays;
@@ -24,6 +25,9 @@ public class ComboServiceTest {
     @Mock
     private ComboRepository comboRepository;
 
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
     @InjectMocks
     private sv.edu.ues.fmocc.tpi135.service.ComboServiceImpl comboService;
 
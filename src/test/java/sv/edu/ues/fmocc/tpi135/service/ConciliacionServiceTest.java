@@ -0,0 +1,89 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.ConciliacionOrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenConciliacionDTO;
+import sv.edu.ues.fmocc.tpi135.repository.PagoRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para ConciliacionServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+public class ConciliacionServiceTest {
+
+    @Mock
+    private PagoRepository pagoRepository;
+
+    @InjectMocks
+    private ConciliacionServiceImpl conciliacionService;
+
+    private final Date desde = java.sql.Date.valueOf("2025-01-01");
+    private final Date hasta = java.sql.Date.valueOf("2025-01-31");
+
+    @Test
+    void testResumir_SumaConteosPorEstado() {
+        // Configuración de mocks
+        when(pagoRepository.resumirConciliacion(desde, hasta)).thenReturn(List.of(
+                new Object[]{"CONCILIADA", 40L, new BigDecimal("400.00"), new BigDecimal("400.00")},
+                new Object[]{"EXCEDENTE", 1L, new BigDecimal("0.00"), new BigDecimal("5.00")},
+                new Object[]{"PARCIAL", 2L, new BigDecimal("20.00"), new BigDecimal("12.50")},
+                new Object[]{"SIN_PAGO", 3L, new BigDecimal("30.00"), BigDecimal.ZERO}));
+
+        // Ejecución del método
+        ResumenConciliacionDTO resumen = conciliacionService.resumir(desde, hasta);
+
+        // Verificaciones
+        assertEquals(46L, resumen.getOrdenes());
+        assertEquals(40L, resumen.getConciliadas());
+        assertEquals(3L, resumen.getSinPago());
+        assertEquals(2L, resumen.getParciales());
+        assertEquals(1L, resumen.getExcedentes());
+        assertEquals(new BigDecimal("450.00"), resumen.getTotalEsperado());
+        assertEquals(new BigDecimal("417.50"), resumen.getTotalPagado());
+    }
+
+    @Test
+    void testResumir_RangoInvalido() {
+        // Verificaciones
+        assertThrows(IllegalArgumentException.class, () -> conciliacionService.resumir(desde, null));
+        assertThrows(IllegalArgumentException.class, () -> conciliacionService.resumir(hasta, desde));
+        assertThrows(IllegalArgumentException.class,
+                () -> conciliacionService.resumir(desde, java.sql.Date.valueOf("2026-02-01")));
+        verify(pagoRepository, never()).resumirConciliacion(any(), any());
+    }
+
+    @Test
+    void testExportarDiferencias_CalculaDiferencia() {
+        // Configuración de mocks: el repositorio entrega las filas al consumidor
+        when(pagoRepository.recorrerDiferenciasConciliacion(eq(desde), eq(hasta), any())).thenAnswer(invocacion -> {
+            Consumer<Object[]> consumidor = invocacion.getArgument(2);
+            consumidor.accept(new Object[]{7L, desde, "S001", false, new BigDecimal("20.00"), new BigDecimal("12.50"), 1L, "PARCIAL"});
+            consumidor.accept(new Object[]{9L, desde, "S002", true, BigDecimal.ZERO, new BigDecimal("5.00"), 2L, "EXCEDENTE"});
+            return 2L;
+        });
+
+        // Ejecución del método
+        List<String> lineas = new ArrayList<>();
+        long exportadas = conciliacionService.exportarDiferencias(desde, hasta, (ConciliacionOrdenDTO dto) ->
+                lineas.add(dto.getIdOrden() + ":" + dto.getEstado() + ":" + dto.getDiferencia()));
+
+        // Verificaciones
+        assertEquals(2L, exportadas);
+        assertEquals(List.of("7:PARCIAL:-7.50", "9:EXCEDENTE:5.00"), lineas);
+    }
+}
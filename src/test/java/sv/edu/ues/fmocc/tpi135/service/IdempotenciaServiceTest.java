@@ -0,0 +1,121 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
+import sv.edu.ues.fmocc.tpi135.dto.RespuestaIdempotenteDTO;
+import sv.edu.ues.fmocc.tpi135.entity.ClaveIdempotencia;
+import sv.edu.ues.fmocc.tpi135.repository.ClaveIdempotenciaRepository;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para IdempotenciaServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+public class IdempotenciaServiceTest {
+
+    @Mock
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @InjectMocks
+    private IdempotenciaServiceImpl idempotenciaService;
+
+    @Test
+    void testReservar_ClaveNueva() {
+        // Configuración de mocks
+        when(claveIdempotenciaRepository.reservar("ordenes:a", "h")).thenReturn(true);
+
+        // Ejecución del método
+        Optional<RespuestaIdempotenteDTO> resultado = idempotenciaService.reservar("ordenes:a", "h");
+
+        // Verificaciones
+        assertTrue(resultado.isEmpty());
+        verify(claveIdempotenciaRepository, never()).encontrarPorClave(any());
+    }
+
+    @Test
+    void testReservar_ClaveCompletadaDevuelveLaRespuesta() {
+        // Configuración de mocks
+        when(claveIdempotenciaRepository.reservar("ordenes:a", "h")).thenReturn(false);
+        when(claveIdempotenciaRepository.encontrarPorClave("ordenes:a")).thenReturn(Optional.of(
+                new ClaveIdempotencia("ordenes:a", "h", (short) 201, "{\"idOrden\":7}", new Date())));
+
+        // Ejecución del método
+        Optional<RespuestaIdempotenteDTO> resultado = idempotenciaService.reservar("ordenes:a", "h");
+
+        // Verificaciones
+        assertTrue(resultado.isPresent());
+        assertFalse(resultado.get().isEnProceso());
+        assertEquals(201, resultado.get().getEstado());
+        assertEquals("{\"idOrden\":7}", resultado.get().getCuerpo());
+    }
+
+    @Test
+    void testReservar_EnProcesoReciente() {
+        // Configuración de mocks
+        when(claveIdempotenciaRepository.reservar("pagos:b", "h")).thenReturn(false);
+        when(claveIdempotenciaRepository.encontrarPorClave("pagos:b")).thenReturn(Optional.of(
+                new ClaveIdempotencia("pagos:b", "h", ClaveIdempotencia.EN_PROCESO, null, new Date())));
+
+        // Ejecución del método
+        Optional<RespuestaIdempotenteDTO> resultado = idempotenciaService.reservar("pagos:b", "h");
+
+        // Verificaciones
+        assertTrue(resultado.get().isEnProceso());
+        verify(claveIdempotenciaRepository, never()).liberar(any());
+    }
+
+    @Test
+    void testReservar_ReservaAbandonadaSeVuelveATomar() {
+        // Configuración de mocks
+        Date antigua = new Date(System.currentTimeMillis() - IdempotenciaServiceImpl.MILISEGUNDOS_RESERVA - 1_000);
+        when(claveIdempotenciaRepository.reservar("pagos:b", "h")).thenReturn(false, true);
+        when(claveIdempotenciaRepository.encontrarPorClave("pagos:b")).thenReturn(Optional.of(
+                new ClaveIdempotencia("pagos:b", "h", ClaveIdempotencia.EN_PROCESO, null, antigua)));
+        when(claveIdempotenciaRepository.liberar("pagos:b")).thenReturn(true);
+
+        // Ejecución del método
+        Optional<RespuestaIdempotenteDTO> resultado = idempotenciaService.reservar("pagos:b", "h");
+
+        // Verificaciones
+        assertTrue(resultado.isEmpty());
+        verify(claveIdempotenciaRepository, times(2)).reservar("pagos:b", "h");
+    }
+
+    @Test
+    void testCompletar_GuardaLaRespuestaCreada() {
+        // Configuración de mocks
+        when(claveIdempotenciaRepository.completar(eq("ordenes:a"), eq(ClaveIdempotencia.CREADA), anyString()))
+                .thenReturn(true);
+
+        // Ejecución del método
+        idempotenciaService.completar("ordenes:a", new OrdenDTO(7L, null, "S001", false));
+
+        // Verificaciones
+        verify(claveIdempotenciaRepository).completar(eq("ordenes:a"), eq(ClaveIdempotencia.CREADA),
+                argThat(cuerpo -> cuerpo.contains("\"idOrden\":7")));
+    }
+
+    @Test
+    void testCompletar_ClaveLiberadaFalla() {
+        // Configuración de mocks: la reserva se liberó como abandonada
+        when(claveIdempotenciaRepository.completar(eq("ordenes:a"), eq(ClaveIdempotencia.CREADA), anyString()))
+                .thenReturn(false);
+
+        // Ejecución del método y verificaciones
+        assertThrows(IllegalStateException.class,
+                () -> idempotenciaService.completar("ordenes:a", new OrdenDTO(7L, null, "S001", false)));
+    }
+}
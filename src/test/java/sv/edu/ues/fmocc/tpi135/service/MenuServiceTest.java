@@ -0,0 +1,147 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+
+import javax.enterprise.concurrent.ManagedScheduledExecutorService;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para MenuServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+public class MenuServiceTest {
+
+    @Mock
+    private ProductoService productoService;
+
+    @Mock
+    private TipoProductoService tipoProductoService;
+
+    @Mock
+    private ComboService comboService;
+
+    @Mock
+    private ProductoPrecioRepository productoPrecioRepository;
+
+    @Mock
+    private ManagedScheduledExecutorService planificador;
+
+    @InjectMocks
+    private MenuServiceImpl menuService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private void configurarCatalogo(List<ProductoDTO> productos) {
+        configurarCatalogo(productos, Optional.empty());
+    }
+
+    private void configurarCatalogo(List<ProductoDTO> productos, Optional<Date> proximoCambio) {
+        when(tipoProductoService.buscarTiposProductosPorEstado(true)).thenReturn(new ArrayList<>());
+        when(productoService.buscarProductosPorEstado(true)).thenReturn(productos);
+        when(comboService.buscarCombosPorEstado(true)).thenReturn(new ArrayList<>());
+        when(productoPrecioRepository.buscarVigentesPorFecha(any(Date.class))).thenReturn(List.of(
+                new ProductoPrecio(10L, 1L, new Date(0), null, new BigDecimal("1.50")),
+                new ProductoPrecio(11L, 2L, new Date(0), null, new BigDecimal("2.00"))));
+        when(productoPrecioRepository.buscarProximoCambioVigencia(any(Date.class))).thenReturn(proximoCambio);
+    }
+
+    @Test
+    void testObtenerMenu_SeArmaUnaSolaVez() throws IOException {
+        // Configuración de mocks: el producto 2 está inactivo, su precio no se publica
+        configurarCatalogo(List.of(new ProductoDTO(1L, "Pupusa", true, null)));
+
+        // Ejecución del método
+        InstantaneaMenu primera = menuService.obtenerMenu();
+        InstantaneaMenu segunda = menuService.obtenerMenu();
+
+        // Verificaciones
+        assertSame(primera, segunda);
+        verify(productoService, times(1)).buscarProductosPorEstado(true);
+        JsonNode menu = mapper.readTree(primera.getJson());
+        assertEquals(1, menu.get("precios").size());
+        assertEquals(10L, menu.get("precios").get(0).get("idProductoPrecio").asLong());
+        assertEquals("Pupusa", menu.get("productos").get(0).get("nombre").asText());
+        verify(planificador, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    @Test
+    void testObtenerMenu_GzipEquivalente() throws IOException {
+        // Configuración de mocks: suficientes productos para que la compresión reduzca el tamaño
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            productos.add(new ProductoDTO(i, "Producto " + i, true, "Sin observaciones"));
+        }
+        configurarCatalogo(productos);
+
+        // Ejecución del método
+        InstantaneaMenu menu = menuService.obtenerMenu();
+
+        // Verificaciones
+        assertNotNull(menu.getJsonGzip());
+        assertTrue(menu.getJsonGzip().length < menu.getJson().length);
+        try (GZIPInputStream entrada = new GZIPInputStream(new ByteArrayInputStream(menu.getJsonGzip()))) {
+            assertArrayEquals(menu.getJson(), entrada.readAllBytes());
+        }
+    }
+
+    @Test
+    void testSolicitarReconstruccion_ConservaVersionSiNoCambia() {
+        // Configuración de mocks: el planificador ejecuta la tarea de inmediato
+        configurarCatalogo(List.of(new ProductoDTO(1L, "Pupusa", true, null)));
+        doAnswer(invocacion -> {
+            ((Runnable) invocacion.getArgument(0)).run();
+            return null;
+        }).when(planificador).execute(any(Runnable.class));
+        InstantaneaMenu inicial = menuService.obtenerMenu();
+
+        // Ejecución del método: una reconstrucción sin cambios y otra con un producto renombrado
+        menuService.solicitarReconstruccion();
+        InstantaneaMenu sinCambios = menuService.obtenerMenu();
+        when(productoService.buscarProductosPorEstado(true)).thenReturn(List.of(new ProductoDTO(1L, "Pupusa revuelta", true, null)));
+        menuService.solicitarReconstruccion();
+        InstantaneaMenu modificada = menuService.obtenerMenu();
+
+        // Verificaciones
+        assertNotSame(inicial, sinCambios);
+        assertSame(inicial.getMarca(), sinCambios.getMarca());
+        assertTrue(modificada.getMarca().getVersion() > inicial.getMarca().getVersion());
+        verify(productoService, times(3)).buscarProductosPorEstado(true);
+    }
+
+    @Test
+    void testObtenerMenu_ProgramaCambioDeVigencia() {
+        // Configuración de mocks: un precio empieza a regir mañana
+        Date manana = new Date(System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        configurarCatalogo(List.of(new ProductoDTO(1L, "Pupusa", true, null)), Optional.of(manana));
+
+        // Ejecución del método
+        InstantaneaMenu menu = menuService.obtenerMenu();
+
+        // Verificaciones
+        assertEquals(manana.getTime(), menu.getValidoHasta());
+        verify(planificador).schedule(any(Runnable.class), longThat(demora -> demora > 0), eq(TimeUnit.MILLISECONDS));
+    }
+}
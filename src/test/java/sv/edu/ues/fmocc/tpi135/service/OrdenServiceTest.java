@@ -6,8 +6,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.EventoOrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResultadoLoteDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ResumenVentasDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
 import sv.edu.ues.fmocc.tpi135.entity.OrdenDetalle;
 import sv.edu.ues.fmocc.tpi135.entity.OrdenDetallePK;
@@ -15,15 +20,20 @@ import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepository;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+import sv.edu.ues.fmocc.tpi135.repository.VentaProductoDiariaRepository;
 
+import javax.enterprise.event.Event;
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +48,18 @@ public class OrdenServiceTest {
     @Mock
     private ProductoPrecioRepository productoPrecioRepository;
 
+    @Mock
+    private VentaProductoDiariaRepository ventaProductoDiariaRepository;
+
+    @Mock
+    private Event<EventoOrdenDTO> eventosOrden;
+
+    @Mock
+    private SalidaService salidaService;
+
+    @Mock
+    private IdempotenciaService idempotenciaService;
+
     @InjectMocks
     private sv.edu.ues.fmocc.tpi135.service.OrdenServiceImpl ordenService;
 
@@ -113,6 +135,136 @@ public class OrdenServiceTest {
 
         verify(ordenRepository, times(1)).crear(any(Orden.class));
         verify(ordenDetalleRepository, times(1)).crear(any(OrdenDetalle.class));
+        verify(eventosOrden, times(1)).fire(argThat(evento ->
+                EventoOrdenDTO.CREADA.equals(evento.getTipo()) && evento.getOrden() == resultado));
+        verify(salidaService, times(1)).registrar(EventoSalida.ORDEN, resultado.getIdOrden(),
+                EventoOrdenDTO.CREADA, resultado);
+    }
+
+    @Test
+    void testCrearOrden_ConClaveLaCompletaEnLaTransaccion() {
+        // Configuración de mocks
+        when(ordenRepository.crear(any(Orden.class))).thenReturn(ordenEntity);
+        
+        // Ejecución del método
+        OrdenDTO resultado = ordenService.crearOrden(ordenDTO, "ordenes:k1");
+
+        // Verificaciones
+        verify(idempotenciaService, times(1)).completar("ordenes:k1", resultado);
+    }
+
+    @Test
+    void testCrearOrden_ClaveYaNoReservadaRevierteLaCreacion() {
+        // Configuración de mocks
+        when(ordenRepository.crear(any(Orden.class))).thenReturn(ordenEntity);
+        doThrow(new IllegalStateException("La clave ya no está reservada"))
+                .when(idempotenciaService).completar(eq("ordenes:k1"), any());
+        
+        // Ejecución del método y verificaciones
+        assertThrows(IllegalStateException.class, () -> ordenService.crearOrden(ordenDTO, "ordenes:k1"));
+        verify(eventosOrden, never()).fire(any());
+    }
+
+    @Test
+    void testCrearOrden_PrecioOmitidoUsaPrecioSugerido() {
+        // Configuración de mocks
+        when(ordenRepository.crear(any(Orden.class))).thenReturn(ordenEntity);
+        when(productoPrecioRepository.buscarPrecioSugerido(1L)).thenReturn(Optional.of(new BigDecimal("5.00")));
+        
+        // Detalle sin precio
+        ordenDetalleDTO.setPrecio(null);
+        ordenDTO.setDetalles(List.of(ordenDetalleDTO));
+        
+        // Ejecución del método
+        ordenService.crearOrden(ordenDTO);
+
+        // Verificaciones
+        verify(ordenDetalleRepository).crear(argThat(detalle -> new BigDecimal("5.00").equals(detalle.getPrecio())));
+        verify(productoPrecioRepository, times(1)).buscarPrecioSugerido(1L);
+        verify(productoPrecioRepository, never()).encontrarPorId(any());
+    }
+
+    @Test
+    void testCrearOrdenesEnLote_InsertaEnBloqueYReportaPorOrden() {
+        // Datos de prueba: una orden válida sin precio en el detalle, una nula y una con detalle repetido
+        OrdenDetalleDTO sinPrecio = new OrdenDetalleDTO();
+        sinPrecio.setIdProductoPrecio(1L);
+        sinPrecio.setCantidad(3);
+        OrdenDTO valida = new OrdenDTO(null, new Date(), "S001", null);
+        valida.setDetalles(List.of(sinPrecio));
+        
+        OrdenDTO repetida = new OrdenDTO(null, new Date(), "S001", null);
+        repetida.setDetalles(List.of(ordenDetalleDTO, ordenDetalleDTO));
+        
+        // Configuración de mocks
+        when(productoPrecioRepository.buscarPorIds(anyCollection())).thenReturn(List.of(productoPrecioEntity));
+        when(ordenRepository.crearLote(anyList())).thenAnswer(invocation -> {
+            List<Orden> ordenes = invocation.getArgument(0);
+            ordenes.forEach(orden -> orden.setIdOrden(10L));
+            return ordenes;
+        });
+        
+        // Ejecución del método
+        List<ResultadoLoteDTO<OrdenDTO>> resultados = ordenService.crearOrdenesEnLote(Arrays.asList(valida, null, repetida));
+
+        // Verificaciones
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).getExitoso());
+        assertEquals(10L, resultados.get(0).getElemento().getIdOrden());
+        assertEquals(new BigDecimal("5.00"), resultados.get(0).getElemento().getDetalles().get(0).getPrecio());
+        assertFalse(resultados.get(1).getExitoso());
+        assertEquals(1, resultados.get(1).getIndice());
+        assertFalse(resultados.get(2).getExitoso());
+        
+        verify(productoPrecioRepository, times(1)).buscarPorIds(anyCollection());
+        verify(ordenRepository, times(1)).crearLote(argThat(ordenes -> ordenes.size() == 1));
+        verify(ordenDetalleRepository, times(1)).crearLote(argThat(detalles -> detalles.size() == 1));
+        verify(ordenRepository, never()).crear(any());
+        verify(ordenDetalleRepository, never()).crear(any());
+    }
+
+    @Test
+    void testCrearOrdenesEnLote_RechazaPrecioInexistenteYSucursalInvalida() {
+        // Datos de prueba: dos órdenes válidas entre una con un precio inexistente,
+        // una sin sucursal y una con sucursal demasiado larga
+        OrdenDetalleDTO inexistente = new OrdenDetalleDTO();
+        inexistente.setIdProductoPrecio(99L);
+        inexistente.setCantidad(1);
+        OrdenDTO primera = new OrdenDTO(null, new Date(), "S001", null);
+        primera.setDetalles(List.of(ordenDetalleDTO));
+        OrdenDTO conPrecioInexistente = new OrdenDTO(null, new Date(), "S001", null);
+        conPrecioInexistente.setDetalles(List.of(ordenDetalleDTO, inexistente));
+        OrdenDTO sinSucursal = new OrdenDTO(null, new Date(), " ", null);
+        OrdenDTO sucursalLarga = new OrdenDTO(null, new Date(), "S000001", null);
+        OrdenDTO ultima = new OrdenDTO(null, new Date(), "S002", null);
+        ultima.setDetalles(List.of(ordenDetalleDTO));
+        
+        // Configuración de mocks: solo existe el precio 1
+        when(productoPrecioRepository.buscarPorIds(anyCollection())).thenReturn(List.of(productoPrecioEntity));
+        when(ordenRepository.crearLote(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // Ejecución del método
+        List<ResultadoLoteDTO<OrdenDTO>> resultados = ordenService.crearOrdenesEnLote(
+                List.of(primera, conPrecioInexistente, sinSucursal, sucursalLarga, ultima));
+
+        // Verificaciones
+        assertTrue(resultados.get(0).getExitoso());
+        assertFalse(resultados.get(1).getExitoso());
+        assertTrue(resultados.get(1).getError().contains("99"));
+        assertFalse(resultados.get(2).getExitoso());
+        assertFalse(resultados.get(3).getExitoso());
+        assertTrue(resultados.get(4).getExitoso());
+        
+        verify(ordenRepository, times(1)).crearLote(argThat(ordenes -> ordenes.size() == 2));
+        verify(ordenDetalleRepository, times(1)).crearLote(argThat(detalles -> detalles.size() == 2
+                && detalles.stream().allMatch(detalle -> detalle.getIdProductoPrecio() == 1L)));
+    }
+
+    @Test
+    void testCrearOrdenesEnLote_Vacio() {
+        // Ejecución y verificación
+        assertThrows(IllegalArgumentException.class, () -> ordenService.crearOrdenesEnLote(List.of()));
+        verify(ordenRepository, never()).crearLote(anyList());
     }
 
     @Test
@@ -134,7 +286,7 @@ public class OrdenServiceTest {
     @Test
     void testActualizarOrden_Exitoso() {
         // Configuración de mocks para encontrar la orden existente
-        when(ordenRepository.encontrarPorId(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
         
         // Configuración de mocks para actualizar la orden
         when(ordenRepository.actualizar(any(Orden.class))).thenReturn(ordenEntity);
@@ -153,28 +305,34 @@ public class OrdenServiceTest {
         assertEquals("S002", ordenEntity.getSucursal()); // Verificar que se actualizó el campo
         assertTrue(ordenEntity.getAnulada()); // Verificar que se actualizó el campo
 
-        verify(ordenRepository, times(1)).encontrarPorId(1L);
+        verify(ordenRepository, times(1)).encontrarParaActualizar(1L);
         verify(ordenRepository, times(1)).actualizar(any(Orden.class));
     }
 
     @Test
     void testActualizarOrden_ConDetalles() {
         // Configuración de mocks para encontrar la orden existente
-        when(ordenRepository.encontrarPorId(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
         
         // Configuración de mocks para actualizar la orden
         when(ordenRepository.actualizar(any(Orden.class))).thenReturn(ordenEntity);
         
-        // Configuración de mocks para eliminar detalles existentes
-        when(ordenDetalleRepository.eliminarPorIdOrden(1L)).thenReturn(1);
+        // Configuración de mocks para los detalles existentes: precio 1 (se modifica) y precio 3 (se quita)
+        OrdenDetalle detalleQuitado = new OrdenDetalle(1L, 3L);
+        detalleQuitado.setCantidad(1);
+        detalleQuitado.setPrecio(new BigDecimal("2.00"));
+        when(ordenDetalleRepository.buscarPorIdOrden(1L)).thenReturn(List.of(ordenDetalleEntity, detalleQuitado));
         
-        // Configuración de mocks para crear nuevos detalles
-        when(ordenDetalleRepository.crear(any(OrdenDetalle.class))).thenReturn(ordenDetalleEntity);
+        // Datos para actualización: cambia la cantidad del precio 1 y agrega el precio 2
+        ordenDetalleDTO.setCantidad(5);
+        OrdenDetalleDTO detalleAgregado = new OrdenDetalleDTO();
+        detalleAgregado.setIdProductoPrecio(2L);
+        detalleAgregado.setCantidad(1);
+        detalleAgregado.setPrecio(new BigDecimal("3.00"));
         
-        // Datos para actualización con nuevos detalles
         OrdenDTO dtoActualizado = new OrdenDTO();
         dtoActualizado.setSucursal("S002");
-        dtoActualizado.setDetalles(List.of(ordenDetalleDTO));
+        dtoActualizado.setDetalles(List.of(ordenDetalleDTO, detalleAgregado));
         
         // Ejecución del método
         OrdenDTO resultado = ordenService.actualizarOrden(1L, dtoActualizado);
@@ -182,21 +340,80 @@ public class OrdenServiceTest {
         // Verificaciones
         assertNotNull(resultado);
         
-        verify(ordenRepository, times(1)).encontrarPorId(1L);
+        verify(ordenRepository, times(1)).encontrarParaActualizar(1L);
         verify(ordenRepository, times(1)).actualizar(any(Orden.class));
-        verify(ordenDetalleRepository, times(1)).eliminarPorIdOrden(1L);
-        verify(ordenDetalleRepository, times(1)).crear(any(OrdenDetalle.class));
+        verify(ordenDetalleRepository, times(1)).aplicarCambios(
+                argThat(nuevos -> nuevos.size() == 1 && nuevos.get(0).getIdProductoPrecio() == 2L),
+                argThat(modificados -> modificados.size() == 1 && modificados.get(0).getCantidad() == 5),
+                argThat(eliminados -> eliminados.size() == 1 && eliminados.get(0).getIdProductoPrecio() == 3L));
+        verify(ordenDetalleRepository, never()).eliminarPorIdOrden(anyLong());
+        verify(ordenDetalleRepository, never()).crear(any(OrdenDetalle.class));
+    }
+
+    @Test
+    void testActualizarOrden_DetallesSinCambios() {
+        // Configuración de mocks
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenRepository.actualizar(any(Orden.class))).thenReturn(ordenEntity);
+        when(ordenDetalleRepository.buscarPorIdOrden(1L)).thenReturn(List.of(ordenDetalleEntity));
+        
+        // Mismo detalle, con el precio expresado en otra escala
+        ordenDetalleDTO.setPrecio(new BigDecimal("5.0"));
+        OrdenDTO dtoActualizado = new OrdenDTO();
+        dtoActualizado.setDetalles(List.of(ordenDetalleDTO));
+        
+        // Ejecución del método
+        ordenService.actualizarOrden(1L, dtoActualizado);
+
+        // Verificaciones: no se escribe ningún detalle
+        verify(ordenDetalleRepository, never()).aplicarCambios(any(), any(), any());
+    }
+
+    @Test
+    void testActualizarOrden_MueveVentasDeSucursal() {
+        // Configuración de mocks
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenRepository.actualizar(any(Orden.class))).thenReturn(ordenEntity);
+        when(ordenDetalleRepository.buscarPorIdOrden(1L)).thenReturn(List.of(ordenDetalleEntity));
+        when(productoPrecioRepository.buscarIdsProducto(anyCollection())).thenReturn(Map.of(1L, 1L));
+
+        OrdenDTO dtoActualizado = new OrdenDTO();
+        dtoActualizado.setSucursal("S002");
+
+        // Ejecución del método
+        ordenService.actualizarOrden(1L, dtoActualizado);
+
+        // Verificaciones: se resta de la sucursal anterior y se suma a la nueva, en orden de clave
+        verify(ventaProductoDiariaRepository, times(1)).aplicarIncrementos(argThat(incrementos ->
+                incrementos.size() == 2
+                && incrementos.get(0).getSucursal().equals("S001") && incrementos.get(0).getCantidad() == -2L
+                && incrementos.get(1).getSucursal().equals("S002") && incrementos.get(1).getCantidad() == 2L));
+        verify(ordenDetalleRepository, never()).aplicarCambios(any(), any(), any());
+    }
+
+    @Test
+    void testActualizarOrden_DetalleRepetido() {
+        // Configuración de mocks
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenRepository.actualizar(any(Orden.class))).thenReturn(ordenEntity);
+        
+        OrdenDTO dtoActualizado = new OrdenDTO();
+        dtoActualizado.setDetalles(List.of(ordenDetalleDTO, ordenDetalleDTO));
+        
+        // Ejecución y verificación
+        assertThrows(IllegalArgumentException.class, () -> ordenService.actualizarOrden(1L, dtoActualizado));
+        verify(ordenDetalleRepository, never()).aplicarCambios(any(), any(), any());
     }
 
     @Test
     void testActualizarOrden_NoExiste() {
         // Configuración de mocks
-        when(ordenRepository.encontrarPorId(999L)).thenReturn(Optional.empty());
+        when(ordenRepository.encontrarParaActualizar(999L)).thenReturn(Optional.empty());
 
         // Verificaciones
         assertThrows(IllegalArgumentException.class, () -> ordenService.actualizarOrden(999L, ordenDTO));
 
-        verify(ordenRepository, times(1)).encontrarPorId(999L);
+        verify(ordenRepository, times(1)).encontrarParaActualizar(999L);
         verify(ordenRepository, never()).actualizar(any());
     }
 
@@ -250,7 +467,7 @@ public class OrdenServiceTest {
 
         // Configuración de mocks
         when(ordenRepository.listarTodas()).thenReturn(ordenes);
-        when(ordenDetalleRepository.buscarPorIdOrden(anyLong())).thenReturn(List.of());
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
 
         // Ejecución del método
         List<OrdenDTO> resultado = ordenService.listarOrdenes();
@@ -262,6 +479,38 @@ public class OrdenServiceTest {
         assertEquals(2L, resultado.get(1).getIdOrden());
 
         verify(ordenRepository, times(1)).listarTodas();
+        verify(ordenDetalleRepository, never()).buscarPorIdOrden(anyLong());
+    }
+
+    @Test
+    void testListarOrdenes_CargaDetallesEnBloque() {
+        // Datos de prueba: dos órdenes con un detalle cada una; la consulta de
+        // detalles trae el precio de producto en la misma sentencia
+        Orden orden2 = new Orden(2L, new Date(), "S002", false);
+        OrdenDetalle detalle2 = new OrdenDetalle(2L, 1L, 1, new BigDecimal("5.00"), null);
+        ordenDetalleEntity.setProductoPrecio(productoPrecioEntity);
+        detalle2.setProductoPrecio(productoPrecioEntity);
+
+        // Configuración de mocks
+        when(ordenRepository.listarTodas()).thenReturn(Arrays.asList(ordenEntity, orden2));
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection()))
+                .thenReturn(Arrays.asList(ordenDetalleEntity, detalle2));
+
+        // Ejecución del método
+        List<OrdenDTO> resultado = ordenService.listarOrdenes();
+
+        // Verificaciones
+        assertEquals(2, resultado.size());
+        assertEquals(1, resultado.get(0).getDetalles().size());
+        assertEquals(1, resultado.get(1).getDetalles().size());
+        assertEquals(2L, resultado.get(1).getDetalles().get(0).getIdOrden());
+        assertNotNull(resultado.get(1).getDetalles().get(0).getProductoPrecio());
+
+        // Una sola consulta de detalles, sin importar la cantidad de órdenes
+        verify(ordenDetalleRepository, times(1)).buscarPorIdsOrden(anyCollection());
+        verify(productoPrecioRepository, never()).buscarPorIds(anyCollection());
+        verify(ordenDetalleRepository, never()).buscarPorIdOrden(anyLong());
+        verify(productoPrecioRepository, never()).encontrarPorId(anyLong());
     }
 
     @Test
@@ -271,7 +520,7 @@ public class OrdenServiceTest {
 
         // Configuración de mocks
         when(ordenRepository.buscarPorSucursal("S001")).thenReturn(ordenes);
-        when(ordenDetalleRepository.buscarPorIdOrden(anyLong())).thenReturn(List.of());
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
 
         // Ejecución del método
         List<OrdenDTO> resultado = ordenService.buscarOrdenesPorSucursal("S001");
@@ -291,7 +540,7 @@ public class OrdenServiceTest {
 
         // Configuración de mocks
         when(ordenRepository.buscarPorAnulada(false)).thenReturn(ordenesNoAnuladas);
-        when(ordenDetalleRepository.buscarPorIdOrden(anyLong())).thenReturn(List.of());
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
 
         // Ejecución del método
         List<OrdenDTO> resultado = ordenService.buscarOrdenesPorAnulada(false);
@@ -304,24 +553,209 @@ public class OrdenServiceTest {
         verify(ordenRepository, times(1)).buscarPorAnulada(false);
     }
 
+    @Test
+    void testListarOrdenesPaginadas_ConSiguientePagina() {
+        // Datos de prueba: se piden 2 y el repositorio devuelve 3 (uno extra)
+        Orden orden2 = new Orden(2L, new Date(), "S001", false);
+        Orden orden3 = new Orden(3L, new Date(), "S001", false);
+
+        // Configuración de mocks
+        when(ordenRepository.buscarPagina(0L, null, null, null, 3)).thenReturn(Arrays.asList(ordenEntity, orden2, orden3));
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
+
+        // Ejecución del método
+        PaginaDTO<OrdenDTO> pagina = ordenService.listarOrdenesPaginadas(null, null, null, null, 2);
+
+        // Verificaciones
+        assertEquals(2, pagina.getElementos().size());
+        assertEquals(2, pagina.getLimite());
+        assertNotNull(pagina.getSiguiente());
+        assertEquals(2L, CursorPaginacion.decodificar(pagina.getSiguiente()));
+    }
+
+    @Test
+    void testListarOrdenesPaginadas_UltimaPagina() {
+        // Configuración de mocks: el cursor apunta a la orden 1
+        String cursor = CursorPaginacion.codificar(1L);
+        when(ordenRepository.buscarPagina(eq(1L), any(), any(), any(), eq(CursorPaginacion.LIMITE_POR_DEFECTO + 1)))
+                .thenReturn(List.of(new Orden(2L, new Date(), "S001", false)));
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
+
+        // Ejecución del método
+        PaginaDTO<OrdenDTO> pagina = ordenService.listarOrdenesPaginadas(cursor, null, null, null, null);
+
+        // Verificaciones
+        assertEquals(1, pagina.getElementos().size());
+        assertNull(pagina.getSiguiente());
+    }
+
+    @Test
+    void testListarOrdenesPaginadas_CursorInvalido() {
+        // Verificaciones
+        assertThrows(IllegalArgumentException.class, () -> ordenService.listarOrdenesPaginadas("no-es-cursor", null, null, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> ordenService.listarOrdenesPaginadas(null, null, null, null, 0));
+
+        verify(ordenRepository, never()).buscarPagina(anyLong(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testListarOrdenesPaginadas_AplicaFiltros() {
+        // Datos de prueba: se piden 1 y el repositorio devuelve 2 (uno extra)
+        Orden orden2 = new Orden(2L, new Date(), "S001", false);
+
+        // Configuración de mocks
+        when(ordenRepository.buscarPagina(0L, null, "S001", false, 2)).thenReturn(Arrays.asList(ordenEntity, orden2));
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
+
+        // Ejecución del método
+        PaginaDTO<OrdenDTO> pagina = ordenService.listarOrdenesPaginadas(null, null, "S001", false, 1);
+
+        // Verificaciones: el cursor sigue con los mismos filtros y se rechaza con otros
+        assertEquals(1, pagina.getElementos().size());
+        assertEquals(1L, CursorPaginacion.decodificar(pagina.getSiguiente(), null, "S001", false));
+        assertThrows(IllegalArgumentException.class,
+                () -> ordenService.listarOrdenesPaginadas(pagina.getSiguiente(), null, "S002", false, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> ordenService.listarOrdenesPaginadas(pagina.getSiguiente(), null, null, null, 1));
+        verify(ordenRepository, times(1)).buscarPagina(anyLong(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void testExportarOrdenes_RecorrePorBloques() {
+        // Datos de prueba: un bloque completo de 500 órdenes y un bloque final de 1
+        List<Orden> bloqueCompleto = new java.util.ArrayList<>();
+        for (long i = 1; i <= 500; i++) {
+            bloqueCompleto.add(new Orden(i, new Date(), "S001", false));
+        }
+
+        // Configuración de mocks
+        when(ordenRepository.buscarBloqueExportacion(eq(0L), isNull(), isNull(), eq("S001"), anyInt()))
+                .thenReturn(bloqueCompleto);
+        when(ordenRepository.buscarBloqueExportacion(eq(500L), isNull(), isNull(), eq("S001"), anyInt()))
+                .thenReturn(List.of(new Orden(501L, new Date(), "S001", false)));
+        when(ordenDetalleRepository.buscarPorIdsOrden(anyCollection())).thenReturn(List.of());
+
+        // Ejecución del método
+        List<Long> ids = new java.util.ArrayList<>();
+        long exportadas = ordenService.exportarOrdenes(null, null, "S001", dto -> ids.add(dto.getIdOrden()));
+
+        // Verificaciones
+        assertEquals(501, exportadas);
+        assertEquals(501, ids.size());
+        assertEquals(501L, ids.get(500));
+        verify(ordenRepository, times(2)).buscarBloqueExportacion(anyLong(), any(), any(), any(), anyInt());
+        verify(ordenDetalleRepository, times(2)).buscarPorIdsOrden(anyCollection());
+    }
+
+    @Test
+    void testResumirVentas_CalculaTicketPromedio() {
+        // Datos de prueba: 4 órdenes, 1 anulada, 30.00 vendidos; día sin órdenes válidas
+        Date desde = java.sql.Date.valueOf("2025-03-01");
+        Date hasta = java.sql.Date.valueOf("2025-03-02");
+        List<Object[]> filas = List.of(
+                new Object[]{desde, "S001", 4L, 1L, new BigDecimal("30.00")},
+                new Object[]{hasta, "S001", 1L, 1L, 0});
+
+        // Configuración de mocks
+        when(ordenRepository.resumirVentas(desde, hasta, "S001")).thenReturn(filas);
+
+        // Ejecución del método
+        List<ResumenVentasDTO> resumen = ordenService.resumirVentas(desde, hasta, "S001");
+
+        // Verificaciones
+        assertEquals(2, resumen.size());
+        assertEquals(4L, resumen.get(0).getOrdenes());
+        assertEquals(1L, resumen.get(0).getAnuladas());
+        assertEquals(new BigDecimal("30.00"), resumen.get(0).getTotalBruto());
+        assertEquals(new BigDecimal("10.00"), resumen.get(0).getTicketPromedio());
+        assertEquals(0, BigDecimal.ZERO.compareTo(resumen.get(1).getTotalBruto()));
+        assertEquals(BigDecimal.ZERO, resumen.get(1).getTicketPromedio());
+        verifyNoInteractions(ordenDetalleRepository);
+    }
+
+    @Test
+    void testResumirVentas_RangoInvalido() {
+        // Datos de prueba
+        Date desde = java.sql.Date.valueOf("2025-01-01");
+
+        // Verificaciones
+        assertThrows(IllegalArgumentException.class, () -> ordenService.resumirVentas(null, desde, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ordenService.resumirVentas(desde, java.sql.Date.valueOf("2024-12-31"), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ordenService.resumirVentas(desde, java.sql.Date.valueOf("2026-01-02"), null));
+        verify(ordenRepository, never()).resumirVentas(any(), any(), any());
+    }
+
     @Test
     void testAnularOrden_Exitoso() {
         // Configuración de mocks
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenDetalleRepository.buscarPorIdOrden(1L)).thenReturn(List.of(ordenDetalleEntity));
+        when(productoPrecioRepository.buscarIdsProducto(anyCollection())).thenReturn(Map.of(1L, 1L));
         when(ordenRepository.anular(1L)).thenReturn(true);
 
         // Ejecución del método
         boolean resultado = ordenService.anularOrden(1L);
 
-        // Verificaciones
+        // Verificaciones: las ventas de la orden se descuentan de los contadores
         assertTrue(resultado);
 
         verify(ordenRepository, times(1)).anular(1L);
+        verify(eventosOrden, times(1)).fire(argThat(evento ->
+                EventoOrdenDTO.ANULADA.equals(evento.getTipo()) && evento.getOrden().getIdOrden() == 1L));
+        verify(ventaProductoDiariaRepository, times(1)).aplicarIncrementos(argThat(incrementos ->
+                incrementos.size() == 1
+                && incrementos.get(0).getCantidad() == -2L
+                && incrementos.get(0).getLineas() == -1L
+                && incrementos.get(0).getTotal().compareTo(new BigDecimal("-10.00")) == 0));
+    }
+
+    @Test
+    void testAnularOrden_YaAnulada() {
+        // Configuración de mocks
+        ordenEntity.setAnulada(true);
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+
+        // Ejecución del método
+        boolean resultado = ordenService.anularOrden(1L);
+
+        // Verificaciones: anular de nuevo no descuenta otra vez ni repite el evento
+        assertTrue(resultado);
+        verify(ordenRepository, never()).anular(anyLong());
+        verify(ordenDetalleRepository, never()).buscarPorIdOrden(anyLong());
+        verify(ventaProductoDiariaRepository, never()).aplicarIncrementos(anyList());
+        verify(eventosOrden, never()).fire(any());
+        verify(salidaService, never()).registrar(any(), any(), any(), any());
+    }
+
+    @Test
+    void testAnularOrden_SimultaneasDescuentanUnaVez() {
+        // Configuración de mocks: el bloqueo de la fila serializa las dos anulaciones,
+        // por lo que la segunda lee la orden ya anulada por la primera
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenDetalleRepository.buscarPorIdOrden(1L)).thenReturn(List.of(ordenDetalleEntity));
+        when(productoPrecioRepository.buscarIdsProducto(anyCollection())).thenReturn(Map.of(1L, 1L));
+        when(ordenRepository.anular(1L)).thenAnswer(invocation -> {
+            ordenEntity.setAnulada(true);
+            return true;
+        });
+
+        // Ejecución del método
+        assertTrue(ordenService.anularOrden(1L));
+        assertTrue(ordenService.anularOrden(1L));
+
+        // Verificaciones
+        verify(ordenRepository, never()).encontrarPorId(anyLong());
+        verify(ordenRepository, times(1)).anular(1L);
+        verify(ventaProductoDiariaRepository, times(1)).aplicarIncrementos(anyList());
+        verify(eventosOrden, times(1)).fire(any());
     }
 
     @Test
     void testAnularOrden_NoExiste() {
         // Configuración de mocks
-        when(ordenRepository.anular(999L)).thenReturn(false);
+        when(ordenRepository.encontrarParaActualizar(999L)).thenReturn(Optional.empty());
 
         // Ejecución del método
         boolean resultado = ordenService.anularOrden(999L);
@@ -329,13 +763,16 @@ public class OrdenServiceTest {
         // Verificaciones
         assertFalse(resultado);
 
-        verify(ordenRepository, times(1)).anular(999L);
+        verify(ordenRepository, never()).anular(anyLong());
     }
 
     @Test
     void testEliminarOrden_Exitoso() {
         // Configuración de mocks
-        when(ordenDetalleRepository.eliminarPorIdOrden(1L)).thenReturn(2); // 2 detalles eliminados
+        when(ordenRepository.encontrarParaActualizar(1L)).thenReturn(Optional.of(ordenEntity));
+        when(ordenDetalleRepository.buscarPorIdOrden(1L)).thenReturn(List.of(ordenDetalleEntity));
+        when(productoPrecioRepository.buscarIdsProducto(anyCollection())).thenReturn(Map.of(1L, 1L));
+        when(ordenDetalleRepository.eliminarPorIdOrden(1L)).thenReturn(1);
         when(ordenRepository.eliminar(1L)).thenReturn(true);
 
         // Ejecución del método
@@ -346,13 +783,14 @@ public class OrdenServiceTest {
 
         verify(ordenDetalleRepository, times(1)).eliminarPorIdOrden(1L);
         verify(ordenRepository, times(1)).eliminar(1L);
+        verify(ventaProductoDiariaRepository, times(1)).aplicarIncrementos(argThat(incrementos ->
+                incrementos.size() == 1 && incrementos.get(0).getCantidad() == -2L));
     }
 
     @Test
     void testEliminarOrden_NoExiste() {
         // Configuración de mocks
-        when(ordenDetalleRepository.eliminarPorIdOrden(999L)).thenReturn(0); // No hay detalles
-        when(ordenRepository.eliminar(999L)).thenReturn(false); // No existe la orden
+        when(ordenRepository.encontrarParaActualizar(999L)).thenReturn(Optional.empty());
 
         // Ejecución del método
         boolean resultado = ordenService.eliminarOrden(999L);
@@ -360,7 +798,7 @@ public class OrdenServiceTest {
         // Verificaciones
         assertFalse(resultado);
 
-        verify(ordenDetalleRepository, times(1)).eliminarPorIdOrden(999L);
-        verify(ordenRepository, times(1)).eliminar(999L);
+        verify(ordenDetalleRepository, never()).eliminarPorIdOrden(anyLong());
+        verify(ordenRepository, never()).eliminar(anyLong());
     }
 }
\ No newline at end of file
@@ -3,11 +3,15 @@ package sv.edu.ues.fmocc.tpi135.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.PaginaDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDetalleDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
 import sv.edu.ues.fmocc.tpi135.entity.Pago;
 import sv.edu.ues.fmocc.tpi135.entity.PagoDetalle;
@@ -16,6 +20,7 @@ import sv.edu.ues.fmocc.tpi135.repository.PagoDetalleRepository;
 import sv.edu.ues.fmocc.tpi135.repository.PagoRepository;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -23,7 +28,9 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +45,9 @@ public class PagoServiceTest {
     @Mock
     private OrdenRepository ordenRepository;
 
+    @Mock
+    private SalidaService salidaService;
+
     @InjectMocks
     private sv.edu.ues.fmocc.tpi135.service.PagoServiceImpl pagoService;
 
@@ -120,6 +130,8 @@ public class PagoServiceTest {
         verify(ordenRepository, times(2)).encontrarPorId(1L);
         verify(pagoRepository, times(1)).crear(any(Pago.class));
         verify(pagoDetalleRepository, times(1)).crear(any(PagoDetalle.class));
+        verify(salidaService, times(1)).registrar(EventoSalida.PAGO, resultado.getIdPago(),
+                EventoSalida.PAGO_CREADO, resultado);
     }
 
     @Test
@@ -189,16 +201,17 @@ public class PagoServiceTest {
         // Configuración de mocks para actualizar el pago
         when(pagoRepository.actualizar(any(Pago.class))).thenReturn(pagoEntity);
         
-        // Configuración de mocks para eliminar detalles existentes
-        when(pagoDetalleRepository.eliminarPorIdPago(1L)).thenReturn(1);
+        // Configuración de mocks para los detalles existentes
+        when(pagoDetalleRepository.buscarPorIdPago(1L)).thenReturn(List.of(pagoDetalleEntity));
         
-        // Configuración de mocks para crear nuevos detalles
-        when(pagoDetalleRepository.crear(any(PagoDetalle.class))).thenReturn(pagoDetalleEntity);
+        // Datos para actualización: cambia el monto del detalle 1 y agrega uno nuevo
+        pagoDetalleDTO.setMonto(new BigDecimal("80.00"));
+        PagoDetalleDTO detalleAgregado = new PagoDetalleDTO();
+        detalleAgregado.setMonto(new BigDecimal("20.00"));
         
-        // Datos para actualización con nuevos detalles
         PagoDTO dtoActualizado = new PagoDTO();
         dtoActualizado.setMetodoPago("TARJETA");
-        dtoActualizado.setDetalles(List.of(pagoDetalleDTO));
+        dtoActualizado.setDetalles(List.of(pagoDetalleDTO, detalleAgregado));
         
         // Ejecución del método
         PagoDTO resultado = pagoService.actualizarPago(1L, dtoActualizado);
@@ -208,8 +221,28 @@ public class PagoServiceTest {
         
         verify(pagoRepository, times(1)).encontrarPorId(1L);
         verify(pagoRepository, times(1)).actualizar(any(Pago.class));
-        verify(pagoDetalleRepository, times(1)).eliminarPorIdPago(1L);
-        verify(pagoDetalleRepository, times(1)).crear(any(PagoDetalle.class));
+        verify(pagoDetalleRepository, times(1)).aplicarCambios(
+                argThat(nuevos -> nuevos.size() == 1 && nuevos.get(0).getIdPagoDetalle() == null),
+                argThat(modificados -> modificados.size() == 1
+                        && new BigDecimal("80.00").equals(modificados.get(0).getMonto())),
+                argThat(List::isEmpty));
+        verify(pagoDetalleRepository, never()).eliminarPorIdPago(anyLong());
+        verify(pagoDetalleRepository, never()).crear(any(PagoDetalle.class));
+    }
+
+    @Test
+    void testActualizarPago_DetalleDeOtroPago() {
+        // Configuración de mocks: el pago no tiene el detalle 1
+        when(pagoRepository.encontrarPorId(1L)).thenReturn(Optional.of(pagoEntity));
+        when(pagoRepository.actualizar(any(Pago.class))).thenReturn(pagoEntity);
+        when(pagoDetalleRepository.buscarPorIdPago(1L)).thenReturn(List.of());
+        
+        PagoDTO dtoActualizado = new PagoDTO();
+        dtoActualizado.setDetalles(List.of(pagoDetalleDTO));
+        
+        // Ejecución y verificación
+        assertThrows(IllegalArgumentException.class, () -> pagoService.actualizarPago(1L, dtoActualizado));
+        verify(pagoDetalleRepository, never()).aplicarCambios(any(), any(), any());
     }
 
     @Test
@@ -324,7 +357,7 @@ public class PagoServiceTest {
 
         // Configuración de mocks
         when(pagoRepository.listarTodos()).thenReturn(pagos);
-        when(pagoDetalleRepository.buscarPorIdPago(anyLong())).thenReturn(List.of());
+        when(pagoDetalleRepository.buscarPorIdsPago(anyCollection())).thenReturn(List.of());
 
         // Ejecución del método
         List<PagoDTO> resultado = pagoService.listarPagos();
@@ -338,6 +371,76 @@ public class PagoServiceTest {
         verify(pagoRepository, times(1)).listarTodos();
     }
 
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void testListarPagos_ConsultasConstantes(int cantidad) {
+        // Datos de prueba: cada pago con su propia orden (cargada en bloque por JPA) y un detalle
+        List<Pago> pagos = new ArrayList<>();
+        List<PagoDetalle> detalles = new ArrayList<>();
+        for (long i = 1; i <= cantidad; i++) {
+            Pago pago = new Pago(i, i, fecha, "EFECTIVO", "Ref" + i);
+            pago.setOrden(new Orden(i, fecha, "S001", false));
+            pagos.add(pago);
+            detalles.add(new PagoDetalle(i, i, new BigDecimal("10.00"), null));
+        }
+
+        // Configuración de mocks
+        when(pagoRepository.listarTodos()).thenReturn(pagos);
+        when(pagoDetalleRepository.buscarPorIdsPago(anyCollection())).thenReturn(detalles);
+
+        // Ejecución del método
+        List<PagoDTO> resultado = pagoService.listarPagos();
+
+        // Verificaciones
+        assertEquals(cantidad, resultado.size());
+        PagoDTO ultimo = resultado.get(cantidad - 1);
+        assertEquals((long) cantidad, ultimo.getOrden().getIdOrden());
+        assertEquals(1, ultimo.getDetalles().size());
+
+        // Dos consultas de repositorio sin importar el tamaño de la página
+        int consultas = mockingDetails(pagoRepository).getInvocations().size()
+                + mockingDetails(pagoDetalleRepository).getInvocations().size();
+        assertEquals(2, consultas);
+        verifyNoInteractions(ordenRepository);
+        verify(pagoDetalleRepository, never()).buscarPorIdPago(anyLong());
+    }
+
+    @Test
+    void testListarPagosPaginados() {
+        // Datos de prueba: se piden 1 y el repositorio devuelve 2 (uno extra)
+        Pago pago2 = new Pago(2L, 1L, fecha, "TARJETA", "Ref2");
+
+        // Configuración de mocks
+        when(pagoRepository.buscarPagina(0L, null, fecha, null, 2)).thenReturn(Arrays.asList(pagoEntity, pago2));
+        when(pagoDetalleRepository.buscarPorIdsPago(anyCollection())).thenReturn(List.of());
+
+        // Ejecución del método
+        PaginaDTO<PagoDTO> pagina = pagoService.listarPagosPaginados(null, null, fecha, null, 1);
+
+        // Verificaciones
+        assertEquals(1, pagina.getElementos().size());
+        assertEquals(1L, pagina.getElementos().get(0).getIdPago());
+        assertEquals(1L, CursorPaginacion.decodificar(pagina.getSiguiente(), null, fecha, null));
+    }
+
+    @Test
+    void testListarPagosPaginados_AplicaFiltros() {
+        // Configuración de mocks: la página anterior se pidió con los mismos filtros
+        String cursor = CursorPaginacion.codificar(1L, 1L, null, "TARJETA");
+        when(pagoRepository.buscarPagina(1L, 1L, null, "TARJETA", CursorPaginacion.LIMITE_POR_DEFECTO + 1))
+                .thenReturn(List.of());
+
+        // Ejecución del método
+        PaginaDTO<PagoDTO> pagina = pagoService.listarPagosPaginados(cursor, 1L, null, "TARJETA", null);
+
+        // Verificaciones
+        assertTrue(pagina.getElementos().isEmpty());
+        assertNull(pagina.getSiguiente());
+        assertThrows(IllegalArgumentException.class,
+                () -> pagoService.listarPagosPaginados(cursor, 1L, null, "EFECTIVO", null));
+        verify(pagoRepository, times(1)).buscarPagina(anyLong(), any(), any(), any(), anyInt());
+    }
+
     @Test
     void testBuscarPagosPorIdOrden() {
         // Datos de prueba
@@ -345,7 +448,7 @@ public class PagoServiceTest {
 
         // Configuración de mocks
         when(pagoRepository.buscarPorIdOrden(1L)).thenReturn(pagos);
-        when(pagoDetalleRepository.buscarPorIdPago(anyLong())).thenReturn(List.of());
+        when(pagoDetalleRepository.buscarPorIdsPago(anyCollection())).thenReturn(List.of());
 
         // Ejecución del método
         List<PagoDTO> resultado = pagoService.buscarPagosPorIdOrden(1L);
@@ -365,7 +468,7 @@ public class PagoServiceTest {
 
         // Configuración de mocks
         when(pagoRepository.buscarPorMetodoPago("EFECTIVO")).thenReturn(pagosEfectivo);
-        when(pagoDetalleRepository.buscarPorIdPago(anyLong())).thenReturn(List.of());
+        when(pagoDetalleRepository.buscarPorIdsPago(anyCollection())).thenReturn(List.of());
 
         // Ejecución del método
         List<PagoDTO> resultado = pagoService.buscarPagosPorMetodoPago("EFECTIVO");
@@ -392,6 +495,8 @@ public class PagoServiceTest {
 
         verify(pagoDetalleRepository, times(1)).eliminarPorIdPago(1L);
         verify(pagoRepository, times(1)).eliminar(1L);
+        verify(salidaService, times(1)).registrar(eq(EventoSalida.PAGO), eq(1L),
+                eq(EventoSalida.PAGO_ELIMINADO), any(PagoDTO.class));
     }
 
     @Test
@@ -408,5 +513,6 @@ public class PagoServiceTest {
 
         verify(pagoDetalleRepository, times(1)).eliminarPorIdPago(999L);
         verify(pagoRepository, times(1)).eliminar(999L);
+        verifyNoInteractions(salidaService);
     }
 }
\ No newline at end of file
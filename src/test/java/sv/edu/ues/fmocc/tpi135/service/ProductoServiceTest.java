@@ -7,10 +7,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
 import sv.edu.ues.fmocc.tpi135.entity.Producto;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoRepository;
 
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +27,9 @@ public class ProductoServiceTest {
     @Mock
     private ProductoRepository productoRepository;
 
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
     @InjectMocks
     private sv.edu.ues.fmocc.tpi135.service.ProductoServiceImpl productoService;
 
@@ -52,11 +58,18 @@ public class ProductoServiceTest {
         // Configuración del mock
         when(productoRepository.crear(any(Producto.class))).thenReturn(productoEntity);
 
+        long versionAnterior = VersionCatalogo.PRODUCTOS.actual().getVersion();
+
         // Ejecución del método
         ProductoDTO resultado = productoService.crearProducto(productoDTO);
 
+        // La versión solo avanza cuando la transacción se confirma
+        assertEquals(versionAnterior, VersionCatalogo.PRODUCTOS.actual().getVersion());
+        productoService.alConfirmarCambio(cambio(1L, CambioCatalogo.GUARDADO));
+
         // Verificaciones
         assertNotNull(resultado);
+        assertTrue(VersionCatalogo.PRODUCTOS.actual().getVersion() > versionAnterior);
         assertEquals(productoDTO.getIdProducto(), resultado.getIdProducto());
         assertEquals(productoDTO.getNombre(), resultado.getNombre());
         assertEquals(productoDTO.getActivo(), resultado.getActivo());
@@ -166,6 +179,68 @@ public class ProductoServiceTest {
         verify(productoRepository, times(1)).listarTodos();
     }
 
+    @Test
+    void testListarProductos_UsaCacheHastaQueHayEscritura() {
+        // Configuración de mocks
+        when(productoRepository.listarTodos()).thenReturn(List.of(productoEntity));
+        when(productoRepository.crear(any(Producto.class))).thenReturn(productoEntity);
+
+        // Dos lecturas seguidas: solo la primera consulta el repositorio
+        productoService.listarProductos();
+        productoService.listarProductos();
+        verify(productoRepository, times(1)).listarTodos();
+
+        // Una creación invalida los listados en caché al confirmarse
+        productoService.crearProducto(productoDTO);
+        productoService.listarProductos();
+        verify(productoRepository, times(1)).listarTodos();
+        productoService.alConfirmarCambio(cambio(1L, CambioCatalogo.GUARDADO));
+        productoService.listarProductos();
+
+        // Verificaciones
+        verify(productoRepository, times(2)).listarTodos();
+    }
+
+    @Test
+    void testObtenerProductoPorId_InvalidaAlActualizar() {
+        // Configuración de mocks
+        when(productoRepository.encontrarPorId(1L)).thenReturn(Optional.of(productoEntity));
+        when(productoRepository.actualizar(any(Producto.class))).thenReturn(productoEntity);
+
+        // La segunda lectura se sirve desde la caché
+        productoService.obtenerProductoPorId(1L);
+        productoService.obtenerProductoPorId(1L);
+        verify(productoRepository, times(1)).encontrarPorId(1L);
+
+        // La actualización (que también consulta por ID) invalida la entrada al confirmarse
+        productoService.actualizarProducto(1L, productoDTO);
+        productoService.alConfirmarCambio(cambio(1L, CambioCatalogo.GUARDADO));
+        Optional<ProductoDTO> resultado = productoService.obtenerProductoPorId(1L);
+
+        // Verificaciones
+        assertTrue(resultado.isPresent());
+        verify(productoRepository, times(3)).encontrarPorId(1L);
+    }
+
+    @Test
+    void testObtenerProductoPorId_EntregaCopiasDeLaCache() {
+        // Configuración de mocks
+        when(productoRepository.encontrarPorId(1L)).thenReturn(Optional.of(productoEntity));
+        when(productoRepository.listarTodos()).thenReturn(List.of(productoEntity));
+
+        // Ejecución del método: quien consulta modifica lo que recibe
+        productoService.obtenerProductoPorId(1L).get().setNombre("Modificado");
+        productoService.listarProductos().get(0).setNombre("Modificado");
+        Optional<ProductoDTO> porId = productoService.obtenerProductoPorId(1L);
+        List<ProductoDTO> todos = productoService.listarProductos();
+
+        // Verificaciones
+        assertEquals("Producto Test", porId.get().getNombre());
+        assertEquals("Producto Test", todos.get(0).getNombre());
+        verify(productoRepository, times(1)).encontrarPorId(1L);
+        verify(productoRepository, times(1)).listarTodos();
+    }
+
     @Test
     void testBuscarProductosPorNombre() {
         // Datos de prueba
@@ -231,4 +306,8 @@ public class ProductoServiceTest {
 
         verify(productoRepository, times(1)).eliminar(999L);
     }
-}
\ No newline at end of file
+
+    private static CambioCatalogo cambio(Long id, String operacion) {
+        return new CambioCatalogo(1L, CambioCatalogo.PRODUCTO, id, operacion, new Date());
+    }
+}
@@ -0,0 +1,109 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.EventoSalidaDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
+import sv.edu.ues.fmocc.tpi135.repository.EventoSalidaRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para RelevoSalida y DestinoArchivoSalida
+ */
+@ExtendWith(MockitoExtension.class)
+public class RelevoSalidaTest {
+
+    @Mock
+    private EventoSalidaRepository eventoSalidaRepository;
+
+    @Mock
+    private DestinoSalida destino;
+
+    @InjectMocks
+    private RelevoSalida relevoSalida;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testEntregar_AvanzaCursor() throws IOException {
+        // Configuración de mocks
+        when(destino.getNombre()).thenReturn("prueba");
+        when(eventoSalidaRepository.obtenerCursor("prueba")).thenReturn(4L);
+        when(eventoSalidaRepository.buscarDesde(4L, RelevoSalida.TAMANO_LOTE))
+                .thenReturn(List.of(evento(5L), evento(6L)));
+
+        // Ejecución del método
+        long entregados = relevoSalida.entregar(destino);
+
+        // Verificaciones
+        assertEquals(2, entregados);
+        verify(destino, times(1)).entregar(argThat(lote -> lote.size() == 2 && lote.get(1).getPosicion() == 6L));
+        verify(eventoSalidaRepository, times(1)).guardarCursor("prueba", 6L);
+    }
+
+    @Test
+    void testEntregar_FalloNoAvanzaCursor() throws IOException {
+        // Configuración de mocks
+        when(destino.getNombre()).thenReturn("prueba");
+        when(eventoSalidaRepository.obtenerCursor("prueba")).thenReturn(0L);
+        when(eventoSalidaRepository.buscarDesde(0L, RelevoSalida.TAMANO_LOTE)).thenReturn(List.of(evento(1L)));
+        doThrow(new IOException("sin conexión")).when(destino).entregar(any());
+
+        // Ejecución del método
+        long entregados = relevoSalida.entregar(destino);
+
+        // Verificaciones
+        assertEquals(0, entregados);
+        verify(eventoSalidaRepository, never()).guardarCursor(anyString(), anyLong());
+    }
+
+    @Test
+    void testDestinoArchivo_IgnoraRepetidosYLineaIncompleta() throws IOException {
+        // Configuración: el archivo termina con una línea escrita a medias
+        Path archivo = directorio.resolve("salida.ndjson");
+        Files.write(archivo, List.of("{\"posicion\":1,\"agregado\":\"orden\"}"), StandardCharsets.UTF_8);
+        Files.write(archivo, "{\"posicion\":2,\"agr".getBytes(StandardCharsets.UTF_8),
+                java.nio.file.StandardOpenOption.APPEND);
+        DestinoArchivoSalida destinoArchivo = new DestinoArchivoSalida(archivo);
+
+        // Ejecución del método: el lote repite la posición 1
+        destinoArchivo.entregar(List.of(dto(1L), dto(2L), dto(3L)));
+        destinoArchivo.entregar(List.of(dto(3L)));
+
+        // Verificaciones
+        List<String> lineas = Files.readAllLines(archivo, StandardCharsets.UTF_8);
+        assertEquals(3, lineas.size());
+        assertTrue(lineas.get(1).startsWith("{\"posicion\":2,"));
+        assertTrue(lineas.get(2).startsWith("{\"posicion\":3,"));
+        assertTrue(lineas.get(2).contains("\"datos\":{\"idOrden\":3}"));
+        assertEquals(3L, DestinoArchivoSalida.recuperar(archivo));
+    }
+
+    private EventoSalida evento(Long posicion) {
+        EventoSalida evento = new EventoSalida(EventoSalida.ORDEN, posicion, "orden-creada",
+                "{\"idOrden\":" + posicion + "}", new Date());
+        evento.setPosicion(posicion);
+        return evento;
+    }
+
+    private EventoSalidaDTO dto(Long posicion) {
+        return SalidaServiceImpl.convertirADTO(evento(posicion));
+    }
+}
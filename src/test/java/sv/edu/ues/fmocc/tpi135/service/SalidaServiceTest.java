@@ -0,0 +1,93 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.LoteSalidaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.EventoSalida;
+import sv.edu.ues.fmocc.tpi135.repository.EventoSalidaRepository;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para SalidaServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+public class SalidaServiceTest {
+
+    @Mock
+    private EventoSalidaRepository eventoSalidaRepository;
+
+    @InjectMocks
+    private SalidaServiceImpl salidaService;
+
+    @Test
+    void testRegistrar_SerializaDatos() {
+        // Ejecución del método
+        salidaService.registrar(EventoSalida.PAGO, 5L, EventoSalida.PAGO_ELIMINADO,
+                new PagoDTO(5L, null, null, null, null));
+
+        // Verificaciones
+        verify(eventoSalidaRepository, times(1)).registrar(eq(EventoSalida.PAGO), eq(5L),
+                eq(EventoSalida.PAGO_ELIMINADO), argThat(json -> json.startsWith("{") && json.contains("\"idPago\":5")));
+    }
+
+    @Test
+    void testLeer_ConMasEventos() {
+        // Configuración de mocks: se piden tres para entregar dos
+        when(eventoSalidaRepository.buscarDesde(10L, 3)).thenReturn(List.of(
+                evento(11L, 1L), evento(12L, 2L), evento(13L, 3L)));
+
+        // Ejecución del método
+        LoteSalidaDTO lote = salidaService.leer(10L, 2);
+
+        // Verificaciones
+        assertTrue(lote.isHayMas());
+        assertEquals(10L, lote.getDesde());
+        assertEquals(12L, lote.getHasta());
+        assertEquals(2, lote.getEventos().size());
+        assertEquals(2L, lote.getEventos().get(1).getIdAgregado());
+        assertEquals("{\"idOrden\":2}", lote.getEventos().get(1).getDatos());
+    }
+
+    @Test
+    void testLeer_SinEventos() {
+        // Configuración de mocks
+        when(eventoSalidaRepository.buscarDesde(7L, 501)).thenReturn(List.of());
+
+        // Ejecución del método
+        LoteSalidaDTO lote = salidaService.leer(7L, 500);
+
+        // Verificaciones
+        assertFalse(lote.isHayMas());
+        assertEquals(7L, lote.getHasta());
+        assertTrue(lote.getEventos().isEmpty());
+    }
+
+    @Test
+    void testLeer_ParametrosInvalidos() {
+        // Ejecución del método y verificaciones
+        assertThrows(IllegalArgumentException.class, () -> salidaService.leer(-1L, 10));
+        assertThrows(IllegalArgumentException.class, () -> salidaService.leer(0L, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> salidaService.leer(0L, SalidaServiceImpl.MAXIMO_EVENTOS + 1));
+        verify(eventoSalidaRepository, never()).buscarDesde(anyLong(), anyInt());
+    }
+
+    private EventoSalida evento(Long posicion, Long idOrden) {
+        EventoSalida evento = new EventoSalida(EventoSalida.ORDEN, idOrden, "orden-creada",
+                "{\"idOrden\":" + idOrden + "}", new Date());
+        evento.setPosicion(posicion);
+        return evento;
+    }
+}
@@ -0,0 +1,125 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.CambiosCatalogoDTO;
+import sv.edu.ues.fmocc.tpi135.dto.ProductoDTO;
+import sv.edu.ues.fmocc.tpi135.entity.CambioCatalogo;
+import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
+import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para SincronizacionCatalogoServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+public class SincronizacionCatalogoServiceTest {
+
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
+    @Mock
+    private ProductoService productoService;
+
+    @Mock
+    private TipoProductoService tipoProductoService;
+
+    @Mock
+    private ComboService comboService;
+
+    @Mock
+    private ProductoPrecioRepository productoPrecioRepository;
+
+    @InjectMocks
+    private SincronizacionCatalogoServiceImpl sincronizacionCatalogoService;
+
+    private final Date fecha = new Date();
+
+    @Test
+    void testBuscarCambios_ColapsaPorFila() {
+        // Configuración de mocks: el producto 1 cambia dos veces, el 2 se elimina y un precio se guarda
+        ProductoDTO producto = new ProductoDTO();
+        producto.setIdProducto(1L);
+        ProductoPrecio precio = new ProductoPrecio();
+        precio.setIdProductoPrecio(7L);
+        precio.setIdProducto(1L);
+        precio.setPrecioSugerido(new BigDecimal("2.50"));
+        when(cambioCatalogoRepository.buscarDesde(10L, 101)).thenReturn(List.of(
+                new CambioCatalogo(11L, CambioCatalogo.PRODUCTO, 1L, CambioCatalogo.GUARDADO, fecha),
+                new CambioCatalogo(12L, CambioCatalogo.PRODUCTO, 2L, CambioCatalogo.GUARDADO, fecha),
+                new CambioCatalogo(13L, CambioCatalogo.PRODUCTO, 1L, CambioCatalogo.GUARDADO, fecha),
+                new CambioCatalogo(14L, CambioCatalogo.PRODUCTO, 2L, CambioCatalogo.ELIMINADO, fecha),
+                new CambioCatalogo(15L, CambioCatalogo.PRODUCTO_PRECIO, 7L, CambioCatalogo.GUARDADO, fecha)));
+        when(productoService.obtenerProductoPorId(1L)).thenReturn(Optional.of(producto));
+        when(productoPrecioRepository.buscarPorIds(List.of(7L))).thenReturn(List.of(precio));
+
+        // Ejecución del método
+        CambiosCatalogoDTO resultado = sincronizacionCatalogoService.buscarCambios(10L, 100);
+
+        // Verificaciones
+        assertEquals(10L, resultado.getDesde());
+        assertEquals(15L, resultado.getHasta());
+        assertFalse(resultado.isHayMas());
+        assertEquals(1, resultado.getProductos().size());
+        assertEquals(List.of(2L), resultado.getEliminados().get(CambioCatalogo.PRODUCTO));
+        assertEquals(new BigDecimal("2.50"), resultado.getPrecios().get(0).getPrecioSugerido());
+        verify(productoService, times(1)).obtenerProductoPorId(1L);
+        verify(productoService, never()).obtenerProductoPorId(2L);
+    }
+
+    @Test
+    void testBuscarCambios_FilaYaEliminadaYLimite() {
+        // Configuración de mocks: se leen dos cambios con límite 1
+        when(cambioCatalogoRepository.buscarDesde(0L, 2)).thenReturn(List.of(
+                new CambioCatalogo(1L, CambioCatalogo.COMBO, 5L, CambioCatalogo.GUARDADO, fecha),
+                new CambioCatalogo(2L, CambioCatalogo.COMBO, 6L, CambioCatalogo.GUARDADO, fecha)));
+        when(comboService.obtenerComboPorId(5L)).thenReturn(Optional.empty());
+
+        // Ejecución del método
+        CambiosCatalogoDTO resultado = sincronizacionCatalogoService.buscarCambios(0L, 1);
+
+        // Verificaciones
+        assertTrue(resultado.isHayMas());
+        assertEquals(1L, resultado.getHasta());
+        assertTrue(resultado.getCombos().isEmpty());
+        assertEquals(List.of(5L), resultado.getEliminados().get(CambioCatalogo.COMBO));
+        verify(comboService, never()).obtenerComboPorId(6L);
+    }
+
+    @Test
+    void testBuscarCambios_SinCambios() {
+        // Configuración de mocks
+        when(cambioCatalogoRepository.buscarDesde(20L, 501)).thenReturn(List.of());
+
+        // Ejecución del método
+        CambiosCatalogoDTO resultado = sincronizacionCatalogoService.buscarCambios(20L, 500);
+
+        // Verificaciones
+        assertEquals(20L, resultado.getHasta());
+        assertTrue(resultado.getEliminados().isEmpty());
+        verifyNoInteractions(productoService, tipoProductoService, comboService, productoPrecioRepository);
+    }
+
+    @Test
+    void testBuscarCambios_ParametrosInvalidos() {
+        // Verificaciones
+        assertThrows(IllegalArgumentException.class, () -> sincronizacionCatalogoService.buscarCambios(-1L, 10));
+        assertThrows(IllegalArgumentException.class, () -> sincronizacionCatalogoService.buscarCambios(0L, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> sincronizacionCatalogoService.buscarCambios(0L, SincronizacionCatalogoServiceImpl.MAXIMO_CAMBIOS + 1));
+        verify(cambioCatalogoRepository, never()).buscarDesde(anyLong(), anyInt());
+    }
+}
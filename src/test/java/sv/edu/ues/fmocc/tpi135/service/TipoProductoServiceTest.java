@@ -8,6 +8,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import sv.edu.ues.fmocc.tpi135.dto.TipoProductoDTO;
 import sv.edu.ues.fmocc.tpi135.entity.TipoProducto;
+import sv.edu.ues.fmocc.tpi135.repository.CambioCatalogoRepository;
 import sv.edu.ues.fmocc.tpi135.repository.TipoProductoRepository;
 
 import java.util.Arrays;
@@ -24,6 +25,9 @@ public class TipoProductoServiceTest {
     @Mock
     private TipoProductoRepository tipoProductoRepository;
 
+    @Mock
+    private CambioCatalogoRepository cambioCatalogoRepository;
+
     @InjectMocks
     private sv.edu.ues.fmocc.tpi135.service.TipoProductoServiceImpl tipoProductoService;
 
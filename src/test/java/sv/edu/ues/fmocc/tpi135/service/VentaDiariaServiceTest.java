@@ -0,0 +1,96 @@
+package sv.edu.ues.fmocc.tpi135.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import sv.edu.ues.fmocc.tpi135.dto.DiferenciaVentaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.VentaProductoDiariaDTO;
+import sv.edu.ues.fmocc.tpi135.dto.VerificacionVentasDTO;
+import sv.edu.ues.fmocc.tpi135.entity.VentaProductoDiaria;
+import sv.edu.ues.fmocc.tpi135.repository.VentaProductoDiariaRepository;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pruebas unitarias para VentaDiariaServiceImpl
+ */
+@ExtendWith(MockitoExtension.class)
+public class VentaDiariaServiceTest {
+
+    @Mock
+    private VentaProductoDiariaRepository ventaProductoDiariaRepository;
+
+    @InjectMocks
+    private VentaDiariaServiceImpl ventaDiariaService;
+
+    private final Date desde = java.sql.Date.valueOf("2025-01-01");
+    private final Date hasta = java.sql.Date.valueOf("2025-01-31");
+
+    @Test
+    void testBuscarVentas() {
+        // Configuración de mocks
+        when(ventaProductoDiariaRepository.buscarPorRango(desde, hasta, "S001")).thenReturn(List.of(
+                new VentaProductoDiaria(desde, "S001", 3L, 4L, new BigDecimal("10.00"), 2L)));
+
+        // Ejecución del método
+        List<VentaProductoDiariaDTO> resultado = ventaDiariaService.buscarVentas(desde, hasta, "S001");
+
+        // Verificaciones
+        assertEquals(1, resultado.size());
+        assertEquals(3L, resultado.get(0).getIdProducto());
+        assertEquals(4L, resultado.get(0).getCantidad());
+        assertEquals(new BigDecimal("10.00"), resultado.get(0).getTotal());
+    }
+
+    @Test
+    void testBuscarVentas_RangoInvalido() {
+        // Verificaciones
+        assertThrows(IllegalArgumentException.class, () -> ventaDiariaService.buscarVentas(null, hasta, null));
+        assertThrows(IllegalArgumentException.class, () -> ventaDiariaService.buscarVentas(hasta, desde, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> ventaDiariaService.buscarVentas(desde, java.sql.Date.valueOf("2026-01-02"), null));
+        verify(ventaProductoDiariaRepository, never()).buscarPorRango(any(), any(), any());
+    }
+
+    @Test
+    void testVerificar_ConvierteDiferencias() {
+        // Configuración de mocks: un contador que falta y otro con cantidad distinta
+        when(ventaProductoDiariaRepository.buscarDiferencias(desde, hasta)).thenReturn(List.of(
+                new Object[]{desde, "S001", 3L, null, 2L, null, new BigDecimal("5.00"), null, 1L},
+                new Object[]{desde, "S002", 4L, 5L, 4L, new BigDecimal("9.00"), new BigDecimal("7.20"), 2L, 2L}));
+
+        // Ejecución del método
+        VerificacionVentasDTO resultado = ventaDiariaService.verificar(desde, hasta);
+
+        // Verificaciones
+        assertEquals(2, resultado.getTotalDiferencias());
+        assertNull(resultado.getReconstruidos());
+        DiferenciaVentaDTO faltante = resultado.getDiferencias().get(0);
+        assertNull(faltante.getCantidadRegistrada());
+        assertEquals(2L, faltante.getCantidadCalculada());
+        assertEquals(new BigDecimal("7.20"), resultado.getDiferencias().get(1).getTotalCalculado());
+        verify(ventaProductoDiariaRepository, never()).reconstruir(any(), any());
+    }
+
+    @Test
+    void testReconstruir() {
+        // Configuración de mocks
+        when(ventaProductoDiariaRepository.buscarDiferencias(desde, hasta)).thenReturn(List.of());
+        when(ventaProductoDiariaRepository.reconstruir(desde, hasta)).thenReturn(12);
+
+        // Ejecución del método
+        VerificacionVentasDTO resultado = ventaDiariaService.reconstruir(desde, hasta);
+
+        // Verificaciones
+        assertEquals(0, resultado.getTotalDiferencias());
+        assertEquals(12, resultado.getReconstruidos());
+    }
+}
@@ -9,6 +9,7 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDetalleDTO;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
+import sv.edu.ues.fmocc.tpi135.entity.OrdenDetalle;
 import sv.edu.ues.fmocc.tpi135.entity.Producto;
 import sv.edu.ues.fmocc.tpi135.entity.ProductoPrecio;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepository;
@@ -16,14 +17,21 @@ import sv.edu.ues.fmocc.tpi135.repository.OrdenDetalleRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepository;
+import sv.edu.ues.fmocc.tpi135.repository.LectorPreciosConfirmados;
 import sv.edu.ues.fmocc.tpi135.repository.ProductoPrecioRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.service.OrdenServiceImpl;
 
+import org.eclipse.persistence.jpa.JpaHelper;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventListener;
+
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -81,6 +89,15 @@ public class OrdenSystem {
             emField = ProductoPrecioRepositoryImpl.class.getDeclaredField("em");
             emField.setAccessible(true);
             emField.set(productoPrecioRepository, em);
+
+            LectorPreciosConfirmados lectorPrecios = new LectorPreciosConfirmados();
+            emField = LectorPreciosConfirmados.class.getDeclaredField("em");
+            emField.setAccessible(true);
+            emField.set(lectorPrecios, em);
+
+            java.lang.reflect.Field lectorField = ProductoPrecioRepositoryImpl.class.getDeclaredField("lectorPrecios");
+            lectorField.setAccessible(true);
+            lectorField.set(productoPrecioRepository, lectorPrecios);
         } catch (Exception e) {
             fail("Error al inyectar EntityManager: " + e.getMessage());
         }
@@ -627,4 +644,61 @@ public class OrdenSystem {
             fail("Error en testBuscarOrdenesPorSucursal: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testBuscarOrdenesPorSucursal_SentenciasConstantes() {
+        // Seis órdenes con dos detalles cada una, de productos distintos
+        em.getTransaction().begin();
+        List<Long> idsPrecio = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Producto producto = new Producto();
+            producto.setNombre("Producto conteo " + i);
+            producto.setActivo(true);
+            em.persist(producto);
+            em.flush();
+            ProductoPrecio precio = new ProductoPrecio(null, producto.getIdProducto(), new Date(), null, new BigDecimal("1.50"));
+            em.persist(precio);
+            em.flush();
+            idsPrecio.add(precio.getIdProductoPrecio());
+        }
+        for (int i = 0; i < 6; i++) {
+            Orden orden = new Orden();
+            orden.setFecha(new Date());
+            orden.setSucursal("SCNT");
+            orden.setAnulada(false);
+            em.persist(orden);
+            em.flush();
+            for (Long idPrecio : idsPrecio) {
+                em.persist(new OrdenDetalle(orden.getIdOrden(), idPrecio, 1, new BigDecimal("1.50"), null));
+            }
+        }
+        em.getTransaction().commit();
+
+        // Contar las sentencias SQL enviadas a la base de datos sin caché
+        em.clear();
+        emf.getCache().evictAll();
+        AtomicInteger sentencias = new AtomicInteger();
+        SessionEventListener contador = new SessionEventAdapter() {
+            @Override
+            public void postExecuteCall(SessionEvent event) {
+                sentencias.incrementAndGet();
+            }
+        };
+        JpaHelper.getServerSession(emf).getEventManager().addListener(contador);
+        List<OrdenDTO> resultado;
+        try {
+            resultado = ordenService.buscarOrdenesPorSucursal("SCNT");
+        } finally {
+            JpaHelper.getServerSession(emf).getEventManager().removeListener(contador);
+        }
+
+        // Verificaciones: órdenes, detalles con su precio y productos, sin importar
+        // la cantidad de órdenes ni de detalles
+        assertEquals(6, resultado.size());
+        resultado.forEach(orden -> {
+            assertEquals(2, orden.getDetalles().size());
+            orden.getDetalles().forEach(detalle -> assertNotNull(detalle.getProductoPrecio()));
+        });
+        assertTrue(sentencias.get() <= 3, "Sentencias ejecutadas: " + sentencias.get());
+    }
+}
@@ -5,11 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import org.eclipse.persistence.jpa.JpaHelper;
+import sv.edu.ues.fmocc.tpi135.config.ContadorSentencias;
+import sv.edu.ues.fmocc.tpi135.config.OyenteSentencias;
 import sv.edu.ues.fmocc.tpi135.dto.OrdenDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDTO;
 import sv.edu.ues.fmocc.tpi135.dto.PagoDetalleDTO;
 import sv.edu.ues.fmocc.tpi135.entity.Orden;
 import sv.edu.ues.fmocc.tpi135.entity.Pago;
+import sv.edu.ues.fmocc.tpi135.entity.PagoDetalle;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepository;
 import sv.edu.ues.fmocc.tpi135.repository.OrdenRepositoryImpl;
 import sv.edu.ues.fmocc.tpi135.repository.PagoDetalleRepository;
@@ -471,4 +475,52 @@ public class PagoSystem {
                     "Se encontró un pago para una orden diferente: " + p.getIdOrden());
         }
     }
+
+    @Test
+    public void testBuscarPagosPorMetodoPago_SentenciasConstantes() {
+        // Seis pagos, cada uno de su propia orden y con un detalle
+        em.getTransaction().begin();
+        for (int i = 0; i < 6; i++) {
+            Orden orden = new Orden();
+            orden.setFecha(new Date());
+            orden.setSucursal("SCNT");
+            orden.setAnulada(false);
+            em.persist(orden);
+            em.flush();
+            Pago pago = new Pago();
+            pago.setIdOrden(orden.getIdOrden());
+            pago.setFecha(new Date());
+            pago.setMetodoPago("CONTEO");
+            pago.setReferencia("Pago conteo " + i);
+            em.persist(pago);
+            em.flush();
+            em.persist(new PagoDetalle(null, pago.getIdPago(), new BigDecimal("5.00"), null));
+        }
+        em.getTransaction().commit();
+
+        // Contar las sentencias SQL enviadas a la base de datos sin caché
+        em.clear();
+        emf.getCache().evictAll();
+        OyenteSentencias oyente = new OyenteSentencias();
+        JpaHelper.getServerSession(emf).getEventManager().addListener(oyente);
+        List<PagoDTO> resultado;
+        ContadorSentencias.Resumen resumen;
+        ContadorSentencias.iniciar();
+        try {
+            resultado = pagoService.buscarPagosPorMetodoPago("CONTEO");
+        } finally {
+            resumen = ContadorSentencias.finalizar();
+            JpaHelper.getServerSession(emf).getEventManager().removeListener(oyente);
+        }
+
+        // Verificaciones: pagos, sus órdenes en bloque y sus detalles, sin importar
+        // la cantidad de pagos
+        assertEquals(6, resultado.size());
+        resultado.forEach(pago -> {
+            assertNotNull(pago.getOrden());
+            assertEquals(1, pago.getDetalles().size());
+        });
+        assertTrue(resumen.getTotal() <= 3, "Sentencias ejecutadas: " + resumen.getTotal());
+        assertTrue(resumen.getRepetidas().isEmpty());
+    }
 }
@@ -59,6 +59,110 @@ CREATE TABLE public.orden_detalle (
 
 ALTER TABLE public.orden_detalle OWNER TO postgres;
 
+--
+-- Name: venta_producto_diaria; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.venta_producto_diaria (
+    fecha date NOT NULL,
+    sucursal character varying(5) NOT NULL,
+    id_producto bigint NOT NULL,
+    cantidad bigint DEFAULT 0 NOT NULL,
+    total numeric(14,2) DEFAULT 0 NOT NULL,
+    lineas bigint DEFAULT 0 NOT NULL
+);
+
+
+ALTER TABLE public.venta_producto_diaria OWNER TO postgres;
+
+--
+-- Name: catalogo_cambio; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.catalogo_cambio (
+    version bigint NOT NULL,
+    entidad character varying(20) NOT NULL,
+    id_entidad bigint NOT NULL,
+    operacion character(1) NOT NULL,
+    fecha timestamp without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.catalogo_cambio OWNER TO postgres;
+
+--
+-- Name: catalogo_cambio_version_seq; Type: SEQUENCE; Schema: public; Owner: postgres
+--
+
+CREATE SEQUENCE public.catalogo_cambio_version_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+
+ALTER SEQUENCE public.catalogo_cambio_version_seq OWNER TO postgres;
+
+--
+-- Name: salida_evento; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.salida_evento (
+    id_evento bigint NOT NULL,
+    posicion bigint,
+    agregado character varying(10) NOT NULL,
+    id_agregado bigint NOT NULL,
+    tipo character varying(30) NOT NULL,
+    datos text NOT NULL,
+    fecha timestamp without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.salida_evento OWNER TO postgres;
+
+--
+-- Name: salida_evento_id_evento_seq; Type: SEQUENCE; Schema: public; Owner: postgres
+--
+
+CREATE SEQUENCE public.salida_evento_id_evento_seq
+    START WITH 1
+    INCREMENT BY 1
+    NO MINVALUE
+    NO MAXVALUE
+    CACHE 1;
+
+
+ALTER SEQUENCE public.salida_evento_id_evento_seq OWNER TO postgres;
+
+--
+-- Name: salida_cursor; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.salida_cursor (
+    destino character varying(50) NOT NULL,
+    posicion bigint NOT NULL,
+    actualizado timestamp without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.salida_cursor OWNER TO postgres;
+
+--
+-- Name: idempotencia_clave; Type: TABLE; Schema: public; Owner: postgres
+--
+
+CREATE TABLE public.idempotencia_clave (
+    clave character varying(160) NOT NULL,
+    huella character varying(44) NOT NULL,
+    estado smallint NOT NULL,
+    cuerpo text,
+    fecha timestamp without time zone DEFAULT now() NOT NULL
+);
+
+
+ALTER TABLE public.idempotencia_clave OWNER TO postgres;
+
 --
 -- TOC entry 222 (class 1259 OID 25318)
 -- Name: orden_id_orden_seq; Type: SEQUENCE; Schema: public; Owner: postgres
@@ -544,6 +648,54 @@ ALTER TABLE ONLY public.orden_detalle
     ADD CONSTRAINT pk_orden_detalle PRIMARY KEY (id_orden, id_producto_precio);
 
 
+--
+-- Name: venta_producto_diaria pk_venta_producto_diaria; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.venta_producto_diaria
+    ADD CONSTRAINT pk_venta_producto_diaria PRIMARY KEY (fecha, sucursal, id_producto);
+
+
+--
+-- Name: catalogo_cambio pk_catalogo_cambio; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.catalogo_cambio
+    ADD CONSTRAINT pk_catalogo_cambio PRIMARY KEY (version);
+
+
+--
+-- Name: salida_evento pk_salida_evento; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.salida_evento
+    ADD CONSTRAINT pk_salida_evento PRIMARY KEY (id_evento);
+
+
+--
+-- Name: salida_evento uq_salida_evento_posicion; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.salida_evento
+    ADD CONSTRAINT uq_salida_evento_posicion UNIQUE (posicion);
+
+
+--
+-- Name: salida_cursor pk_salida_cursor; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.salida_cursor
+    ADD CONSTRAINT pk_salida_cursor PRIMARY KEY (destino);
+
+
+--
+-- Name: idempotencia_clave pk_idempotencia_clave; Type: CONSTRAINT; Schema: public; Owner: postgres
+--
+
+ALTER TABLE ONLY public.idempotencia_clave
+    ADD CONSTRAINT pk_idempotencia_clave PRIMARY KEY (clave);
+
+
 --
 -- TOC entry 3322 (class 2606 OID 25380)
 -- Name: pago pk_pago; Type: CONSTRAINT; Schema: public; Owner: postgres
@@ -614,6 +766,41 @@ CREATE INDEX fki_combo_detalle_combo ON public.combo_detalle USING btree (id_com
 CREATE INDEX fki_fk_combo_detalle_producto ON public.combo_detalle USING btree (id_producto);
 
 
+--
+-- Name: idx_orden_fecha_id_orden; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX idx_orden_fecha_id_orden ON public.orden USING btree (fecha, id_orden);
+
+
+--
+-- Name: idx_pago_fecha_id_pago; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX idx_pago_fecha_id_pago ON public.pago USING btree (fecha, id_pago);
+
+
+--
+-- Name: idx_pago_id_orden; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX idx_pago_id_orden ON public.pago USING btree (id_orden);
+
+
+--
+-- Name: idx_pago_detalle_id_pago; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX idx_pago_detalle_id_pago ON public.pago_detalle USING btree (id_pago);
+
+
+--
+-- Name: idx_salida_evento_pendiente; Type: INDEX; Schema: public; Owner: postgres
+--
+
+CREATE INDEX idx_salida_evento_pendiente ON public.salida_evento USING btree (id_evento) WHERE (posicion IS NULL);
+
+
 --
 -- TOC entry 3328 (class 2606 OID 25340)
 -- Name: combo_detalle fk_combo_detalle_combo; Type: FK CONSTRAINT; Schema: public; Owner: postgres